@@ -69,17 +69,26 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/users/{username}").hasAuthority(RoleEnum.getRoleName(RoleEnum.ADMIN))
 
                         //Event endpoints
+                        .requestMatchers(HttpMethod.GET, "/api/v1/events/cache-stats").hasAuthority(RoleEnum.getRoleName(RoleEnum.ADMIN))
+                        .requestMatchers(HttpMethod.GET, "/api/v1/events/text-index-stats").hasAuthority(RoleEnum.getRoleName(RoleEnum.ADMIN))
+                        .requestMatchers(HttpMethod.GET, "/api/v1/events/organizer/{username}/dashboard").hasAnyAuthority(RoleEnum.getRoleName(RoleEnum.ORGANIZER), RoleEnum.getRoleName(RoleEnum.ADMIN))
                         .requestMatchers(HttpMethod.POST, "/api/v1/events/**").hasAnyAuthority(RoleEnum.getRoleName(RoleEnum.ORGANIZER), RoleEnum.getRoleName(RoleEnum.ADMIN))
                         .requestMatchers(HttpMethod.PUT, "/api/v1/events/**").hasAnyAuthority(RoleEnum.getRoleName(RoleEnum.ORGANIZER), RoleEnum.getRoleName(RoleEnum.ADMIN))
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/events/**").hasAnyAuthority(RoleEnum.getRoleName(RoleEnum.ORGANIZER), RoleEnum.getRoleName(RoleEnum.ADMIN))
                         .requestMatchers(HttpMethod.GET, "/api/v1/events/**").hasAnyAuthority(RoleEnum.getRoleName(RoleEnum.PARTICIPANT), RoleEnum.getRoleName(RoleEnum.ORGANIZER), RoleEnum.getRoleName(RoleEnum.ADMIN))
 
                         //Ticket endpoints
+                        .requestMatchers(HttpMethod.GET, "/api/v1/tickets/check-in/stats").hasAuthority(RoleEnum.getRoleName(RoleEnum.ADMIN))
+                        .requestMatchers(HttpMethod.GET, "/api/v1/tickets/revenue").hasAuthority(RoleEnum.getRoleName(RoleEnum.ADMIN))
                         .requestMatchers(HttpMethod.GET, "/api/v1/tickets/**").hasAnyAuthority(RoleEnum.getRoleName(RoleEnum.PARTICIPANT), RoleEnum.getRoleName(RoleEnum.ORGANIZER), RoleEnum.getRoleName(RoleEnum.ADMIN))
                         .requestMatchers(HttpMethod.PUT, "/api/v1/tickets/**").hasAnyAuthority(RoleEnum.getRoleName(RoleEnum.ORGANIZER), RoleEnum.getRoleName(RoleEnum.ADMIN))
                         .requestMatchers(HttpMethod.DELETE, "/api/v1/tickets/**").hasAnyAuthority(RoleEnum.getRoleName(RoleEnum.ORGANIZER), RoleEnum.getRoleName(RoleEnum.ADMIN))
                         .requestMatchers(HttpMethod.POST, "/api/v1/tickets/**").hasAnyAuthority(RoleEnum.getRoleName(RoleEnum.ORGANIZER), RoleEnum.getRoleName(RoleEnum.ADMIN))
 
+                        //Reservation endpoints
+                        .requestMatchers(HttpMethod.POST, "/api/v1/reservations/**").hasAnyAuthority(RoleEnum.getRoleName(RoleEnum.PARTICIPANT), RoleEnum.getRoleName(RoleEnum.ORGANIZER), RoleEnum.getRoleName(RoleEnum.ADMIN))
+                        .requestMatchers(HttpMethod.DELETE, "/api/v1/reservations/**").hasAnyAuthority(RoleEnum.getRoleName(RoleEnum.PARTICIPANT), RoleEnum.getRoleName(RoleEnum.ORGANIZER), RoleEnum.getRoleName(RoleEnum.ADMIN))
+
                         //Feedback endpoints
                         .requestMatchers(HttpMethod.POST, "/api/v1/feedback/**").hasAnyAuthority(RoleEnum.getRoleName(RoleEnum.PARTICIPANT), RoleEnum.getRoleName(RoleEnum.ORGANIZER), RoleEnum.getRoleName(RoleEnum.ADMIN))
                         .requestMatchers(HttpMethod.PUT, "/api/v1/feedback/**").hasAnyAuthority(RoleEnum.getRoleName(RoleEnum.PARTICIPANT), RoleEnum.getRoleName(RoleEnum.ORGANIZER), RoleEnum.getRoleName(RoleEnum.ADMIN))
@@ -3,14 +3,24 @@ package nl.novi.event_management_system.controllers;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import nl.novi.event_management_system.dtos.CacheStatsDTO;
+import nl.novi.event_management_system.dtos.PageResponseDTO;
+import nl.novi.event_management_system.dtos.TextIndexStatsDTO;
 import nl.novi.event_management_system.dtos.eventDtos.*;
+import nl.novi.event_management_system.services.EventExportService;
 import nl.novi.event_management_system.services.EventService;
+import nl.novi.event_management_system.utils.EntityTags;
+import nl.novi.event_management_system.utils.FieldSelection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -22,9 +32,11 @@ import java.util.*;
 public class EventController {
     Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
     private final EventService eventService;
+    private final EventExportService eventExportService;
 
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, EventExportService eventExportService) {
         this.eventService = eventService;
+        this.eventExportService = eventExportService;
     }
 
     /**
@@ -55,51 +67,227 @@ public class EventController {
     }
 
     /**
-     * Get event by ID
+     * Get event by ID. Answers 304 Not Modified without loading the event when the client's ETag is current.
      *
-     * @param id UUID
+     * @param id          UUID
+     * @param fields      String comma separated fields to return, all fields when absent
+     * @param ifNoneMatch String ETag of the copy the client already has
      * @return ResponseEntity<EventResponseDTO>
      */
     @GetMapping("/{id}")
-    public ResponseEntity<EventResponseDTO> getEventById(@PathVariable UUID id) {
-        return ResponseEntity.ok(eventService.findEventById(id));
+    @SparseFieldset(EventResponseDTO.class)
+    public ResponseEntity<EventResponseDTO> getEventById(@PathVariable UUID id, @RequestParam(required = false) String fields,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FieldSelection selection = FieldSelection.parse(fields, EventResponseDTO.class);
+        if (ifNoneMatch != null) {
+            long version = eventService.getEventVersion(id);
+            if (EntityTags.matches(ifNoneMatch, version, selection)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EntityTags.of(version, selection)).build();
+            }
+        }
+        return withETag(eventService.findEventById(id, selection), selection);
+    }
+
+    /**
+     * Get the ratings of an event
+     *
+     * @param id UUID
+     * @return ResponseEntity<EventRatingsDTO>
+     */
+    @GetMapping("/{id}/ratings")
+    @Operation(
+            summary = "Get event ratings",
+            description = "Returns the number of ratings, the average rating and the number of ratings per star of an event."
+    )
+    public ResponseEntity<EventRatingsDTO> getEventRatings(@PathVariable UUID id) {
+        return ResponseEntity.ok(eventService.getEventRatings(id));
     }
 
     /**
      * Get events by organizer
      *
      * @param username String
+     * @param fields   String comma separated fields to return, all fields when absent
      * @return ResponseEntity<List < EventResponseDTO>>
      */
     @GetMapping("/organizer/{username}")
+    @SparseFieldset(EventResponseDTO.class)
     @Operation(
             summary = "Get events by organizer",
             description = "Allows an admin or organizer to get all events created by a specific organizer."
     )
-    public ResponseEntity<List<EventResponseDTO>> getEventsByOrganizer(@PathVariable String username) {
-        return ResponseEntity.ok(eventService.getEventsByOrganizer(username));
+    public ResponseEntity<List<EventResponseDTO>> getEventsByOrganizer(@PathVariable String username, @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(eventService.getEventsByOrganizer(username, FieldSelection.parse(fields, EventResponseDTO.class)));
     }
 
     /**
-     * Get all events
+     * Get the dashboard of an organizer
      *
-     * @return ResponseEntity<List < EventResponseDTO>>
+     * @param username String
+     * @return ResponseEntity<List < EventDashboardDTO>>
+     */
+    @GetMapping("/organizer/{username}/dashboard")
+    @Operation(
+            summary = "Get organizer dashboard",
+            description = "Returns tickets sold and revenue per ticket type, participant count and average rating for every event of an organizer."
+    )
+    public ResponseEntity<List<EventDashboardDTO>> getOrganizerDashboard(@PathVariable String username) {
+        return ResponseEntity.ok(eventService.getOrganizerDashboard(username));
+    }
+
+    /**
+     * Get a page of events ordered by start date
+     *
+     * @param cursor String continuation token returned by the previous page
+     * @param limit  int maximum number of events on the page
+     * @param fields String comma separated fields to return, all fields when absent
+     * @return ResponseEntity<PageResponseDTO < EventResponseDTO>>
      */
     @GetMapping()
-    public ResponseEntity<List<EventResponseDTO>> getAllEvents() {
-        return ResponseEntity.ok(eventService.getAllEvents());
+    @SparseFieldset(EventResponseDTO.class)
+    @Operation(
+            summary = "Get events",
+            description = "Returns events ordered by start date, one page at a time. Pass the returned nextCursor to fetch the following page. " +
+                    "Use fields to return only some fields, for example fields=id,name,startDate."
+    )
+    public ResponseEntity<PageResponseDTO<EventResponseDTO>> getAllEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + EventService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(eventService.getEvents(cursor, limit, FieldSelection.parse(fields, EventResponseDTO.class)));
     }
 
     /**
-     * Update event by ID
+     * Get a page of event summaries ordered by start date
+     *
+     * @param cursor String continuation token returned by the previous page
+     * @param limit  int maximum number of events on the page
+     * @return ResponseEntity<PageResponseDTO < EventSummaryDTO>>
+     */
+    @GetMapping("/summaries")
+    @Operation(
+            summary = "Get event summaries",
+            description = "Returns only the scalar fields and organizer username of events, one page at a time. Use this for lists."
+    )
+    public ResponseEntity<PageResponseDTO<EventSummaryDTO>> getEventSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + EventService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(eventService.getEventSummaries(cursor, limit));
+    }
+
+    /**
+     * Export all events as newline delimited JSON
+     *
+     * @return ResponseEntity<StreamingResponseBody>
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Export events",
+            description = "Streams the summaries of all events, one JSON object per line, ordered by start date. " +
+                    "Intended for bulk synchronization, memory use on the server does not depend on the number of events."
+    )
+    public ResponseEntity<StreamingResponseBody> exportEvents() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(eventExportService::exportEvents);
+    }
+
+    /**
+     * Search events
+     *
+     * @param criteria EventSearchCriteriaDTO
+     * @param cursor   String
+     * @param limit    int
+     * @return ResponseEntity<PageResponseDTO < EventSummaryDTO>>
+     */
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search events",
+            description = "Filters events in the database by start date range (startFrom, startTo), exact location, price range (minPrice, maxPrice), " +
+                    "minimum capacity (minCapacity) and remaining seats (hasSeats=true for events with a free seat, hasSeats=false for sold out events). " +
+                    "Returns one page of event summaries at a time."
+    )
+    public ResponseEntity<PageResponseDTO<EventSummaryDTO>> searchEvents(
+            EventSearchCriteriaDTO criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + EventService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(eventService.searchEvents(criteria, cursor, limit));
+    }
+
+    /**
+     * Get event summaries by organizer
+     *
+     * @param username String
+     * @return ResponseEntity<List < EventSummaryDTO>>
+     */
+    @GetMapping("/organizer/{username}/summaries")
+    @Operation(
+            summary = "Get event summaries by organizer",
+            description = "Returns only the scalar fields of all events created by a specific organizer."
+    )
+    public ResponseEntity<List<EventSummaryDTO>> getEventSummariesByOrganizer(@PathVariable String username) {
+        return ResponseEntity.ok(eventService.getEventSummariesByOrganizer(username));
+    }
+
+    /**
+     * Full-text search on event names and locations
+     *
+     * @param q     String
+     * @param limit int
+     * @return ResponseEntity<List < EventSummaryDTO>>
+     */
+    @GetMapping("/text-search")
+    @Operation(
+            summary = "Full-text search events",
+            description = "Searches event names and locations for every word of q, matching whole words and word prefixes. " +
+                    "Results are ranked, name matches first, and answered from an in-memory index."
+    )
+    public ResponseEntity<List<EventSummaryDTO>> searchEventText(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + EventService.DEFAULT_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(eventService.searchEventText(q, limit));
+    }
+
+    /**
+     * Get full-text index statistics
+     *
+     * @return ResponseEntity<TextIndexStatsDTO>
+     */
+    @GetMapping("/text-index-stats")
+    @Operation(
+            summary = "Get full-text index statistics",
+            description = "Allows an admin to see the number of indexed events, terms and postings and the estimated memory footprint of the full-text index."
+    )
+    public ResponseEntity<TextIndexStatsDTO> getTextIndexStats() {
+        return ResponseEntity.ok(eventService.getTextIndexStats());
+    }
+
+    /**
+     * Get event detail cache statistics
+     *
+     * @return ResponseEntity<CacheStatsDTO>
+     */
+    @GetMapping("/cache-stats")
+    @Operation(
+            summary = "Get event cache statistics",
+            description = "Allows an admin to see the size and the hit, miss and eviction counters of the event detail cache."
+    )
+    public ResponseEntity<CacheStatsDTO> getEventCacheStats() {
+        return ResponseEntity.ok(eventService.getEventCacheStats());
+    }
+
+    /**
+     * Update event by ID. With an If-Match header the update only succeeds if the event has not changed since.
      *
      * @param id             UUID
      * @param eventCreateDTO EventCreateDTO
+     * @param ifMatch        String ETag of the version the client last read
      * @return ResponseEntity<EventResponseDTO>
      */
     @PutMapping("/{id}")
-    public ResponseEntity<EventResponseDTO> updateEvent(@PathVariable UUID id, @Valid @RequestBody EventCreateDTO eventCreateDTO) {
-        return ResponseEntity.ok(eventService.updateEvent(id, eventCreateDTO));
+    public ResponseEntity<EventResponseDTO> updateEvent(@PathVariable UUID id, @Valid @RequestBody EventCreateDTO eventCreateDTO,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(eventService.updateEvent(id, eventCreateDTO, EntityTags.expectedVersion(ifMatch)), FieldSelection.all());
     }
 
     /**
@@ -156,19 +344,19 @@ public class EventController {
      *
      * @param id UUID
      * @param wrapper EventParticipantUsernameWrapperDTO
-     * @return ResponseEntity<String>
+     * @return ResponseEntity<ParticipantAssignmentResultDTO>
      */
     @PostMapping("/{id}/participants")
     @Operation(
             summary = "Assign participant to event",
-            description = "Allows an admin or organizer to assign participants to an event by providing the event ID and participant usernames."
+            description = "Allows an admin or organizer to assign participants to an event by providing the event ID and participant usernames. " +
+                    "The response lists which usernames were added, were already registered or do not exist."
     )
-    public ResponseEntity<String> assignParticipantToEvent(
+    public ResponseEntity<ParticipantAssignmentResultDTO> assignParticipantToEvent(
             @PathVariable UUID id,
             @RequestBody EventParticipantUsernameWrapperDTO wrapper) {
 
-        eventService.assignParticipantToEvent(id, wrapper.getParticipants());
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(eventService.assignParticipantToEvent(id, wrapper.getParticipants()));
     }
 
     /**
@@ -176,27 +364,19 @@ public class EventController {
      *
      * @param id UUID
      * @param wrapper EventParticipantUsernameWrapperDTO
-     * @return ResponseEntity<Map < String, Object>>
+     * @return ResponseEntity<RemovalResultDTO>
      */
     @DeleteMapping("/{id}/participants")
     @Operation(
             summary = "Remove participants from event",
-            description = "Allows an admin or organizer to remove participants from an event by providing the event ID and participant usernames."
+            description = "Allows an admin or organizer to remove participants from an event by providing the event ID and participant usernames. " +
+                    "The response lists which usernames were removed and which were not participants."
     )
-    public ResponseEntity<Map<String, Object>> removeParticipantsFromEvent(
+    public ResponseEntity<RemovalResultDTO> removeParticipantsFromEvent(
             @PathVariable UUID id,
             @RequestBody EventParticipantUsernameWrapperDTO wrapper) {
 
-        List<String> removedParticipants = new ArrayList<>();
-
-        wrapper.getParticipants().forEach(participant -> {
-            eventService.removeParticipantFromEvent(id, participant);
-            removedParticipants.add(participant.getUsername());
-        });
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("removed", removedParticipants);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(eventService.removeParticipantsFromEvent(id, wrapper.getParticipants()));
     }
 
     /**
@@ -224,28 +404,19 @@ public class EventController {
      *
      * @param id UUID
      * @param wrapper EventTicketIdsWrapperDTO
-     * @return ResponseEntity<Map < String, Object>>
+     * @return ResponseEntity<RemovalResultDTO>
      */
     @DeleteMapping("/{id}/tickets")
     @Operation(
             summary = "Remove tickets from event",
-            description = "Allows an admin or organizer to remove tickets from an event by providing the event ID and ticket IDs."
+            description = "Allows an admin or organizer to remove tickets from an event by providing the event ID and ticket IDs. " +
+                    "The response lists which tickets were removed and which were not linked to the event."
     )
-    public ResponseEntity<Map<String, Object>> removeTicketsFromEvent(
+    public ResponseEntity<RemovalResultDTO> removeTicketsFromEvent(
             @PathVariable UUID id,
             @RequestBody EventTicketIdsWrapperDTO wrapper) {
 
-        List<String> removedTickets = new ArrayList<>();
-
-        wrapper.getTicketIds().forEach(ticket -> {
-            eventService.removeTicketFromEvent(id, ticket);
-            removedTickets.add(ticket.getTicketId().toString());
-        });
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("removed", removedTickets);
-        return ResponseEntity.ok(response);
-
+        return ResponseEntity.ok(eventService.removeTicketsFromEvent(id, wrapper.getTicketIds()));
     }
 
     /**
@@ -273,26 +444,25 @@ public class EventController {
      *
      * @param id                   UUID
      * @param eventFeedbackIdWrapperDTO EventFeedbackIdWrapperDTO
-     * @return ResponseEntity<Map < String, Object>>
+     * @return ResponseEntity<RemovalResultDTO>
      */
     @DeleteMapping("/{id}/feedback")
     @Operation(
             summary = "Remove feedbacks from event",
-            description = "Allows an admin or organizer to remove feedbacks from an event by providing the event ID and feedback IDs."
+            description = "Allows an admin or organizer to remove feedbacks from an event by providing the event ID and feedback IDs. " +
+                    "The response lists which feedbacks were removed and which were not linked to the event."
     )
-    public ResponseEntity<Map<String, Object>> removeFeedbackFromEvent(
+    public ResponseEntity<RemovalResultDTO> removeFeedbackFromEvent(
             @PathVariable UUID id,
             @RequestBody EventFeedbackIdWrapperDTO eventFeedbackIdWrapperDTO) {
 
-        List<String> removedFeedbacks = new ArrayList<>();
-
-        eventFeedbackIdWrapperDTO.getFeedbackIds().forEach(feedback -> {
-            eventService.removeFeedbackFromEvent(id, feedback);
-            removedFeedbacks.add(feedback.getFeedbackId().toString());
-        });
+        return ResponseEntity.ok(eventService.removeFeedbacksFromEvent(id, eventFeedbackIdWrapperDTO.getFeedbackIds()));
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("removed", removedFeedbacks);
-        return ResponseEntity.ok(response);
+    private static ResponseEntity<EventResponseDTO> withETag(EventResponseDTO event, FieldSelection selection) {
+        if (event.getVersion() == null) {
+            return ResponseEntity.ok(event);
+        }
+        return ResponseEntity.ok().eTag(EntityTags.of(event.getVersion(), selection)).body(event);
     }
 }
@@ -5,6 +5,7 @@ import jakarta.validation.Valid;
 import nl.novi.event_management_system.dtos.feedbackDtos.FeedbackCreateDTO;
 import nl.novi.event_management_system.dtos.feedbackDtos.FeedbackResponseDTO;
 import nl.novi.event_management_system.services.FeedbackService;
+import nl.novi.event_management_system.services.IdempotencyService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
@@ -24,19 +25,23 @@ public class FeedbackController {
     Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
     private final FeedbackService feedbackService;
+    private final IdempotencyService idempotencyService;
 
-    public FeedbackController(FeedbackService feedbackService) {
+    public FeedbackController(FeedbackService feedbackService, IdempotencyService idempotencyService) {
         this.feedbackService = feedbackService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
      * Submit a new feedback
      *
      * @param feedbackCreateDTO FeedbackCreateDTO
+     * @param idempotencyKey    String optional key, a repeat with the same key gets the first response back
      * @return ResponseEntity<?>
      */
     @PostMapping
-    public ResponseEntity<?> submitFeedback(@Valid @RequestBody FeedbackCreateDTO feedbackCreateDTO, BindingResult result) {
+    public ResponseEntity<?> submitFeedback(@Valid @RequestBody FeedbackCreateDTO feedbackCreateDTO, BindingResult result,
+                                            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         if (result.hasErrors()) {
             List<String> errors = result.getAllErrors().stream()
                     .map(DefaultMessageSourceResolvable::getDefaultMessage)
@@ -44,13 +49,15 @@ public class FeedbackController {
             return ResponseEntity.badRequest().body(errors);
         }
 
-        FeedbackResponseDTO newFeedbackDTO = feedbackService.submitFeedback(feedbackCreateDTO);
-        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
-                .path("/{id}")
-                .buildAndExpand(newFeedbackDTO.getId())
-                .toUri();
+        return idempotencyService.execute("POST /api/v1/feedback", idempotencyKey, feedbackCreateDTO, () -> {
+            FeedbackResponseDTO newFeedbackDTO = feedbackService.submitFeedback(feedbackCreateDTO);
+            URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{id}")
+                    .buildAndExpand(newFeedbackDTO.getId())
+                    .toUri();
 
-        return ResponseEntity.created(location).body(newFeedbackDTO);
+            return ResponseEntity.created(location).body(newFeedbackDTO);
+        });
     }
 
     /**
@@ -3,11 +3,18 @@ package nl.novi.event_management_system.controllers;
 import com.fasterxml.jackson.core.JsonParseException;
 import nl.novi.event_management_system.dtos.ErrorResponseDTO;
 import nl.novi.event_management_system.exceptions.BadRequestException;
+import nl.novi.event_management_system.exceptions.EventSoldOutException;
+import nl.novi.event_management_system.exceptions.ForbiddenException;
+import nl.novi.event_management_system.exceptions.IdempotencyConflictException;
+import nl.novi.event_management_system.exceptions.IdempotencyKeyReuseException;
+import nl.novi.event_management_system.exceptions.PreconditionFailedException;
 import nl.novi.event_management_system.exceptions.RecordNotFoundException;
+import nl.novi.event_management_system.exceptions.TicketAlreadyCheckedInException;
 import nl.novi.event_management_system.exceptions.UsernameNotFoundException;
 import nl.novi.event_management_system.exceptions.ValidationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -64,6 +71,128 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles ForbiddenException and returns a 403 Forbidden response.
+     *
+     * @param forbiddenException the exception to handle
+     * @return a ResponseEntity containing the error response
+     */
+    @ExceptionHandler(ForbiddenException.class)
+    public ResponseEntity<ErrorResponseDTO> handleForbiddenException(ForbiddenException forbiddenException) {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                forbiddenException.getMessage(),
+                HttpStatus.FORBIDDEN.value(),
+                LocalDateTime.now()
+        );
+        logger.warn(errorResponse.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
+    }
+
+    /**
+     * Handles PreconditionFailedException and returns a 412 Precondition Failed response.
+     *
+     * @param preconditionFailedException the exception to handle
+     * @return a ResponseEntity containing the error response
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponseDTO> handlePreconditionFailedException(PreconditionFailedException preconditionFailedException) {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                preconditionFailedException.getMessage(),
+                HttpStatus.PRECONDITION_FAILED.value(),
+                LocalDateTime.now()
+        );
+        logger.warn(errorResponse.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Handles EventSoldOutException, raised when a purchase finds no seat left, and returns a 409 Conflict response.
+     *
+     * @param eventSoldOutException the exception to handle
+     * @return a ResponseEntity containing the error response
+     */
+    @ExceptionHandler(EventSoldOutException.class)
+    public ResponseEntity<ErrorResponseDTO> handleEventSoldOutException(EventSoldOutException eventSoldOutException) {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                eventSoldOutException.getMessage(),
+                HttpStatus.CONFLICT.value(),
+                LocalDateTime.now()
+        );
+        logger.info(errorResponse.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles TicketAlreadyCheckedInException, raised when a ticket is scanned a second time, and returns a 409 Conflict response.
+     *
+     * @param ticketAlreadyCheckedInException the exception to handle
+     * @return a ResponseEntity containing the error response
+     */
+    @ExceptionHandler(TicketAlreadyCheckedInException.class)
+    public ResponseEntity<ErrorResponseDTO> handleTicketAlreadyCheckedInException(TicketAlreadyCheckedInException ticketAlreadyCheckedInException) {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                ticketAlreadyCheckedInException.getMessage(),
+                HttpStatus.CONFLICT.value(),
+                LocalDateTime.now()
+        );
+        logger.info(errorResponse.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles IdempotencyConflictException, raised while the first request with the same idempotency key is still running,
+     * and returns a 409 Conflict response.
+     *
+     * @param idempotencyConflictException the exception to handle
+     * @return a ResponseEntity containing the error response
+     */
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponseDTO> handleIdempotencyConflictException(IdempotencyConflictException idempotencyConflictException) {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                idempotencyConflictException.getMessage(),
+                HttpStatus.CONFLICT.value(),
+                LocalDateTime.now()
+        );
+        logger.info(errorResponse.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles IdempotencyKeyReuseException, raised when an idempotency key is sent again with a different request,
+     * and returns a 422 Unprocessable Entity response.
+     *
+     * @param idempotencyKeyReuseException the exception to handle
+     * @return a ResponseEntity containing the error response
+     */
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ErrorResponseDTO> handleIdempotencyKeyReuseException(IdempotencyKeyReuseException idempotencyKeyReuseException) {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                idempotencyKeyReuseException.getMessage(),
+                HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                LocalDateTime.now()
+        );
+        logger.info(errorResponse.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Handles OptimisticLockingFailureException, raised when another request changed the same entity
+     * in the meantime, and returns a 409 Conflict response.
+     *
+     * @param optimisticLockingFailureException the exception to handle
+     * @return a ResponseEntity containing the error response
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDTO> handleOptimisticLockingFailureException(OptimisticLockingFailureException optimisticLockingFailureException) {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                "The resource was modified concurrently, reload it and try again.",
+                HttpStatus.CONFLICT.value(),
+                LocalDateTime.now()
+        );
+        logger.warn(optimisticLockingFailureException.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     /**
      * Handles InternalAuthenticationServiceException and returns a 401 Unauthorized response.
      *
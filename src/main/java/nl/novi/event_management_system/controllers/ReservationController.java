@@ -0,0 +1,73 @@
+package nl.novi.event_management_system.controllers;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import nl.novi.event_management_system.dtos.reservationDtos.ReservationCreateDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketResponseDTO;
+import nl.novi.event_management_system.services.ReservationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@Tag(name = "Reservation API", description = "Seats held during checkout")
+@RestController
+@RequestMapping("/api/v1/reservations")
+public class ReservationController {
+    Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final ReservationService reservationService;
+
+    public ReservationController(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    /**
+     * Hold a seat of an event until the reservation is confirmed, released or expires
+     *
+     * @param reservationCreateDTO ReservationCreateDTO
+     * @param authentication       Authentication of the signed in user
+     * @return ResponseEntity<?>
+     */
+    @PostMapping
+    public ResponseEntity<?> holdSeat(@Valid @RequestBody ReservationCreateDTO reservationCreateDTO, BindingResult result,
+                                      Authentication authentication) {
+        if (result.hasErrors()) {
+            StringBuilder errorMessages = new StringBuilder();
+            result.getAllErrors().forEach(error -> errorMessages.append(error.getDefaultMessage()).append(" "));
+            log.error(errorMessages.toString());
+            return ResponseEntity.badRequest().body(errorMessages.toString());
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.holdSeat(reservationCreateDTO, ReservationService.Requester.of(authentication)));
+    }
+
+    /**
+     * Confirm a reservation, turning the held seat into a ticket
+     *
+     * @param id             UUID
+     * @param authentication Authentication of the signed in user
+     * @return ResponseEntity<TicketResponseDTO>
+     */
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<TicketResponseDTO> confirm(@PathVariable UUID id, Authentication authentication) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.confirm(id, ReservationService.Requester.of(authentication)));
+    }
+
+    /**
+     * Release a reservation, giving the held seat back
+     *
+     * @param id             UUID
+     * @param authentication Authentication of the signed in user
+     * @return ResponseEntity<Void>
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> release(@PathVariable UUID id, Authentication authentication) {
+        reservationService.release(id, ReservationService.Requester.of(authentication));
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,20 @@
+package nl.novi.event_management_system.controllers;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint that accepts a {@code fields} query parameter.
+ * {@link SparseFieldsetAdvice} drops every other top level property from its response.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SparseFieldset {
+
+    /**
+     * The response DTO the field names belong to, the items of a page or list.
+     */
+    Class<?> value();
+}
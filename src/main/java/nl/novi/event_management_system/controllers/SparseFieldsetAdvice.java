@@ -0,0 +1,70 @@
+package nl.novi.event_management_system.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import nl.novi.event_management_system.dtos.PageResponseDTO;
+import nl.novi.event_management_system.utils.FieldSelection;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.List;
+
+/**
+ * Writes only the requested properties of responses of {@link SparseFieldset} endpoints.
+ * The mappers already skipped the unrequested associations, this removes the remaining null properties
+ * from the payload. Pages are pruned per item, the page envelope itself is kept.
+ */
+@RestControllerAdvice
+public class SparseFieldsetAdvice implements ResponseBodyAdvice<Object> {
+    private static final String FIELDS_PARAMETER = "fields";
+
+    private final ObjectMapper objectMapper;
+
+    public SparseFieldsetAdvice(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(SparseFieldset.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        // Parsed like the controller did, so the payload never disagrees with what the mappers loaded
+        FieldSelection selection = FieldSelection.parse(servletRequest.getServletRequest().getParameter(FIELDS_PARAMETER),
+                returnType.getMethodAnnotation(SparseFieldset.class).value());
+        if (selection.isAll()) {
+            return body;
+        }
+
+        List<String> selected = List.copyOf(selection.getFields());
+        JsonNode tree = objectMapper.valueToTree(body);
+        if (body instanceof PageResponseDTO<?>) {
+            tree.path("items").forEach(item -> retain(item, selected));
+        } else if (tree.isArray()) {
+            tree.forEach(item -> retain(item, selected));
+        } else {
+            retain(tree, selected);
+        }
+        return tree;
+    }
+
+    private void retain(JsonNode node, List<String> fields) {
+        if (node instanceof ObjectNode objectNode) {
+            objectNode.retain(fields);
+        }
+    }
+}
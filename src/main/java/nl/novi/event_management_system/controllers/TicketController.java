@@ -2,16 +2,39 @@ package nl.novi.event_management_system.controllers;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import io.swagger.v3.oas.annotations.Operation;
+import nl.novi.event_management_system.dtos.CheckInStatsDTO;
+import nl.novi.event_management_system.dtos.PageResponseDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.CheckInRequestDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.CheckInResponseDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.IssuedTicketDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketBulkCreateDTO;
 import nl.novi.event_management_system.dtos.ticketDtos.TicketCreateDTO;
 import nl.novi.event_management_system.dtos.ticketDtos.TicketResponseDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketRevenueDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketSearchCriteriaDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketTokenDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketTokenVerificationDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketTokenVerifyDTO;
+import nl.novi.event_management_system.exceptions.BadRequestException;
+import nl.novi.event_management_system.services.IdempotencyService;
+import nl.novi.event_management_system.services.TicketCheckInService;
+import nl.novi.event_management_system.services.TicketIssuanceService;
+import nl.novi.event_management_system.services.TicketLedger;
 import nl.novi.event_management_system.services.TicketService;
+import nl.novi.event_management_system.utils.EntityTags;
+import nl.novi.event_management_system.utils.FieldSelection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,59 +45,219 @@ public class TicketController {
     Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
     private final TicketService ticketService;
+    private final TicketIssuanceService ticketIssuanceService;
+    private final TicketCheckInService ticketCheckInService;
+    private final IdempotencyService idempotencyService;
+    private final TicketLedger ticketLedger;
 
-    public TicketController(TicketService ticketService) {
+    public TicketController(TicketService ticketService, TicketIssuanceService ticketIssuanceService, TicketCheckInService ticketCheckInService,
+                            IdempotencyService idempotencyService, TicketLedger ticketLedger) {
         this.ticketService = ticketService;
+        this.ticketIssuanceService = ticketIssuanceService;
+        this.ticketCheckInService = ticketCheckInService;
+        this.idempotencyService = idempotencyService;
+        this.ticketLedger = ticketLedger;
     }
 
     /**
      * Create a new ticket
      *
      * @param ticketCreateDTO TicketCreateDTO
+     * @param idempotencyKey  String optional key, a repeat with the same key gets the first response back
      * @return ResponseEntity<?>
      */
     @PostMapping
-    public ResponseEntity<?> createTicket(@Valid @RequestBody TicketCreateDTO ticketCreateDTO, BindingResult result) {
+    @Operation(
+            summary = "Create ticket",
+            description = "Buys a ticket for an event. Send an Idempotency-Key header to retry safely, " +
+                    "a repeat with the same key returns the first response with the header Idempotent-Replayed instead of buying another ticket."
+    )
+    public ResponseEntity<?> createTicket(@Valid @RequestBody TicketCreateDTO ticketCreateDTO, BindingResult result,
+                                          @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         if (result.hasErrors()) {
             StringBuilder errorMessages = new StringBuilder();
             result.getAllErrors().forEach(error -> errorMessages.append(error.getDefaultMessage()).append(" "));
             log.error(errorMessages.toString());
             return ResponseEntity.badRequest().body(errorMessages.toString());
         }
-        return ResponseEntity.status(HttpStatus.CREATED).body(ticketService.createTicket(ticketCreateDTO));
+        return idempotencyService.execute("POST /api/v1/tickets", idempotencyKey, ticketCreateDTO,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(ticketService.createTicket(ticketCreateDTO)));
     }
 
     /**
-     * Get all tickets
+     * Issue many tickets for one event at once
      *
-     * @return List<TicketResponseDTO>
+     * @param ticketBulkCreateDTO TicketBulkCreateDTO
+     * @return ResponseEntity<StreamingResponseBody>
      */
-    @GetMapping
-    public List<TicketResponseDTO> getTickets() {
-        return ticketService.getTickets();
+    @PostMapping(value = "/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Issue tickets in bulk",
+            description = "Issues one ticket per username for the same event, price and ticket type, all or none. " +
+                    "Streams the ID and code of every issued ticket, one JSON object per line, in the order of the usernames."
+    )
+    public ResponseEntity<StreamingResponseBody> issueTickets(@Valid @RequestBody TicketBulkCreateDTO ticketBulkCreateDTO, BindingResult result) {
+        if (result.hasErrors()) {
+            StringBuilder errorMessages = new StringBuilder();
+            result.getAllErrors().forEach(error -> errorMessages.append(error.getDefaultMessage()).append(" "));
+            log.error(errorMessages.toString());
+            throw new BadRequestException(errorMessages.toString().trim());
+        }
+        // Issued and committed before the first line is written, so a failure is still reported with its status
+        List<IssuedTicketDTO> issued = ticketIssuanceService.issueTickets(ticketBulkCreateDTO);
+        StreamingResponseBody body = outputStream -> ticketIssuanceService.writeTickets(issued, outputStream);
+        return ResponseEntity.status(HttpStatus.CREATED).contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Check in a ticket at the door
+     *
+     * @param checkInRequestDTO CheckInRequestDTO
+     * @return ResponseEntity<CheckInResponseDTO>
+     */
+    @PostMapping("/check-in")
+    @Operation(
+            summary = "Check in a ticket",
+            description = "Admits the holder of a ticket to its event, once. Answers 404 Not Found for an unknown code or a ticket " +
+                    "for another event and 409 Conflict for a ticket that was checked in before."
+    )
+    public ResponseEntity<CheckInResponseDTO> checkIn(@Valid @RequestBody CheckInRequestDTO checkInRequestDTO, BindingResult result) {
+        if (result.hasErrors()) {
+            StringBuilder errorMessages = new StringBuilder();
+            result.getAllErrors().forEach(error -> errorMessages.append(error.getDefaultMessage()).append(" "));
+            log.error(errorMessages.toString());
+            throw new BadRequestException(errorMessages.toString().trim());
+        }
+        return ResponseEntity.ok(ticketCheckInService.checkIn(checkInRequestDTO));
+    }
+
+    /**
+     * Get check-in statistics
+     *
+     * @return ResponseEntity<CheckInStatsDTO>
+     */
+    @GetMapping("/check-in/stats")
+    @Operation(
+            summary = "Get check-in statistics",
+            description = "Allows an admin to see the scan counters per outcome, the scan latency percentiles and the size of the check-in filters."
+    )
+    public ResponseEntity<CheckInStatsDTO> getCheckInStats() {
+        return ResponseEntity.ok(ticketCheckInService.getStats());
+    }
+
+    /**
+     * Get the tickets and revenue per event and ticket type at a moment
+     *
+     * @param eventId UUID optional event, all events when absent
+     * @param asOf    Instant optional moment, now when absent
+     * @return ResponseEntity<List < TicketRevenueDTO>>
+     */
+    @GetMapping("/revenue")
+    @Operation(
+            summary = "Get ticket revenue",
+            description = "Allows an admin to see the tickets and revenue per event and ticket type at any moment (asOf, for example 2026-06-01T00:00:00Z), " +
+                    "replayed from the sales ledger. Later changes and refunds of tickets do not alter the revenue of an earlier moment."
+    )
+    public ResponseEntity<List<TicketRevenueDTO>> getRevenue(@RequestParam(required = false) UUID eventId,
+                                                             @RequestParam(required = false) Instant asOf) {
+        return ResponseEntity.ok(ticketLedger.getRevenue(eventId, asOf != null ? asOf : Instant.now()));
     }
 
     /**
-     * Get ticket by ID
+     * Get the signed token of a ticket
      *
      * @param id UUID
+     * @return ResponseEntity<TicketTokenDTO>
+     */
+    @GetMapping("/{id}/token")
+    @Operation(
+            summary = "Get ticket token",
+            description = "Returns a signed token for the QR code of a ticket, valid during its event. Gates can verify it without the database."
+    )
+    public ResponseEntity<TicketTokenDTO> getTicketToken(@PathVariable UUID id) {
+        return ResponseEntity.ok(ticketService.issueToken(id));
+    }
+
+    /**
+     * Verify a ticket token
+     *
+     * @param ticketTokenVerifyDTO TicketTokenVerifyDTO
+     * @return ResponseEntity<TicketTokenVerificationDTO>
+     */
+    @PostMapping("/verify")
+    @Operation(
+            summary = "Verify ticket token",
+            description = "Checks the signature and validity window of a ticket token without reading the database. " +
+                    "Answers with valid false and a reason for a forged, expired or wrong-event token."
+    )
+    public ResponseEntity<TicketTokenVerificationDTO> verifyTicketToken(@Valid @RequestBody TicketTokenVerifyDTO ticketTokenVerifyDTO, BindingResult result) {
+        if (result.hasErrors()) {
+            StringBuilder errorMessages = new StringBuilder();
+            result.getAllErrors().forEach(error -> errorMessages.append(error.getDefaultMessage()).append(" "));
+            log.error(errorMessages.toString());
+            throw new BadRequestException(errorMessages.toString().trim());
+        }
+        return ResponseEntity.ok(ticketService.verifyToken(ticketTokenVerifyDTO));
+    }
+
+    /**
+     * Get a page of tickets ordered by purchase date
+     *
+     * @param criteria TicketSearchCriteriaDTO
+     * @param cursor   String continuation token returned by the previous page
+     * @param limit    int maximum number of tickets on the page
+     * @param fields   String comma separated fields to return, all fields when absent
+     * @return ResponseEntity<PageResponseDTO < TicketResponseDTO>>
+     */
+    @GetMapping
+    @SparseFieldset(TicketResponseDTO.class)
+    @Operation(
+            summary = "Get tickets",
+            description = "Returns tickets ordered by purchase date, one page at a time. Filters by event (eventId), owner (username), " +
+                    "ticket type (ticketType) and purchase date range (purchasedFrom, purchasedTo). Pass the returned nextCursor to fetch the following page."
+    )
+    public ResponseEntity<PageResponseDTO<TicketResponseDTO>> getTickets(
+            TicketSearchCriteriaDTO criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TicketService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(ticketService.getTickets(criteria, cursor, limit, FieldSelection.parse(fields, TicketResponseDTO.class)));
+    }
+
+    /**
+     * Get ticket by ID. Answers 304 Not Modified without loading the ticket when the client's ETag is current.
+     *
+     * @param id          UUID
+     * @param fields      String comma separated fields to return, all fields when absent
+     * @param ifNoneMatch String ETag of the copy the client already has
      * @return ResponseEntity<TicketResponseDTO>
      */
     @GetMapping("/{id}")
-    public ResponseEntity<TicketResponseDTO> getTicketById(@PathVariable UUID id) {
-        return ResponseEntity.ok(ticketService.getTicketById(id));
+    @SparseFieldset(TicketResponseDTO.class)
+    public ResponseEntity<TicketResponseDTO> getTicketById(@PathVariable UUID id, @RequestParam(required = false) String fields,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FieldSelection selection = FieldSelection.parse(fields, TicketResponseDTO.class);
+        if (ifNoneMatch != null) {
+            long version = ticketService.getTicketVersion(id);
+            if (EntityTags.matches(ifNoneMatch, version, selection)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EntityTags.of(version, selection)).build();
+            }
+        }
+        return withETag(ticketService.getTicketById(id, selection), selection);
     }
 
     /**
-     * Update ticket by ID
+     * Update ticket by ID. With an If-Match header the update only succeeds if the ticket has not changed since.
      *
      * @param id              UUID
      * @param ticketCreateDTO TicketCreateDTO
+     * @param ifMatch         String ETag of the version the client last read
      * @return ResponseEntity<TicketResponseDTO>
      */
     @PutMapping("/{id}")
-    public ResponseEntity<TicketResponseDTO> updateTicket(@PathVariable UUID id, @Valid @RequestBody TicketCreateDTO ticketCreateDTO) {
-        return ResponseEntity.ok(ticketService.updateTicket(id, ticketCreateDTO));
+    public ResponseEntity<TicketResponseDTO> updateTicket(@PathVariable UUID id, @Valid @RequestBody TicketCreateDTO ticketCreateDTO,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return withETag(ticketService.updateTicket(id, ticketCreateDTO, EntityTags.expectedVersion(ifMatch)), FieldSelection.all());
     }
 
     /**
@@ -88,4 +271,11 @@ public class TicketController {
         boolean isDeleted = ticketService.deleteTicketById(id);
         return isDeleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
+
+    private static ResponseEntity<TicketResponseDTO> withETag(TicketResponseDTO ticket, FieldSelection selection) {
+        if (ticket.getVersion() == null) {
+            return ResponseEntity.ok(ticket);
+        }
+        return ResponseEntity.ok().eTag(EntityTags.of(ticket.getVersion(), selection)).body(ticket);
+    }
 }
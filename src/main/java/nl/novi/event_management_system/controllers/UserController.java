@@ -6,10 +6,9 @@ import jakarta.validation.Valid;
 import nl.novi.event_management_system.dtos.RoleCreateDTO;
 import nl.novi.event_management_system.dtos.userDtos.UserCreateDTO;
 import nl.novi.event_management_system.dtos.userDtos.UserResponseDTO;
-import nl.novi.event_management_system.mappers.UserMapper;
-import nl.novi.event_management_system.models.User;
 import nl.novi.event_management_system.services.UserPhotoService;
 import nl.novi.event_management_system.services.UserService;
+import nl.novi.event_management_system.utils.FieldSelection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
@@ -69,11 +68,13 @@ public class UserController {
     /**
      * Get all users
      *
+     * @param fields String comma separated fields to return, all fields when absent
      * @return ResponseEntity<List < UserResponseDTO>>
      */
     @GetMapping
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
-        List<UserResponseDTO> users = userService.getAllUsers();
+    @SparseFieldset(UserResponseDTO.class)
+    public ResponseEntity<List<UserResponseDTO>> getAllUsers(@RequestParam(required = false) String fields) {
+        List<UserResponseDTO> users = userService.getAllUsers(FieldSelection.parse(fields, UserResponseDTO.class));
         return ResponseEntity.ok().body(users);
     }
 
@@ -81,11 +82,13 @@ public class UserController {
      * Get a user by username
      *
      * @param username String
+     * @param fields   String comma separated fields to return, all fields when absent
      * @return ResponseEntity<UserResponseDTO>
      */
     @GetMapping("/{username}")
-    public ResponseEntity<UserResponseDTO> getUserByUsername(@PathVariable String username) {
-        return ResponseEntity.ok().body(userService.getUserByUsername(username));
+    @SparseFieldset(UserResponseDTO.class)
+    public ResponseEntity<UserResponseDTO> getUserByUsername(@PathVariable String username, @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok().body(userService.getUserByUsername(username, FieldSelection.parse(fields, UserResponseDTO.class)));
     }
 
     /**
@@ -173,10 +176,10 @@ public class UserController {
                 .toUriString();
 
         String fileName = userPhotoService.storeFile(file);
-        User user = userService.assignPhotoToUser(fileName, username);
+        userService.assignPhotoToUser(fileName, username);
 
         return ResponseEntity.created(URI.create(url))
-                .body(UserMapper.toUserResponseDTO(user));
+                .body(userService.getUserByUsername(username));
     }
 
     /**
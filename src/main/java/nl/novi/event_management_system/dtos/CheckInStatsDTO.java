@@ -0,0 +1,25 @@
+package nl.novi.event_management_system.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class CheckInStatsDTO {
+    private long scans;
+    private long admitted;
+    // Rejected by the in-memory filter, without a database round trip
+    private long rejectedByFilter;
+    private long notFound;
+    private long alreadyCheckedIn;
+    private int filteredEvents;
+    private long filterBytes;
+    private long p50Micros;
+    private long p99Micros;
+    private long p999Micros;
+    private long maxMicros;
+}
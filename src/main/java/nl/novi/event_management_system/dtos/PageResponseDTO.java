@@ -0,0 +1,17 @@
+package nl.novi.event_management_system.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponseDTO<T> {
+    private List<T> items = new ArrayList<>();
+    // Opaque continuation token for the next page, null when this is the last page
+    private String nextCursor;
+}
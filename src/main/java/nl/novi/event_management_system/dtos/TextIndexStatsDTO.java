@@ -0,0 +1,18 @@
+package nl.novi.event_management_system.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class TextIndexStatsDTO {
+    private int documents;
+    private int terms;
+    private long postings;
+    // Approximation from per-object sizes, good enough to watch growth, not an exact heap measurement
+    private long estimatedBytes;
+}
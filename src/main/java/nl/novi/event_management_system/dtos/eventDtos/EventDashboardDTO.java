@@ -0,0 +1,38 @@
+package nl.novi.event_management_system.dtos.eventDtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import nl.novi.event_management_system.enums.TicketType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sales and feedback figures of one event, as shown on the dashboard of its organizer.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class EventDashboardDTO {
+    private UUID eventId;
+    private String name;
+    private LocalDate startDate;
+    private int capacity;
+    private long ticketsSold;
+    @Builder.Default
+    private BigDecimal revenue = BigDecimal.ZERO;
+    @Builder.Default
+    private Map<TicketType, Long> ticketsByType = new EnumMap<>(TicketType.class);
+    @Builder.Default
+    private Map<TicketType, BigDecimal> revenueByType = new EnumMap<>(TicketType.class);
+    private long participantCount;
+    private long feedbackCount;
+    // Null while the event has no feedback
+    private Double averageRating;
+}
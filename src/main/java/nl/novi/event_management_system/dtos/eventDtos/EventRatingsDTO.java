@@ -0,0 +1,21 @@
+package nl.novi.event_management_system.dtos.eventDtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * The feedback ratings of one event: how many, their average and how many of each star.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class EventRatingsDTO {
+    private long ratingCount;
+    private Double averageRating;
+    private Map<Integer, Long> histogram;
+}
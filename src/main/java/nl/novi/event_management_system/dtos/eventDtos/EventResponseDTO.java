@@ -16,6 +16,7 @@ import java.util.UUID;
 @AllArgsConstructor
 public class EventResponseDTO {
     private UUID id;
+    private Long version;
     private String organizerUsername;
     private String name;
     private String location;
@@ -23,6 +24,7 @@ public class EventResponseDTO {
     private LocalDate endDate;
     private int capacity;
     private double price;
+    private EventRatingsDTO ratings;
     private UserProfileDTO organizer;
     private List<EventTicketIdDTO> ticketList;
     private List<EventFeedbackIdDTO> feedbackList;
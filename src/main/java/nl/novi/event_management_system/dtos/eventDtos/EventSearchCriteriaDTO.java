@@ -0,0 +1,30 @@
+package nl.novi.event_management_system.dtos.eventDtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filters of the event search. Every filter is optional, absent filters match all events.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class EventSearchCriteriaDTO {
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startTo;
+
+    private String location;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer minCapacity;
+    private Boolean hasSeats;
+}
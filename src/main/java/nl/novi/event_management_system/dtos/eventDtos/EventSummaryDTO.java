@@ -0,0 +1,28 @@
+package nl.novi.event_management_system.dtos.eventDtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Compact view of an event holding only its scalar columns and the organizer username.
+ * The constructor is used directly by JPQL projections, so keep the field order in sync with EventRepository.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class EventSummaryDTO {
+    private UUID id;
+    private String name;
+    private String location;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int capacity;
+    private double price;
+    private String organizerUsername;
+}
@@ -0,0 +1,26 @@
+package nl.novi.event_management_system.dtos.eventDtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk participant assignment, every distinct requested username ends up in exactly one list.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class ParticipantAssignmentResultDTO {
+    private int requested;
+    @Builder.Default
+    private List<String> added = new ArrayList<>();
+    @Builder.Default
+    private List<String> alreadyRegistered = new ArrayList<>();
+    @Builder.Default
+    private List<String> unknownUsernames = new ArrayList<>();
+}
@@ -0,0 +1,23 @@
+package nl.novi.event_management_system.dtos.eventDtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk removal from an event. IDs that were not linked to the event, or do not exist, are not removed.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class RemovalResultDTO {
+    @Builder.Default
+    private List<String> removed = new ArrayList<>();
+    @Builder.Default
+    private List<String> notRemoved = new ArrayList<>();
+}
@@ -1,6 +1,8 @@
 package nl.novi.event_management_system.dtos.feedbackDtos;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
@@ -13,6 +15,8 @@ public class FeedbackCreateDTO {
     private String comment;
     @Schema(description = "The rating of the feedback.", example = "5")
     @NotNull(message = "rating cannot be empty.")
+    @Min(value = 1, message = "rating must be at least 1.")
+    @Max(value = 5, message = "rating must be at most 5.")
     private int rating;
     @Schema(description = "The username of the user who gave the feedback.", example = "jack")
     @NotNull(message = "username cannot be empty.")
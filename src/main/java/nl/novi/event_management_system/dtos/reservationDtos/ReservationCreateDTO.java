@@ -0,0 +1,25 @@
+package nl.novi.event_management_system.dtos.reservationDtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import nl.novi.event_management_system.enums.TicketType;
+import nl.novi.event_management_system.validators.ticketType.ValidTicketType;
+
+import java.util.UUID;
+
+@Data
+public class ReservationCreateDTO {
+    @Schema(description = "The ID of the event to hold a seat of.", example = "123e4567-e89b-12d3-a456-426614174000")
+    @NotNull(message = "eventId cannot be empty.")
+    private UUID eventId;
+    @Schema(description = "The username of the buyer the seat is held for, the signed in user when absent. " +
+            "Only admins and organizers may hold a seat for someone else.", example = "jack")
+    private String username;
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "ticketType cannot be empty.")
+    @ValidTicketType
+    private TicketType ticketType;
+}
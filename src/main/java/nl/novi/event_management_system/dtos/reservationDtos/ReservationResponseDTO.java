@@ -0,0 +1,25 @@
+package nl.novi.event_management_system.dtos.reservationDtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import nl.novi.event_management_system.enums.TicketType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class ReservationResponseDTO {
+    private UUID id;
+    private UUID eventId;
+    private String username;
+    private BigDecimal price;
+    private TicketType ticketType;
+    // The seat is given back if the reservation is not confirmed before this moment
+    private Instant expiresAt;
+}
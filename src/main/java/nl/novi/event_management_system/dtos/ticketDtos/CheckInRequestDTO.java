@@ -0,0 +1,18 @@
+package nl.novi.event_management_system.dtos.ticketDtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class CheckInRequestDTO {
+    @Schema(description = "The ID of the event the scanner is admitting people to.", example = "123e4567-e89b-12d3-a456-426614174000")
+    @NotNull(message = "eventId cannot be empty.")
+    private UUID eventId;
+    @Schema(description = "The code printed on the ticket.", example = "TICKET-8K2M4XQ7")
+    @NotBlank(message = "ticketCode cannot be empty.")
+    private String ticketCode;
+}
@@ -0,0 +1,19 @@
+package nl.novi.event_management_system.dtos.ticketDtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class CheckInResponseDTO {
+    private UUID eventId;
+    private String ticketCode;
+    private Instant checkedInAt;
+}
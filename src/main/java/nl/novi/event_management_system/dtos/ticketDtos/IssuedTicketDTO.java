@@ -0,0 +1,18 @@
+package nl.novi.event_management_system.dtos.ticketDtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class IssuedTicketDTO {
+    private UUID id;
+    private String ticketCode;
+    private String username;
+}
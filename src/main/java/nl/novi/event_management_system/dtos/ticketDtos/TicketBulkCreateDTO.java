@@ -0,0 +1,33 @@
+package nl.novi.event_management_system.dtos.ticketDtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.validation.constraints.*;
+import lombok.Data;
+import nl.novi.event_management_system.enums.TicketType;
+import nl.novi.event_management_system.validators.ticketType.ValidTicketType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class TicketBulkCreateDTO {
+    public static final int MAX_TICKETS = 10_000;
+
+    @Schema(description = "The ID of the event all tickets are for.", example = "123e4567-e89b-12d3-a456-426614174000")
+    @NotNull(message = "eventId cannot be empty.")
+    private UUID eventId;
+    @NotNull(message = "Price cannot be empty.")
+    @DecimalMin(value = "0.00", message = "Price must be at least 0.00")
+    private BigDecimal price;
+    @Enumerated(EnumType.STRING)
+    @NotNull(message = "ticketType cannot be empty.")
+    @ValidTicketType
+    private TicketType ticketType;
+    @Schema(description = "One ticket is issued per entry, a username may appear more than once.", example = "[\"jack\", \"jill\"]")
+    @NotEmpty(message = "usernames cannot be empty.")
+    @Size(max = MAX_TICKETS, message = "At most " + MAX_TICKETS + " tickets can be issued at once.")
+    private List<@NotBlank(message = "username cannot be empty.") String> usernames;
+}
@@ -2,11 +2,12 @@ package nl.novi.event_management_system.dtos.ticketDtos;
 
 import lombok.Builder;
 import lombok.Data;
-import nl.novi.event_management_system.dtos.eventDtos.EventResponseDTO;
+import nl.novi.event_management_system.dtos.eventDtos.EventSummaryDTO;
 import nl.novi.event_management_system.dtos.userDtos.UserProfileDTO;
 import nl.novi.event_management_system.enums.TicketType;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Objects;
 import java.util.UUID;
@@ -15,12 +16,16 @@ import java.util.UUID;
 @Data
 public class TicketResponseDTO {
     private UUID id;
+    private Long version;
     private BigDecimal price;
     private String ticketCode;
     private LocalDate purchaseDate;
     private TicketType ticketType;
+    private Instant checkedInAt;
+    private UUID eventId;
     private UserProfileDTO user;
-    private EventResponseDTO event;
+    // A summary only, the tickets, feedback and participants of the event are never nested in a ticket
+    private EventSummaryDTO event;
 
     @Override
     public boolean equals(Object obj) {
@@ -28,12 +33,12 @@ public class TicketResponseDTO {
         if (obj == null || getClass() != obj.getClass()) return false;
         TicketResponseDTO that = (TicketResponseDTO) obj;
         return Objects.equals(id, that.id) &&
-                Objects.equals(event, that.event) &&
+                Objects.equals(eventId, that.eventId) &&
                 Objects.equals(price, that.price);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, event, price);
+        return Objects.hash(id, eventId, price);
     }
 }
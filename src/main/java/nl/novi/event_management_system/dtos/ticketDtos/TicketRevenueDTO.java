@@ -0,0 +1,24 @@
+package nl.novi.event_management_system.dtos.ticketDtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import nl.novi.event_management_system.enums.TicketType;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Tickets held and revenue of one event and ticket type at a moment, replayed from the sales ledger.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class TicketRevenueDTO {
+    private UUID eventId;
+    private TicketType ticketType;
+    private long tickets;
+    private BigDecimal revenue;
+}
@@ -0,0 +1,30 @@
+package nl.novi.event_management_system.dtos.ticketDtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import nl.novi.event_management_system.enums.TicketType;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Filters of the ticket listing. Every filter is optional, absent filters match all tickets.
+ */
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class TicketSearchCriteriaDTO {
+    private UUID eventId;
+    private String username;
+    private TicketType ticketType;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate purchasedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate purchasedTo;
+}
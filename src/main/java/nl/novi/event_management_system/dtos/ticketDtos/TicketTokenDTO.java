@@ -0,0 +1,21 @@
+package nl.novi.event_management_system.dtos.ticketDtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class TicketTokenDTO {
+    private UUID ticketId;
+    // The payload of the QR code, verifiable without the database
+    private String token;
+    private Instant validFrom;
+    private Instant validUntil;
+}
@@ -0,0 +1,25 @@
+package nl.novi.event_management_system.dtos.ticketDtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import nl.novi.event_management_system.enums.TicketType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@Builder
+@AllArgsConstructor
+public class TicketTokenVerificationDTO {
+    private boolean valid;
+    // Why the token was rejected, null for a valid token
+    private String reason;
+    private UUID ticketId;
+    private UUID eventId;
+    private TicketType ticketType;
+    private Instant validFrom;
+    private Instant validUntil;
+}
@@ -0,0 +1,16 @@
+package nl.novi.event_management_system.dtos.ticketDtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+public class TicketTokenVerifyDTO {
+    @Schema(description = "The token read from the QR code of the ticket.")
+    @NotBlank(message = "token cannot be empty.")
+    private String token;
+    @Schema(description = "The event the gate admits people to. When given, tokens for other events are rejected.", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID eventId;
+}
@@ -5,7 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import nl.novi.event_management_system.dtos.eventDtos.EventResponseDTO;
+import nl.novi.event_management_system.dtos.eventDtos.EventSummaryDTO;
 import nl.novi.event_management_system.dtos.feedbackDtos.FeedbackResponseDTO;
 import nl.novi.event_management_system.dtos.ticketDtos.TicketResponseDTO;
 import nl.novi.event_management_system.models.Role;
@@ -26,7 +26,7 @@ public class UserResponseDTO {
     private UserPhoto userPhoto;
     private List<TicketResponseDTO> tickets = new ArrayList<>();
     private List<FeedbackResponseDTO> feedbackList = new ArrayList<>();
-    private List<EventResponseDTO> eventsOrganized = new ArrayList<>();
+    private List<EventSummaryDTO> eventsOrganized = new ArrayList<>();
 
 
     @Override
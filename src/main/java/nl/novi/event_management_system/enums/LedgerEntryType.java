@@ -0,0 +1,10 @@
+package nl.novi.event_management_system.enums;
+
+/**
+ * Enum for the kinds of entries in the ticket sales ledger.
+ */
+public enum LedgerEntryType {
+    SALE,
+    CHANGE,
+    REFUND,
+}
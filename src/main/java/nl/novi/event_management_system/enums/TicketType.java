@@ -1,12 +1,37 @@
 package nl.novi.event_management_system.enums;
 
+import java.util.Arrays;
+import java.util.Optional;
+
 /**
  * Enum for the different types of tickets.
+ * Every type has a fixed code, signed into ticket tokens, so reordering or adding types never changes what a token means.
  */
 public enum TicketType {
-    VIP,
-    STANDARD,
-    FREE,
-    STUDENT,
-    BACKSTAGE,
+    VIP(0),
+    STANDARD(1),
+    FREE(2),
+    STUDENT(3),
+    BACKSTAGE(4),
+    ;
+
+    private final int code;
+
+    TicketType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Get the ticket type with a given code.
+     *
+     * @param code The code of the ticket type.
+     * @return The ticket type, or empty if no type has the code.
+     */
+    public static Optional<TicketType> fromCode(int code) {
+        return Arrays.stream(values()).filter(ticketType -> ticketType.code == code).findFirst();
+    }
 }
@@ -0,0 +1,13 @@
+package nl.novi.event_management_system.exceptions;
+
+import java.io.Serial;
+import java.util.UUID;
+
+public class EventSoldOutException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public EventSoldOutException(UUID id) {
+        super("Event is sold out. EventId: " + id);
+    }
+}
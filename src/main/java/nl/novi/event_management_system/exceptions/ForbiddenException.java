@@ -0,0 +1,12 @@
+package nl.novi.event_management_system.exceptions;
+
+import java.io.Serial;
+
+public class ForbiddenException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
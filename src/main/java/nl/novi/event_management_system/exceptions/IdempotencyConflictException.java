@@ -0,0 +1,12 @@
+package nl.novi.event_management_system.exceptions;
+
+import java.io.Serial;
+
+public class IdempotencyConflictException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
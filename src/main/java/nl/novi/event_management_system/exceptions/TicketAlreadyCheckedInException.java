@@ -0,0 +1,13 @@
+package nl.novi.event_management_system.exceptions;
+
+import java.io.Serial;
+import java.time.Instant;
+
+public class TicketAlreadyCheckedInException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public TicketAlreadyCheckedInException(String ticketCode, Instant checkedInAt) {
+        super("Ticket " + ticketCode + " was already checked in at " + checkedInAt);
+    }
+}
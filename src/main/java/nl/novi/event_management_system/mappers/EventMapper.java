@@ -4,11 +4,17 @@ import jakarta.validation.Valid;
 import nl.novi.event_management_system.dtos.eventDtos.*;
 import nl.novi.event_management_system.models.Event;
 import nl.novi.event_management_system.models.Feedback;
+import nl.novi.event_management_system.models.RatingStats;
 import nl.novi.event_management_system.models.Ticket;
 import nl.novi.event_management_system.models.User;
+import nl.novi.event_management_system.utils.FieldSelection;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class EventMapper {
@@ -20,24 +26,50 @@ public class EventMapper {
      * @return The corresponding EventResponseDTO, or null if the input is null.
      */
     public static EventResponseDTO toResponseDTO(Event event) {
+        return toResponseDTO(event, FieldSelection.all());
+    }
+
+    /**
+     * Converts an Event entity to an EventResponseDTO with only the selected associations.
+     * Associations that are not selected are left null and never initialized.
+     *
+     * @param event  The Event entity to convert.
+     * @param fields The fields the client asked for.
+     * @return The corresponding EventResponseDTO, or null if the input is null.
+     */
+    public static EventResponseDTO toResponseDTO(Event event, FieldSelection fields) {
         if (event == null) {
             return null;
         }
 
-        return EventResponseDTO.builder()
+        EventResponseDTO.EventResponseDTOBuilder builder = EventResponseDTO.builder()
                 .id(event.getId())
+                .version(event.getVersion())
                 .name(event.getName())
                 .location(event.getLocation())
                 .startDate(event.getStartDate())
                 .endDate(event.getEndDate())
                 .capacity(event.getCapacity())
                 .price(event.getPrice())
-                .organizerUsername(Optional.ofNullable(event.getOrganizer()).map(User::getUsername).orElse(null))
-                .organizer(Optional.ofNullable(event.getOrganizer()).map(UserMapper::toUserProfileResponseDTO).orElse(null))
-                .ticketList(mapTicketsToDTO(event.getTickets()))
-                .feedbackList(mapFeedbacksToDTO(event.getFeedbacks()))
-                .participants(mapParticipantsToDTO(event.getParticipants()))
-                .build();
+                .ratings(toRatingsDTO(event.getRatingStats()));
+
+        // Reading the key of a lazy organizer does not initialize it, its profile does
+        if (fields.includes("organizerUsername")) {
+            builder.organizerUsername(Optional.ofNullable(event.getOrganizer()).map(User::getUsername).orElse(null));
+        }
+        if (fields.includes("organizer")) {
+            builder.organizer(Optional.ofNullable(event.getOrganizer()).map(UserMapper::toUserProfileResponseDTO).orElse(null));
+        }
+        if (fields.includes("ticketList")) {
+            builder.ticketList(mapTicketsToDTO(event.getTickets()));
+        }
+        if (fields.includes("feedbackList")) {
+            builder.feedbackList(mapFeedbacksToDTO(event.getFeedbacks()));
+        }
+        if (fields.includes("participants")) {
+            builder.participants(mapParticipantsToDTO(event.getParticipants()));
+        }
+        return builder.build();
     }
 
     /**
@@ -47,13 +79,127 @@ public class EventMapper {
      * @return A list of EventResponseDTOs.
      */
     public static List<EventResponseDTO> toResponseDTOList(List<Event> events) {
+        return toResponseDTOList(events, FieldSelection.all());
+    }
+
+    /**
+     * Converts a list of Event entities to a list of EventResponseDTOs with only the selected associations.
+     *
+     * @param events The list of Event entities to convert.
+     * @param fields The fields the client asked for.
+     * @return A list of EventResponseDTOs.
+     */
+    public static List<EventResponseDTO> toResponseDTOList(List<Event> events, FieldSelection fields) {
+        return Optional.ofNullable(events)
+                .orElseGet(List::of)
+                .stream()
+                .map(event -> toResponseDTO(event, fields))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Converts an Event entity to an EventSummaryDTO without touching any of its collections.
+     *
+     * @param event The Event entity to convert.
+     * @return The corresponding EventSummaryDTO, or null if the input is null.
+     */
+    public static EventSummaryDTO toSummaryDTO(Event event) {
+        if (event == null) {
+            return null;
+        }
+
+        return EventSummaryDTO.builder()
+                .id(event.getId())
+                .name(event.getName())
+                .location(event.getLocation())
+                .startDate(event.getStartDate())
+                .endDate(event.getEndDate())
+                .capacity(event.getCapacity())
+                .price(event.getPrice())
+                .organizerUsername(Optional.ofNullable(event.getOrganizer()).map(User::getUsername).orElse(null))
+                .build();
+    }
+
+    /**
+     * Converts a list of Event entities to a list of EventSummaryDTOs.
+     *
+     * @param events The list of Event entities to convert.
+     * @return A list of EventSummaryDTOs.
+     */
+    public static List<EventSummaryDTO> toSummaryDTOList(List<Event> events) {
         return Optional.ofNullable(events)
                 .orElseGet(List::of)
                 .stream()
-                .map(EventMapper::toResponseDTO)
+                .map(EventMapper::toSummaryDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Converts the rating counters of an event to an EventRatingsDTO.
+     *
+     * @param ratingStats The rating counters to convert.
+     * @return The corresponding EventRatingsDTO, or null if the input is null.
+     */
+    public static EventRatingsDTO toRatingsDTO(RatingStats ratingStats) {
+        if (ratingStats == null) {
+            return null;
+        }
+
+        return EventRatingsDTO.builder()
+                .ratingCount(ratingStats.getRatingCount())
+                .averageRating(ratingStats.average())
+                .histogram(ratingStats.histogram())
+                .build();
+    }
+
+    /**
+     * Copies an EventResponseDTO, including its ratings, organizer and lists, so the copy shares no mutable state.
+     *
+     * @param dto The EventResponseDTO to copy.
+     * @return The copy, or null if the input is null.
+     */
+    public static EventResponseDTO copyOf(EventResponseDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+
+        EventRatingsDTO ratings = dto.getRatings();
+        return EventResponseDTO.builder()
+                .id(dto.getId())
+                .version(dto.getVersion())
+                .organizerUsername(dto.getOrganizerUsername())
+                .name(dto.getName())
+                .location(dto.getLocation())
+                .startDate(dto.getStartDate())
+                .endDate(dto.getEndDate())
+                .capacity(dto.getCapacity())
+                .price(dto.getPrice())
+                .ratings(ratings == null ? null : EventRatingsDTO.builder()
+                        .ratingCount(ratings.getRatingCount())
+                        .averageRating(ratings.getAverageRating())
+                        .histogram(ratings.getHistogram() == null ? null : new LinkedHashMap<>(ratings.getHistogram()))
+                        .build())
+                .organizer(UserMapper.copyOf(dto.getOrganizer()))
+                .ticketList(copyList(dto.getTicketList(), ticket -> new EventTicketIdDTO(ticket.getTicketId())))
+                .feedbackList(copyList(dto.getFeedbackList(), feedback -> new EventFeedbackIdDTO(feedback.getFeedbackId())))
+                .participants(copyList(dto.getParticipants(), participant -> new EventParticipantUsernameDTO(participant.getUsername())))
+                .build();
+    }
+
+    /**
+     * Copies an EventSummaryDTO.
+     *
+     * @param dto The EventSummaryDTO to copy.
+     * @return The copy, or null if the input is null.
+     */
+    public static EventSummaryDTO copyOf(EventSummaryDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+
+        return new EventSummaryDTO(dto.getId(), dto.getName(), dto.getLocation(), dto.getStartDate(), dto.getEndDate(),
+                dto.getCapacity(), dto.getPrice(), dto.getOrganizerUsername());
+    }
 
     /**
      * Converts an EventCreateDTO to an Event entity.
@@ -73,44 +219,60 @@ public class EventMapper {
     }
 
     /**
-     * Maps a list of Ticket entities to a list of EventTicketIdDTOs.
+     * Maps the Ticket entities of an event to a list of EventTicketIdDTOs.
      *
-     * @param tickets The list of Ticket entities to map.
+     * @param tickets The Ticket entities to map.
      * @return A list of EventTicketIdDTOs.
      */
-    private static List<EventTicketIdDTO> mapTicketsToDTO(List<Ticket> tickets) {
+    private static List<EventTicketIdDTO> mapTicketsToDTO(Collection<Ticket> tickets) {
         return Optional.ofNullable(tickets)
-                .orElseGet(List::of)
+                .orElseGet(Set::of)
                 .stream()
                 .map(ticket -> EventIdInputMapper.toTicketIdDTO(ticket.getId()))
                 .collect(Collectors.toList());
     }
 
     /**
-     * Maps a list of Feedback entities to a list of EventIdInputDTOs.
+     * Maps the Feedback entities of an event to a list of EventIdInputDTOs.
      *
-     * @param feedbacks The list of Feedback entities to map.
+     * @param feedbacks The Feedback entities to map.
      * @return A list of EventIdInputDTOs.
      */
-    private static List<EventFeedbackIdDTO> mapFeedbacksToDTO(List<Feedback> feedbacks) {
+    private static List<EventFeedbackIdDTO> mapFeedbacksToDTO(Collection<Feedback> feedbacks) {
         return Optional.ofNullable(feedbacks)
-                .orElseGet(List::of)
+                .orElseGet(Set::of)
                 .stream()
                 .map(feedback -> EventIdInputMapper.toFeedbackIdDTO(feedback.getId()))
                 .collect(Collectors.toList());
     }
 
     /**
-     * Maps a list of User entities to a list of EventUsernameInputDTOs.
+     * Maps the participants of an event to a list of EventUsernameInputDTOs.
      *
-     * @param participants The list of User entities to map.
+     * @param participants The User entities to map.
      * @return A list of EventUsernameInputDTOs.
      */
-    private static List<EventParticipantUsernameDTO> mapParticipantsToDTO(List<User> participants) {
+    private static List<EventParticipantUsernameDTO> mapParticipantsToDTO(Collection<User> participants) {
         return Optional.ofNullable(participants)
-                .orElseGet(List::of)
+                .orElseGet(Set::of)
                 .stream()
                 .map(user -> EventParticipantMapper.toParticipantDto(user.getUsername()))
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    /**
+     * Copies a list of DTOs item by item, keeping a null list null.
+     *
+     * @param items The DTOs to copy.
+     * @param copy  Copies one DTO.
+     * @return A new list with the copied DTOs.
+     */
+    private static <T> List<T> copyList(List<T> items, Function<T, T> copy) {
+        if (items == null) {
+            return null;
+        }
+        return items.stream()
+                .map(copy)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,39 @@
+package nl.novi.event_management_system.mappers;
+
+import nl.novi.event_management_system.dtos.reservationDtos.ReservationResponseDTO;
+import nl.novi.event_management_system.models.Reservation;
+import nl.novi.event_management_system.models.Ticket;
+
+public class ReservationMapper {
+
+    /**
+     * Maps a Reservation object to a ReservationResponseDTO object without loading its event or user
+     *
+     * @param reservation Reservation
+     * @return ReservationResponseDTO
+     */
+    public static ReservationResponseDTO toResponseDTO(Reservation reservation) {
+        if (reservation == null) {
+            return null;
+        }
+
+        return ReservationResponseDTO.builder()
+                .id(reservation.getId())
+                .eventId(reservation.getEvent().getId())
+                .username(reservation.getUser().getUsername())
+                .price(reservation.getPrice())
+                .ticketType(reservation.getTicketType())
+                .expiresAt(reservation.getExpiresAt())
+                .build();
+    }
+
+    /**
+     * Maps a confirmed Reservation object to the Ticket it is turned into
+     *
+     * @param reservation Reservation
+     * @return Ticket
+     */
+    public static Ticket toTicket(Reservation reservation) {
+        return new Ticket(reservation.getUser(), reservation.getEvent(), reservation.getPrice(), reservation.getTicketType());
+    }
+}
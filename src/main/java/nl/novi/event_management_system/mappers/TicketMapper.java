@@ -4,6 +4,7 @@ import jakarta.validation.Valid;
 import nl.novi.event_management_system.dtos.ticketDtos.TicketCreateDTO;
 import nl.novi.event_management_system.dtos.ticketDtos.TicketResponseDTO;
 import nl.novi.event_management_system.models.Ticket;
+import nl.novi.event_management_system.utils.FieldSelection;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -17,21 +18,52 @@ public class TicketMapper {
      * @return TicketResponseDTO
      */
     public static TicketResponseDTO toResponseDTO(Ticket ticket) {
+        return toResponseDTO(ticket, FieldSelection.all());
+    }
+
+    /**
+     * Maps a Ticket object to a TicketResponseDTO object, mapping the user and event only when selected.
+     * The event is mapped to a summary, so the size of a ticket does not depend on the size of its event.
+     *
+     * @param ticket Ticket
+     * @param fields FieldSelection
+     * @return TicketResponseDTO
+     */
+    public static TicketResponseDTO toResponseDTO(Ticket ticket, FieldSelection fields) {
         if (ticket == null) {
             return null;
         }
 
         return TicketResponseDTO.builder()
                 .id(ticket.getId())
+                .version(ticket.getVersion())
                 .ticketCode(ticket.getTicketCode())
                 .ticketType(ticket.getTicketType())
                 .purchaseDate(ticket.getPurchaseDate())
                 .price(ticket.getPrice())
-                .user(ticket.getUser() != null ? UserMapper.toUserProfileResponseDTO(ticket.getUser()) : null)
-                .event(ticket.getEvent() != null ? EventMapper.toResponseDTO(ticket.getEvent()) : null)
+                .checkedInAt(ticket.getCheckedInAt())
+                // Reading the key of a lazy event does not initialize it
+                .eventId(ticket.getEvent() != null ? ticket.getEvent().getId() : null)
+                .user(fields.includes("user") && ticket.getUser() != null ? UserMapper.toUserProfileResponseDTO(ticket.getUser()) : null)
+                .event(fields.includes("event") ? EventMapper.toSummaryDTO(ticket.getEvent()) : null)
                 .build();
     }
 
+    /**
+     * Maps a Ticket object nested in its owner to a TicketResponseDTO object.
+     * The user is left out because it is the owner, the event is mapped to a summary.
+     *
+     * @param ticket Ticket
+     * @return TicketResponseDTO
+     */
+    public static TicketResponseDTO toOwnedResponseDTO(Ticket ticket) {
+        TicketResponseDTO ticketResponseDTO = toResponseDTO(ticket, FieldSelection.all());
+        if (ticketResponseDTO != null) {
+            ticketResponseDTO.setUser(null);
+        }
+        return ticketResponseDTO;
+    }
+
     /**
      * Maps a list of Ticket objects to a list of TicketResponseDTO objects
      *
@@ -39,8 +71,31 @@ public class TicketMapper {
      * @return List of TicketResponseDTO
      */
     public static List<TicketResponseDTO> toResponseDTOList(List<Ticket> tickets) {
+        return toResponseDTOList(tickets, FieldSelection.all());
+    }
+
+    /**
+     * Maps a list of Ticket objects to a list of TicketResponseDTO objects with only the selected associations
+     *
+     * @param tickets List of Ticket
+     * @param fields  FieldSelection
+     * @return List of TicketResponseDTO
+     */
+    public static List<TicketResponseDTO> toResponseDTOList(List<Ticket> tickets, FieldSelection fields) {
+        return tickets.stream()
+                .map(ticket -> toResponseDTO(ticket, fields))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Maps a list of Ticket objects nested in their owner to a list of TicketResponseDTO objects
+     *
+     * @param tickets List of Ticket
+     * @return List of TicketResponseDTO
+     */
+    public static List<TicketResponseDTO> toOwnedResponseDTOList(List<Ticket> tickets) {
         return tickets.stream()
-                .map(TicketMapper::toResponseDTO)
+                .map(TicketMapper::toOwnedResponseDTO)
                 .collect(Collectors.toList());
     }
 
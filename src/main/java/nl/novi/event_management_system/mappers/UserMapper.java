@@ -1,11 +1,16 @@
 package nl.novi.event_management_system.mappers;
 
+import nl.novi.event_management_system.dtos.eventDtos.EventSummaryDTO;
 import nl.novi.event_management_system.dtos.userDtos.UserCreateDTO;
 import nl.novi.event_management_system.dtos.userDtos.UserProfileDTO;
 import nl.novi.event_management_system.dtos.userDtos.UserResponseDTO;
+import nl.novi.event_management_system.models.Role;
 import nl.novi.event_management_system.models.User;
+import nl.novi.event_management_system.models.UserPhoto;
+import nl.novi.event_management_system.utils.FieldSelection;
 import org.springframework.stereotype.Component;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,6 +25,50 @@ public class UserMapper {
      * @return UserResponseDTO
      */
     public static UserResponseDTO toUserResponseDTO(User user) {
+        return toUserResponseDTO(user, FieldSelection.all());
+    }
+
+    /**
+     * Maps a User object to a UserResponseDTO object, mapping only the selected associations
+     *
+     * @param user   User
+     * @param fields FieldSelection
+     * @return UserResponseDTO
+     */
+    public static UserResponseDTO toUserResponseDTO(User user, FieldSelection fields) {
+        if (user == null) {
+            return null;
+        }
+
+        UserResponseDTO userResponseDTO = toUserResponseDTO(user, null, fields);
+        if (fields.includes("eventsOrganized")) {
+            userResponseDTO.setEventsOrganized(user.getEventsOrganized() != null ? EventMapper.toSummaryDTOList(user.getEventsOrganized()) : null);
+        }
+        return userResponseDTO;
+    }
+
+    /**
+     * Maps a User object to a UserResponseDTO object, using already projected summaries
+     * for the organized events instead of initializing the eventsOrganized collection.
+     *
+     * @param user            User
+     * @param eventsOrganized List of EventSummaryDTO
+     * @return UserResponseDTO
+     */
+    public static UserResponseDTO toUserResponseDTO(User user, List<EventSummaryDTO> eventsOrganized) {
+        return toUserResponseDTO(user, eventsOrganized, FieldSelection.all());
+    }
+
+    /**
+     * Maps a User object to a UserResponseDTO object, using already projected summaries
+     * for the organized events and mapping only the selected associations.
+     *
+     * @param user            User
+     * @param eventsOrganized List of EventSummaryDTO
+     * @param fields          FieldSelection
+     * @return UserResponseDTO
+     */
+    public static UserResponseDTO toUserResponseDTO(User user, List<EventSummaryDTO> eventsOrganized, FieldSelection fields) {
         if (user == null) {
             return null;
         }
@@ -29,11 +78,11 @@ public class UserMapper {
                 .email(user.getEmail())
                 .password(user.getPassword())
                 .enabled(user.getEnabled())
-                .roles(user.getRoles())
-                .userPhoto(user.getUserPhoto())
-                .tickets(user.getTickets() != null ? TicketMapper.toResponseDTOList(user.getTickets()) : null)
-                .feedbackList(user.getFeedbackList() != null ? FeedbackMapper.toResponseDTOList(user.getFeedbackList()) : null)
-                .eventsOrganized(user.getEventsOrganized() != null ? EventMapper.toResponseDTOList(user.getEventsOrganized()) : null)
+                .roles(fields.includes("roles") && user.getRoles() != null ? new HashSet<>(user.getRoles()) : null)
+                .userPhoto(fields.includes("userPhoto") ? user.getUserPhoto() : null)
+                .tickets(fields.includes("tickets") && user.getTickets() != null ? TicketMapper.toOwnedResponseDTOList(user.getTickets()) : null)
+                .feedbackList(fields.includes("feedbackList") && user.getFeedbackList() != null ? FeedbackMapper.toResponseDTOList(user.getFeedbackList()) : null)
+                .eventsOrganized(eventsOrganized)
                 .build();
     }
 
@@ -44,9 +93,19 @@ public class UserMapper {
      * @return List of UserResponseDTO
      */
     public static List<UserResponseDTO> toUserResponseDTOList(List<User> users) {
+        return toUserResponseDTOList(users, FieldSelection.all());
+    }
 
+    /**
+     * Maps a list of User objects to a list of UserResponseDTO objects with only the selected associations
+     *
+     * @param users  List of User
+     * @param fields FieldSelection
+     * @return List of UserResponseDTO
+     */
+    public static List<UserResponseDTO> toUserResponseDTOList(List<User> users, FieldSelection fields) {
         return users.stream()
-                .map(UserMapper::toUserResponseDTO)
+                .map(user -> toUserResponseDTO(user, fields))
                 .collect(Collectors.toList());
     }
 
@@ -64,7 +123,8 @@ public class UserMapper {
         UserProfileDTO userProfileDTO = new UserProfileDTO();
         userProfileDTO.setUsername(user.getUsername());
         userProfileDTO.setEmail(user.getEmail());
-        userProfileDTO.setRoles(user.getRoles());
+        // Copy the roles so the DTO never holds a Hibernate collection that could be lazily loaded during rendering
+        userProfileDTO.setRoles(user.getRoles() != null ? new HashSet<>(user.getRoles()) : new HashSet<>());
 
         if (user.getUserPhoto() != null) {
             userProfileDTO.setUserPhoto(user.getUserPhoto());
@@ -73,6 +133,33 @@ public class UserMapper {
         return userProfileDTO;
     }
 
+    /**
+     * Copies a UserProfileDTO, including its roles and photo, so the copy shares no mutable state.
+     *
+     * @param dto The UserProfileDTO to copy.
+     * @return The copy, or null if the input is null.
+     */
+    public static UserProfileDTO copyOf(UserProfileDTO dto) {
+        if (dto == null) {
+            return null;
+        }
+
+        UserProfileDTO copy = new UserProfileDTO();
+        copy.setUsername(dto.getUsername());
+        copy.setEmail(dto.getEmail());
+        if (dto.getRoles() != null) {
+            copy.setRoles(dto.getRoles().stream()
+                    .map(role -> new Role(role.getUsername(), role.getRole()))
+                    .collect(Collectors.toCollection(HashSet::new)));
+        } else {
+            copy.setRoles(null);
+        }
+        if (dto.getUserPhoto() != null) {
+            copy.setUserPhoto(new UserPhoto(dto.getUserPhoto().getFileName()));
+        }
+        return copy;
+    }
+
     /**
      * Converts a UserCreateDTO to a User entity.
      *
@@ -6,25 +6,53 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_start_date_id", columnList = "start_date, id"),
+        // Composite indexes of the event search, equality or range column first, then the sort key
+        @Index(name = "idx_events_location_start_date", columnList = "location, start_date, id"),
+        @Index(name = "idx_events_price_start_date", columnList = "price, start_date")
+})
+@NamedEntityGraph(
+        name = Event.GRAPH_ORGANIZER,
+        attributeNodes = @NamedAttributeNode("organizer")
+)
+@NamedEntityGraph(
+        name = Event.GRAPH_DETAIL,
+        attributeNodes = {
+                @NamedAttributeNode("organizer"),
+                @NamedAttributeNode("participants")
+        }
+)
 @Data
 @NoArgsConstructor
 @Builder
 @AllArgsConstructor
 public class Event {
+    // Fetch plans used by EventRepository. The detail graph join fetches one collection,
+    // the remaining collections are loaded in batches (hibernate.default_batch_fetch_size).
+    public static final String GRAPH_ORGANIZER = "Event.organizer";
+    public static final String GRAPH_DETAIL = "Event.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne
+    // Incremented on every update, including changes to the join collections, and exposed as the ETag
+    @Version
+    private long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "organizer_username")
+    @ToString.Exclude
     private User organizer;
 
     @Column(nullable = false)
@@ -51,13 +79,27 @@ public class Event {
     @NotNull(message = "Price cannot be empty")
     private double price;
 
+    // Seats taken, only changed by the conditional updates in EventRepository so it never exceeds capacity
+    @Column(nullable = false)
+    private int soldCount;
+
+    // Feedback ratings, only changed by EventRepository.moveRating and the drift repair in FeedbackService,
+    // so reading the rating of an event never touches its feedback
+    @Embedded
+    @Builder.Default
+    private RatingStats ratingStats = new RatingStats();
+
+    // The join table collections are Sets, so their join tables get a primary key over both columns and
+    // Hibernate writes one row per added or removed member instead of rewriting the whole collection
     @ManyToMany
     @JoinTable(
             name = "event_tickets",
             joinColumns = @JoinColumn(name = "event_id"),
             inverseJoinColumns = @JoinColumn(name = "ticket_id")
     )
-    private List<Ticket> tickets = new ArrayList<>();
+    @ToString.Exclude
+    @Builder.Default
+    private Set<Ticket> tickets = new HashSet<>();
 
     @ManyToMany
     @JoinTable(
@@ -65,7 +107,9 @@ public class Event {
             joinColumns = @JoinColumn(name = "event_id"),
             inverseJoinColumns = @JoinColumn(name = "feedback_id")
     )
-    private List<Feedback> feedbacks = new ArrayList<>();
+    @ToString.Exclude
+    @Builder.Default
+    private Set<Feedback> feedbacks = new HashSet<>();
 
     @ManyToMany
     @JoinTable(
@@ -73,5 +117,21 @@ public class Event {
             joinColumns = @JoinColumn(name = "event_id"),
             inverseJoinColumns = @JoinColumn(name = "username")
     )
-    private List<User> participants = new ArrayList<>();
+    @ToString.Exclude
+    @Builder.Default
+    private Set<User> participants = new HashSet<>();
+
+    // Equality is the ID, so hashing an event never initializes its lazy organizer or collections
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        Event other = (Event) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : Hibernate.getClass(this).hashCode();
+    }
 }
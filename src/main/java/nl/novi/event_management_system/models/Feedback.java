@@ -4,12 +4,17 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 
 import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "feedbacks")
+@Table(name = "feedbacks", indexes = {
+        // Ratings are recounted per event when drifted rating counters are repaired
+        @Index(name = "idx_feedbacks_event_id_rating", columnList = "event_id, rating")
+})
 @Data
 @NoArgsConstructor
 public class Feedback {
@@ -20,10 +25,12 @@ public class Feedback {
 
     @ManyToOne
     @JoinColumn(name = "username")
+    @ToString.Exclude
     private User user;
 
     @ManyToOne
     @JoinColumn(name = "event_id")
+    @ToString.Exclude
     private Event event;
 
     @Column(nullable = false)
@@ -36,4 +43,19 @@ public class Feedback {
 
     @Column(nullable = false)
     private LocalDate feedbackDate = LocalDate.now();
+
+    // Feedback is a member of Event.feedbacks, a Set, so equality is the ID and never walks the event or the user.
+    // Feedback only joins a Set once persisted, so the hash does not change while it is in one.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        Feedback other = (Feedback) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : Hibernate.getClass(this).hashCode();
+    }
 }
@@ -0,0 +1,45 @@
+package nl.novi.event_management_system.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * The first response to a request that carried an Idempotency-Key header, replayed for repeats of that request.
+ * The row is inserted in the transaction of the request, before it runs, and completed with the response before that
+ * transaction commits, so a repeat on another instance waits on the row or finds the response.
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = {
+        // Records are purged oldest first
+        @Index(name = "idx_idempotency_records_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    // SHA-256 of the username, endpoint and client key, so clients cannot see each other's responses
+    @Id
+    @Column(name = "record_key", length = 64)
+    private String key;
+
+    // SHA-256 of the request body, a key reused for a different request is rejected
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Null while the first request is still running
+    private Integer status;
+
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    private String body;
+
+    @Column(length = 500)
+    private String location;
+}
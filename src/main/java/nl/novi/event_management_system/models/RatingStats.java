@@ -0,0 +1,95 @@
+package nl.novi.event_management_system.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Running totals of the feedback ratings of an event: how many ratings, their sum and how many of each star.
+ * Only ratings from {@link #MIN_RATING} to {@link #MAX_RATING} stars are counted.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+public class RatingStats {
+    public static final int MIN_RATING = 1;
+    public static final int MAX_RATING = 5;
+
+    @Column(nullable = false)
+    private long ratingCount;
+
+    @Column(nullable = false)
+    private long ratingSum;
+
+    @Column(nullable = false)
+    private long oneStarCount;
+
+    @Column(nullable = false)
+    private long twoStarCount;
+
+    @Column(nullable = false)
+    private long threeStarCount;
+
+    @Column(nullable = false)
+    private long fourStarCount;
+
+    @Column(nullable = false)
+    private long fiveStarCount;
+
+    public static boolean isCounted(int rating) {
+        return rating >= MIN_RATING && rating <= MAX_RATING;
+    }
+
+    /**
+     * Adds ratings to the totals. Ratings outside the star range are ignored.
+     *
+     * @param rating The number of stars.
+     * @param count  How many times the rating was given.
+     */
+    public void add(int rating, long count) {
+        if (!isCounted(rating)) {
+            return;
+        }
+        ratingCount += count;
+        ratingSum += rating * count;
+        switch (rating) {
+            case 1 -> oneStarCount += count;
+            case 2 -> twoStarCount += count;
+            case 3 -> threeStarCount += count;
+            case 4 -> fourStarCount += count;
+            default -> fiveStarCount += count;
+        }
+    }
+
+    public void add(int rating) {
+        add(rating, 1);
+    }
+
+    /**
+     * Returns the average rating.
+     *
+     * @return The average number of stars, or null when the event has no ratings.
+     */
+    public Double average() {
+        return ratingCount == 0 ? null : (double) ratingSum / ratingCount;
+    }
+
+    /**
+     * Returns the number of ratings per star.
+     *
+     * @return The count of every star from one to five, in that order.
+     */
+    public Map<Integer, Long> histogram() {
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        histogram.put(1, oneStarCount);
+        histogram.put(2, twoStarCount);
+        histogram.put(3, threeStarCount);
+        histogram.put(4, fourStarCount);
+        histogram.put(5, fiveStarCount);
+        return histogram;
+    }
+}
@@ -0,0 +1,65 @@
+package nl.novi.event_management_system.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import nl.novi.event_management_system.enums.TicketType;
+import org.hibernate.Hibernate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A seat of an event held for a buyer until checkout completes. The seat is counted in {@link Event#getSoldCount()}
+ * while the hold exists; the row is deleted when the hold is confirmed, released or expires.
+ */
+@Entity
+@Table(name = "reservations", indexes = {
+        // Active holds are reloaded in deadline order when the application starts
+        @Index(name = "idx_reservations_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+public class Reservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "username", nullable = false)
+    @ToString.Exclude
+    private User user;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id", nullable = false)
+    @ToString.Exclude
+    private Event event;
+
+    @Column(nullable = false)
+    @DecimalMin(value = "0.00", message = "Price must be at least 0.00")
+    private BigDecimal price;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TicketType ticketType;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        Reservation other = (Reservation) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : Hibernate.getClass(this).hashCode();
+    }
+}
@@ -4,15 +4,26 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import nl.novi.event_management_system.enums.TicketType;
 import nl.novi.event_management_system.validators.ticketType.ValidTicketType;
+import org.hibernate.Hibernate;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tickets")
+@Table(name = "tickets", indexes = {
+        // Leads with event_id for the per-event lookups, the other columns cover the dashboard aggregate
+        @Index(name = "idx_tickets_event_id_type_price", columnList = "event_id, ticket_type, price"),
+        // The ticket listing filters on one of these columns and pages by (purchase_date, id)
+        @Index(name = "idx_tickets_event_id_purchase_date", columnList = "event_id, purchase_date, id"),
+        @Index(name = "idx_tickets_username_purchase_date", columnList = "username, purchase_date, id"),
+        @Index(name = "idx_tickets_purchase_date_id", columnList = "purchase_date, id")
+})
+@EntityListeners({TicketCodeListener.class, TicketCheckInListener.class})
 @Data
 @NoArgsConstructor
 public class Ticket {
@@ -21,12 +32,18 @@ public class Ticket {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @ManyToOne(optional = false)
+    // Incremented on every update and exposed as the ETag
+    @Version
+    private long version;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "username")
+    @ToString.Exclude
     private User user;
 
-    @ManyToOne(optional = false)  // Ensures a ticket must be linked to an event
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)  // Ensures a ticket must be linked to an event
     @JoinColumn(name = "event_id", nullable = false)
+    @ToString.Exclude
     private Event event;
 
     @Column(nullable = false)
@@ -36,7 +53,7 @@ public class Ticket {
     @Column(nullable = false, unique = true, updatable = false, length = 20)
     @Size(min = 8, max = 20, message = "Ticket code must be between 8 and 20 characters")
     @Pattern(regexp = "^TICKET-[A-Z0-9]{8}$", message = "Invalid ticket code format")
-    private String ticketCode = generateTicketCode();
+    private String ticketCode; // Assigned on persist by TicketCodeListener
 
     @Column(nullable = false, updatable = false)
     @PastOrPresent(message = "Purchase date cannot be in the future")
@@ -47,6 +64,10 @@ public class Ticket {
     @ValidTicketType
     private TicketType ticketType;
 
+    // Set once at the door, a ticket that has been checked in cannot be used again
+    @Column(name = "checked_in_at")
+    private Instant checkedInAt;
+
     public Ticket(User user, Event event, BigDecimal price, TicketType ticketType) {
         this.user = user;
         this.event = event;
@@ -54,7 +75,18 @@ public class Ticket {
         this.ticketType = ticketType;
     }
 
-    private String generateTicketCode() {
-        return "TICKET-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    // Tickets are members of Event.tickets, a Set, so equality is the ID and never walks the event or the user.
+    // Tickets only join a Set once persisted, so the hash does not change while they are in one.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        Ticket other = (Ticket) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : Hibernate.getClass(this).hashCode();
     }
 }
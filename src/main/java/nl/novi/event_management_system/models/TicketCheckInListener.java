@@ -0,0 +1,25 @@
+package nl.novi.event_management_system.models;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import nl.novi.event_management_system.services.TicketCheckInFilter;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Keeps the check-in filters up to date with every ticket that is stored or moved to another event.
+ */
+public class TicketCheckInListener {
+    private final TicketCheckInFilter ticketCheckInFilter;
+
+    public TicketCheckInListener(@Lazy TicketCheckInFilter ticketCheckInFilter) {
+        this.ticketCheckInFilter = ticketCheckInFilter;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void addToFilter(Ticket ticket) {
+        if (ticket.getEvent() != null && ticket.getTicketCode() != null) {
+            ticketCheckInFilter.add(ticket.getEvent().getId(), ticket.getTicketCode());
+        }
+    }
+}
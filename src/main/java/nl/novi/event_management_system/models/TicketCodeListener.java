@@ -0,0 +1,25 @@
+package nl.novi.event_management_system.models;
+
+import jakarta.persistence.PrePersist;
+import nl.novi.event_management_system.services.TicketCodeGenerator;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Gives every ticket a code right before it is stored, unless it already has one.
+ * Hibernate creates the listener through Spring, so the generator is injected. It is resolved lazily because
+ * the generator reads its sequence through the entity manager factory that is still being built at that point.
+ */
+public class TicketCodeListener {
+    private final TicketCodeGenerator ticketCodeGenerator;
+
+    public TicketCodeListener(@Lazy TicketCodeGenerator ticketCodeGenerator) {
+        this.ticketCodeGenerator = ticketCodeGenerator;
+    }
+
+    @PrePersist
+    public void assignTicketCode(Ticket ticket) {
+        if (ticket.getTicketCode() == null) {
+            ticket.setTicketCode(ticketCodeGenerator.nextCode());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package nl.novi.event_management_system.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import nl.novi.event_management_system.enums.LedgerEntryType;
+import nl.novi.event_management_system.enums.TicketType;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One row of the append-only ticket sales ledger. Rows are only ever inserted, in the order of their ID.
+ * Every row is a signed delta on the tickets and revenue of one event and ticket type, so the revenue at any moment
+ * is the sum of the rows recorded up to that moment. A change of a ticket is written as two rows, one taking the
+ * old event, type and price back out and one adding the new ones.
+ * The ticket and event are plain IDs, not associations, so the ledger outlives the rows it describes.
+ */
+@Entity
+@Immutable
+@Table(name = "ticket_ledger", indexes = {
+        // Per-event replays read a range of one event, full replays a range of time
+        @Index(name = "idx_ticket_ledger_event_id_recorded_at", columnList = "event_id, recorded_at"),
+        @Index(name = "idx_ticket_ledger_recorded_at", columnList = "recorded_at")
+})
+@Data
+@NoArgsConstructor
+public class TicketLedgerEntry {
+
+    // A pooled sequence, so the entries of a bulk issuance are inserted in JDBC batches
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_ledger_seq")
+    @SequenceGenerator(name = "ticket_ledger_seq", sequenceName = "ticket_ledger_seq", allocationSize = 1000)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 10)
+    private LedgerEntryType entryType;
+
+    @Column(name = "ticket_id", nullable = false)
+    private UUID ticketId;
+
+    @Column(name = "event_id", nullable = false)
+    private UUID eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "ticket_type", nullable = false, length = 10)
+    private TicketType ticketType;
+
+    // +1 for a ticket added to the event and type, -1 for one taken out
+    @Column(nullable = false)
+    private short quantity;
+
+    // Signed like the quantity
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "recorded_at", nullable = false)
+    private Instant recordedAt;
+
+    public TicketLedgerEntry(LedgerEntryType entryType, UUID ticketId, UUID eventId, TicketType ticketType, int quantity,
+                             BigDecimal amount, Instant recordedAt) {
+        this.entryType = entryType;
+        this.ticketId = ticketId;
+        this.eventId = eventId;
+        this.ticketType = ticketType;
+        this.quantity = (short) quantity;
+        this.amount = amount;
+        this.recordedAt = recordedAt;
+    }
+}
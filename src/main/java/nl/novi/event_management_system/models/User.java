@@ -5,6 +5,8 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 import org.springframework.security.crypto.bcrypt.BCrypt;
 
 import java.util.*;
@@ -31,6 +33,7 @@ public class User {
     @Column(nullable = false)
     @NotBlank(message = "Password cannot be blank")
     @Size(min = 8, message = "Password must be at least 8 characters long")
+    @ToString.Exclude
     private String password; // Store as a hashed value
 
     @OneToMany(
@@ -50,14 +53,17 @@ public class User {
 
     // Relationship: A user can create multiple events (if they are an organizer)
     @OneToMany(mappedBy = "organizer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @ToString.Exclude
     private List<Event> eventsOrganized;
 
     // Relationship: A user can have multiple tickets (if they are an attendee)
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @ToString.Exclude
     private List<Ticket> tickets;
 
     // Relationship: A user can submit multiple feedback entries
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @ToString.Exclude
     private List<Feedback> feedbackList;
 
     public User(String username, String email, String password) {
@@ -78,4 +84,18 @@ public class User {
     public void removeRole(Role role) {
         this.roles.remove(role);
     }
+
+    // Users are members of Event.participants, a Set, so equality is the username and never walks the associations
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        User other = (User) o;
+        return username != null && username.equals(other.getUsername());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(username);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package nl.novi.event_management_system.repositories;
+
+/**
+ * The join tables that link users, tickets and feedback to an event.
+ */
+public enum EventMembership {
+    PARTICIPANTS("event_participants", "username"),
+    TICKETS("event_tickets", "ticket_id"),
+    FEEDBACK("event_feedback", "feedback_id");
+
+    private final String table;
+    private final String memberColumn;
+
+    EventMembership(String table, String memberColumn) {
+        this.table = table;
+        this.memberColumn = memberColumn;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getMemberColumn() {
+        return memberColumn;
+    }
+}
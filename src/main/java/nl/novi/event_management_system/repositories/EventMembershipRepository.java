@@ -0,0 +1,71 @@
+package nl.novi.event_management_system.repositories;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Custom fragment of {@link EventRepository} that changes the participants of an event with set based SQL,
+ * without loading the participant collection of the event.
+ */
+public interface EventMembershipRepository {
+
+    /**
+     * Returns which of the given usernames belong to an existing user.
+     *
+     * @param usernames The usernames to look up, queried in chunks.
+     * @return The usernames that exist.
+     */
+    Set<String> findExistingUsernames(Collection<String> usernames);
+
+    /**
+     * Returns which of the given usernames already participate in an event.
+     *
+     * @param eventId   The ID of the event.
+     * @param usernames The usernames to look up, queried in chunks.
+     * @return The usernames that are already participants.
+     */
+    Set<String> findParticipantUsernames(UUID eventId, Collection<String> usernames);
+
+    /**
+     * Returns which of the given IDs are linked to an event through a join table.
+     *
+     * @param eventId    The ID of the event.
+     * @param membership The join table to look in.
+     * @param memberIds  The member IDs to look up, queried in chunks.
+     * @param idType     The Java type of the member ID column.
+     * @param <T>        The member ID type.
+     * @return The member IDs that are linked to the event.
+     */
+    <T> Set<T> findMembers(UUID eventId, EventMembership membership, Collection<T> memberIds, Class<T> idType);
+
+    /**
+     * Checks with one primary key lookup whether a member is linked to an event.
+     *
+     * @param eventId    The ID of the event.
+     * @param membership The join table to look in.
+     * @param memberId   The member ID.
+     * @return True if the member is linked to the event.
+     */
+    boolean existsMember(UUID eventId, EventMembership membership, Object memberId);
+
+    /**
+     * Unlinks members from an event with one DELETE per chunk of IDs.
+     *
+     * @param eventId    The ID of the event.
+     * @param membership The join table to delete from.
+     * @param memberIds  The member IDs to unlink.
+     * @return The number of rows deleted.
+     */
+    int deleteMembers(UUID eventId, EventMembership membership, Collection<?> memberIds);
+
+    /**
+     * Links members to an event with batched inserts into the join table.
+     *
+     * @param eventId    The ID of the event.
+     * @param membership The join table to insert into.
+     * @param memberIds  The member IDs to link, none of them may be linked yet.
+     * @return The number of rows inserted.
+     */
+    int insertMembers(UUID eventId, EventMembership membership, Collection<?> memberIds);
+}
@@ -0,0 +1,87 @@
+package nl.novi.event_management_system.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.*;
+
+public class EventMembershipRepositoryImpl implements EventMembershipRepository {
+    // Keeps every IN list well below the bind parameter limits of the supported databases
+    static final int IN_CHUNK_SIZE = 1000;
+    static final int INSERT_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public EventMembershipRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        Set<String> existing = new HashSet<>();
+        for (List<String> chunk : chunks(usernames)) {
+            existing.addAll(namedParameterJdbcTemplate.queryForList(
+                    "SELECT username FROM users WHERE username IN (:usernames)",
+                    new MapSqlParameterSource("usernames", chunk), String.class));
+        }
+        return existing;
+    }
+
+    @Override
+    public Set<String> findParticipantUsernames(UUID eventId, Collection<String> usernames) {
+        return findMembers(eventId, EventMembership.PARTICIPANTS, usernames, String.class);
+    }
+
+    @Override
+    public <T> Set<T> findMembers(UUID eventId, EventMembership membership, Collection<T> memberIds, Class<T> idType) {
+        String sql = "SELECT " + membership.getMemberColumn() + " FROM " + membership.getTable()
+                + " WHERE event_id = :eventId AND " + membership.getMemberColumn() + " IN (:ids)";
+        Set<T> members = new HashSet<>();
+        for (List<T> chunk : chunks(memberIds)) {
+            members.addAll(namedParameterJdbcTemplate.queryForList(sql,
+                    new MapSqlParameterSource("eventId", eventId).addValue("ids", chunk), idType));
+        }
+        return members;
+    }
+
+    @Override
+    public boolean existsMember(UUID eventId, EventMembership membership, Object memberId) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + membership.getTable()
+                + " WHERE event_id = ? AND " + membership.getMemberColumn() + " = ?", Integer.class, eventId, memberId);
+        return count != null && count > 0;
+    }
+
+    @Override
+    public int deleteMembers(UUID eventId, EventMembership membership, Collection<?> memberIds) {
+        String sql = "DELETE FROM " + membership.getTable()
+                + " WHERE event_id = :eventId AND " + membership.getMemberColumn() + " IN (:ids)";
+        int deleted = 0;
+        for (List<?> chunk : chunks(memberIds)) {
+            deleted += namedParameterJdbcTemplate.update(sql, new MapSqlParameterSource("eventId", eventId).addValue("ids", chunk));
+        }
+        return deleted;
+    }
+
+    @Override
+    public int insertMembers(UUID eventId, EventMembership membership, Collection<?> memberIds) {
+        int[][] counts = jdbcTemplate.batchUpdate(
+                "INSERT INTO " + membership.getTable() + " (event_id, " + membership.getMemberColumn() + ") VALUES (?, ?)",
+                new ArrayList<>(memberIds), INSERT_BATCH_SIZE, (statement, memberId) -> {
+                    statement.setObject(1, eventId);
+                    statement.setObject(2, memberId);
+                });
+        return Arrays.stream(counts).flatMapToInt(Arrays::stream).map(count -> Math.max(count, 0)).sum();
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> values) {
+        List<T> list = new ArrayList<>(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += IN_CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + IN_CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,18 @@
+package nl.novi.event_management_system.repositories;
+
+import java.util.UUID;
+
+/**
+ * Custom fragment of {@link EventRepository} that keeps an event loaded in the current persistence context in step
+ * with the bulk updates of {@link EventRepository}, which write the database without touching managed entities.
+ */
+public interface EventRefreshRepository {
+
+    /**
+     * Reloads an event from the database if the current persistence context already holds it.
+     * An event that was not loaded is left alone, so this never costs a query for it.
+     *
+     * @param eventId The ID of the event.
+     */
+    void refreshIfLoaded(UUID eventId);
+}
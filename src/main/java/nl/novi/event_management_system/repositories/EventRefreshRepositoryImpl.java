@@ -0,0 +1,23 @@
+package nl.novi.event_management_system.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import nl.novi.event_management_system.models.Event;
+import org.hibernate.Hibernate;
+
+import java.util.UUID;
+
+public class EventRefreshRepositoryImpl implements EventRefreshRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void refreshIfLoaded(UUID eventId) {
+        // Returns the managed instance when there is one, otherwise an uninitialized proxy without a query
+        Event event = entityManager.getReference(Event.class, eventId);
+        if (Hibernate.isInitialized(event)) {
+            entityManager.refresh(event);
+        }
+    }
+}
@@ -1,17 +1,199 @@
 package nl.novi.event_management_system.repositories;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import nl.novi.event_management_system.dtos.eventDtos.EventSummaryDTO;
+import nl.novi.event_management_system.enums.TicketType;
 import nl.novi.event_management_system.models.Event;
+import nl.novi.event_management_system.models.RatingStats;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, UUID> {
+public interface EventRepository extends JpaRepository<Event, UUID>, EventSearchRepository, EventMembershipRepository,
+        EventRefreshRepository {
+    int EXPORT_FETCH_SIZE = 500;
+
+    // Selects only scalar columns and the organizer key, so no association of Event is ever initialized
+    String SUMMARY_PROJECTION = "SELECT new nl.novi.event_management_system.dtos.eventDtos.EventSummaryDTO(" +
+            "e.id, e.name, e.location, e.startDate, e.endDate, e.capacity, e.price, o.username) " +
+            "FROM Event e LEFT JOIN e.organizer o ";
+
     Optional<Event> findEventById(UUID id);
 
+    // One row per event and ticket type, the ticket type is null for an event without tickets.
+    // Participants are counted in a correlated subquery, so joining them cannot multiply the ticket rows.
+    // The rating figures are read from the counters kept on the event row, never from its feedback.
+    @Query("SELECT e.id AS eventId, e.name AS name, e.startDate AS startDate, e.capacity AS capacity, " +
+            "t.ticketType AS ticketType, COUNT(t.id) AS ticketCount, COALESCE(SUM(t.price), 0) AS revenue, " +
+            "(SELECT COUNT(p) FROM Event pe JOIN pe.participants p WHERE pe.id = e.id) AS participantCount, " +
+            "e.ratingStats.ratingCount AS feedbackCount, " +
+            "CASE WHEN e.ratingStats.ratingCount > 0 " +
+            "THEN CAST(e.ratingStats.ratingSum AS Double) / e.ratingStats.ratingCount END AS averageRating " +
+            "FROM Event e LEFT JOIN Ticket t ON t.event = e " +
+            "WHERE e.organizer.username = :username " +
+            "GROUP BY e.id, e.name, e.startDate, e.capacity, e.ratingStats.ratingCount, e.ratingStats.ratingSum, t.ticketType " +
+            "ORDER BY e.startDate ASC, e.id ASC")
+    List<DashboardRow> findDashboardRowsByOrganizer(@Param("username") String username);
+
+    // Reads only the capacity, what a check-in filter is sized for
+    @Query("SELECT e.capacity FROM Event e WHERE e.id = :id")
+    Optional<Integer> findCapacityById(@Param("id") UUID id);
+
+    // Reads only the price, what a seat held during checkout costs
+    @Query("SELECT e.price FROM Event e WHERE e.id = :id")
+    Optional<Double> findPriceById(@Param("id") UUID id);
+
+    // Reads only the version column, enough to answer a conditional GET
+    @Query("SELECT e.version FROM Event e WHERE e.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    // The updates below bypass the persistence context. They flush pending changes first, callers that may hold the
+    // event call refreshIfLoaded afterwards, a later write of a stale copy would otherwise fail its version check.
+
+    // Changes to a ticket or feedback alter the rendered event, so its entity tag must change too
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.version = e.version + 1 WHERE e.id = :id")
+    int incrementVersion(@Param("id") UUID id);
+
+    // Takes a seat in one statement, so concurrent buyers only wait for this event's row lock and never read a stale count.
+    // Bumps the version too, a concurrent edit of the event then fails instead of writing back an outdated count.
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.soldCount = e.soldCount + 1, e.version = e.version + 1 " +
+            "WHERE e.id = :id AND e.soldCount < e.capacity")
+    int reserveSeat(@Param("id") UUID id);
+
+    // Takes several seats at once, all or none
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.soldCount = e.soldCount + :count, e.version = e.version + 1 " +
+            "WHERE e.id = :id AND e.soldCount + :count <= e.capacity")
+    int reserveSeats(@Param("id") UUID id, @Param("count") int count);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.soldCount = CASE WHEN e.soldCount > 0 THEN e.soldCount - 1 ELSE 0 END, " +
+            "e.version = e.version + 1 WHERE e.id = :id")
+    int releaseSeat(@Param("id") UUID id);
+
+    // Gives back several seats at once, never below zero
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.soldCount = CASE WHEN e.soldCount > :count THEN e.soldCount - :count ELSE 0 END, " +
+            "e.version = e.version + 1 WHERE e.id = :id")
+    int releaseSeats(@Param("id") UUID id, @Param("count") int count);
+
+    // Moves one feedback from one rating to another in a single statement, like the seat counters, so concurrent
+    // feedback never loses an update. A rating of 0 is none: (0, r) adds a rating and (r, 0) removes one.
+    // Bumps the version too, the rendered event shows its ratings.
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Event e SET e.version = e.version + 1, " +
+            "e.ratingStats.ratingCount = e.ratingStats.ratingCount" +
+            " + CASE WHEN :added BETWEEN 1 AND 5 THEN 1 ELSE 0 END - CASE WHEN :removed BETWEEN 1 AND 5 THEN 1 ELSE 0 END, " +
+            "e.ratingStats.ratingSum = e.ratingStats.ratingSum" +
+            " + CASE WHEN :added BETWEEN 1 AND 5 THEN :added ELSE 0 END - CASE WHEN :removed BETWEEN 1 AND 5 THEN :removed ELSE 0 END, " +
+            "e.ratingStats.oneStarCount = e.ratingStats.oneStarCount" +
+            " + CASE WHEN :added = 1 THEN 1 ELSE 0 END - CASE WHEN :removed = 1 THEN 1 ELSE 0 END, " +
+            "e.ratingStats.twoStarCount = e.ratingStats.twoStarCount" +
+            " + CASE WHEN :added = 2 THEN 1 ELSE 0 END - CASE WHEN :removed = 2 THEN 1 ELSE 0 END, " +
+            "e.ratingStats.threeStarCount = e.ratingStats.threeStarCount" +
+            " + CASE WHEN :added = 3 THEN 1 ELSE 0 END - CASE WHEN :removed = 3 THEN 1 ELSE 0 END, " +
+            "e.ratingStats.fourStarCount = e.ratingStats.fourStarCount" +
+            " + CASE WHEN :added = 4 THEN 1 ELSE 0 END - CASE WHEN :removed = 4 THEN 1 ELSE 0 END, " +
+            "e.ratingStats.fiveStarCount = e.ratingStats.fiveStarCount" +
+            " + CASE WHEN :added = 5 THEN 1 ELSE 0 END - CASE WHEN :removed = 5 THEN 1 ELSE 0 END " +
+            "WHERE e.id = :id")
+    int moveRating(@Param("id") UUID id, @Param("removed") int removed, @Param("added") int added);
+
+    // One row by primary key, however much feedback the event has
+    @Query("SELECT e.ratingStats FROM Event e WHERE e.id = :id")
+    Optional<RatingStats> findRatingStatsById(@Param("id") UUID id);
+
+    // Locks the events, so feedback written meanwhile waits until their ratings are recounted
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Event e WHERE e.id IN :ids")
+    List<Event> findAndLockByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT e.id FROM Event e WHERE e.id > :id ORDER BY e.id ASC")
+    List<UUID> findIdsAfter(@Param("id") UUID id, Limit limit);
+
+    @Query("SELECT e FROM Event e WHERE e.id = :id")
+    @EntityGraph(value = Event.GRAPH_DETAIL, type = EntityGraph.EntityGraphType.LOAD)
+    Optional<Event> findDetailedById(@Param("id") UUID id);
+
+    @EntityGraph(value = Event.GRAPH_ORGANIZER, type = EntityGraph.EntityGraphType.LOAD)
     List<Event> findByOrganizerUsername(String username);
 
+    @EntityGraph(value = Event.GRAPH_ORGANIZER, type = EntityGraph.EntityGraphType.LOAD)
+    List<Event> findAllByOrderByStartDateAscIdAsc(Limit limit);
+
+    @Query("SELECT e FROM Event e " +
+            "WHERE e.startDate > :startDate OR (e.startDate = :startDate AND e.id > :id) " +
+            "ORDER BY e.startDate ASC, e.id ASC")
+    @EntityGraph(value = Event.GRAPH_ORGANIZER, type = EntityGraph.EntityGraphType.LOAD)
+    List<Event> findPageAfter(@Param("startDate") LocalDate startDate, @Param("id") UUID id, Limit limit);
+
+    @Query(SUMMARY_PROJECTION + "ORDER BY e.startDate ASC, e.id ASC")
+    List<EventSummaryDTO> findSummaries(Limit limit);
+
+    @Query(SUMMARY_PROJECTION +
+            "WHERE e.startDate > :startDate OR (e.startDate = :startDate AND e.id > :id) " +
+            "ORDER BY e.startDate ASC, e.id ASC")
+    List<EventSummaryDTO> findSummariesAfter(@Param("startDate") LocalDate startDate, @Param("id") UUID id, Limit limit);
+
+    @Query(SUMMARY_PROJECTION + "WHERE o.username = :username ORDER BY e.startDate ASC, e.id ASC")
+    List<EventSummaryDTO> findSummariesByOrganizerUsername(@Param("username") String username);
+
+    // Read through a forward-only cursor, the driver fetches EXPORT_FETCH_SIZE rows per round trip
+    @Query("SELECT e FROM Event e ORDER BY e.startDate ASC, e.id ASC")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Event> streamAllForExport();
+
+    /**
+     * Aggregated sales and feedback of one event and ticket type, read by {@link #findDashboardRowsByOrganizer}.
+     */
+    interface DashboardRow {
+        UUID getEventId();
+
+        String getName();
+
+        LocalDate getStartDate();
+
+        Integer getCapacity();
+
+        TicketType getTicketType();
+
+        Long getTicketCount();
+
+        BigDecimal getRevenue();
+
+        Long getParticipantCount();
+
+        Long getFeedbackCount();
+
+        Double getAverageRating();
+    }
 }
@@ -0,0 +1,23 @@
+package nl.novi.event_management_system.repositories;
+
+import nl.novi.event_management_system.dtos.eventDtos.EventSearchCriteriaDTO;
+import nl.novi.event_management_system.dtos.eventDtos.EventSummaryDTO;
+import nl.novi.event_management_system.utils.KeysetCursor;
+
+import java.util.List;
+
+/**
+ * Custom fragment of {@link EventRepository} for searches whose WHERE clause depends on the filters given.
+ */
+public interface EventSearchRepository {
+
+    /**
+     * Finds the summaries of the events matching the criteria, ordered by start date and ID.
+     *
+     * @param criteria The search filters, null filters are left out of the query.
+     * @param after    The position of the last row of the previous page, or null for the first page.
+     * @param limit    The maximum number of rows to return.
+     * @return The matching event summaries.
+     */
+    List<EventSummaryDTO> searchSummaries(EventSearchCriteriaDTO criteria, KeysetCursor after, int limit);
+}
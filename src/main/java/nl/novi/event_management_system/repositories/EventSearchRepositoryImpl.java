@@ -0,0 +1,70 @@
+package nl.novi.event_management_system.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import nl.novi.event_management_system.dtos.eventDtos.EventSearchCriteriaDTO;
+import nl.novi.event_management_system.dtos.eventDtos.EventSummaryDTO;
+import nl.novi.event_management_system.models.Event;
+import nl.novi.event_management_system.models.User;
+import nl.novi.event_management_system.utils.KeysetCursor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventSearchRepositoryImpl implements EventSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<EventSummaryDTO> searchSummaries(EventSearchCriteriaDTO criteria, KeysetCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventSummaryDTO> query = cb.createQuery(EventSummaryDTO.class);
+        Root<Event> event = query.from(Event.class);
+        Join<Event, User> organizer = event.join("organizer", JoinType.LEFT);
+
+        // Only the filters that were given end up in the WHERE clause, so the planner can pick
+        // the matching composite index (location + start date, price + start date, start date + id)
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getStartFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(event.get("startDate"), criteria.getStartFrom()));
+        }
+        if (criteria.getStartTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(event.get("startDate"), criteria.getStartTo()));
+        }
+        if (criteria.getLocation() != null) {
+            predicates.add(cb.equal(event.get("location"), criteria.getLocation()));
+        }
+        if (criteria.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(event.get("price"), criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(event.get("price"), criteria.getMaxPrice()));
+        }
+        if (criteria.getMinCapacity() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(event.get("capacity"), criteria.getMinCapacity()));
+        }
+        if (criteria.getHasSeats() != null) {
+            // soldCount is kept by the purchase path, so no tickets have to be counted per event
+            predicates.add(criteria.getHasSeats()
+                    ? cb.gt(event.get("capacity"), event.get("soldCount"))
+                    : cb.ge(event.get("soldCount"), event.get("capacity")));
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(event.get("startDate"), after.getDate()),
+                    cb.and(cb.equal(event.get("startDate"), after.getDate()), cb.greaterThan(event.get("id"), after.getId()))));
+        }
+
+        query.select(cb.construct(EventSummaryDTO.class,
+                        event.get("id"), event.get("name"), event.get("location"), event.get("startDate"),
+                        event.get("endDate"), event.get("capacity"), event.get("price"), organizer.get("username")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(event.get("startDate")), cb.asc(event.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -1,10 +1,17 @@
 package nl.novi.event_management_system.repositories;
 
+import jakarta.persistence.LockModeType;
 import nl.novi.event_management_system.models.Feedback;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -12,4 +19,28 @@ public interface FeedbackRepository extends JpaRepository<Feedback, UUID> {
     List<Feedback> findByEventId(UUID eventId);
 
     List<Feedback> findByUserUsername(String username);
+
+    // Locks the feedback, so a concurrent update or delete waits and then reads the rating this one wrote
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM Feedback f WHERE f.id = :id")
+    Optional<Feedback> findAndLockById(@Param("id") UUID id);
+
+    @Query("SELECT f.id FROM Feedback f WHERE f.id IN :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    // Counts the ratings of the events from the (event_id, rating) index, used to repair drifted rating counters
+    @Query("SELECT f.event.id AS eventId, f.rating AS rating, COUNT(f) AS feedbackCount FROM Feedback f " +
+            "WHERE f.event.id IN :eventIds GROUP BY f.event.id, f.rating")
+    List<RatingCount> countRatingsByEvent(@Param("eventIds") Collection<UUID> eventIds);
+
+    /**
+     * The number of feedbacks of one event with one rating, read by {@link #countRatingsByEvent}.
+     */
+    interface RatingCount {
+        UUID getEventId();
+
+        Integer getRating();
+
+        Long getFeedbackCount();
+    }
 }
@@ -0,0 +1,37 @@
+package nl.novi.event_management_system.repositories;
+
+import nl.novi.event_management_system.models.IdempotencyRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // A plain insert, so a concurrent first request with the same key fails on the primary key instead of being merged
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_records (record_key, request_hash, created_at) VALUES (:key, :requestHash, :createdAt)",
+            nativeQuery = true)
+    int insertPending(@Param("key") String key, @Param("requestHash") String requestHash, @Param("createdAt") Instant createdAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.body = :body, r.location = :location WHERE r.key = :key")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("body") String body, @Param("location") String location);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+
+    @Query("SELECT r.createdAt FROM IdempotencyRecord r ORDER BY r.createdAt DESC")
+    List<Instant> findCreatedAtNewestFirst(Pageable pageable);
+}
@@ -0,0 +1,50 @@
+package nl.novi.event_management_system.repositories;
+
+import nl.novi.event_management_system.models.Reservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ReservationRepository extends JpaRepository<Reservation, UUID> {
+
+    @Query("SELECT r.event.id FROM Reservation r WHERE r.id = :id")
+    Optional<UUID> findEventIdById(@Param("id") UUID id);
+
+    @Query("SELECT r.id AS id, r.expiresAt AS expiresAt FROM Reservation r ORDER BY r.expiresAt ASC")
+    List<Hold> findAllHolds();
+
+    // A hold ends with exactly one of the deletes below, the one that deletes the row decides what happens to the seat
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Reservation r WHERE r.id = :id AND r.expiresAt > :now")
+    int deleteActive(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Reservation r WHERE r.id = :id AND r.expiresAt <= :now")
+    int deleteExpired(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Reservation r WHERE r.id = :id")
+    int deleteHold(@Param("id") UUID id);
+
+    /**
+     * The ID and deadline of a hold, all the expiry timer needs.
+     */
+    interface Hold {
+        UUID getId();
+
+        Instant getExpiresAt();
+    }
+}
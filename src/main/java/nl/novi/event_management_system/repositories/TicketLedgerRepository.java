@@ -0,0 +1,41 @@
+package nl.novi.event_management_system.repositories;
+
+import nl.novi.event_management_system.enums.TicketType;
+import nl.novi.event_management_system.models.TicketLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TicketLedgerRepository extends JpaRepository<TicketLedgerEntry, Long> {
+
+    String REVENUE_PROJECTION = "SELECT l.eventId AS eventId, l.ticketType AS ticketType, " +
+            "SUM(l.quantity) AS tickets, SUM(l.amount) AS revenue FROM TicketLedgerEntry l ";
+
+    // Replays the ledger of one event up to a moment, a range scan of (event_id, recorded_at)
+    @Query(REVENUE_PROJECTION + "WHERE l.eventId = :eventId AND l.recordedAt <= :asOf " +
+            "GROUP BY l.eventId, l.ticketType ORDER BY l.ticketType")
+    List<RevenueRow> sumRevenueByEvent(@Param("eventId") UUID eventId, @Param("asOf") Instant asOf);
+
+    @Query(REVENUE_PROJECTION + "WHERE l.recordedAt <= :asOf " +
+            "GROUP BY l.eventId, l.ticketType ORDER BY l.eventId, l.ticketType")
+    List<RevenueRow> sumRevenue(@Param("asOf") Instant asOf);
+
+    List<TicketLedgerEntry> findByTicketIdOrderByIdAsc(UUID ticketId);
+
+    interface RevenueRow {
+        UUID getEventId();
+
+        TicketType getTicketType();
+
+        Long getTickets();
+
+        BigDecimal getRevenue();
+    }
+}
@@ -1,16 +1,54 @@
 package nl.novi.event_management_system.repositories;
 
 import nl.novi.event_management_system.models.Ticket;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, UUID> {
+public interface TicketRepository extends JpaRepository<Ticket, UUID>, TicketSearchRepository {
 
+    @Query("SELECT t.id FROM Ticket t WHERE t.id IN :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    // Reads only the version column, enough to answer a conditional GET
+    @Query("SELECT t.version FROM Ticket t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    // Tickets stored before the sales ledger existed, they have no entry at all
+    @Query("SELECT t FROM Ticket t WHERE NOT EXISTS (SELECT l.id FROM TicketLedgerEntry l WHERE l.ticketId = t.id) ORDER BY t.id")
+    List<Ticket> findWithoutLedgerEntries(Limit limit);
+
+    @Query("SELECT t FROM Ticket t WHERE t.user.username = :username")
+    List<Ticket> findByUsername(@Param("username") String username);
+
+    @Query("SELECT t.ticketCode FROM Ticket t WHERE t.event.id = :eventId")
+    List<String> findCodesByEventId(@Param("eventId") UUID eventId);
+
+    // Only the first scan of a ticket finds it unused, any later or concurrent scan updates no row
+    @Transactional
+    @Modifying
+    @Query("UPDATE Ticket t SET t.checkedInAt = :now, t.version = t.version + 1 " +
+            "WHERE t.ticketCode = :ticketCode AND t.event.id = :eventId AND t.checkedInAt IS NULL")
+    int checkIn(@Param("ticketCode") String ticketCode, @Param("eventId") UUID eventId, @Param("now") Instant now);
+
+    @Query("SELECT t.event.id AS eventId, t.checkedInAt AS checkedInAt FROM Ticket t WHERE t.ticketCode = :ticketCode")
+    Optional<CheckInState> findCheckInState(@Param("ticketCode") String ticketCode);
+
+    interface CheckInState {
+        UUID getEventId();
+
+        Instant getCheckedInAt();
+    }
 }
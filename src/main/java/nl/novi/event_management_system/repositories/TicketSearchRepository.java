@@ -0,0 +1,23 @@
+package nl.novi.event_management_system.repositories;
+
+import nl.novi.event_management_system.dtos.ticketDtos.TicketSearchCriteriaDTO;
+import nl.novi.event_management_system.models.Ticket;
+import nl.novi.event_management_system.utils.KeysetCursor;
+
+import java.util.List;
+
+/**
+ * Custom fragment of {@link TicketRepository} for listings whose WHERE clause depends on the filters given.
+ */
+public interface TicketSearchRepository {
+
+    /**
+     * Finds the tickets matching the criteria, ordered by purchase date and ID.
+     *
+     * @param criteria The filters, null filters are left out of the query.
+     * @param after    The position of the last row of the previous page, or null for the first page.
+     * @param limit    The maximum number of rows to return.
+     * @return The matching tickets, their user and event are loaded lazily.
+     */
+    List<Ticket> searchTickets(TicketSearchCriteriaDTO criteria, KeysetCursor after, int limit);
+}
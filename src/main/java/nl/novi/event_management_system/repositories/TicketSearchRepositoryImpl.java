@@ -0,0 +1,56 @@
+package nl.novi.event_management_system.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketSearchCriteriaDTO;
+import nl.novi.event_management_system.models.Ticket;
+import nl.novi.event_management_system.utils.KeysetCursor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TicketSearchRepositoryImpl implements TicketSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Ticket> searchTickets(TicketSearchCriteriaDTO criteria, KeysetCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ticket> query = cb.createQuery(Ticket.class);
+        Root<Ticket> ticket = query.from(Ticket.class);
+
+        // The event and user filters compare the foreign key columns, no join is needed.
+        // Each of them leads a composite index that ends in (purchase_date, id), so a page is a range scan.
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getEventId() != null) {
+            predicates.add(cb.equal(ticket.get("event").get("id"), criteria.getEventId()));
+        }
+        if (criteria.getUsername() != null) {
+            predicates.add(cb.equal(ticket.get("user").get("username"), criteria.getUsername()));
+        }
+        if (criteria.getTicketType() != null) {
+            predicates.add(cb.equal(ticket.get("ticketType"), criteria.getTicketType()));
+        }
+        if (criteria.getPurchasedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(ticket.get("purchaseDate"), criteria.getPurchasedFrom()));
+        }
+        if (criteria.getPurchasedTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(ticket.get("purchaseDate"), criteria.getPurchasedTo()));
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(ticket.get("purchaseDate"), after.getDate()),
+                    cb.and(cb.equal(ticket.get("purchaseDate"), after.getDate()), cb.greaterThan(ticket.get("id"), after.getId()))));
+        }
+
+        query.select(ticket)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(ticket.get("purchaseDate")), cb.asc(ticket.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
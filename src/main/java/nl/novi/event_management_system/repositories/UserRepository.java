@@ -2,10 +2,14 @@ package nl.novi.event_management_system.repositories;
 
 import nl.novi.event_management_system.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
@@ -16,4 +20,8 @@ public interface UserRepository extends JpaRepository<User, String> {
     void deleteByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    // Checks a whole chunk of usernames in one query without loading the users
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
 }
@@ -0,0 +1,84 @@
+package nl.novi.event_management_system.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import nl.novi.event_management_system.controllers.GlobalExceptionHandler;
+import nl.novi.event_management_system.mappers.EventMapper;
+import nl.novi.event_management_system.models.Event;
+import nl.novi.event_management_system.repositories.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * This class streams all events to a client as newline delimited JSON.
+ */
+@Service
+public class EventExportService {
+    Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final EventRepository eventRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructor for the EventExportService class.
+     *
+     * @param eventRepository The repository for the Event entity.
+     * @param objectMapper    The mapper used to write the event records.
+     */
+    public EventExportService(EventRepository eventRepository, ObjectMapper objectMapper) {
+        this.eventRepository = eventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes every event as one JSON summary per line, ordered by start date.
+     * Events are read from a database cursor and detached once written, so memory use does not grow
+     * with the number of events.
+     *
+     * @param outputStream The stream to write to, left open.
+     * @return The number of exported events.
+     */
+    @Transactional
+    public long exportEvents(OutputStream outputStream) {
+        long exported = 0;
+        try (Stream<Event> events = eventRepository.streamAllForExport();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // No separator between root values, every record ends with its own newline
+            generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+
+            Iterator<Event> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                Event event = iterator.next();
+                generator.writeObject(EventMapper.toSummaryDTO(event));
+                generator.writeRaw('\n');
+                entityManager.detach(event);
+
+                if (++exported % EventRepository.EXPORT_FETCH_SIZE == 0) {
+                    // Also drops the organizer proxies collected along the way
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Exporting events failed after " + exported + " events", e);
+        }
+        log.info("Exported {} events", exported);
+        return exported;
+    }
+}
@@ -0,0 +1,104 @@
+package nl.novi.event_management_system.services;
+
+import jakarta.annotation.PreDestroy;
+import nl.novi.event_management_system.controllers.GlobalExceptionHandler;
+import nl.novi.event_management_system.repositories.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically recounts the ratings of every event from its feedback and repairs counters that drifted.
+ * The counters are kept exact by {@link FeedbackService}, this only catches feedback changed behind its back.
+ * Events are checked in batches, each in its own short transaction, so feedback is never blocked for long.
+ */
+@Component
+public class EventRatingsRebuild {
+    static final int BATCH_SIZE = 500;
+
+    // Sorts before every other ID, the first batch starts after it
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final EventRepository eventRepository;
+    private final FeedbackService feedbackService;
+    private final long rebuildMillis;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor for the EventRatingsRebuild class.
+     *
+     * @param eventRepository The repository the event IDs are read from.
+     * @param feedbackService The service that recounts the ratings of a batch of events.
+     * @param rebuildMillis   The number of milliseconds between two rebuilds.
+     */
+    public EventRatingsRebuild(EventRepository eventRepository, FeedbackService feedbackService,
+                               @Value("${ratings.rebuild-millis:3600000}") long rebuildMillis) {
+        this.eventRepository = eventRepository;
+        this.feedbackService = feedbackService;
+        this.rebuildMillis = rebuildMillis;
+    }
+
+    /**
+     * Starts the timer once the application has started. The first rebuild runs after one interval.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "event-ratings-rebuild");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::run, rebuildMillis, rebuildMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Recounts the ratings of every event.
+     *
+     * @return The number of events whose counters were repaired.
+     */
+    public int rebuild() {
+        long started = System.nanoTime();
+        int checked = 0;
+        int repaired = 0;
+        List<UUID> batch = eventRepository.findIdsAfter(FIRST_ID, Limit.of(BATCH_SIZE));
+        while (!batch.isEmpty()) {
+            repaired += feedbackService.repairRatings(batch);
+            checked += batch.size();
+            batch = batch.size() < BATCH_SIZE ? List.of()
+                    : eventRepository.findIdsAfter(batch.getLast(), Limit.of(BATCH_SIZE));
+        }
+        log.info("Checked the ratings of {} events in {} ms, repaired {}", checked, (System.nanoTime() - started) / 1_000_000, repaired);
+        return repaired;
+    }
+
+    private void run() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // An exception would cancel the scheduled task, the next run tries again
+            log.error("Rebuilding event ratings failed", e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package nl.novi.event_management_system.services;
+
+import nl.novi.event_management_system.dtos.CacheStatsDTO;
+import nl.novi.event_management_system.dtos.eventDtos.EventResponseDTO;
+import nl.novi.event_management_system.mappers.EventMapper;
+import nl.novi.event_management_system.utils.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of rendered event details, keyed by event ID.
+ * Every write that changes what {@link EventService#findEventById(UUID)} returns must call {@link #evict(UUID)}.
+ * Entries are private copies and every read returns a fresh copy, so a caller that changes its DTO never changes
+ * what the next request is served.
+ */
+@Component
+public class EventResponseCache {
+    private final BoundedTtlCache<UUID, EventResponseDTO> cache;
+
+    /**
+     * Constructor for the EventResponseCache class.
+     *
+     * @param maxSize    The maximum number of cached events.
+     * @param ttlSeconds The number of seconds an event stays cached.
+     */
+    public EventResponseCache(@Value("${events.cache.max-size:1000}") int maxSize,
+                              @Value("${events.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = new BoundedTtlCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * Returns the cached event detail, loading it on a miss.
+     *
+     * @param id     The ID of the event.
+     * @param loader Loads the event detail from the database.
+     * @return A copy of the event detail.
+     */
+    public EventResponseDTO get(UUID id, Function<UUID, EventResponseDTO> loader) {
+        return EventMapper.copyOf(cache.getOrLoad(id, loader.andThen(EventMapper::copyOf)));
+    }
+
+    /**
+     * Returns the cached event detail without loading it on a miss.
+     *
+     * @param id The ID of the event.
+     * @return A copy of the cached event detail, or null.
+     */
+    public EventResponseDTO getIfPresent(UUID id) {
+        return EventMapper.copyOf(cache.get(id));
+    }
+
+    /**
+     * Evicts an event detail. Inside a transaction the entry is evicted again after commit,
+     * so a reader that loaded the old state before the commit cannot leave it behind.
+     *
+     * @param id The ID of the event, ignored when null.
+     */
+    public void evict(UUID id) {
+        if (id == null) {
+            return;
+        }
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evicts every cached event detail.
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the cache.
+     *
+     * @return The cache statistics.
+     */
+    public CacheStatsDTO getStats() {
+        return CacheStatsDTO.builder()
+                .size(cache.size())
+                .maxSize(cache.getMaxSize())
+                .hits(cache.getHits())
+                .misses(cache.getMisses())
+                .evictions(cache.getEvictions())
+                .build();
+    }
+}
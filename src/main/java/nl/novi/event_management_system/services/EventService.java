@@ -3,8 +3,13 @@ package nl.novi.event_management_system.services;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import nl.novi.event_management_system.controllers.GlobalExceptionHandler;
+import nl.novi.event_management_system.dtos.CacheStatsDTO;
+import nl.novi.event_management_system.dtos.PageResponseDTO;
+import nl.novi.event_management_system.dtos.TextIndexStatsDTO;
 import nl.novi.event_management_system.dtos.eventDtos.*;
+import nl.novi.event_management_system.exceptions.BadRequestException;
 import nl.novi.event_management_system.exceptions.EventNotFoundException;
+import nl.novi.event_management_system.exceptions.PreconditionFailedException;
 import nl.novi.event_management_system.exceptions.RecordNotFoundException;
 import nl.novi.event_management_system.exceptions.UsernameNotFoundException;
 import nl.novi.event_management_system.mappers.EventMapper;
@@ -12,12 +17,16 @@ import nl.novi.event_management_system.models.Event;
 import nl.novi.event_management_system.models.Feedback;
 import nl.novi.event_management_system.models.Ticket;
 import nl.novi.event_management_system.models.User;
+import nl.novi.event_management_system.repositories.EventMembership;
 import nl.novi.event_management_system.repositories.EventRepository;
 import nl.novi.event_management_system.repositories.FeedbackRepository;
 import nl.novi.event_management_system.repositories.TicketRepository;
 import nl.novi.event_management_system.repositories.UserRepository;
+import nl.novi.event_management_system.utils.FieldSelection;
+import nl.novi.event_management_system.utils.KeysetCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -27,6 +36,9 @@ import java.util.*;
  */
 @Service
 public class EventService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     String LOG_MESSAGE_EVENT_NOT_FOUND = "Event not found with ID: {}";
     Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
@@ -34,6 +46,8 @@ public class EventService {
     private final UserRepository userRepository;
     private final FeedbackRepository feedbackRepository;
     private final TicketRepository ticketRepository;
+    private final EventResponseCache eventResponseCache;
+    private final EventTextIndex eventTextIndex;
 
     /**
      * Constructor for the EventService class.
@@ -42,12 +56,16 @@ public class EventService {
      * @param userRepository     The repository for the User entity.
      * @param feedbackRepository The repository for the Feedback entity.
      * @param ticketRepository   The repository for the Ticket entity.
+     * @param eventResponseCache The cache of rendered event details.
+     * @param eventTextIndex     The full-text index over event names and locations.
      */
-    public EventService(EventRepository eventRepository, UserRepository userRepository, FeedbackRepository feedbackRepository, TicketRepository ticketRepository) {
+    public EventService(EventRepository eventRepository, UserRepository userRepository, FeedbackRepository feedbackRepository, TicketRepository ticketRepository, EventResponseCache eventResponseCache, EventTextIndex eventTextIndex) {
         this.eventRepository = eventRepository;
         this.userRepository = userRepository;
         this.feedbackRepository = feedbackRepository;
         this.ticketRepository = ticketRepository;
+        this.eventResponseCache = eventResponseCache;
+        this.eventTextIndex = eventTextIndex;
     }
 
     /**
@@ -56,21 +74,70 @@ public class EventService {
      * @param eventCreateDTO The DTO containing the information for the event.
      * @return The DTO containing the information for the created event.
      */
+    @Transactional
     public EventResponseDTO createEvent(@Valid EventCreateDTO eventCreateDTO) {
         Event event = EventMapper.toEntity(eventCreateDTO);
         eventRepository.save(event);
+        eventTextIndex.index(EventMapper.toSummaryDTO(event));
         return EventMapper.toResponseDTO(event);
     }
 
     /**
-     * Retrieves an event by its ID.
+     * Retrieves an event by its ID. The rendered event is served from {@link EventResponseCache}
+     * until it expires or a write to the event evicts it.
      *
      * @param id The ID of the event to retrieve.
      * @return The DTO containing the information for the event.
      */
+    @Transactional
     public EventResponseDTO findEventById(UUID id) {
-        Event event = eventRepository.findById(id).orElseThrow(() -> new EventNotFoundException(id));
-        return EventMapper.toResponseDTO(event);
+        return eventResponseCache.get(id, eventId -> {
+            Event event = eventRepository.findDetailedById(eventId).orElseThrow(() -> new EventNotFoundException(eventId));
+            return EventMapper.toResponseDTO(event);
+        });
+    }
+
+    /**
+     * Retrieves an event by its ID with only the selected associations.
+     * A cached full event is reused, otherwise only the selected associations are loaded and the result is not cached.
+     *
+     * @param id     The ID of the event to retrieve.
+     * @param fields The fields the client asked for.
+     * @return The DTO containing the information for the event.
+     */
+    @Transactional
+    public EventResponseDTO findEventById(UUID id, FieldSelection fields) {
+        if (fields.isAll()) {
+            return findEventById(id);
+        }
+        EventResponseDTO cached = eventResponseCache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        Event event = eventRepository.findEventById(id).orElseThrow(() -> new EventNotFoundException(id));
+        return EventMapper.toResponseDTO(event, fields);
+    }
+
+    /**
+     * Retrieves the ratings of an event from the counters kept on the event, without reading its feedback.
+     *
+     * @param id The ID of the event.
+     * @return The number of ratings, their average and the number of each star.
+     * @throws EventNotFoundException if the event does not exist.
+     */
+    public EventRatingsDTO getEventRatings(UUID id) {
+        return eventRepository.findRatingStatsById(id)
+                .map(EventMapper::toRatingsDTO)
+                .orElseThrow(() -> new EventNotFoundException(id));
+    }
+
+    /**
+     * Retrieves the hit, miss and eviction counters of the event detail cache.
+     *
+     * @return The cache statistics.
+     */
+    public CacheStatsDTO getEventCacheStats() {
+        return eventResponseCache.getStats();
     }
 
     /**
@@ -78,18 +145,211 @@ public class EventService {
      *
      * @return A list of DTOs containing the information for all events.
      */
+    @Transactional
     public List<EventResponseDTO> getEventsByOrganizer(String username) {
+        return getEventsByOrganizer(username, FieldSelection.all());
+    }
 
-        return EventMapper.toResponseDTOList(eventRepository.findByOrganizerUsername(username));
+    /**
+     * Retrieves all events of an organizer with only the selected associations.
+     *
+     * @param username The username of the organizer.
+     * @param fields   The fields the client asked for.
+     * @return A list of DTOs containing the information for the events.
+     */
+    @Transactional
+    public List<EventResponseDTO> getEventsByOrganizer(String username, FieldSelection fields) {
+        return EventMapper.toResponseDTOList(eventRepository.findByOrganizerUsername(username), fields);
     }
 
     /**
-     * Retrieves all events.
+     * Retrieves the ticket sales, participants and ratings of every event of an organizer.
+     * All figures are aggregated by the database in one grouped query, no ticket or feedback row is loaded.
      *
-     * @return A list of DTOs containing the information for all events.
+     * @param username The username of the organizer.
+     * @return One dashboard entry per event, ordered by start date.
+     * @throws UsernameNotFoundException if the organizer does not exist.
+     */
+    public List<EventDashboardDTO> getOrganizerDashboard(String username) {
+        List<EventRepository.DashboardRow> rows = eventRepository.findDashboardRowsByOrganizer(username);
+        if (rows.isEmpty() && !userRepository.existsByUsername(username)) {
+            throw new UsernameNotFoundException(username);
+        }
+
+        // Rows arrive grouped by event, one row per ticket type sold
+        Map<UUID, EventDashboardDTO> dashboard = new LinkedHashMap<>();
+        for (EventRepository.DashboardRow row : rows) {
+            EventDashboardDTO event = dashboard.computeIfAbsent(row.getEventId(), id -> EventDashboardDTO.builder()
+                    .eventId(id)
+                    .name(row.getName())
+                    .startDate(row.getStartDate())
+                    .capacity(row.getCapacity())
+                    .participantCount(row.getParticipantCount())
+                    .feedbackCount(row.getFeedbackCount())
+                    .averageRating(row.getAverageRating())
+                    .build());
+            if (row.getTicketType() != null) {
+                event.getTicketsByType().put(row.getTicketType(), row.getTicketCount());
+                event.getRevenueByType().put(row.getTicketType(), row.getRevenue());
+                event.setTicketsSold(event.getTicketsSold() + row.getTicketCount());
+                event.setRevenue(event.getRevenue().add(row.getRevenue()));
+            }
+        }
+        return new ArrayList<>(dashboard.values());
+    }
+
+    /**
+     * Retrieves a page of events ordered by start date, using keyset pagination.
+     * Every page is a bounded index range scan, so deep pages cost the same as the first one.
+     *
+     * @param cursor The continuation token of the previous page, or null for the first page.
+     * @param limit  The maximum number of events to return, capped at {@link #MAX_PAGE_SIZE}.
+     * @return A page of event DTOs and the continuation token for the next page.
+     */
+    @Transactional
+    public PageResponseDTO<EventResponseDTO> getEvents(String cursor, int limit) {
+        return getEvents(cursor, limit, FieldSelection.all());
+    }
+
+    /**
+     * Retrieves a page of events ordered by start date with only the selected associations.
+     *
+     * @param cursor The continuation token of the previous page, or null for the first page.
+     * @param limit  The maximum number of events to return, capped at {@link #MAX_PAGE_SIZE}.
+     * @param fields The fields the client asked for.
+     * @return A page of event DTOs and the continuation token for the next page.
      */
-    public List<EventResponseDTO> getAllEvents() {
-        return EventMapper.toResponseDTOList(eventRepository.findAll());
+    @Transactional
+    public PageResponseDTO<EventResponseDTO> getEvents(String cursor, int limit, FieldSelection fields) {
+        int pageSize = resolvePageSize(limit);
+
+        // Fetch one extra row to find out whether there is a next page without a count query
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Event> events;
+        if (cursor == null || cursor.isBlank()) {
+            events = eventRepository.findAllByOrderByStartDateAscIdAsc(fetchLimit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            events = eventRepository.findPageAfter(position.getDate(), position.getId(), fetchLimit);
+        }
+
+        String nextCursor = null;
+        if (events.size() > pageSize) {
+            events = events.subList(0, pageSize);
+            Event last = events.getLast();
+            nextCursor = new KeysetCursor(last.getStartDate(), last.getId()).encode();
+        }
+
+        return new PageResponseDTO<>(EventMapper.toResponseDTOList(events, fields), nextCursor);
+    }
+
+    /**
+     * Retrieves a page of event summaries ordered by start date, using keyset pagination.
+     * The summaries are read with a projection, so no event association is loaded.
+     *
+     * @param cursor The continuation token of the previous page, or null for the first page.
+     * @param limit  The maximum number of events to return, capped at {@link #MAX_PAGE_SIZE}.
+     * @return A page of event summaries and the continuation token for the next page.
+     */
+    public PageResponseDTO<EventSummaryDTO> getEventSummaries(String cursor, int limit) {
+        int pageSize = resolvePageSize(limit);
+
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<EventSummaryDTO> summaries;
+        if (cursor == null || cursor.isBlank()) {
+            summaries = eventRepository.findSummaries(fetchLimit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            summaries = eventRepository.findSummariesAfter(position.getDate(), position.getId(), fetchLimit);
+        }
+
+        String nextCursor = null;
+        if (summaries.size() > pageSize) {
+            summaries = summaries.subList(0, pageSize);
+            EventSummaryDTO last = summaries.getLast();
+            nextCursor = new KeysetCursor(last.getStartDate(), last.getId()).encode();
+        }
+
+        return new PageResponseDTO<>(new ArrayList<>(summaries), nextCursor);
+    }
+
+    /**
+     * Retrieves the summaries of all events of an organizer.
+     *
+     * @param username The username of the organizer.
+     * @return A list of event summaries ordered by start date.
+     */
+    public List<EventSummaryDTO> getEventSummariesByOrganizer(String username) {
+        return eventRepository.findSummariesByOrganizerUsername(username);
+    }
+
+    /**
+     * Searches events in the database by date range, location, price range, capacity and remaining seats.
+     * The results are event summaries, paginated with a keyset on start date and ID.
+     *
+     * @param criteria The search filters, absent filters match all events.
+     * @param cursor   The continuation token of the previous page, or null for the first page.
+     * @param limit    The maximum number of events to return, capped at {@link #MAX_PAGE_SIZE}.
+     * @return A page of matching event summaries and the continuation token for the next page.
+     */
+    public PageResponseDTO<EventSummaryDTO> searchEvents(EventSearchCriteriaDTO criteria, String cursor, int limit) {
+        int pageSize = resolvePageSize(limit);
+        validateSearchCriteria(criteria);
+
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        List<EventSummaryDTO> summaries = eventRepository.searchSummaries(criteria, after, pageSize + 1);
+
+        String nextCursor = null;
+        if (summaries.size() > pageSize) {
+            summaries = summaries.subList(0, pageSize);
+            EventSummaryDTO last = summaries.getLast();
+            nextCursor = new KeysetCursor(last.getStartDate(), last.getId()).encode();
+        }
+
+        return new PageResponseDTO<>(new ArrayList<>(summaries), nextCursor);
+    }
+
+    /**
+     * Searches event names and locations for free text, using the in-memory full-text index.
+     * Every word of the query must match a word of the name or location, or be a prefix of one.
+     *
+     * @param query The free text query.
+     * @param limit The maximum number of events to return, capped at {@link #MAX_PAGE_SIZE}.
+     * @return The matching event summaries, best match first.
+     */
+    public List<EventSummaryDTO> searchEventText(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Query cannot be empty");
+        }
+        return eventTextIndex.search(query, resolvePageSize(limit));
+    }
+
+    /**
+     * Retrieves the size and estimated memory footprint of the full-text index.
+     *
+     * @return The index statistics.
+     */
+    public TextIndexStatsDTO getTextIndexStats() {
+        return eventTextIndex.getStats();
+    }
+
+    private void validateSearchCriteria(EventSearchCriteriaDTO criteria) {
+        if (criteria.getStartFrom() != null && criteria.getStartTo() != null && criteria.getStartFrom().isAfter(criteria.getStartTo())) {
+            throw new BadRequestException("startFrom must not be after startTo");
+        }
+        if (criteria.getMinPrice() != null && criteria.getMaxPrice() != null && criteria.getMinPrice() > criteria.getMaxPrice()) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+        if (criteria.getLocation() != null && criteria.getLocation().isBlank()) {
+            criteria.setLocation(null);
+        }
+    }
+
+    private int resolvePageSize(int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("Limit must be at least 1");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
     }
 
     /**
@@ -99,17 +359,60 @@ public class EventService {
      * @param eventCreateDTO The DTO containing the information for the updated event.
      * @return The DTO containing the information for the updated event.
      */
+    @Transactional
     public EventResponseDTO updateEvent(UUID id, EventCreateDTO eventCreateDTO) {
+        return updateEvent(id, eventCreateDTO, null);
+    }
+
+    /**
+     * Updates an event if it still has the version the client last read.
+     * The fields are copied onto the stored event, so the organizer and the join collections are kept.
+     *
+     * @param id              The ID of the event to update.
+     * @param eventCreateDTO  The DTO containing the information for the updated event.
+     * @param expectedVersion The version from the If-Match header, or null to update unconditionally.
+     * @return The DTO containing the information for the updated event, with its new version.
+     * @throws PreconditionFailedException if the event has changed since the client read it.
+     * @throws BadRequestException         if the new capacity is below the number of seats already sold.
+     */
+    @Transactional
+    public EventResponseDTO updateEvent(UUID id, EventCreateDTO eventCreateDTO, Long expectedVersion) {
         if (!eventRepository.existsById(id)) throw new EventNotFoundException(id);
         Event storedEvent = eventRepository.findEventById(id).orElseThrow(() -> new EventNotFoundException(id));
-        Event updatedEvent = EventMapper.toEntity(eventCreateDTO);
-        updatedEvent.setId(storedEvent.getId());
+        if (expectedVersion != null && expectedVersion != storedEvent.getVersion()) {
+            throw new PreconditionFailedException("Event " + id + " is at version " + storedEvent.getVersion()
+                    + ", the request expected version " + expectedVersion);
+        }
+        if (eventCreateDTO.getCapacity() < storedEvent.getSoldCount()) {
+            throw new BadRequestException("Capacity cannot be lower than the " + storedEvent.getSoldCount() + " seats already sold");
+        }
 
-        Event savedEvent = eventRepository.save(updatedEvent);
+        storedEvent.setName(eventCreateDTO.getName());
+        storedEvent.setLocation(eventCreateDTO.getLocation());
+        storedEvent.setStartDate(eventCreateDTO.getStartDate());
+        storedEvent.setEndDate(eventCreateDTO.getEndDate());
+        storedEvent.setCapacity(eventCreateDTO.getCapacity());
+        storedEvent.setPrice(eventCreateDTO.getPrice());
+
+        // Flushing increments the version now, so the response carries the new entity tag
+        Event savedEvent = eventRepository.saveAndFlush(storedEvent);
+        eventResponseCache.evict(id);
+        eventTextIndex.index(EventMapper.toSummaryDTO(savedEvent));
 
         return EventMapper.toResponseDTO(savedEvent);
     }
 
+    /**
+     * Returns the current version of an event without loading it.
+     *
+     * @param id The ID of the event.
+     * @return The version of the event.
+     * @throws EventNotFoundException if the event does not exist.
+     */
+    public long getEventVersion(UUID id) {
+        return eventRepository.findVersionById(id).orElseThrow(() -> new EventNotFoundException(id));
+    }
+
     /**
      * Deletes an event by its ID.
      *
@@ -122,6 +425,8 @@ public class EventService {
 
         if (eventRepository.existsById(id)) {
             eventRepository.deleteById(id);
+            eventResponseCache.evict(id);
+            eventTextIndex.remove(id);
             return true;
         }
         return false;
@@ -144,6 +449,8 @@ public class EventService {
 
         event.setOrganizer(organizer);
         eventRepository.save(event);
+        eventResponseCache.evict(eventId);
+        eventTextIndex.index(EventMapper.toSummaryDTO(event));
         log.info("Successfully assigned organizer '{}' to event '{}'", organizerUsername, eventId);
     }
 
@@ -171,18 +478,23 @@ public class EventService {
 
         event.setOrganizer(null);
         eventRepository.save(event);
+        eventResponseCache.evict(eventId);
+        eventTextIndex.index(EventMapper.toSummaryDTO(event));
 
         log.info("Successfully removed organizer '{}' from event '{}'", organizerUsername, eventId);
     }
 
     /**
-     * Assigns a location to an event.
+     * Assigns participants to an event in bulk.
+     * Usernames are resolved with chunked IN queries and only the missing join table rows are inserted, in JDBC batches,
+     * so the cost depends on the size of the request rather than on the number of existing participants.
      *
-     * @param eventId                         The ID of the event to assign the location to.
+     * @param eventId                         The ID of the event to assign the participants to.
      * @param eventParticipantUsernameDTOList The DTO containing participants usernames to assign to the event.
+     * @return Which usernames were added, were already registered or do not exist.
      */
     @Transactional
-    public void assignParticipantToEvent(UUID eventId, List<EventParticipantUsernameDTO> eventParticipantUsernameDTOList) {
+    public ParticipantAssignmentResultDTO assignParticipantToEvent(UUID eventId, List<EventParticipantUsernameDTO> eventParticipantUsernameDTOList) {
         log.info("Assigning participants to event with ID: {}", eventId);
 
         // Validate input
@@ -190,40 +502,42 @@ public class EventService {
             throw new IllegalArgumentException("Participant list cannot be null or empty");
         }
 
-        // Find the event
-        Event event = eventRepository.findEventById(eventId)
-                .orElseThrow(() -> {
-                    log.error(LOG_MESSAGE_EVENT_NOT_FOUND, eventId);
-                    return new EventNotFoundException(eventId);
-                });
-
-        // Create a list to hold the participants
-        List<User> participants = new ArrayList<>();
+        // Locking the event row keeps concurrent assignments to this event from inserting the same row twice
+        lockEvent(eventId);
 
-        // Iterate over the list of DTOs to find and add participants
+        Set<String> requested = new LinkedHashSet<>();
         for (EventParticipantUsernameDTO eventParticipantUsernameDTO : eventParticipantUsernameDTOList) {
-            String username = eventParticipantUsernameDTO.getUsername();
-            User participant = userRepository.findByUsername(username)
-                    .orElseThrow(() -> {
-                        log.error("User not found with username: {}", username);
-                        return new UsernameNotFoundException(username);
-                    });
-            participants.add(participant);
-            log.info("Added participant with username: {}", username);
-        }
-
-        // Add participants to the event (avoid duplicates)
-        Set<User> uniqueParticipants = new HashSet<>(event.getParticipants());
-        uniqueParticipants.addAll(participants);
-        event.setParticipants(new ArrayList<>(uniqueParticipants));
-
-        // Save the updated event
-        eventRepository.save(event);
-        log.info("Participants assigned successfully to event with ID: {}", eventId);
+            if (eventParticipantUsernameDTO != null && eventParticipantUsernameDTO.getUsername() != null) {
+                requested.add(eventParticipantUsernameDTO.getUsername());
+            }
+        }
+
+        Set<String> existingUsers = eventRepository.findExistingUsernames(requested);
+        Set<String> currentParticipants = eventRepository.findParticipantUsernames(eventId, existingUsers);
+
+        ParticipantAssignmentResultDTO result = ParticipantAssignmentResultDTO.builder().requested(requested.size()).build();
+        for (String username : requested) {
+            if (!existingUsers.contains(username)) {
+                result.getUnknownUsernames().add(username);
+            } else if (currentParticipants.contains(username)) {
+                result.getAlreadyRegistered().add(username);
+            } else {
+                result.getAdded().add(username);
+            }
+        }
+
+        if (!result.getAdded().isEmpty()) {
+            eventRepository.insertMembers(eventId, EventMembership.PARTICIPANTS, result.getAdded());
+        }
+        eventResponseCache.evict(eventId);
+        log.info("Assigned {} participants to event with ID: {}, {} already registered, {} unknown",
+                result.getAdded().size(), eventId, result.getAlreadyRegistered().size(), result.getUnknownUsernames().size());
+        return result;
     }
 
     /**
      * Removes a participant from an event.
+     * Membership is checked with an indexed lookup and exactly one join table row is deleted.
      *
      * @param eventId        The ID of the event to remove the participant from.
      * @param participantDTO The DTO containing the participant username to remove from the event.
@@ -232,26 +546,44 @@ public class EventService {
     public void removeParticipantFromEvent(UUID eventId, EventParticipantUsernameDTO participantDTO) {
         log.info("Attempting to remove participant '{}' from event '{}'", participantDTO.getUsername(), eventId);
 
-        Event event = eventRepository.findEventById(eventId)
-                .orElseThrow(() -> new EventNotFoundException(eventId));
-
-        User participant = userRepository.findById(participantDTO.getUsername())
-                .orElseThrow(() -> new RecordNotFoundException("Participant not found with username: " + participantDTO.getUsername()));
-
-        if (!event.getParticipants().remove(participant)) {
+        lockEvent(eventId);
+        if (!userRepository.existsById(participantDTO.getUsername())) {
+            throw new RecordNotFoundException("Participant not found with username: " + participantDTO.getUsername());
+        }
+        if (!removeMember(eventId, EventMembership.PARTICIPANTS, participantDTO.getUsername())) {
             log.warn("Participant '{}' was not found in event '{}'", participantDTO.getUsername(), eventId);
             throw new IllegalStateException("Participant is not registered for this event.");
         }
 
-        eventRepository.save(event);
         log.info("Successfully removed participant '{}' from event '{}'", participantDTO.getUsername(), eventId);
     }
 
     /**
-     * Assigns a location to an event.
+     * Removes participants from an event in one transaction, with one DELETE per chunk of usernames.
+     *
+     * @param eventId         The ID of the event to remove the participants from.
+     * @param participantDTOs The DTOs containing the participant usernames to remove from the event.
+     * @return The usernames that were removed and the ones that were not participants.
+     */
+    @Transactional
+    public RemovalResultDTO removeParticipantsFromEvent(UUID eventId, List<EventParticipantUsernameDTO> participantDTOs) {
+        if (participantDTOs == null || participantDTOs.isEmpty()) {
+            throw new IllegalArgumentException("Participant list cannot be null or empty");
+        }
+        List<String> usernames = participantDTOs.stream()
+                .filter(Objects::nonNull)
+                .map(EventParticipantUsernameDTO::getUsername)
+                .filter(Objects::nonNull)
+                .toList();
+        return removeMembers(eventId, EventMembership.PARTICIPANTS, usernames, String.class);
+    }
+
+    /**
+     * Adds tickets to an event. Only the tickets that are not linked yet are inserted, one join table row each.
      *
-     * @param eventId         The ID of the event to assign the location to.
-     * @param ticketIdDTOList The DTO containing the ticket IDs to assign to the event.
+     * @param eventId         The ID of the event to add the tickets to.
+     * @param ticketIdDTOList The DTO containing the ticket IDs to add to the event.
+     * @throws RecordNotFoundException if one of the tickets does not exist.
      */
     @Transactional
     public void addTicketsToEvent(UUID eventId, List<EventTicketIdDTO> ticketIdDTOList) {
@@ -261,40 +593,22 @@ public class EventService {
             throw new IllegalArgumentException("Ticket list cannot be null or empty");
         }
 
-        // Find the event
-        Event event = eventRepository.findEventById(eventId)
-                .orElseThrow(() -> {
-                    log.error(LOG_MESSAGE_EVENT_NOT_FOUND, eventId);
-                    return new EventNotFoundException(eventId);
-                });
-
-        // Create a list to hold the tickets
-        List<Ticket> tickets = new ArrayList<>();
-
-        // Iterate over the list of DTOs to find and add tickets
-        for (EventTicketIdDTO ticketIdDTO : ticketIdDTOList) {
-            UUID ticketId = ticketIdDTO.getTicketId();
-            Ticket ticket = ticketRepository.findById(ticketId)
-                    .orElseThrow(() -> {
-                        log.error("Ticket not found with ID: {}", ticketId);
-                        return new RecordNotFoundException("Ticket not found with ID: " + ticketId);
-                    });
-            tickets.add(ticket);
-            log.info("Added ticket with ID: {}", ticketId);
-        }
-
-        // Add tickets to the event (avoid duplicates)
-        Set<Ticket> uniqueTickets = new HashSet<>(event.getTickets());
-        uniqueTickets.addAll(tickets);
-        event.setTickets(new ArrayList<>(uniqueTickets));
-
-        // Save the updated event
-        eventRepository.save(event);
-        log.info("Ticket added successfully to event with ID: {}", eventId);
+        lockEvent(eventId);
+        Set<UUID> ticketIds = new LinkedHashSet<>();
+        ticketIdDTOList.forEach(ticketIdDTO -> ticketIds.add(ticketIdDTO.getTicketId()));
+        Set<UUID> existingTickets = ticketRepository.findExistingIds(ticketIds);
+        ticketIds.stream().filter(ticketId -> !existingTickets.contains(ticketId)).findFirst().ifPresent(ticketId -> {
+            log.error("Ticket not found with ID: {}", ticketId);
+            throw new RecordNotFoundException("Ticket not found with ID: " + ticketId);
+        });
+
+        int added = addMembers(eventId, EventMembership.TICKETS, ticketIds, UUID.class);
+        log.info("{} tickets added successfully to event with ID: {}", added, eventId);
     }
 
     /**
      * Removes a ticket from an event.
+     * Membership is checked with an indexed lookup and exactly one join table row is deleted.
      *
      * @param eventId     The ID of the event to remove the ticket from.
      * @param ticketIdDTO The DTO containing the ticket ID to remove from the event.
@@ -303,26 +617,44 @@ public class EventService {
     public void removeTicketFromEvent(UUID eventId, EventTicketIdDTO ticketIdDTO) {
         log.info("Attempting to remove ticket '{}' from event '{}'", ticketIdDTO.getTicketId(), eventId);
 
-        Event event = eventRepository.findEventById(eventId)
-                .orElseThrow(() -> new EventNotFoundException(eventId));
-
-        Ticket ticket = ticketRepository.findById(ticketIdDTO.getTicketId())
-                .orElseThrow(() -> new RecordNotFoundException("Ticket not found with ID: " + ticketIdDTO.getTicketId()));
-
-        if (!event.getTickets().remove(ticket)) {
+        lockEvent(eventId);
+        if (!ticketRepository.existsById(ticketIdDTO.getTicketId())) {
+            throw new RecordNotFoundException("Ticket not found with ID: " + ticketIdDTO.getTicketId());
+        }
+        if (!removeMember(eventId, EventMembership.TICKETS, ticketIdDTO.getTicketId())) {
             log.warn("Ticket '{}' was not found in event '{}'", ticketIdDTO.getTicketId(), eventId);
             throw new IllegalStateException("Ticket is not registered for this event.");
         }
 
-        eventRepository.save(event);
         log.info("Successfully removed ticket '{}' from event '{}'", ticketIdDTO.getTicketId(), eventId);
     }
 
     /**
-     * Assigns a location to an event.
+     * Removes tickets from an event in one transaction, with one DELETE per chunk of ticket IDs.
      *
-     * @param eventId           The ID of the event to assign the location to.
-     * @param feedbackIdDTOList The DTO containing the feedback IDs to assign to the event.
+     * @param eventId      The ID of the event to remove the tickets from.
+     * @param ticketIdDTOs The DTOs containing the ticket IDs to remove from the event.
+     * @return The ticket IDs that were removed and the ones that were not linked to the event.
+     */
+    @Transactional
+    public RemovalResultDTO removeTicketsFromEvent(UUID eventId, List<EventTicketIdDTO> ticketIdDTOs) {
+        if (ticketIdDTOs == null || ticketIdDTOs.isEmpty()) {
+            throw new IllegalArgumentException("Ticket list cannot be null or empty");
+        }
+        List<UUID> ticketIds = ticketIdDTOs.stream()
+                .filter(Objects::nonNull)
+                .map(EventTicketIdDTO::getTicketId)
+                .filter(Objects::nonNull)
+                .toList();
+        return removeMembers(eventId, EventMembership.TICKETS, ticketIds, UUID.class);
+    }
+
+    /**
+     * Adds feedback to an event. Only the feedback that is not linked yet is inserted, one join table row each.
+     *
+     * @param eventId           The ID of the event to add the feedback to.
+     * @param feedbackIdDTOList The DTO containing the feedback IDs to add to the event.
+     * @throws RecordNotFoundException if one of the feedbacks does not exist.
      */
     @Transactional
     public void AddFeedbacksToEvent(UUID eventId, List<EventFeedbackIdDTO> feedbackIdDTOList) {
@@ -332,41 +664,22 @@ public class EventService {
             throw new IllegalArgumentException("Feedback list cannot be null or empty");
         }
 
-        // Find the event
-        Event event = eventRepository.findEventById(eventId)
-                .orElseThrow(() -> {
-                    log.error(LOG_MESSAGE_EVENT_NOT_FOUND, eventId);
-                    return new EventNotFoundException(eventId);
-                });
-
-        // Create a list to hold the feedbacks
-        List<Feedback> feedbacks = new ArrayList<>();
-
-        // Iterate over the list of DTOs to find and add feedbacks
-        for (EventFeedbackIdDTO feedbackIdDTO : feedbackIdDTOList) {
-            UUID feedbackId = feedbackIdDTO.getFeedbackId();
-            Feedback feedback = feedbackRepository.findById(feedbackId)
-                    .orElseThrow(() -> {
-                        log.error("Feedback not found with ID: {}", feedbackId);
-                        return new RecordNotFoundException("Feedback not found with ID: " + feedbackId);
-                    });
-            feedbacks.add(feedback);
-            log.info("Added feedback with ID: {}", feedbackId);
-        }
-
-        // Add feedbacks to the event (avoid duplicates)
-        Set<Feedback> uniqueFeedbacks = new HashSet<>(event.getFeedbacks());
-        uniqueFeedbacks.addAll(feedbacks);
-
-        event.setFeedbacks(new ArrayList<>(uniqueFeedbacks));
-
-        // Save the updated event
-        eventRepository.save(event);
-        log.info("Feedback added successfully to event with ID: {}", eventId);
+        lockEvent(eventId);
+        Set<UUID> feedbackIds = new LinkedHashSet<>();
+        feedbackIdDTOList.forEach(feedbackIdDTO -> feedbackIds.add(feedbackIdDTO.getFeedbackId()));
+        Set<UUID> existingFeedbacks = feedbackRepository.findExistingIds(feedbackIds);
+        feedbackIds.stream().filter(feedbackId -> !existingFeedbacks.contains(feedbackId)).findFirst().ifPresent(feedbackId -> {
+            log.error("Feedback not found with ID: {}", feedbackId);
+            throw new RecordNotFoundException("Feedback not found with ID: " + feedbackId);
+        });
+
+        int added = addMembers(eventId, EventMembership.FEEDBACK, feedbackIds, UUID.class);
+        log.info("{} feedbacks added successfully to event with ID: {}", added, eventId);
     }
 
     /**
      * Removes a feedback from an event.
+     * Membership is checked with an indexed lookup and exactly one join table row is deleted.
      *
      * @param eventId       The ID of the event to remove the feedback from.
      * @param feedbackIdDTO The DTO containing the feedback ID to remove from the event.
@@ -375,18 +688,83 @@ public class EventService {
     public void removeFeedbackFromEvent(UUID eventId, EventFeedbackIdDTO feedbackIdDTO) {
         log.info("Attempting to remove feedback '{}' from event '{}'", feedbackIdDTO.getFeedbackId(), eventId);
 
-        Event event = eventRepository.findEventById(eventId)
-                .orElseThrow(() -> new EventNotFoundException(eventId));
-
-        Feedback feedback = feedbackRepository.findById(feedbackIdDTO.getFeedbackId())
-                .orElseThrow(() -> new RecordNotFoundException("Feedback not found with ID: " + feedbackIdDTO.getFeedbackId()));
-
-        if (!event.getFeedbacks().remove(feedback)) {
+        lockEvent(eventId);
+        if (!feedbackRepository.existsById(feedbackIdDTO.getFeedbackId())) {
+            throw new RecordNotFoundException("Feedback not found with ID: " + feedbackIdDTO.getFeedbackId());
+        }
+        if (!removeMember(eventId, EventMembership.FEEDBACK, feedbackIdDTO.getFeedbackId())) {
             log.warn("Feedback '{}' was not found in event '{}'", feedbackIdDTO.getFeedbackId(), eventId);
             throw new IllegalStateException("Feedback is not registered for this event.");
         }
 
-        eventRepository.save(event);
         log.info("Successfully removed feedback '{}' from event '{}'", feedbackIdDTO.getFeedbackId(), eventId);
     }
+
+    /**
+     * Removes feedback from an event in one transaction, with one DELETE per chunk of feedback IDs.
+     *
+     * @param eventId        The ID of the event to remove the feedback from.
+     * @param feedbackIdDTOs The DTOs containing the feedback IDs to remove from the event.
+     * @return The feedback IDs that were removed and the ones that were not linked to the event.
+     */
+    @Transactional
+    public RemovalResultDTO removeFeedbacksFromEvent(UUID eventId, List<EventFeedbackIdDTO> feedbackIdDTOs) {
+        if (feedbackIdDTOs == null || feedbackIdDTOs.isEmpty()) {
+            throw new IllegalArgumentException("Feedback list cannot be null or empty");
+        }
+        List<UUID> feedbackIds = feedbackIdDTOs.stream()
+                .filter(Objects::nonNull)
+                .map(EventFeedbackIdDTO::getFeedbackId)
+                .filter(Objects::nonNull)
+                .toList();
+        return removeMembers(eventId, EventMembership.FEEDBACK, feedbackIds, UUID.class);
+    }
+
+    private <T> int addMembers(UUID eventId, EventMembership membership, Set<T> memberIds, Class<T> idType) {
+        Set<T> missing = new LinkedHashSet<>(memberIds);
+        missing.removeAll(eventRepository.findMembers(eventId, membership, memberIds, idType));
+        if (!missing.isEmpty()) {
+            eventRepository.insertMembers(eventId, membership, missing);
+        }
+        eventResponseCache.evict(eventId);
+        return missing.size();
+    }
+
+    private boolean removeMember(UUID eventId, EventMembership membership, Object memberId) {
+        if (!eventRepository.existsMember(eventId, membership, memberId)) {
+            return false;
+        }
+        eventRepository.deleteMembers(eventId, membership, List.of(memberId));
+        eventResponseCache.evict(eventId);
+        return true;
+    }
+
+    // Bumping the version locks the event row until commit and changes its ETag, the join tables are written with plain SQL
+    private void lockEvent(UUID eventId) {
+        if (eventRepository.incrementVersion(eventId) == 0) {
+            log.error(LOG_MESSAGE_EVENT_NOT_FOUND, eventId);
+            throw new EventNotFoundException(eventId);
+        }
+        eventRepository.refreshIfLoaded(eventId);
+    }
+
+    private <T> RemovalResultDTO removeMembers(UUID eventId, EventMembership membership, List<T> memberIds, Class<T> idType) {
+        // The event row stays locked until commit, so the members read below are the ones deleted
+        lockEvent(eventId);
+
+        Set<T> requested = new LinkedHashSet<>(memberIds);
+        Set<T> linked = eventRepository.findMembers(eventId, membership, requested, idType);
+        RemovalResultDTO result = new RemovalResultDTO();
+        for (T memberId : requested) {
+            (linked.contains(memberId) ? result.getRemoved() : result.getNotRemoved()).add(memberId.toString());
+        }
+
+        if (!linked.isEmpty()) {
+            eventRepository.deleteMembers(eventId, membership, linked);
+        }
+        eventResponseCache.evict(eventId);
+        log.info("Removed {} of {} {} from event '{}'", result.getRemoved().size(), requested.size(),
+                membership.name().toLowerCase(Locale.ROOT), eventId);
+        return result;
+    }
 }
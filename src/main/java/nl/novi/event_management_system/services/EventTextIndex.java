@@ -0,0 +1,262 @@
+package nl.novi.event_management_system.services;
+
+import nl.novi.event_management_system.controllers.GlobalExceptionHandler;
+import nl.novi.event_management_system.dtos.TextIndexStatsDTO;
+import nl.novi.event_management_system.dtos.eventDtos.EventSummaryDTO;
+import nl.novi.event_management_system.mappers.EventMapper;
+import nl.novi.event_management_system.repositories.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over event names and locations.
+ * Terms are kept sorted, so a query token matches every term it is a prefix of with one range lookup.
+ * Writes in {@link EventService} keep the index up to date, it is rebuilt from the database at startup.
+ */
+@Component
+public class EventTextIndex {
+    static final int NAME_WEIGHT = 2;
+    static final int LOCATION_WEIGHT = 1;
+    // An exact term match ranks above a match on a longer term that merely starts with the token
+    static final int EXACT_MATCH_BONUS = 2;
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{Alnum}]+");
+
+    // Rough JVM object sizes used by the footprint estimate, with compressed oops
+    private static final int TREE_ENTRY_BYTES = 40;
+    private static final int HASH_ENTRY_BYTES = 48;
+    private static final int STRING_BYTES = 56;
+    private static final int UUID_BYTES = 32;
+    private static final int DOCUMENT_BYTES = 200;
+
+    Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final EventRepository eventRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (event ID -> field weight of the term in that event)
+    private final NavigableMap<String, Map<UUID, Integer>> postings = new TreeMap<>();
+    private final Map<UUID, IndexedEvent> documents = new HashMap<>();
+
+    /**
+     * Constructor for the EventTextIndex class.
+     *
+     * @param eventRepository The repository the index is rebuilt from.
+     */
+    public EventTextIndex(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    /**
+     * Rebuilds the index from the database once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        int indexed;
+        // Writes that commit during the rebuild wait for the lock and are applied on top of it
+        lock.writeLock().lock();
+        try {
+            List<EventSummaryDTO> batch = eventRepository.findSummaries(Limit.of(REBUILD_BATCH_SIZE));
+            postings.clear();
+            documents.clear();
+            while (!batch.isEmpty()) {
+                batch.forEach(this::addDocument);
+                EventSummaryDTO last = batch.getLast();
+                batch = batch.size() < REBUILD_BATCH_SIZE ? List.of()
+                        : eventRepository.findSummariesAfter(last.getStartDate(), last.getId(), Limit.of(REBUILD_BATCH_SIZE));
+            }
+            indexed = documents.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} events in {} ms", indexed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Adds or replaces an event in the index. Inside a transaction the index is only changed after commit.
+     *
+     * @param event The summary of the event.
+     */
+    public void index(EventSummaryDTO event) {
+        // The index keeps its own copy, the caller may still change the DTO it passed in
+        EventSummaryDTO snapshot = EventMapper.copyOf(event);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(snapshot.getId());
+                addDocument(snapshot);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes an event from the index. Inside a transaction the index is only changed after commit.
+     *
+     * @param id The ID of the event.
+     */
+    public void remove(UUID id) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Finds the events whose name or location contains every token of the query, as a word or a word prefix.
+     * Matches in the name rank above matches in the location, ties are ordered by start date.
+     *
+     * @param query The free text query.
+     * @param limit The maximum number of events to return.
+     * @return Copies of the matching event summaries, best match first.
+     */
+    public List<EventSummaryDTO> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<UUID, Integer> scores = null;
+            for (String token : new LinkedHashSet<>(tokens)) {
+                Map<UUID, Integer> tokenScores = scoreToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    // Every token must match, keep only the events matched so far
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Map<UUID, Integer> finalScores = scores;
+            Comparator<EventSummaryDTO> ranking = Comparator.comparing((EventSummaryDTO event) -> finalScores.get(event.getId())).reversed()
+                    .thenComparing(EventSummaryDTO::getStartDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(EventSummaryDTO::getId);
+            return finalScores.keySet().stream()
+                    .map(id -> documents.get(id).summary())
+                    .sorted(ranking)
+                    .limit(limit)
+                    .map(EventMapper::copyOf)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the size of the index and an estimate of the heap it occupies.
+     *
+     * @return The index statistics.
+     */
+    public TextIndexStatsDTO getStats() {
+        lock.readLock().lock();
+        try {
+            long postingCount = postings.values().stream().mapToLong(Map::size).sum();
+            long termBytes = postings.keySet().stream().mapToLong(term -> STRING_BYTES + term.length()).sum();
+            long estimatedBytes = termBytes
+                    + (long) postings.size() * (TREE_ENTRY_BYTES + HASH_ENTRY_BYTES)
+                    + postingCount * HASH_ENTRY_BYTES
+                    + (long) documents.size() * (HASH_ENTRY_BYTES + UUID_BYTES + DOCUMENT_BYTES);
+            return TextIndexStatsDTO.builder()
+                    .documents(documents.size())
+                    .terms(postings.size())
+                    .postings(postingCount)
+                    .estimatedBytes(estimatedBytes)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lower case words without diacritics, so "Café-Concert" yields "cafe" and "concert".
+     *
+     * @param text The text to split, may be null.
+     * @return The normalized tokens in order of appearance.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return Arrays.stream(NON_ALPHANUMERIC.split(normalized.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private Map<UUID, Integer> scoreToken(String token) {
+        Map<UUID, Integer> scores = new HashMap<>();
+        // All terms starting with the token form one contiguous range of the sorted term map
+        for (Map.Entry<String, Map<UUID, Integer>> term : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            int bonus = term.getKey().equals(token) ? EXACT_MATCH_BONUS : 1;
+            term.getValue().forEach((id, weight) -> scores.merge(id, weight * bonus, Math::max));
+        }
+        return scores;
+    }
+
+    private void addDocument(EventSummaryDTO event) {
+        Map<String, Integer> terms = new HashMap<>();
+        tokenize(event.getName()).forEach(term -> terms.merge(term, NAME_WEIGHT, Math::max));
+        tokenize(event.getLocation()).forEach(term -> terms.merge(term, LOCATION_WEIGHT, Math::max));
+
+        terms.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(event.getId(), weight));
+        documents.put(event.getId(), new IndexedEvent(event, terms.keySet()));
+    }
+
+    private void removeDocument(UUID id) {
+        IndexedEvent document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Map<UUID, Integer> events = postings.get(term);
+            if (events != null) {
+                events.remove(id);
+                if (events.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private record IndexedEvent(EventSummaryDTO summary, Set<String> terms) {
+    }
+}
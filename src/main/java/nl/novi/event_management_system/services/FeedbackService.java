@@ -1,5 +1,6 @@
 package nl.novi.event_management_system.services;
 
+import jakarta.transaction.Transactional;
 import nl.novi.event_management_system.controllers.GlobalExceptionHandler;
 import nl.novi.event_management_system.dtos.feedbackDtos.FeedbackCreateDTO;
 import nl.novi.event_management_system.dtos.feedbackDtos.FeedbackResponseDTO;
@@ -10,6 +11,7 @@ import nl.novi.event_management_system.mappers.FeedbackMapper;
 import nl.novi.event_management_system.models.Feedback;
 import nl.novi.event_management_system.models.User;
 import nl.novi.event_management_system.models.Event;
+import nl.novi.event_management_system.models.RatingStats;
 import nl.novi.event_management_system.repositories.FeedbackRepository;
 import nl.novi.event_management_system.repositories.UserRepository;
 import nl.novi.event_management_system.repositories.EventRepository;
@@ -17,7 +19,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -25,10 +30,13 @@ import java.util.UUID;
  */
 @Service
 public class FeedbackService {
+    // Passed to EventRepository.moveRating when a feedback is added or removed instead of re-rated
+    private static final int NO_RATING = 0;
 
     private final FeedbackRepository feedbackRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final EventResponseCache eventResponseCache;
 
     Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
@@ -38,11 +46,13 @@ public class FeedbackService {
      * @param feedbackRepository The repository for the Feedback entity.
      * @param userRepository     The repository for the User entity.
      * @param eventRepository    The repository for the Event entity.
+     * @param eventResponseCache The cache of rendered event details.
      */
-    public FeedbackService(FeedbackRepository feedbackRepository, UserRepository userRepository, EventRepository eventRepository) {
+    public FeedbackService(FeedbackRepository feedbackRepository, UserRepository userRepository, EventRepository eventRepository, EventResponseCache eventResponseCache) {
         this.feedbackRepository = feedbackRepository;
         this.userRepository = userRepository;
         this.eventRepository = eventRepository;
+        this.eventResponseCache = eventResponseCache;
     }
 
     /**
@@ -51,6 +61,7 @@ public class FeedbackService {
      * @param feedbackCreateDTO The DTO containing the information for the feedback.
      * @return The DTO containing the information for the created feedback.
      */
+    @Transactional
     public FeedbackResponseDTO submitFeedback(FeedbackCreateDTO feedbackCreateDTO) {
         Feedback feedback = FeedbackMapper.toEntity(feedbackCreateDTO);
 
@@ -69,6 +80,7 @@ public class FeedbackService {
         }
 
         feedbackRepository.save(feedback);
+        updateRatingsOf(feedback, NO_RATING, feedback.getRating());
         return FeedbackMapper.toResponseDTO(feedback);
     }
 
@@ -105,14 +117,16 @@ public class FeedbackService {
      * @param feedbackCreateDTO The DTO containing the information for the updated feedback.
      * @return The DTO containing the information for the updated feedback.
      */
+    @Transactional
     public FeedbackResponseDTO updateFeedback(UUID id, FeedbackCreateDTO feedbackCreateDTO) {
         log.info("Updating feedback with ID: {}", id);
 
-        // Fetch existing feedback or throw an exception if not found
-        Feedback existingFeedback = feedbackRepository.findById(id)
+        // Fetch and lock the existing feedback, the previous rating must not change before the counters move
+        Feedback existingFeedback = feedbackRepository.findAndLockById(id)
                 .orElseThrow(() -> new RecordNotFoundException("Feedback not found with ID: " + id));
 
         // Map updated values to the existing entity instead of creating a new one
+        int previousRating = existingFeedback.getRating();
         existingFeedback.setComment(feedbackCreateDTO.getComment());
         existingFeedback.setRating(feedbackCreateDTO.getRating());
         existingFeedback.setId(id);
@@ -120,6 +134,7 @@ public class FeedbackService {
 
         // Save the updated feedback
         Feedback savedFeedback = feedbackRepository.save(existingFeedback);
+        updateRatingsOf(savedFeedback, previousRating, savedFeedback.getRating());
         log.info("Feedback updated successfully: {}", savedFeedback.getId());
 
         return FeedbackMapper.toResponseDTO(savedFeedback);
@@ -130,13 +145,15 @@ public class FeedbackService {
      *
      * @param id The ID of the feedback to delete.
      */
+    @Transactional
     public void deleteFeedback(UUID id) {
         log.info("Attempting to delete feedback with ID: {}", id);
 
-        Feedback feedback = feedbackRepository.findById(id)
+        Feedback feedback = feedbackRepository.findAndLockById(id)
                 .orElseThrow(() -> new RecordNotFoundException("Feedback not found with ID: " + id));
 
         feedbackRepository.delete(feedback);
+        updateRatingsOf(feedback, feedback.getRating(), NO_RATING);
         log.info("Feedback deleted successfully with ID: {}", id);
     }
 
@@ -159,4 +176,49 @@ public class FeedbackService {
     public List<FeedbackResponseDTO> getUserFeedback(String username) {
         return FeedbackMapper.toResponseDTOList(feedbackRepository.findByUserUsername(username));
     }
+
+    /**
+     * Recounts the ratings of events from their feedback and repairs the counters that drifted,
+     * for example because feedback was removed together with its user.
+     *
+     * @param eventIds The IDs of the events to check.
+     * @return The number of events whose counters were repaired.
+     */
+    @Transactional
+    public int repairRatings(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return 0;
+        }
+        // Lock first, so the recount below sees every feedback whose rating was already counted
+        List<Event> events = eventRepository.findAndLockByIdIn(eventIds);
+
+        Map<UUID, RatingStats> recounted = new HashMap<>();
+        for (FeedbackRepository.RatingCount row : feedbackRepository.countRatingsByEvent(eventIds)) {
+            recounted.computeIfAbsent(row.getEventId(), id -> new RatingStats()).add(row.getRating(), row.getFeedbackCount());
+        }
+
+        int repaired = 0;
+        for (Event event : events) {
+            RatingStats actual = recounted.getOrDefault(event.getId(), new RatingStats());
+            if (!actual.equals(event.getRatingStats())) {
+                log.warn("Repairing drifted ratings of event '{}': {} ratings counted, {} found",
+                        event.getId(), event.getRatingStats().getRatingCount(), actual.getRatingCount());
+                // Dirty checking writes the counters and bumps the version
+                event.setRatingStats(actual);
+                eventResponseCache.evict(event.getId());
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    private void updateRatingsOf(Feedback feedback, int removedRating, int addedRating) {
+        if (feedback != null && feedback.getEvent() != null) {
+            // The event embeds its feedback and ratings, so its cached rendering and its entity tag are both outdated.
+            // The rating update bumps the version as well, also when only the comment changed.
+            eventRepository.moveRating(feedback.getEvent().getId(), removedRating, addedRating);
+            eventRepository.refreshIfLoaded(feedback.getEvent().getId());
+            eventResponseCache.evict(feedback.getEvent().getId());
+        }
+    }
 }
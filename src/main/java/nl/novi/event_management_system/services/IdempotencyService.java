@@ -0,0 +1,306 @@
+package nl.novi.event_management_system.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import nl.novi.event_management_system.controllers.GlobalExceptionHandler;
+import nl.novi.event_management_system.exceptions.BadRequestException;
+import nl.novi.event_management_system.exceptions.IdempotencyConflictException;
+import nl.novi.event_management_system.exceptions.IdempotencyKeyReuseException;
+import nl.novi.event_management_system.models.IdempotencyRecord;
+import nl.novi.event_management_system.repositories.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request that carries an Idempotency-Key header once and replays its response for every repeat.
+ * Successful responses are stored in the idempotency_records table, so replays survive a restart, and purged by age
+ * and by count. The record is written in the same transaction as the request itself, so a request that dies halfway
+ * leaves neither its effects nor a record behind. Repeats that arrive while the first request is still running on this
+ * instance wait for its outcome instead of running again, a repeat on another instance is answered with 409 Conflict
+ * until the first one has finished.
+ */
+@Service
+public class IdempotencyService {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+    static final int WAIT_SECONDS = 30;
+
+    private static final String IN_PROGRESS = "A request with this idempotency key is still in progress";
+
+    Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final int maxRecords;
+    private final long purgeMillis;
+    private final ConcurrentMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private ScheduledExecutorService purger;
+
+    /**
+     * Constructor for the IdempotencyService class.
+     *
+     * @param idempotencyRecordRepository The repository the responses are stored in.
+     * @param objectMapper                The mapper the response bodies are stored with.
+     * @param transactionManager          The transaction manager the request and its record share a transaction of.
+     * @param ttlHours                    The number of hours a response is replayed.
+     * @param maxRecords                  The maximum number of stored responses, the oldest are purged first.
+     * @param purgeMillis                 The number of milliseconds between two purges.
+     */
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${idempotency.max-records:100000}") int maxRecords,
+                              @Value("${idempotency.purge-millis:300000}") long purgeMillis) {
+        if (maxRecords < 1) {
+            throw new IllegalArgumentException("Idempotency store must hold at least 1 record");
+        }
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.maxRecords = maxRecords;
+        this.purgeMillis = purgeMillis;
+    }
+
+    /**
+     * Starts purging old responses once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (purger == null) {
+            purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "idempotency-purge");
+                thread.setDaemon(true);
+                return thread;
+            });
+            purger.scheduleWithFixedDelay(this::purgeNow, purgeMillis, purgeMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (purger != null) {
+            purger.shutdownNow();
+            purger = null;
+        }
+    }
+
+    /**
+     * Runs a request once per idempotency key. Without a key the request simply runs.
+     * Keys are scoped to the current user and the endpoint, only 2xx responses are stored.
+     * A request that fails with an exception rolls back and stores nothing, so the client can retry it with the same key.
+     *
+     * @param endpoint       The method and path of the endpoint, part of the scope of the key.
+     * @param idempotencyKey The value of the Idempotency-Key header, or null.
+     * @param request        The request body, a repeat must send the same body.
+     * @param action         Runs the request.
+     * @return The response of the request, or the stored response of its first run.
+     * @throws BadRequestException           if the key is blank or longer than {@link #MAX_KEY_LENGTH}.
+     * @throws IdempotencyKeyReuseException  if the key was used for a different request body.
+     * @throws IdempotencyConflictException  if the first request with the key is still running elsewhere.
+     */
+    public ResponseEntity<?> execute(String endpoint, String idempotencyKey, Object request, Supplier<ResponseEntity<?>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(IDEMPOTENCY_KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        // Hashed, so the stored key has a fixed length however long the username is
+        String key = sha256((currentUsername() + " " + endpoint + " " + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+        String requestHash = hash(request);
+
+        while (true) {
+            InFlight own = new InFlight(requestHash, new CompletableFuture<>());
+            InFlight running = inFlight.putIfAbsent(key, own);
+            if (running != null) {
+                if (!running.requestHash().equals(requestHash)) {
+                    throw new IdempotencyKeyReuseException();
+                }
+                Optional<StoredResponse> stored = await(running.outcome());
+                if (stored.isPresent()) {
+                    return replay(stored.get());
+                }
+                // The first request stored no response, so this one runs on its own
+                continue;
+            }
+
+            try {
+                Outcome outcome = executeOnce(key, requestHash, action);
+                own.outcome().complete(outcome.stored());
+                return outcome.response();
+            } catch (RuntimeException e) {
+                // Waiting repeats fail the same way, only one of them reached the action
+                own.outcome().completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, own);
+            }
+        }
+    }
+
+    /**
+     * Removes the responses older than the time to live, then the oldest ones beyond the maximum number of records.
+     *
+     * @param now The current time.
+     * @return The number of records removed.
+     */
+    public int purge(Instant now) {
+        int purged = idempotencyRecordRepository.deleteCreatedBefore(now.minus(ttl));
+        // The newest record that no longer fits, it and everything older goes
+        List<Instant> firstOverflow = idempotencyRecordRepository.findCreatedAtNewestFirst(PageRequest.of(maxRecords, 1));
+        if (!firstOverflow.isEmpty()) {
+            purged += idempotencyRecordRepository.deleteCreatedBefore(firstOverflow.getFirst().plusNanos(1));
+        }
+        if (purged > 0) {
+            log.info("Purged {} idempotency records", purged);
+        }
+        return purged;
+    }
+
+    private Outcome executeOnce(String key, String requestHash, Supplier<ResponseEntity<?>> action) {
+        Instant now = Instant.now();
+        Optional<IdempotencyRecord> existing = idempotencyRecordRepository.findById(key);
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            if (!record.getCreatedAt().isBefore(now.minus(ttl))) {
+                if (!record.getRequestHash().equals(requestHash)) {
+                    throw new IdempotencyKeyReuseException();
+                }
+                // A record without a response is never run again, its request may have taken effect
+                if (record.getStatus() == null) {
+                    throw new IdempotencyConflictException(IN_PROGRESS);
+                }
+                StoredResponse stored = new StoredResponse(record.getStatus(), record.getBody(), record.getLocation());
+                return new Outcome(replay(stored), Optional.of(stored));
+            }
+            idempotencyRecordRepository.deleteById(key);
+        }
+
+        // The record, the request and its response commit together, an exception rolls back all three
+        return transactionTemplate.execute(status -> runAndStore(key, requestHash, now, action));
+    }
+
+    private Outcome runAndStore(String key, String requestHash, Instant now, Supplier<ResponseEntity<?>> action) {
+        try {
+            idempotencyRecordRepository.insertPending(key, requestHash, now);
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            // Another instance inserted the key first, its transaction has committed or still holds the row
+            throw new IdempotencyConflictException(IN_PROGRESS);
+        }
+
+        ResponseEntity<?> response = action.get();
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            idempotencyRecordRepository.deleteById(key);
+            return new Outcome(response, Optional.empty());
+        }
+
+        URI location = response.getHeaders().getLocation();
+        StoredResponse stored = new StoredResponse(response.getStatusCode().value(), writeBody(response.getBody()),
+                location != null ? location.toString() : null);
+        idempotencyRecordRepository.complete(key, stored.status(), stored.body(), stored.location());
+        return new Outcome(response, Optional.of(stored));
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.status())
+                .header(REPLAYED_HEADER, "true")
+                .contentType(MediaType.APPLICATION_JSON);
+        if (stored.location() != null) {
+            builder.location(URI.create(stored.location()));
+        }
+        return builder.body(stored.body());
+    }
+
+    private Optional<StoredResponse> await(CompletableFuture<Optional<StoredResponse>> outcome) {
+        try {
+            return outcome.get(WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException(IN_PROGRESS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException(IN_PROGRESS);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            return sha256(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not hash the request", e);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String writeBody(Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store the response", e);
+        }
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+
+    private void purgeNow() {
+        try {
+            purge(Instant.now());
+        } catch (RuntimeException e) {
+            // An exception would cancel the scheduled task, the next run tries again
+            log.error("Idempotency purge failed", e);
+        }
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<Optional<StoredResponse>> outcome) {
+    }
+
+    private record StoredResponse(int status, String body, String location) {
+    }
+
+    private record Outcome(ResponseEntity<?> response, Optional<StoredResponse> stored) {
+    }
+}
@@ -0,0 +1,137 @@
+package nl.novi.event_management_system.services;
+
+import jakarta.annotation.PreDestroy;
+import nl.novi.event_management_system.controllers.GlobalExceptionHandler;
+import nl.novi.event_management_system.utils.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires reservations once their deadline has passed.
+ * Deadlines are kept in a {@link TimingWheel}, so every tick only looks at the holds that are due around that tick
+ * instead of scanning all of them. The wheel lives in memory, at startup it is refilled from the reservations table.
+ */
+@Component
+public class ReservationExpiry {
+    // With one second ticks the wheel turns once in about 17 minutes, longer holds wait for another round
+    static final int WHEEL_SIZE = 1024;
+
+    Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final ReservationService reservationService;
+    private final long tickMillis;
+    private final TimingWheel<UUID> wheel;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Constructor for the ReservationExpiry class.
+     *
+     * @param reservationService The service that expires a reservation.
+     * @param tickMillis         The number of milliseconds between two checks for expired holds.
+     */
+    public ReservationExpiry(ReservationService reservationService, @Value("${reservations.tick-millis:1000}") long tickMillis) {
+        this.reservationService = reservationService;
+        this.tickMillis = tickMillis;
+        this.wheel = new TimingWheel<>(tickMillis, WHEEL_SIZE, System.currentTimeMillis());
+    }
+
+    /**
+     * Reloads the holds of the previous run and starts the timer once the application has started.
+     * Holds that expired while the application was down are given back at the first tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        int reloaded = reload();
+        log.info("Scheduled {} active reservations for expiry", reloaded);
+        if (ticker == null) {
+            ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "reservation-expiry");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    /**
+     * Schedules every hold stored in the database. A hold that is already scheduled keeps one deadline.
+     *
+     * @return The number of holds scheduled.
+     */
+    public int reload() {
+        List<ReservationService.Held> holds = reservationService.findHolds();
+        holds.forEach(this::schedule);
+        return holds.size();
+    }
+
+    /**
+     * Schedules a new hold after the transaction that created it has committed.
+     *
+     * @param held The hold.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHeld(ReservationService.Held held) {
+        schedule(held);
+    }
+
+    /**
+     * Expires every hold whose deadline has passed. A hold that fails to expire is retried at the next tick.
+     *
+     * @param now The current time.
+     * @return The number of holds that expired and gave their seat back.
+     */
+    public int expireDue(Instant now) {
+        int expired = 0;
+        for (UUID id : wheel.advance(now.toEpochMilli())) {
+            try {
+                if (reservationService.expire(id, now)) {
+                    expired++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not expire reservation '{}', retrying: {}", id, e.getMessage());
+                wheel.schedule(id, now.toEpochMilli() + tickMillis);
+            }
+        }
+        if (expired > 0) {
+            log.info("Expired {} reservations", expired);
+        }
+        return expired;
+    }
+
+    public int getScheduledCount() {
+        return wheel.size();
+    }
+
+    private void schedule(ReservationService.Held held) {
+        wheel.schedule(held.id(), held.expiresAt().toEpochMilli());
+    }
+
+    private void tick() {
+        try {
+            expireDue(Instant.now());
+        } catch (RuntimeException e) {
+            // An exception would cancel the scheduled task, the next tick tries again
+            log.error("Reservation expiry failed", e);
+        }
+    }
+}
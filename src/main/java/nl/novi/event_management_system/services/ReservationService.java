@@ -0,0 +1,225 @@
+package nl.novi.event_management_system.services;
+
+import jakarta.transaction.Transactional;
+import nl.novi.event_management_system.controllers.GlobalExceptionHandler;
+import nl.novi.event_management_system.dtos.reservationDtos.ReservationCreateDTO;
+import nl.novi.event_management_system.dtos.reservationDtos.ReservationResponseDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketResponseDTO;
+import nl.novi.event_management_system.enums.RoleEnum;
+import nl.novi.event_management_system.exceptions.EventNotFoundException;
+import nl.novi.event_management_system.exceptions.EventSoldOutException;
+import nl.novi.event_management_system.exceptions.ForbiddenException;
+import nl.novi.event_management_system.exceptions.RecordNotFoundException;
+import nl.novi.event_management_system.exceptions.UsernameNotFoundException;
+import nl.novi.event_management_system.mappers.ReservationMapper;
+import nl.novi.event_management_system.mappers.TicketMapper;
+import nl.novi.event_management_system.models.Reservation;
+import nl.novi.event_management_system.models.Ticket;
+import nl.novi.event_management_system.models.User;
+import nl.novi.event_management_system.repositories.EventRepository;
+import nl.novi.event_management_system.repositories.ReservationRepository;
+import nl.novi.event_management_system.repositories.TicketRepository;
+import nl.novi.event_management_system.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * This class contains the business logic for reservations, seats held for a buyer during checkout.
+ * A hold takes a seat right away; it is confirmed into a ticket, released by the buyer, or expired by
+ * {@link ReservationExpiry} once its deadline has passed, which gives the seat back.
+ */
+@Service
+public class ReservationService {
+    Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final ReservationRepository reservationRepository;
+    private final TicketRepository ticketRepository;
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final TicketService ticketService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TicketLedger ticketLedger;
+    private final Duration holdDuration;
+
+    /**
+     * Constructor for the ReservationService class.
+     *
+     * @param reservationRepository The repository for the Reservation entity.
+     * @param ticketRepository      The repository confirmed reservations are saved to as tickets.
+     * @param userRepository        The repository for the User entity.
+     * @param eventRepository       The repository for the Event entity.
+     * @param ticketService         Takes and gives back the seats of an event.
+     * @param eventPublisher        Announces new holds to the expiry timer.
+     * @param ticketLedger          The ledger confirmed reservations are recorded in as sales.
+     * @param holdSeconds           The number of seconds a seat is held.
+     */
+    public ReservationService(ReservationRepository reservationRepository, TicketRepository ticketRepository,
+                              UserRepository userRepository, EventRepository eventRepository, TicketService ticketService,
+                              ApplicationEventPublisher eventPublisher, TicketLedger ticketLedger,
+                              @Value("${reservations.hold-seconds:600}") long holdSeconds) {
+        this.reservationRepository = reservationRepository;
+        this.ticketRepository = ticketRepository;
+        this.userRepository = userRepository;
+        this.eventRepository = eventRepository;
+        this.ticketService = ticketService;
+        this.eventPublisher = eventPublisher;
+        this.ticketLedger = ticketLedger;
+        this.holdDuration = Duration.ofSeconds(holdSeconds);
+    }
+
+    /**
+     * Holds a seat of an event for a buyer, at the price of the event.
+     *
+     * @param reservationCreateDTO The DTO containing the event, the buyer and the ticket to hold.
+     * @param requester            The signed in user asking for the hold.
+     * @return The DTO containing the reservation and the moment it expires.
+     * @throws ForbiddenException    if a participant holds a seat for someone else.
+     * @throws EventNotFoundException if the event does not exist.
+     * @throws EventSoldOutException  if the event has no seat left.
+     */
+    @Transactional
+    public ReservationResponseDTO holdSeat(ReservationCreateDTO reservationCreateDTO, Requester requester) {
+        String username = Optional.ofNullable(reservationCreateDTO.getUsername()).orElse(requester.username());
+        requester.checkMayActFor(username);
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found."));
+        UUID eventId = reservationCreateDTO.getEventId();
+        // The price is never taken from the client, a hold would otherwise let anyone buy a ticket at any price
+        BigDecimal price = eventRepository.findPriceById(eventId)
+                .map(BigDecimal::valueOf)
+                .orElseThrow(() -> new EventNotFoundException(eventId));
+        ticketService.reserveSeat(eventId);
+
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setEvent(eventRepository.getReferenceById(eventId));
+        reservation.setPrice(price);
+        reservation.setTicketType(reservationCreateDTO.getTicketType());
+        reservation.setExpiresAt(Instant.now().plus(holdDuration));
+        Reservation savedReservation = reservationRepository.save(reservation);
+
+        // The expiry timer only picks the hold up once it has been committed
+        eventPublisher.publishEvent(new Held(savedReservation.getId(), savedReservation.getExpiresAt()));
+        log.info("Held a seat of event '{}' for '{}' until {}", eventId, user.getUsername(), savedReservation.getExpiresAt());
+        return ReservationMapper.toResponseDTO(savedReservation);
+    }
+
+    /**
+     * Turns a reservation that has not expired into a ticket. The held seat becomes the sold seat.
+     *
+     * @param id        The ID of the reservation.
+     * @param requester The signed in user confirming the reservation.
+     * @return The DTO containing the information for the created ticket.
+     * @throws RecordNotFoundException if the reservation does not exist or has expired.
+     * @throws ForbiddenException      if a participant confirms the reservation of someone else.
+     */
+    @Transactional
+    public TicketResponseDTO confirm(UUID id, Requester requester) {
+        Reservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new RecordNotFoundException("Reservation not found with ID: " + id));
+        requester.checkMayActFor(reservation.getUser().getUsername());
+        if (reservationRepository.deleteActive(id, Instant.now()) == 0) {
+            throw new RecordNotFoundException("Reservation has expired: " + id);
+        }
+
+        Ticket savedTicket = ticketRepository.save(ReservationMapper.toTicket(reservation));
+        ticketLedger.recordSale(savedTicket);
+        ticketService.touchEvent(reservation.getEvent().getId());
+        log.info("Confirmed reservation '{}' as ticket '{}'", id, savedTicket.getId());
+        return TicketMapper.toResponseDTO(savedTicket);
+    }
+
+    /**
+     * Releases a reservation before it expires and gives its seat back.
+     *
+     * @param id        The ID of the reservation.
+     * @param requester The signed in user releasing the reservation.
+     * @throws RecordNotFoundException if the reservation does not exist anymore.
+     * @throws ForbiddenException      if a participant releases the reservation of someone else.
+     */
+    @Transactional
+    public void release(UUID id, Requester requester) {
+        Reservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new RecordNotFoundException("Reservation not found with ID: " + id));
+        requester.checkMayActFor(reservation.getUser().getUsername());
+        UUID eventId = reservation.getEvent().getId();
+        if (reservationRepository.deleteHold(id) == 0) {
+            throw new RecordNotFoundException("Reservation not found with ID: " + id);
+        }
+        ticketService.releaseSeat(eventId);
+        log.info("Released reservation '{}' of event '{}'", id, eventId);
+    }
+
+    /**
+     * Expires a reservation whose deadline has passed and gives its seat back.
+     * Does nothing if the reservation was confirmed or released in the meantime.
+     *
+     * @param id  The ID of the reservation.
+     * @param now The current time.
+     * @return True if the reservation expired, false if it was already gone or is not due yet.
+     */
+    @Transactional
+    public boolean expire(UUID id, Instant now) {
+        Optional<UUID> eventId = reservationRepository.findEventIdById(id);
+        if (eventId.isEmpty() || reservationRepository.deleteExpired(id, now) == 0) {
+            return false;
+        }
+        ticketService.releaseSeat(eventId.get());
+        return true;
+    }
+
+    /**
+     * Returns every hold that has not ended yet, including the ones that are overdue.
+     *
+     * @return The ID and deadline of each hold.
+     */
+    public List<Held> findHolds() {
+        return reservationRepository.findAllHolds().stream()
+                .map(hold -> new Held(hold.getId(), hold.getExpiresAt()))
+                .toList();
+    }
+
+    /**
+     * The signed in user behind a request. Admins and organizers may act for any buyer, participants only for themselves.
+     *
+     * @param username The username of the signed in user.
+     * @param staff    True if the user is an admin or organizer.
+     */
+    public record Requester(String username, boolean staff) {
+
+        public static Requester of(Authentication authentication) {
+            boolean staff = authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .anyMatch(authority -> authority.equals(RoleEnum.getRoleName(RoleEnum.ADMIN))
+                            || authority.equals(RoleEnum.getRoleName(RoleEnum.ORGANIZER)));
+            return new Requester(authentication.getName(), staff);
+        }
+
+        void checkMayActFor(String buyer) {
+            if (!staff && !username.equals(buyer)) {
+                throw new ForbiddenException("Reservations can only be made and managed for your own account.");
+            }
+        }
+    }
+
+    /**
+     * Published when a seat has been held.
+     *
+     * @param id        The ID of the reservation.
+     * @param expiresAt The moment the hold expires.
+     */
+    public record Held(UUID id, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,108 @@
+package nl.novi.event_management_system.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import nl.novi.event_management_system.utils.TicketCodes;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates ticket codes from blocks of a database sequence.
+ * Each block is reserved for this node, so codes are unique across nodes and restarts without ever being
+ * checked against the tickets table. Within a block a code costs one atomic increment, the sequence is only
+ * read once every {@link #BLOCK_SIZE} codes.
+ * Numbers are scrambled before they are formatted, so consecutive tickets do not get consecutive codes.
+ */
+@Component
+public class SequenceTicketCodeGenerator implements TicketCodeGenerator {
+    public static final String SEQUENCE = "ticket_code_block_seq";
+    static final int BLOCK_SIZE = 1024;
+
+    // Odd multipliers, so multiplying modulo 2^35 is a bijection
+    private static final long MIX_1 = 0x5DEECE66DL;
+    private static final long MIX_2 = 0x2545F491BL;
+
+    private final LongSupplier blockSource;
+    private volatile Block block;
+
+    /**
+     * Constructor for the SequenceTicketCodeGenerator class.
+     *
+     * @param jdbcTemplate         The template the sequence is read with.
+     * @param entityManagerFactory The factory whose dialect knows how to read the sequence.
+     */
+    @Autowired
+    public SequenceTicketCodeGenerator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this(nextValueOf(jdbcTemplate, entityManagerFactory));
+    }
+
+    /**
+     * Creates a generator that takes its blocks from the given source.
+     *
+     * @param blockSource Returns a block number no caller has had before, starting at 0 or higher.
+     */
+    public SequenceTicketCodeGenerator(LongSupplier blockSource) {
+        this.blockSource = blockSource;
+        // Taken on first use, so no block is spent by a node that never issues a ticket
+        this.block = new Block(0, BLOCK_SIZE);
+    }
+
+    @Override
+    public String nextCode() {
+        while (true) {
+            Block current = block;
+            int offset = current.next.getAndIncrement();
+            if (offset < BLOCK_SIZE) {
+                return TicketCodes.format(scramble(current.start + offset));
+            }
+            refill(current);
+        }
+    }
+
+    private synchronized void refill(Block exhausted) {
+        // Another thread may have refilled it while this one waited for the lock
+        if (block != exhausted) {
+            return;
+        }
+        long number = blockSource.getAsLong();
+        if (number < 0 || number > TicketCodes.MAX_VALUE / BLOCK_SIZE) {
+            throw new IllegalStateException("Ticket code sequence exhausted at block " + number);
+        }
+        block = new Block(number * BLOCK_SIZE, 0);
+    }
+
+    // A bijection on 35 bits: distinct numbers always give distinct codes
+    static long scramble(long value) {
+        value = (value * MIX_1) & TicketCodes.MAX_VALUE;
+        value ^= value >>> 17;
+        value = (value * MIX_2) & TicketCodes.MAX_VALUE;
+        value ^= value >>> 15;
+        return value;
+    }
+
+    private static LongSupplier nextValueOf(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        String sql = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .getSequenceSupport().getSequenceNextValString(SEQUENCE);
+        return () -> {
+            Long value = jdbcTemplate.queryForObject(sql, Long.class);
+            if (value == null) {
+                throw new IllegalStateException("Sequence " + SEQUENCE + " returned no value");
+            }
+            return value;
+        };
+    }
+
+    private static final class Block {
+        private final long start;
+        private final AtomicInteger next;
+
+        private Block(long start, int next) {
+            this.start = start;
+            this.next = new AtomicInteger(next);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package nl.novi.event_management_system.services;
+
+import nl.novi.event_management_system.repositories.EventRepository;
+import nl.novi.event_management_system.repositories.TicketRepository;
+import nl.novi.event_management_system.utils.BloomFilter;
+import nl.novi.event_management_system.utils.BoundedTtlCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per event Bloom filter of the codes of its tickets, so the door can turn away forged codes and tickets for another event
+ * without asking the database. The filter of an event is loaded on its first scan; tickets stored afterwards are added
+ * by {@link nl.novi.event_management_system.models.TicketCheckInListener}.
+ * A code is never wrongly rejected: a filter is registered before its codes are read and new codes are added after
+ * their transaction commits, so every ticket is either read by the load or added to the registered filter.
+ * Tickets that are deleted or moved to another event only leave a false positive behind, which the database then answers.
+ * Scans of an unknown event are remembered for a short while, until a ticket is stored for it.
+ */
+@Component
+public class TicketCheckInFilter {
+    static final double FALSE_POSITIVE_RATE = 0.001;
+    // Lower bound of the filter size, so a small event can still sell a few more seats after its capacity is raised
+    static final int MIN_EXPECTED_TICKETS = 1024;
+    // Unknown events are remembered in a bounded cache, a scanner cannot fill it with made up event IDs
+    static final int MAX_UNKNOWN_EVENTS = 10_000;
+    static final Duration UNKNOWN_EVENT_TTL = Duration.ofSeconds(30);
+
+    private final TicketRepository ticketRepository;
+    private final EventRepository eventRepository;
+    private final Map<UUID, EventFilter> filters = new ConcurrentHashMap<>();
+    private final BoundedTtlCache<UUID, Boolean> unknownEvents = new BoundedTtlCache<>(MAX_UNKNOWN_EVENTS, UNKNOWN_EVENT_TTL);
+
+    /**
+     * Constructor for the TicketCheckInFilter class.
+     *
+     * @param ticketRepository The repository the codes of an event are loaded from.
+     * @param eventRepository  The repository the capacity of an event is read from, to size its filter.
+     */
+    public TicketCheckInFilter(TicketRepository ticketRepository, EventRepository eventRepository) {
+        this.ticketRepository = ticketRepository;
+        this.eventRepository = eventRepository;
+    }
+
+    /**
+     * Returns false if the event certainly has no ticket with the code, true if it might have one.
+     *
+     * @param eventId    The ID of the event.
+     * @param ticketCode The code of the ticket.
+     * @return false when the code can be rejected without looking it up.
+     */
+    public boolean mightContain(UUID eventId, String ticketCode) {
+        EventFilter filter = filters.get(eventId);
+        if (filter == null || !filter.loaded) {
+            filter = load(eventId);
+        }
+        // Unknown events get no filter, a scanner cannot fill the map with made up event IDs
+        return filter != null && filter.codes.mightContain(ticketCode);
+    }
+
+    /**
+     * Adds the code of a ticket stored for an event. Inside a transaction the code is only added after commit.
+     * For an event that has not been scanned yet its filter will read the code from the database,
+     * an event remembered as unknown is forgotten so its next scan looks it up again.
+     *
+     * @param eventId    The ID of the event.
+     * @param ticketCode The code of the ticket.
+     */
+    public void add(UUID eventId, String ticketCode) {
+        afterCommit(() -> {
+            EventFilter filter = filters.get(eventId);
+            if (filter != null) {
+                filter.codes.add(ticketCode);
+            } else {
+                unknownEvents.invalidate(eventId);
+            }
+        });
+    }
+
+    /**
+     * Drops every filter, they are loaded again on the next scan of each event.
+     */
+    public void clear() {
+        filters.clear();
+        unknownEvents.invalidateAll();
+    }
+
+    public int getFilteredEvents() {
+        return filters.size();
+    }
+
+    public long getBytes() {
+        return filters.values().stream().mapToLong(filter -> filter.codes.getBitCount() / 8).sum();
+    }
+
+    private EventFilter load(UUID eventId) {
+        // Only an unknown event is cached, a load that raced with a ticket stored for the event is not
+        AtomicReference<Integer> capacity = new AtomicReference<>();
+        Boolean unknown = unknownEvents.getOrLoad(eventId, id -> {
+            Optional<Integer> found = eventRepository.findCapacityById(id);
+            found.ifPresent(capacity::set);
+            return found.isEmpty() ? Boolean.TRUE : null;
+        });
+        if (unknown != null) {
+            return null;
+        }
+        // Registered before the codes are read, so a ticket committed while they are read is added as well
+        EventFilter filter = filters.computeIfAbsent(eventId,
+                id -> new EventFilter(new BloomFilter(Math.max(capacity.get(), MIN_EXPECTED_TICKETS), FALSE_POSITIVE_RATE)));
+        synchronized (filter) {
+            if (!filter.loaded) {
+                ticketRepository.findCodesByEventId(eventId).forEach(filter.codes::add);
+                filter.loaded = true;
+            }
+        }
+        return filter;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private static final class EventFilter {
+        private final BloomFilter codes;
+        private volatile boolean loaded;
+
+        private EventFilter(BloomFilter codes) {
+            this.codes = codes;
+        }
+    }
+}
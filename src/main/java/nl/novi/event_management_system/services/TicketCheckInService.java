@@ -0,0 +1,110 @@
+package nl.novi.event_management_system.services;
+
+import nl.novi.event_management_system.dtos.CheckInStatsDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.CheckInRequestDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.CheckInResponseDTO;
+import nl.novi.event_management_system.exceptions.RecordNotFoundException;
+import nl.novi.event_management_system.exceptions.TicketAlreadyCheckedInException;
+import nl.novi.event_management_system.repositories.TicketRepository;
+import nl.novi.event_management_system.utils.LatencyHistogram;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * This class admits ticket holders at the door. A ticket is checked in with one conditional update, so it is
+ * admitted exactly once however many scanners read it at the same time.
+ */
+@Service
+public class TicketCheckInService {
+    private static final Pattern TICKET_CODE = Pattern.compile("^TICKET-[A-Z0-9]{8}$");
+
+    private final TicketRepository ticketRepository;
+    private final TicketCheckInFilter ticketCheckInFilter;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejectedByFilter = new AtomicLong();
+    private final AtomicLong notFound = new AtomicLong();
+    private final AtomicLong alreadyCheckedIn = new AtomicLong();
+
+    /**
+     * Constructor for the TicketCheckInService class.
+     *
+     * @param ticketRepository    The repository for the Ticket entity.
+     * @param ticketCheckInFilter The filter that rejects unknown codes without a database round trip.
+     */
+    public TicketCheckInService(TicketRepository ticketRepository, TicketCheckInFilter ticketCheckInFilter) {
+        this.ticketRepository = ticketRepository;
+        this.ticketCheckInFilter = ticketCheckInFilter;
+    }
+
+    /**
+     * Checks in the ticket with the given code for the given event.
+     * Malformed codes and codes the event's filter does not know are rejected without a database round trip.
+     *
+     * @param checkInRequestDTO The DTO containing the event and the scanned code.
+     * @return The DTO confirming the check-in.
+     * @throws RecordNotFoundException         if the event has no ticket with the code.
+     * @throws TicketAlreadyCheckedInException if the ticket has been checked in before.
+     */
+    public CheckInResponseDTO checkIn(CheckInRequestDTO checkInRequestDTO) {
+        long started = System.nanoTime();
+        try {
+            UUID eventId = checkInRequestDTO.getEventId();
+            String ticketCode = checkInRequestDTO.getTicketCode().trim().toUpperCase(Locale.ROOT);
+            if (!TICKET_CODE.matcher(ticketCode).matches() || !ticketCheckInFilter.mightContain(eventId, ticketCode)) {
+                rejectedByFilter.incrementAndGet();
+                throw notFound(eventId, ticketCode);
+            }
+
+            Instant now = Instant.now();
+            if (ticketRepository.checkIn(ticketCode, eventId, now) == 1) {
+                admitted.incrementAndGet();
+                return new CheckInResponseDTO(eventId, ticketCode, now);
+            }
+
+            // Only failed scans pay for the second query that tells the reasons apart
+            TicketRepository.CheckInState state = ticketRepository.findCheckInState(ticketCode)
+                    .filter(found -> eventId.equals(found.getEventId()))
+                    .orElse(null);
+            if (state == null || state.getCheckedInAt() == null) {
+                notFound.incrementAndGet();
+                throw notFound(eventId, ticketCode);
+            }
+            alreadyCheckedIn.incrementAndGet();
+            throw new TicketAlreadyCheckedInException(ticketCode, state.getCheckedInAt());
+        } finally {
+            latency.record(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Returns the scan counters and latency percentiles since the application started.
+     *
+     * @return The check-in statistics.
+     */
+    public CheckInStatsDTO getStats() {
+        return CheckInStatsDTO.builder()
+                .scans(latency.getCount())
+                .admitted(admitted.get())
+                .rejectedByFilter(rejectedByFilter.get())
+                .notFound(notFound.get())
+                .alreadyCheckedIn(alreadyCheckedIn.get())
+                .filteredEvents(ticketCheckInFilter.getFilteredEvents())
+                .filterBytes(ticketCheckInFilter.getBytes())
+                .p50Micros(latency.getPercentileMicros(50))
+                .p99Micros(latency.getPercentileMicros(99))
+                .p999Micros(latency.getPercentileMicros(99.9))
+                .maxMicros(latency.getMaxMicros())
+                .build();
+    }
+
+    private static RecordNotFoundException notFound(UUID eventId, String ticketCode) {
+        return new RecordNotFoundException("Event " + eventId + " has no ticket with code " + ticketCode);
+    }
+}
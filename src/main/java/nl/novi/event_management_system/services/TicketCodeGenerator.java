@@ -0,0 +1,14 @@
+package nl.novi.event_management_system.services;
+
+/**
+ * Hands out the codes printed on tickets. Every code must be unique, the database rejects a duplicate.
+ * {@link SequenceTicketCodeGenerator} is the default, another implementation can replace it as a {@code @Primary} bean.
+ */
+public interface TicketCodeGenerator {
+    /**
+     * Returns a code no ticket has had before. Safe to call from many threads at once.
+     *
+     * @return the next ticket code
+     */
+    String nextCode();
+}
@@ -0,0 +1,158 @@
+package nl.novi.event_management_system.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import nl.novi.event_management_system.controllers.GlobalExceptionHandler;
+import nl.novi.event_management_system.dtos.ticketDtos.IssuedTicketDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketBulkCreateDTO;
+import nl.novi.event_management_system.exceptions.EventNotFoundException;
+import nl.novi.event_management_system.exceptions.EventSoldOutException;
+import nl.novi.event_management_system.exceptions.UsernameNotFoundException;
+import nl.novi.event_management_system.models.Event;
+import nl.novi.event_management_system.models.Ticket;
+import nl.novi.event_management_system.repositories.EventRepository;
+import nl.novi.event_management_system.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * This class issues many tickets for one event at once, for group bookings and complimentary tickets.
+ * The event is checked and its seats are taken with one statement, the users are checked a chunk at a time,
+ * and the tickets are inserted with JDBC batching instead of one round trip per ticket.
+ */
+@Service
+public class TicketIssuanceService {
+    // Usernames checked per query, well below the bind parameter limits of the databases
+    static final int USER_CHUNK_SIZE = 1000;
+    // Tickets kept in the persistence context before it is flushed and cleared
+    static final int FLUSH_SIZE = 1000;
+
+    Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final EventResponseCache eventResponseCache;
+    private final ObjectMapper objectMapper;
+    private final TicketLedger ticketLedger;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructor for the TicketIssuanceService class.
+     *
+     * @param userRepository     The repository the usernames are checked against.
+     * @param eventRepository    The repository whose seats are taken.
+     * @param eventResponseCache The cache of rendered event details.
+     * @param objectMapper       The mapper used to write the issued tickets.
+     * @param ticketLedger       The ledger the sales are recorded in.
+     */
+    public TicketIssuanceService(UserRepository userRepository, EventRepository eventRepository,
+                                 EventResponseCache eventResponseCache, ObjectMapper objectMapper, TicketLedger ticketLedger) {
+        this.userRepository = userRepository;
+        this.eventRepository = eventRepository;
+        this.eventResponseCache = eventResponseCache;
+        this.objectMapper = objectMapper;
+        this.ticketLedger = ticketLedger;
+    }
+
+    /**
+     * Issues one ticket per username, all for the same event, price and ticket type.
+     * Either every ticket is issued or none is.
+     *
+     * @param ticketBulkCreateDTO The DTO containing the event, the ticket details and the usernames.
+     * @return The ID and code of every issued ticket, in the order of the usernames.
+     * @throws UsernameNotFoundException if one of the usernames does not exist.
+     * @throws EventNotFoundException    if the event does not exist.
+     * @throws EventSoldOutException     if the event has fewer seats left than tickets requested.
+     */
+    @Transactional
+    public List<IssuedTicketDTO> issueTickets(TicketBulkCreateDTO ticketBulkCreateDTO) {
+        long started = System.nanoTime();
+        List<String> usernames = ticketBulkCreateDTO.getUsernames();
+        checkUsernames(usernames);
+
+        UUID eventId = ticketBulkCreateDTO.getEventId();
+        if (eventRepository.reserveSeats(eventId, usernames.size()) == 0) {
+            if (!eventRepository.existsById(eventId)) {
+                throw new EventNotFoundException(eventId);
+            }
+            throw new EventSoldOutException(eventId);
+        }
+        eventResponseCache.evict(eventId);
+
+        List<IssuedTicketDTO> issued = new ArrayList<>(usernames.size());
+        LocalDate purchaseDate = LocalDate.now();
+        for (int from = 0; from < usernames.size(); from += FLUSH_SIZE) {
+            // References only carry the key, the clear below detaches them with the tickets
+            Event event = entityManager.getReference(Event.class, eventId);
+            List<Ticket> chunk = new ArrayList<>(FLUSH_SIZE);
+            for (String username : usernames.subList(from, Math.min(from + FLUSH_SIZE, usernames.size()))) {
+                Ticket ticket = new Ticket(userRepository.getReferenceById(username), event,
+                        ticketBulkCreateDTO.getPrice(), ticketBulkCreateDTO.getTicketType());
+                ticket.setPurchaseDate(purchaseDate);
+                entityManager.persist(ticket);
+                ticketLedger.recordSale(ticket);
+                chunk.add(ticket);
+            }
+            // The inserts of a chunk, tickets and ledger entries, go out in JDBC batches, clearing keeps the persistence context small
+            entityManager.flush();
+            entityManager.clear();
+            chunk.forEach(ticket -> issued.add(new IssuedTicketDTO(ticket.getId(), ticket.getTicketCode(), ticket.getUser().getUsername())));
+        }
+
+        log.info("Issued {} tickets for event {} in {} ms", issued.size(), eventId, (System.nanoTime() - started) / 1_000_000);
+        return issued;
+    }
+
+    /**
+     * Writes issued tickets as one JSON object per line, flushing every chunk so the client can start reading
+     * before the last line is written. Only called with tickets that are already committed, a client that goes away
+     * halfway can still find every one of them.
+     *
+     * @param tickets      The issued tickets.
+     * @param outputStream The stream to write to, left open.
+     */
+    public void writeTickets(List<IssuedTicketDTO> tickets, OutputStream outputStream) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // No separator between root values, every record ends with its own newline
+            generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+
+            int written = 0;
+            for (IssuedTicketDTO ticket : tickets) {
+                generator.writeObject(ticket);
+                generator.writeRaw('\n');
+                if (++written % FLUSH_SIZE == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Writing the issued tickets failed", e);
+        }
+    }
+
+    private void checkUsernames(List<String> usernames) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(usernames));
+        for (int from = 0; from < distinct.size(); from += USER_CHUNK_SIZE) {
+            List<String> chunk = distinct.subList(from, Math.min(from + USER_CHUNK_SIZE, distinct.size()));
+            Set<String> existing = userRepository.findExistingUsernames(chunk);
+            if (existing.size() < chunk.size()) {
+                List<String> missing = chunk.stream().filter(username -> !existing.contains(username)).toList();
+                throw new UsernameNotFoundException("Users not found: " + missing);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package nl.novi.event_management_system.services;
+
+import jakarta.transaction.Transactional;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketRevenueDTO;
+import nl.novi.event_management_system.enums.LedgerEntryType;
+import nl.novi.event_management_system.enums.TicketType;
+import nl.novi.event_management_system.models.Ticket;
+import nl.novi.event_management_system.models.TicketLedgerEntry;
+import nl.novi.event_management_system.repositories.TicketLedgerRepository;
+import nl.novi.event_management_system.repositories.TicketRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Writes the append-only ticket sales ledger and replays it into tickets and revenue per event and ticket type.
+ * Entries are written in the transaction of the change they describe, so the ledger never disagrees with the tickets,
+ * and tickets can be changed or deleted without losing what they were sold for. Tickets stored before the ledger existed
+ * get an opening sale entry from {@link TicketLedgerBackfill} before the application takes requests.
+ */
+@Service
+public class TicketLedger {
+    private final TicketLedgerRepository ticketLedgerRepository;
+    private final TicketRepository ticketRepository;
+
+    /**
+     * Constructor for the TicketLedger class.
+     *
+     * @param ticketLedgerRepository The repository the ledger entries are appended to.
+     * @param ticketRepository       The repository the tickets without an entry are read from.
+     */
+    public TicketLedger(TicketLedgerRepository ticketLedgerRepository, TicketRepository ticketRepository) {
+        this.ticketLedgerRepository = ticketLedgerRepository;
+        this.ticketRepository = ticketRepository;
+    }
+
+    /**
+     * Records the sale of a ticket.
+     *
+     * @param ticket The ticket, already persisted.
+     */
+    public void recordSale(Ticket ticket) {
+        append(LedgerEntryType.SALE, ticket.getId(), Position.of(ticket), 1, Instant.now());
+    }
+
+    /**
+     * Records a change of the event, type or price of a ticket. Changes of other fields are not recorded.
+     *
+     * @param before The position of the ticket before the change.
+     * @param ticket The ticket after the change.
+     */
+    public void recordChange(Position before, Ticket ticket) {
+        Position after = Position.of(ticket);
+        if (before.equals(after)) {
+            return;
+        }
+        Instant now = Instant.now();
+        append(LedgerEntryType.CHANGE, ticket.getId(), before, -1, now);
+        append(LedgerEntryType.CHANGE, ticket.getId(), after, 1, now);
+    }
+
+    /**
+     * Records the refund of a ticket that is deleted.
+     *
+     * @param ticket The ticket.
+     */
+    public void recordRefund(Ticket ticket) {
+        append(LedgerEntryType.REFUND, ticket.getId(), Position.of(ticket), -1, Instant.now());
+    }
+
+    /**
+     * Records an opening sale, dated at the start of its purchase date, for tickets that have no ledger entry at all.
+     * Without it refunding or changing such a ticket would take out what was never put in.
+     *
+     * @param batchSize The maximum number of tickets to record.
+     * @return The number of tickets recorded, fewer than the batch size once every ticket has an entry.
+     */
+    @Transactional
+    public int recordOpeningBalances(int batchSize) {
+        List<Ticket> tickets = ticketRepository.findWithoutLedgerEntries(Limit.of(batchSize));
+        for (Ticket ticket : tickets) {
+            append(LedgerEntryType.SALE, ticket.getId(), Position.of(ticket), 1,
+                    ticket.getPurchaseDate().atStartOfDay(ZoneOffset.UTC).toInstant());
+        }
+        return tickets.size();
+    }
+
+    /**
+     * Replays the ledger up to a moment into the tickets held and revenue per event and ticket type.
+     *
+     * @param eventId The event to replay, or null for every event.
+     * @param asOf    The moment to replay up to, inclusive.
+     * @return One row per event and ticket type that had entries by then.
+     */
+    public List<TicketRevenueDTO> getRevenue(UUID eventId, Instant asOf) {
+        List<TicketLedgerRepository.RevenueRow> rows = eventId != null
+                ? ticketLedgerRepository.sumRevenueByEvent(eventId, asOf)
+                : ticketLedgerRepository.sumRevenue(asOf);
+        return rows.stream()
+                .map(row -> TicketRevenueDTO.builder()
+                        .eventId(row.getEventId())
+                        .ticketType(row.getTicketType())
+                        .tickets(row.getTickets())
+                        .revenue(row.getRevenue())
+                        .build())
+                .toList();
+    }
+
+    private void append(LedgerEntryType entryType, UUID ticketId, Position position, int quantity, Instant recordedAt) {
+        BigDecimal amount = quantity < 0 ? position.price().negate() : position.price();
+        ticketLedgerRepository.save(new TicketLedgerEntry(entryType, ticketId, position.eventId(), position.ticketType(),
+                quantity, amount, recordedAt));
+    }
+
+    /**
+     * The fields of a ticket that count towards revenue.
+     *
+     * @param eventId    The ID of the event.
+     * @param ticketType The type of the ticket.
+     * @param price      The price paid.
+     */
+    public record Position(UUID eventId, TicketType ticketType, BigDecimal price) {
+
+        public static Position of(Ticket ticket) {
+            return new Position(ticket.getEvent().getId(), ticket.getTicketType(), ticket.getPrice());
+        }
+
+        // 10.0 and 10.00 are the same price
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Position other)) return false;
+            return Objects.equals(eventId, other.eventId) && ticketType == other.ticketType
+                    && (price == null ? other.price == null : other.price != null && price.compareTo(other.price) == 0);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(eventId, ticketType, price == null ? null : price.stripTrailingZeros());
+        }
+    }
+}
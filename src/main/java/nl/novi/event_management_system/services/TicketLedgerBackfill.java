@@ -0,0 +1,53 @@
+package nl.novi.event_management_system.services;
+
+import nl.novi.event_management_system.controllers.GlobalExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives every ticket stored before the sales ledger existed, seeded or already in the database at deploy, an opening
+ * sale entry. Runs once at startup, after the seed data is loaded and before the web server takes requests,
+ * so no such ticket can be refunded or changed before its sale is on record.
+ */
+@Component
+public class TicketLedgerBackfill implements SmartInitializingSingleton {
+    static final int BATCH_SIZE = 1000;
+
+    Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    private final TicketLedger ticketLedger;
+
+    /**
+     * Constructor for the TicketLedgerBackfill class.
+     *
+     * @param ticketLedger The ledger the opening sales are recorded in.
+     */
+    public TicketLedgerBackfill(TicketLedger ticketLedger) {
+        this.ticketLedger = ticketLedger;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int recorded = run();
+        if (recorded > 0) {
+            log.info("Recorded opening sales for {} tickets in the ledger", recorded);
+        }
+    }
+
+    /**
+     * Records an opening sale for every ticket without a ledger entry, a batch per transaction.
+     *
+     * @return The number of tickets recorded.
+     */
+    public int run() {
+        int recorded = 0;
+        int batch;
+        do {
+            batch = ticketLedger.recordOpeningBalances(BATCH_SIZE);
+            recorded += batch;
+        } while (batch == BATCH_SIZE);
+        return recorded;
+    }
+}
@@ -1,9 +1,18 @@
 package nl.novi.event_management_system.services;
 
+import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import nl.novi.event_management_system.dtos.PageResponseDTO;
 import nl.novi.event_management_system.dtos.ticketDtos.TicketCreateDTO;
 import nl.novi.event_management_system.dtos.ticketDtos.TicketResponseDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketSearchCriteriaDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketTokenDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketTokenVerificationDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketTokenVerifyDTO;
+import nl.novi.event_management_system.exceptions.BadRequestException;
 import nl.novi.event_management_system.exceptions.EventNotFoundException;
+import nl.novi.event_management_system.exceptions.EventSoldOutException;
+import nl.novi.event_management_system.exceptions.PreconditionFailedException;
 import nl.novi.event_management_system.exceptions.RecordNotFoundException;
 import nl.novi.event_management_system.exceptions.UsernameNotFoundException;
 import nl.novi.event_management_system.mappers.TicketMapper;
@@ -11,8 +20,14 @@ import nl.novi.event_management_system.models.*;
 import nl.novi.event_management_system.repositories.EventRepository;
 import nl.novi.event_management_system.repositories.TicketRepository;
 import nl.novi.event_management_system.repositories.UserRepository;
+import nl.novi.event_management_system.utils.FieldSelection;
+import nl.novi.event_management_system.utils.KeysetCursor;
+import nl.novi.event_management_system.utils.TicketTokenSigner;
+import nl.novi.event_management_system.utils.TicketTokenSigner.TicketTokenClaims;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,49 +36,109 @@ import java.util.UUID;
  */
 @Service
 public class TicketService {
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final TicketRepository ticketRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final EventResponseCache eventResponseCache;
+    private final TicketTokenSigner ticketTokenSigner;
+    private final TicketLedger ticketLedger;
 
     /**
      * Constructor for the TicketService class.
      *
-     * @param ticketRepository The repository for the Ticket entity.
+     * @param ticketRepository   The repository for the Ticket entity.
+     * @param eventResponseCache The cache of rendered event details.
+     * @param ticketTokenSigner  The signer of the tokens printed in ticket QR codes.
+     * @param ticketLedger       The ledger every sale, change and refund is recorded in.
      */
-    public TicketService(TicketRepository ticketRepository, UserRepository userRepository, EventRepository eventRepository) {
+    public TicketService(TicketRepository ticketRepository, UserRepository userRepository, EventRepository eventRepository,
+                         EventResponseCache eventResponseCache, TicketTokenSigner ticketTokenSigner, TicketLedger ticketLedger) {
         this.ticketRepository = ticketRepository;
         this.userRepository = userRepository;
         this.eventRepository = eventRepository;
+        this.eventResponseCache = eventResponseCache;
+        this.ticketTokenSigner = ticketTokenSigner;
+        this.ticketLedger = ticketLedger;
     }
 
     /**
-     * Creates a new ticket.
+     * Creates a new ticket, taking one seat of the event.
+     * The seat is taken with a conditional update, so concurrent purchases never sell more seats than the event has.
      *
      * @param ticketCreateDTO The DTO containing the information for the ticket.
      * @return The DTO containing the information for the created ticket.
+     * @throws EventSoldOutException if the event has no seat left.
      */
+    @Transactional
     public TicketResponseDTO createTicket(@Valid TicketCreateDTO ticketCreateDTO) {
         User user = userRepository.findByUsername(ticketCreateDTO.getUsername())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found."));
 
-        Event event = eventRepository.findById(ticketCreateDTO.getEventId())
-                .orElseThrow(() -> new EventNotFoundException(ticketCreateDTO.getEventId()));
+        UUID eventId = ticketCreateDTO.getEventId();
+        // If the ticket cannot be saved the transaction rolls back and the seat is free again
+        reserveSeat(eventId);
 
         Ticket ticket = TicketMapper.toEntity(ticketCreateDTO);
 
         ticket.setUser(user);
-        ticket.setEvent(event);
+        ticket.setEvent(eventRepository.getReferenceById(eventId));
+
+        Ticket savedTicket = ticketRepository.save(ticket);
+        ticketLedger.recordSale(savedTicket);
+        return TicketMapper.toResponseDTO(savedTicket);
+    }
 
-        return TicketMapper.toResponseDTO(ticketRepository.save(ticket));
+    /**
+     * Retrieves a page of tickets ordered by purchase date.
+     *
+     * @param criteria The filters, absent filters match all tickets.
+     * @param cursor   The continuation token of the previous page, or null for the first page.
+     * @param limit    The maximum number of tickets to return, capped at {@link #MAX_PAGE_SIZE}.
+     * @return A page of ticket DTOs and the continuation token for the next page.
+     */
+    @Transactional
+    public PageResponseDTO<TicketResponseDTO> getTickets(TicketSearchCriteriaDTO criteria, String cursor, int limit) {
+        return getTickets(criteria, cursor, limit, FieldSelection.all());
     }
 
     /**
-     * Retrieves all tickets.
+     * Retrieves a page of tickets matching the filters, ordered by purchase date and ID, using keyset pagination.
+     * The user and event are only mapped when selected, each is loaded with one batched query per page.
      *
-     * @return A list of DTOs containing the information for all tickets.
+     * @param criteria The filters, absent filters match all tickets.
+     * @param cursor   The continuation token of the previous page, or null for the first page.
+     * @param limit    The maximum number of tickets to return, capped at {@link #MAX_PAGE_SIZE}.
+     * @param fields   The fields the client asked for.
+     * @return A page of ticket DTOs and the continuation token for the next page.
      */
-    public List<TicketResponseDTO> getTickets() {
-        return TicketMapper.toResponseDTOList(ticketRepository.findAll());
+    @Transactional
+    public PageResponseDTO<TicketResponseDTO> getTickets(TicketSearchCriteriaDTO criteria, String cursor, int limit, FieldSelection fields) {
+        if (limit < 1) {
+            throw new BadRequestException("Limit must be at least 1");
+        }
+        if (criteria.getPurchasedFrom() != null && criteria.getPurchasedTo() != null && criteria.getPurchasedFrom().isAfter(criteria.getPurchasedTo())) {
+            throw new BadRequestException("purchasedFrom must not be after purchasedTo");
+        }
+        if (criteria.getUsername() != null && criteria.getUsername().isBlank()) {
+            criteria.setUsername(null);
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+
+        // Fetch one extra row to find out whether there is a next page without a count query
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        List<Ticket> tickets = ticketRepository.searchTickets(criteria, after, pageSize + 1);
+
+        String nextCursor = null;
+        if (tickets.size() > pageSize) {
+            tickets = tickets.subList(0, pageSize);
+            Ticket last = tickets.getLast();
+            nextCursor = new KeysetCursor(last.getPurchaseDate(), last.getId()).encode();
+        }
+
+        return new PageResponseDTO<>(TicketMapper.toResponseDTOList(tickets, fields), nextCursor);
     }
 
     /**
@@ -72,10 +147,23 @@ public class TicketService {
      * @param id The ID of the ticket to retrieve.
      * @return The DTO containing the information for the ticket.
      */
+    @Transactional
     public TicketResponseDTO getTicketById(UUID id) {
+        return getTicketById(id, FieldSelection.all());
+    }
+
+    /**
+     * Retrieves a ticket by its ID, mapping the user and event only when selected.
+     *
+     * @param id     The ID of the ticket to retrieve.
+     * @param fields The fields the client asked for.
+     * @return The DTO containing the information for the ticket.
+     */
+    @Transactional
+    public TicketResponseDTO getTicketById(UUID id, FieldSelection fields) {
         Ticket ticket = ticketRepository.findById(id)
                 .orElseThrow(() -> new RecordNotFoundException("Ticket not found."));
-        return TicketMapper.toResponseDTO(ticket);
+        return TicketMapper.toResponseDTO(ticket, fields);
     }
 
     /**
@@ -85,10 +173,29 @@ public class TicketService {
      * @param ticketCreateDTO The DTO containing the updated ticket details.
      * @return The DTO containing the information for the updated ticket.
      */
+    @Transactional
     public TicketResponseDTO updateTicket(UUID id, TicketCreateDTO ticketCreateDTO) {
+        return updateTicket(id, ticketCreateDTO, null);
+    }
+
+    /**
+     * Updates a ticket if it still has the version the client last read.
+     *
+     * @param id              The ID of the ticket to update.
+     * @param ticketCreateDTO The DTO containing the updated ticket details.
+     * @param expectedVersion The version from the If-Match header, or null to update unconditionally.
+     * @return The DTO containing the information for the updated ticket, with its new version.
+     * @throws PreconditionFailedException if the ticket has changed since the client read it.
+     */
+    @Transactional
+    public TicketResponseDTO updateTicket(UUID id, TicketCreateDTO ticketCreateDTO, Long expectedVersion) {
         // Fetch the existing ticket (throws exception if not found)
         Ticket storedTicket = ticketRepository.findById(id)
                 .orElseThrow(() -> new RecordNotFoundException("Ticket not found with ID: " + id));
+        if (expectedVersion != null && expectedVersion != storedTicket.getVersion()) {
+            throw new PreconditionFailedException("Ticket " + id + " is at version " + storedTicket.getVersion()
+                    + ", the request expected version " + expectedVersion);
+        }
 
         // Fetch the user only if username is provided
         User user = null;
@@ -100,7 +207,17 @@ public class TicketService {
         Event event = eventRepository.findById(ticketCreateDTO.getEventId())
                 .orElseThrow(() -> new EventNotFoundException("Event not found: " + ticketCreateDTO.getEventId()));
 
-        // Update fields in the existing ticket
+        // A ticket that moves to another event takes a seat there and frees the one it held
+        Event previousEvent = storedTicket.getEvent();
+        if (previousEvent == null || !event.getId().equals(previousEvent.getId())) {
+            reserveSeat(event.getId());
+            releaseSeatOf(storedTicket);
+        } else {
+            touchEvent(event.getId());
+        }
+
+        // Update fields in the existing ticket, the ledger keeps what it was before
+        TicketLedger.Position before = TicketLedger.Position.of(storedTicket);
         storedTicket.setPrice(ticketCreateDTO.getPrice());
         storedTicket.setTicketType(ticketCreateDTO.getTicketType());
         storedTicket.setPurchaseDate(ticketCreateDTO.getPurchaseDate());
@@ -111,26 +228,132 @@ public class TicketService {
             storedTicket.setUser(user);
         }
 
-        // Save updated ticket and return response DTO
-        Ticket updatedTicket = ticketRepository.save(storedTicket);
+        // Flush so the response carries the incremented version
+        Ticket updatedTicket = ticketRepository.saveAndFlush(storedTicket);
+        ticketLedger.recordChange(before, updatedTicket);
         return TicketMapper.toResponseDTO(updatedTicket);
     }
 
+    /**
+     * Returns the current version of a ticket without loading it.
+     *
+     * @param id The ID of the ticket.
+     * @return The version of the ticket.
+     * @throws RecordNotFoundException if the ticket does not exist.
+     */
+    public long getTicketVersion(UUID id) {
+        return ticketRepository.findVersionById(id)
+                .orElseThrow(() -> new RecordNotFoundException("Ticket not found."));
+    }
+
+
+    /**
+     * Issues a signed token for a ticket, valid from the first day of its event until the end of the last day.
+     *
+     * @param id The ID of the ticket.
+     * @return The DTO containing the token and its validity window.
+     * @throws RecordNotFoundException if the ticket does not exist.
+     */
+    @Transactional
+    public TicketTokenDTO issueToken(UUID id) {
+        Ticket ticket = ticketRepository.findById(id)
+                .orElseThrow(() -> new RecordNotFoundException("Ticket not found."));
+        Event event = ticket.getEvent();
+        ZoneId zone = ZoneId.systemDefault();
+        Instant validFrom = event.getStartDate().atStartOfDay(zone).toInstant();
+        Instant validUntil = event.getEndDate().plusDays(1).atStartOfDay(zone).toInstant();
+
+        String token = ticketTokenSigner.sign(new TicketTokenClaims(ticket.getId(), event.getId(), ticket.getTicketType(), validFrom, validUntil));
+        return new TicketTokenDTO(ticket.getId(), token, validFrom, validUntil);
+    }
+
+    /**
+     * Verifies a ticket token from its signature and validity window alone, without reading the database.
+     * A valid token proves the ticket was issued, not that it is unused, the check-in still decides that.
+     *
+     * @param ticketTokenVerifyDTO The DTO containing the token and optionally the event of the gate.
+     * @return The verdict, with the claims of the token when its signature is valid.
+     */
+    public TicketTokenVerificationDTO verifyToken(TicketTokenVerifyDTO ticketTokenVerifyDTO) {
+        TicketTokenClaims claims;
+        try {
+            claims = ticketTokenSigner.verify(ticketTokenVerifyDTO.getToken().trim());
+        } catch (IllegalArgumentException e) {
+            return TicketTokenVerificationDTO.builder().valid(false).reason(e.getMessage()).build();
+        }
+
+        Instant now = Instant.now();
+        String reason = null;
+        if (now.isBefore(claims.validFrom())) {
+            reason = "Ticket token is not valid yet";
+        } else if (!now.isBefore(claims.validUntil())) {
+            reason = "Ticket token has expired";
+        } else if (ticketTokenVerifyDTO.getEventId() != null && !ticketTokenVerifyDTO.getEventId().equals(claims.eventId())) {
+            reason = "Ticket token is for another event";
+        }
+        return TicketTokenVerificationDTO.builder()
+                .valid(reason == null)
+                .reason(reason)
+                .ticketId(claims.ticketId())
+                .eventId(claims.eventId())
+                .ticketType(claims.ticketType())
+                .validFrom(claims.validFrom())
+                .validUntil(claims.validUntil())
+                .build();
+    }
 
     /**
-     * Deletes a ticket by its ID.
+     * Deletes a ticket by its ID and records it as refunded.
      *
      * @param id The ID of the ticket to delete.
      * @return True if the ticket was deleted, false if the ticket was not found.
      */
+    @Transactional
     public boolean deleteTicketById(UUID id) {
-        ticketRepository.findById(id)
+        Ticket ticket = ticketRepository.findById(id)
                 .orElseThrow(RecordNotFoundException::new);
         if (ticketRepository.existsById(id)) {
             ticketRepository.deleteById(id);
+            releaseSeatOf(ticket);
+            ticketLedger.recordRefund(ticket);
             return true;
         }
         return false;
 
     }
+
+    // Shared with ReservationService, a held seat is taken the same way as a sold one
+    void reserveSeat(UUID eventId) {
+        if (eventId == null) {
+            throw new EventNotFoundException();
+        }
+        if (eventRepository.reserveSeat(eventId) == 0) {
+            if (!eventRepository.existsById(eventId)) {
+                throw new EventNotFoundException(eventId);
+            }
+            throw new EventSoldOutException(eventId);
+        }
+        eventRepository.refreshIfLoaded(eventId);
+        eventResponseCache.evict(eventId);
+    }
+
+    private void releaseSeatOf(Ticket ticket) {
+        if (ticket.getEvent() != null) {
+            releaseSeat(ticket.getEvent().getId());
+        }
+    }
+
+    // Releasing the seat also bumps the version of the event
+    void releaseSeat(UUID eventId) {
+        eventRepository.releaseSeat(eventId);
+        eventRepository.refreshIfLoaded(eventId);
+        eventResponseCache.evict(eventId);
+    }
+
+    // The event embeds its tickets, so its cached rendering and its entity tag are both outdated
+    void touchEvent(UUID eventId) {
+        eventRepository.incrementVersion(eventId);
+        eventRepository.refreshIfLoaded(eventId);
+        eventResponseCache.evict(eventId);
+    }
 }
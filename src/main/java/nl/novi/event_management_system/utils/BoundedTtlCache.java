@@ -0,0 +1,165 @@
+package nl.novi.event_management_system.utils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-memory cache that holds at most {@code maxSize} entries, each for at most {@code ttl}.
+ * When the cache is full the least recently used entry is evicted.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class BoundedTtlCache<K, V> {
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    // Access ordered, so the first entry is always the least recently used one
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Token of the latest load in flight per key, an invalidation removes it so a load that raced with a write is not
+    // cached. Writes to other keys leave the token alone, so they never keep a load from being cached.
+    private final Map<K, Object> loads = new HashMap<>();
+
+    public BoundedTtlCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, Clock.systemUTC());
+    }
+
+    public BoundedTtlCache(int maxSize, Duration ttl, Clock clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Cache time to live must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the cached value for a key, or null if it is absent or expired.
+     *
+     * @param key the key
+     * @return the cached value or null
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAt <= clock.millis()) {
+            entries.remove(key);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Returns the cached value for a key, loading and caching it on a miss.
+     * The loader runs outside the lock, so a slow load never blocks readers of other keys.
+     * A value is only cached if its key was not invalidated while it was being loaded,
+     * and no later load of the same key started in the meantime.
+     *
+     * @param key    the key
+     * @param loader computes the value on a miss
+     * @return the cached or freshly loaded value
+     */
+    public V getOrLoad(K key, Function<K, V> loader) {
+        Object token = new Object();
+        synchronized (this) {
+            V value = get(key);
+            if (value != null) {
+                return value;
+            }
+            loads.put(key, token);
+        }
+        V value = null;
+        try {
+            value = loader.apply(key);
+        } finally {
+            synchronized (this) {
+                if (loads.remove(key, token) && value != null) {
+                    put(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Caches a value, evicting the least recently used entries when the cache is full.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.millis() + ttlMillis));
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes a key from the cache.
+     *
+     * @param key the key
+     */
+    public synchronized void invalidate(K key) {
+        loads.remove(key);
+        if (entries.remove(key) != null) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes every entry from the cache.
+     */
+    public synchronized void invalidateAll() {
+        loads.clear();
+        evictions.addAndGet(entries.size());
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
@@ -0,0 +1,102 @@
+package nl.novi.event_management_system.utils;
+
+import nl.novi.event_management_system.exceptions.BadRequestException;
+
+import java.util.TreeSet;
+
+/**
+ * Converts entity versions to HTTP entity tags and back.
+ * The tag of a resource is its version column, so it changes with every committed write.
+ * A sparse fieldset is another representation of the resource, its tag also carries a hash of the selected fields.
+ */
+public class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Returns the strong entity tag of a version, for example {@code "3"}.
+     *
+     * @param version the version of the entity
+     * @return the quoted entity tag
+     */
+    public static String of(long version) {
+        return of(version, FieldSelection.all());
+    }
+
+    /**
+     * Returns the strong entity tag of a version in a field selection, for example {@code "3"} for every field
+     * and {@code "3-5d41402a"} for some of them, so different selections never share a tag.
+     *
+     * @param version   the version of the entity
+     * @param selection the fields of the representation
+     * @return the quoted entity tag
+     */
+    public static String of(long version, FieldSelection selection) {
+        if (selection.isAll()) {
+            return "\"" + version + "\"";
+        }
+        // Sorted, so the order the client listed the fields in does not matter
+        String fields = String.join(",", new TreeSet<>(selection.getFields()));
+        return "\"" + version + "-" + Integer.toHexString(fields.hashCode()) + "\"";
+    }
+
+    /**
+     * Checks whether an If-None-Match header matches the current version.
+     *
+     * @param ifNoneMatch the header value, may be null
+     * @param version     the current version of the entity
+     * @return true if the client already has the current version
+     */
+    public static boolean matches(String ifNoneMatch, long version) {
+        return matches(ifNoneMatch, version, FieldSelection.all());
+    }
+
+    /**
+     * Checks whether an If-None-Match header matches the current version in a field selection.
+     *
+     * @param ifNoneMatch the header value, may be null
+     * @param version     the current version of the entity
+     * @param selection   the fields of the requested representation
+     * @return true if the client already has the current version of this representation
+     */
+    public static boolean matches(String ifNoneMatch, long version, FieldSelection selection) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String current = of(version, selection);
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            // If-None-Match uses the weak comparison, so W/"3" matches "3"
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the version a client expects from an If-Match header.
+     *
+     * @param ifMatch the header value, may be null
+     * @return the expected version, or null if the header is absent or {@code *}
+     * @throws BadRequestException if the header is not a single entity tag of this API
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new BadRequestException("Invalid If-Match header: " + ifMatch);
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+}
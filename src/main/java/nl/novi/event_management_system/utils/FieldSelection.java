@@ -0,0 +1,81 @@
+package nl.novi.event_management_system.utils;
+
+import nl.novi.event_management_system.exceptions.BadRequestException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The top level fields of a response DTO a client asked for with {@code ?fields=a,b,c}.
+ * Mappers only load and map the associations that are included.
+ */
+public class FieldSelection {
+    private static final FieldSelection ALL = new FieldSelection(null);
+
+    // Null means every field
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Returns the selection that includes every field.
+     *
+     * @return the selection of all fields
+     */
+    public static FieldSelection all() {
+        return ALL;
+    }
+
+    /**
+     * Parses a comma separated list of field names of a response DTO.
+     *
+     * @param fields  the comma separated field names, null or blank selects every field
+     * @param dtoType the response DTO the names must belong to
+     * @return the parsed selection
+     * @throws BadRequestException if a name is not a field of the DTO
+     */
+    public static FieldSelection parse(String fields, Class<?> dtoType) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        Set<String> allowed = Arrays.stream(dtoType.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toSet());
+
+        Set<String> selected = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String field = name.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(field)) {
+                throw new BadRequestException("Unknown field '" + field + "', allowed fields are " + new TreeSet<>(allowed));
+            }
+            selected.add(field);
+        }
+        return selected.isEmpty() ? ALL : new FieldSelection(Collections.unmodifiableSet(selected));
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /**
+     * Returns the selected field names.
+     *
+     * @return the selected names, empty when every field is selected
+     */
+    public Set<String> getFields() {
+        return fields == null ? Set.of() : fields;
+    }
+}
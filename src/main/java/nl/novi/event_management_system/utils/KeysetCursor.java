@@ -0,0 +1,57 @@
+package nl.novi.event_management_system.utils;
+
+import lombok.Getter;
+import nl.novi.event_management_system.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a keyset page, ordered by a date and a UUID tie-breaker.
+ * Clients only ever see the opaque token produced by {@link #encode()}.
+ */
+@Getter
+public class KeysetCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDate date;
+    private final UUID id;
+
+    public KeysetCursor(LocalDate date, UUID id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    /**
+     * Encodes this cursor as an opaque, URL safe continuation token.
+     *
+     * @return the continuation token
+     */
+    public String encode() {
+        String raw = date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation token previously produced by {@link #encode()}.
+     *
+     * @param token the continuation token
+     * @return the decoded cursor
+     * @throws BadRequestException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new KeysetCursor(LocalDate.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
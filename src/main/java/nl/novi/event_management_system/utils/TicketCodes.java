@@ -0,0 +1,90 @@
+package nl.novi.event_management_system.utils;
+
+/**
+ * Formats numbers as ticket codes, {@code TICKET-} followed by seven Crockford Base32 digits and a check digit.
+ * Crockford's alphabet leaves out I, L, O and U, so a code read aloud or typed over is hard to get wrong,
+ * and the check digit catches every single mistyped character and most swapped neighbours.
+ */
+public final class TicketCodes {
+    public static final String PREFIX = "TICKET-";
+    public static final int DIGITS = 7;
+    // The largest number a code can hold, 35 bits
+    public static final long MAX_VALUE = (1L << (5 * DIGITS)) - 1;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int BASE = ALPHABET.length;
+    private static final int[] VALUES = new int[128];
+
+    static {
+        java.util.Arrays.fill(VALUES, -1);
+        for (int i = 0; i < BASE; i++) {
+            VALUES[ALPHABET[i]] = i;
+            VALUES[Character.toLowerCase(ALPHABET[i])] = i;
+        }
+        // Crockford decodes the letters that look like digits as those digits
+        VALUES['O'] = VALUES['o'] = 0;
+        VALUES['I'] = VALUES['i'] = VALUES['L'] = VALUES['l'] = 1;
+    }
+
+    private TicketCodes() {
+    }
+
+    /**
+     * Formats a number as a ticket code.
+     *
+     * @param value the number, between 0 and {@link #MAX_VALUE}
+     * @return the ticket code
+     */
+    public static String format(long value) {
+        if (value < 0 || value > MAX_VALUE) {
+            throw new IllegalArgumentException("Ticket code value out of range: " + value);
+        }
+        char[] code = new char[PREFIX.length() + DIGITS + 1];
+        PREFIX.getChars(0, PREFIX.length(), code, 0);
+        int[] digits = new int[DIGITS];
+        for (int i = DIGITS - 1; i >= 0; i--) {
+            digits[i] = (int) (value & (BASE - 1));
+            code[PREFIX.length() + i] = ALPHABET[digits[i]];
+            value >>>= 5;
+        }
+        code[code.length - 1] = ALPHABET[checkDigit(digits)];
+        return new String(code);
+    }
+
+    /**
+     * Checks that a code has the ticket code format and a matching check digit.
+     * Lower case letters and the look-alikes O, I and L are accepted as Crockford allows.
+     *
+     * @param code the code to check, may be null
+     * @return true if the code is well formed
+     */
+    public static boolean isValid(String code) {
+        if (code == null || code.length() != PREFIX.length() + DIGITS + 1 || !code.startsWith(PREFIX)) {
+            return false;
+        }
+        int[] digits = new int[DIGITS];
+        for (int i = 0; i < DIGITS; i++) {
+            digits[i] = valueOf(code.charAt(PREFIX.length() + i));
+            if (digits[i] < 0) {
+                return false;
+            }
+        }
+        return valueOf(code.charAt(code.length() - 1)) == checkDigit(digits);
+    }
+
+    // Luhn mod 32: doubling every other digit also catches most transpositions of adjacent digits
+    private static int checkDigit(int[] digits) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = digits.length - 1; i >= 0; i--) {
+            int addend = doubled ? digits[i] * 2 : digits[i];
+            sum += addend / BASE + addend % BASE;
+            doubled = !doubled;
+        }
+        return (BASE - sum % BASE) % BASE;
+    }
+
+    private static int valueOf(char c) {
+        return c < VALUES.length ? VALUES[c] : -1;
+    }
+}
@@ -0,0 +1,138 @@
+package nl.novi.event_management_system.utils;
+
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import nl.novi.event_management_system.enums.TicketType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Signs and verifies compact ticket tokens, small enough for a QR code and checked without any database access.
+ * A token is the base64url encoding of a version byte, the ticket ID, the event ID, the ticket type, the validity
+ * window in epoch seconds and the first 16 bytes of an HMAC-SHA256 over all of that.
+ * The key is derived from the JWT secret, so tokens and JWTs never share a key.
+ */
+@Component
+public class TicketTokenSigner {
+    private static final byte VERSION = 1;
+    private static final int MAC_LENGTH = 16;
+    private static final int PAYLOAD_LENGTH = 1 + 16 + 16 + 1 + 4 + 4;
+    private static final int TOKEN_LENGTH = PAYLOAD_LENGTH + MAC_LENGTH;
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    // A Mac is not thread safe and slow to look up, every thread keeps its own
+    private final ThreadLocal<Mac> macs;
+
+    public TicketTokenSigner(@Value("${jwt.SecretKey}") String secretKey) {
+        Key jwtKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.key = new SecretKeySpec(hmac(new SecretKeySpec(jwtKey.getEncoded(), ALGORITHM),
+                "ticket-token".getBytes(StandardCharsets.UTF_8)), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> newMac(key));
+    }
+
+    /**
+     * Signs a token for a ticket.
+     *
+     * @param claims what the token states about the ticket
+     * @return the token, URL and QR code safe
+     */
+    public String sign(TicketTokenClaims claims) {
+        ByteBuffer token = ByteBuffer.allocate(TOKEN_LENGTH);
+        token.put(VERSION);
+        putUuid(token, claims.ticketId());
+        putUuid(token, claims.eventId());
+        token.put((byte) claims.ticketType().getCode());
+        token.putInt(toUnsignedSeconds(claims.validFrom()));
+        token.putInt(toUnsignedSeconds(claims.validUntil()));
+        Mac mac = macs.get();
+        mac.update(token.array(), 0, PAYLOAD_LENGTH);
+        token.put(mac.doFinal(), 0, MAC_LENGTH);
+        return ENCODER.encodeToString(token.array());
+    }
+
+    /**
+     * Verifies the signature of a token and reads its claims. The validity window is left to the caller.
+     *
+     * @param token the token to verify
+     * @return the claims of the token
+     * @throws IllegalArgumentException if the token is malformed or its signature does not match
+     */
+    public TicketTokenClaims verify(String token) {
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Ticket token is not base64url encoded");
+        }
+        if (bytes.length != TOKEN_LENGTH || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Ticket token has an unknown format");
+        }
+        Mac mac = macs.get();
+        mac.update(bytes, 0, PAYLOAD_LENGTH);
+        byte[] expected = mac.doFinal();
+        // Constant time, the comparison must not tell a forger how many leading bytes were right
+        if (!MessageDigest.isEqual(Arrays.copyOf(expected, MAC_LENGTH),
+                Arrays.copyOfRange(bytes, PAYLOAD_LENGTH, TOKEN_LENGTH))) {
+            throw new IllegalArgumentException("Ticket token signature does not match");
+        }
+
+        ByteBuffer payload = ByteBuffer.wrap(bytes, 1, PAYLOAD_LENGTH - 1);
+        UUID ticketId = new UUID(payload.getLong(), payload.getLong());
+        UUID eventId = new UUID(payload.getLong(), payload.getLong());
+        TicketType ticketType = TicketType.fromCode(payload.get())
+                .orElseThrow(() -> new IllegalArgumentException("Ticket token has an unknown ticket type"));
+        Instant validFrom = Instant.ofEpochSecond(Integer.toUnsignedLong(payload.getInt()));
+        Instant validUntil = Instant.ofEpochSecond(Integer.toUnsignedLong(payload.getInt()));
+        return new TicketTokenClaims(ticketId, eventId, ticketType, validFrom, validUntil);
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    // Unsigned 32 bit seconds last until 2106
+    private static int toUnsignedSeconds(Instant instant) {
+        long seconds = instant.getEpochSecond();
+        if (seconds < 0 || seconds > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("Ticket token time out of range: " + instant);
+        }
+        return (int) seconds;
+    }
+
+    private static byte[] hmac(SecretKeySpec key, byte[] data) {
+        return newMac(key).doFinal(data);
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    /**
+     * What a ticket token states: the ticket, its event and type, and when it may be used.
+     */
+    public record TicketTokenClaims(UUID ticketId, UUID eventId, TicketType ticketType, Instant validFrom, Instant validUntil) {
+    }
+}
@@ -0,0 +1,118 @@
+package nl.novi.event_management_system.utils;
+
+import java.util.*;
+
+/**
+ * Hashed timing wheel of keys that expire at a deadline.
+ * A key is put in the bucket of its deadline tick, modulo the wheel size, so scheduling and cancelling are O(1)
+ * and advancing one tick only visits one bucket, however many keys are scheduled in total.
+ * Deadlines further away than one revolution stay in their bucket until the wheel has come round often enough.
+ *
+ * @param <K> the key type
+ */
+public class TimingWheel<K> {
+    private final long tickMillis;
+    private final int mask;
+    private final List<Set<K>> buckets;
+    private final Map<K, Slot> slots = new HashMap<>();
+
+    // The last tick that was advanced to, every key due at or before it has been handed out
+    private long currentTick;
+
+    /**
+     * Creates a wheel.
+     *
+     * @param tickMillis  the length of one tick, deadlines are rounded up to a whole tick
+     * @param wheelSize   the number of buckets, rounded up to a power of two
+     * @param startMillis the current time, in milliseconds since the epoch
+     */
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("Tick must be at least 1 millisecond");
+        }
+        if (wheelSize < 1 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("Wheel size must be between 1 and 2^30");
+        }
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new HashSet<>());
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedules a key, replacing its previous deadline. A deadline in the past is due at the next tick.
+     *
+     * @param key            the key
+     * @param deadlineMillis the deadline, in milliseconds since the epoch
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        // Rounded up, so a key is never handed out before its deadline
+        long deadlineTick = Math.ceilDiv(deadlineMillis, tickMillis);
+        int bucket = (int) (Math.max(deadlineTick, currentTick + 1) & mask);
+        buckets.get(bucket).add(key);
+        slots.put(key, new Slot(deadlineTick, bucket));
+    }
+
+    /**
+     * Removes a key from the wheel.
+     *
+     * @param key the key
+     * @return true if the key was scheduled
+     */
+    public synchronized boolean cancel(K key) {
+        Slot slot = slots.remove(key);
+        if (slot == null) {
+            return false;
+        }
+        buckets.get(slot.bucket()).remove(key);
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the given time and removes the keys that are due.
+     * Each bucket is visited at most once, however long ago the wheel was last advanced.
+     *
+     * @param nowMillis the current time, in milliseconds since the epoch
+     * @return the keys whose deadline has passed
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        if (nowTick <= currentTick) {
+            return List.of();
+        }
+
+        List<K> due = new ArrayList<>();
+        for (long tick = Math.max(currentTick + 1, nowTick - mask); tick <= nowTick; tick++) {
+            Iterator<K> keys = buckets.get((int) (tick & mask)).iterator();
+            while (keys.hasNext()) {
+                K key = keys.next();
+                if (slots.get(key).deadlineTick() <= nowTick) {
+                    keys.remove();
+                    slots.remove(key);
+                    due.add(key);
+                }
+            }
+        }
+        currentTick = nowTick;
+        return due;
+    }
+
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    public int getWheelSize() {
+        return mask + 1;
+    }
+
+    private record Slot(long deadlineTick, int bucket) {
+    }
+}
@@ -10,12 +10,16 @@ INSERT INTO roles (username, role) VALUES ('organizer', 'ROLE_ORGANIZER');
 INSERT INTO roles (username, role) VALUES ('participant', 'ROLE_PARTICIPANT');
 
 
--- Add event
-INSERT INTO events (id, name, organizer_username, location, start_date, end_date, capacity, price)
-VALUES ('c4205e65-fee0-4c4f-9470-88edfc8280e6','Annual Tech Conference', 'admin', 'Netherlands', '2025-06-15', '2025-06-15', '22', 300);
+-- Add event, its rating counters match the feedback added below
+INSERT INTO events (id, name, organizer_username, location, start_date, end_date, capacity, price, sold_count, version,
+                    rating_count, rating_sum, one_star_count, two_star_count, three_star_count, four_star_count, five_star_count)
+VALUES ('c4205e65-fee0-4c4f-9470-88edfc8280e6','Annual Tech Conference', 'admin', 'Netherlands', '2025-06-15', '2025-06-15', '22', 300, 1, 0,
+        1, 5, 0, 0, 0, 0, 1);
 
-INSERT INTO events (id, name, organizer_username, location, start_date, end_date, capacity, price)
-VALUES ('c4205e65-fee0-4c4f-9470-88edfc8280e4','Annual Tech Conference - 2', 'organizer', 'Netherlands', '2025-06-12', '2025-06-15', 500, 300);
+INSERT INTO events (id, name, organizer_username, location, start_date, end_date, capacity, price, sold_count, version,
+                    rating_count, rating_sum, one_star_count, two_star_count, three_star_count, four_star_count, five_star_count)
+VALUES ('c4205e65-fee0-4c4f-9470-88edfc8280e4','Annual Tech Conference - 2', 'organizer', 'Netherlands', '2025-06-12', '2025-06-15', 500, 300, 1, 0,
+        1, 4, 0, 0, 0, 1, 0);
 --
 -- -- Add Feedback
 INSERT INTO feedbacks (comment, rating, username, feedback_date, id, event_id)
@@ -23,9 +27,12 @@ VALUES ('Great event! Learned a lot about new technologies.', 5, 'admin', '2025-
 INSERT INTO feedbacks (comment, rating, username, feedback_date, id, event_id)
 VALUES ('Great event! Learned a lot about new technologies.', 4, 'organizer', '2025-08-15', 'c4205e65-fee0-4c4f-9470-88edfc8280e3', 'c4205e65-fee0-4c4f-9470-88edfc8280e4');
 
+-- Ticket codes are numbered in blocks taken from this sequence, it is kept when the tables are recreated
+CREATE SEQUENCE IF NOT EXISTS ticket_code_block_seq START WITH 1;
+
 -- -- Add Ticket
-INSERT INTO tickets (id, price, purchase_date, ticket_type, ticket_code, event_id, username)
-VALUES ('c4205e65-fee0-4c4f-9470-88edfc8280e5', 10, '2025-06-15', 'FREE', 'TICKET-DCFF5CE6', 'c4205e65-fee0-4c4f-9470-88edfc8280e6', 'participant');
+INSERT INTO tickets (id, price, purchase_date, ticket_type, ticket_code, event_id, username, version)
+VALUES ('c4205e65-fee0-4c4f-9470-88edfc8280e5', 10, '2025-06-15', 'FREE', 'TICKET-DCFF5CE6', 'c4205e65-fee0-4c4f-9470-88edfc8280e6', 'participant', 0);
 
-INSERT INTO tickets (id, price, purchase_date, ticket_type, ticket_code, event_id, username)
-VALUES ('c4205e65-fee0-4c4f-9470-88edfc8280e6', 100, '2025-06-15', 'VIP', 'TICKET-DCFF5CE5', 'c4205e65-fee0-4c4f-9470-88edfc8280e4', 'participant');
\ No newline at end of file
+INSERT INTO tickets (id, price, purchase_date, ticket_type, ticket_code, event_id, username, version)
+VALUES ('c4205e65-fee0-4c4f-9470-88edfc8280e6', 100, '2025-06-15', 'VIP', 'TICKET-DCFF5CE5', 'c4205e65-fee0-4c4f-9470-88edfc8280e4', 'participant', 0);
\ No newline at end of file
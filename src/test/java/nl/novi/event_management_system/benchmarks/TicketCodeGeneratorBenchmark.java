@@ -0,0 +1,52 @@
+package nl.novi.event_management_system.benchmarks;
+
+import nl.novi.event_management_system.services.SequenceTicketCodeGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the sequence block generator with the random UUID codes it replaced, on one thread and on eight.
+ * Run the main method with the test classpath, for example from the IDE, after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketCodeGeneratorBenchmark {
+    // In memory, so the benchmark measures the generator and not the database
+    private final SequenceTicketCodeGenerator sequenceGenerator = new SequenceTicketCodeGenerator(new AtomicLong(1)::getAndIncrement);
+
+    @Benchmark
+    public String randomUuid() {
+        return "TICKET-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    @Benchmark
+    public String sequenceBlock() {
+        return sequenceGenerator.nextCode();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String randomUuidContended() {
+        return randomUuid();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String sequenceBlockContended() {
+        return sequenceGenerator.nextCode();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TicketCodeGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
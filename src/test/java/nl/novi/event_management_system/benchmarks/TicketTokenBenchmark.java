@@ -0,0 +1,50 @@
+package nl.novi.event_management_system.benchmarks;
+
+import nl.novi.event_management_system.enums.TicketType;
+import nl.novi.event_management_system.utils.TicketTokenSigner;
+import nl.novi.event_management_system.utils.TicketTokenSigner.TicketTokenClaims;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast a gate verifies ticket tokens, on one thread and on eight.
+ * Run the main method with the test classpath, for example from the IDE, after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketTokenBenchmark {
+    private final TicketTokenSigner signer = new TicketTokenSigner("eengeheimesleuteldieniemandmagwetenenhijmoetheelerglangencomplexzijnomtevoldoenaanallenormenenwaardeninjavaland");
+    private final TicketTokenClaims claims = new TicketTokenClaims(UUID.randomUUID(), UUID.randomUUID(), TicketType.STANDARD,
+            Instant.now(), Instant.now().plusSeconds(86_400));
+    private final String token = signer.sign(claims);
+
+    @Benchmark
+    public String sign() {
+        return signer.sign(claims);
+    }
+
+    @Benchmark
+    public TicketTokenClaims verify() {
+        return signer.verify(token);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public TicketTokenClaims verifyContended() {
+        return signer.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TicketTokenBenchmark.class.getSimpleName()).build()).run();
+    }
+}
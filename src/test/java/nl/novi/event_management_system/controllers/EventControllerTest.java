@@ -1,7 +1,9 @@
 package nl.novi.event_management_system.controllers;
 
+import nl.novi.event_management_system.dtos.PageResponseDTO;
 import nl.novi.event_management_system.dtos.eventDtos.*;
 import nl.novi.event_management_system.services.EventService;
+import nl.novi.event_management_system.utils.FieldSelection;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -85,10 +87,10 @@ class EventControllerTest {
         EventResponseDTO eventResponseDTO = new EventResponseDTO();
         eventResponseDTO.setId(eventId);
 
-        when(eventService.findEventById(eventId)).thenReturn(eventResponseDTO);
+        when(eventService.findEventById(eventId, FieldSelection.all())).thenReturn(eventResponseDTO);
 
         // Act
-        ResponseEntity<EventResponseDTO> response = eventController.getEventById(eventId);
+        ResponseEntity<EventResponseDTO> response = eventController.getEventById(eventId, null, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -101,10 +103,10 @@ class EventControllerTest {
         String username = "testOrganizer";
         List<EventResponseDTO> eventList = Collections.singletonList(new EventResponseDTO());
 
-        when(eventService.getEventsByOrganizer(username)).thenReturn(eventList);
+        when(eventService.getEventsByOrganizer(username, FieldSelection.all())).thenReturn(eventList);
 
         // Act
-        ResponseEntity<List<EventResponseDTO>> response = eventController.getEventsByOrganizer(username);
+        ResponseEntity<List<EventResponseDTO>> response = eventController.getEventsByOrganizer(username, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -114,16 +116,16 @@ class EventControllerTest {
     @Test
     void testGetAllEvents_Success() {
         // Arrange
-        List<EventResponseDTO> eventList = Collections.singletonList(new EventResponseDTO());
+        PageResponseDTO<EventResponseDTO> page = new PageResponseDTO<>(Collections.singletonList(new EventResponseDTO()), "next");
 
-        when(eventService.getAllEvents()).thenReturn(eventList);
+        when(eventService.getEvents(null, 20, FieldSelection.all())).thenReturn(page);
 
         // Act
-        ResponseEntity<List<EventResponseDTO>> response = eventController.getAllEvents();
+        ResponseEntity<PageResponseDTO<EventResponseDTO>> response = eventController.getAllEvents(null, 20, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(eventList, response.getBody());
+        assertEquals(page, response.getBody());
     }
 
     @Test
@@ -134,16 +136,50 @@ class EventControllerTest {
         EventResponseDTO updatedEvent = new EventResponseDTO();
         updatedEvent.setId(eventId);
 
-        when(eventService.updateEvent(eventId, eventCreateDTO)).thenReturn(updatedEvent);
+        when(eventService.updateEvent(eventId, eventCreateDTO, null)).thenReturn(updatedEvent);
 
         // Act
-        ResponseEntity<EventResponseDTO> response = eventController.updateEvent(eventId, eventCreateDTO);
+        ResponseEntity<EventResponseDTO> response = eventController.updateEvent(eventId, eventCreateDTO, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(updatedEvent, response.getBody());
     }
 
+    @Test
+    void testUpdateEvent_PassesTheIfMatchVersion() {
+        // Arrange
+        UUID eventId = UUID.randomUUID();
+        EventCreateDTO eventCreateDTO = new EventCreateDTO();
+        EventResponseDTO updatedEvent = new EventResponseDTO();
+        updatedEvent.setId(eventId);
+        updatedEvent.setVersion(4L);
+
+        when(eventService.updateEvent(eventId, eventCreateDTO, 3L)).thenReturn(updatedEvent);
+
+        // Act
+        ResponseEntity<EventResponseDTO> response = eventController.updateEvent(eventId, eventCreateDTO, "\"3\"");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void testGetEventById_NotModifiedWhenTheETagMatches() {
+        // Arrange
+        UUID eventId = UUID.randomUUID();
+        when(eventService.getEventVersion(eventId)).thenReturn(2L);
+
+        // Act
+        ResponseEntity<EventResponseDTO> response = eventController.getEventById(eventId, null, "\"2\"");
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"2\"", response.getHeaders().getETag());
+        verify(eventService, never()).findEventById(any(UUID.class), any(FieldSelection.class));
+    }
+
     @Test
     void testDeleteEvent_Success() {
         // Arrange
@@ -207,12 +243,18 @@ class EventControllerTest {
         EventParticipantUsernameWrapperDTO wrapper = new EventParticipantUsernameWrapperDTO();
         wrapper.setParticipants(Collections.singletonList(new EventParticipantUsernameDTO("testParticipant")));
 
+        ParticipantAssignmentResultDTO result = ParticipantAssignmentResultDTO.builder()
+                .requested(1)
+                .added(new ArrayList<>(List.of("testParticipant")))
+                .build();
+        when(eventService.assignParticipantToEvent(eventId, wrapper.getParticipants())).thenReturn(result);
+
         // Act
-        ResponseEntity<String> response = eventController.assignParticipantToEvent(eventId, wrapper);
+        ResponseEntity<ParticipantAssignmentResultDTO> response = eventController.assignParticipantToEvent(eventId, wrapper);
 
         // Assert
-        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
-        verify(eventService, times(1)).assignParticipantToEvent(eventId, wrapper.getParticipants());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(result, response.getBody());
     }
 
     @Test
@@ -222,15 +264,17 @@ class EventControllerTest {
         EventParticipantUsernameWrapperDTO wrapper = new EventParticipantUsernameWrapperDTO();
         wrapper.setParticipants(Collections.singletonList(new EventParticipantUsernameDTO("testParticipant")));
 
+        RemovalResultDTO result = RemovalResultDTO.builder().removed(new ArrayList<>(List.of("testParticipant"))).build();
+        when(eventService.removeParticipantsFromEvent(eventId, wrapper.getParticipants())).thenReturn(result);
+
         // Act
-        ResponseEntity<Map<String, Object>> response = eventController.removeParticipantsFromEvent(eventId, wrapper);
+        ResponseEntity<RemovalResultDTO> response = eventController.removeParticipantsFromEvent(eventId, wrapper);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertTrue(response.getBody().containsKey("removed"));
-        EventParticipantUsernameDTO participant = wrapper.getParticipants().get(0);
-        verify(eventService, times(1)).removeParticipantFromEvent(eventId, participant);
+        assertEquals(List.of("testParticipant"), response.getBody().getRemoved());
+        verify(eventService, never()).removeParticipantFromEvent(any(), any());
     }
 
     @Test
@@ -255,14 +299,18 @@ class EventControllerTest {
         EventTicketIdsWrapperDTO wrapper = new EventTicketIdsWrapperDTO();
         wrapper.setTicketIds(Collections.singletonList(new EventTicketIdDTO(UUID.randomUUID())));
 
+        RemovalResultDTO result = RemovalResultDTO.builder()
+                .removed(new ArrayList<>(List.of(wrapper.getTicketIds().get(0).getTicketId().toString()))).build();
+        when(eventService.removeTicketsFromEvent(eventId, wrapper.getTicketIds())).thenReturn(result);
+
         // Act
-        ResponseEntity<Map<String, Object>> response = eventController.removeTicketsFromEvent(eventId, wrapper);
+        ResponseEntity<RemovalResultDTO> response = eventController.removeTicketsFromEvent(eventId, wrapper);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertTrue(response.getBody().containsKey("removed"));
-        verify(eventService, times(1)).removeTicketFromEvent(eventId, wrapper.getTicketIds().get(0));
+        assertEquals(result, response.getBody());
+        verify(eventService, never()).removeTicketFromEvent(any(), any());
     }
 
     @Test
@@ -287,13 +335,17 @@ class EventControllerTest {
         EventFeedbackIdWrapperDTO wrapper = new EventFeedbackIdWrapperDTO();
         wrapper.setFeedbackIds(Collections.singletonList(new EventFeedbackIdDTO(UUID.randomUUID())));
 
+        RemovalResultDTO result = RemovalResultDTO.builder()
+                .notRemoved(new ArrayList<>(List.of(wrapper.getFeedbackIds().get(0).getFeedbackId().toString()))).build();
+        when(eventService.removeFeedbacksFromEvent(eventId, wrapper.getFeedbackIds())).thenReturn(result);
+
         // Act
-        ResponseEntity<Map<String, Object>> response = eventController.removeFeedbackFromEvent(eventId, wrapper);
+        ResponseEntity<RemovalResultDTO> response = eventController.removeFeedbackFromEvent(eventId, wrapper);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertTrue(response.getBody().containsKey("removed"));
-        verify(eventService, times(1)).removeFeedbackFromEvent(eventId, wrapper.getFeedbackIds().get(0));
+        assertEquals(result, response.getBody());
+        verify(eventService, never()).removeFeedbackFromEvent(any(), any());
     }
 }
\ No newline at end of file
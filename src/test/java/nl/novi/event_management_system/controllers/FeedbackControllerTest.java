@@ -3,6 +3,7 @@ package nl.novi.event_management_system.controllers;
 import nl.novi.event_management_system.dtos.feedbackDtos.FeedbackCreateDTO;
 import nl.novi.event_management_system.dtos.feedbackDtos.FeedbackResponseDTO;
 import nl.novi.event_management_system.services.FeedbackService;
+import nl.novi.event_management_system.services.IdempotencyService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -18,9 +19,11 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class FeedbackControllerTest {
@@ -28,12 +31,18 @@ class FeedbackControllerTest {
     @Mock
     private FeedbackService feedbackService;
 
+    @Mock
+    private IdempotencyService idempotencyService;
+
     @InjectMocks
     private FeedbackController feedbackController;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Without an idempotency key the request simply runs
+        when(idempotencyService.execute(any(), isNull(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<ResponseEntity<?>>>getArgument(3).get());
     }
 
     @Test
@@ -55,7 +64,7 @@ class FeedbackControllerTest {
         RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
 
         // Act
-        ResponseEntity<?> response = feedbackController.submitFeedback(feedbackCreateDTO, bindingResult);
+        ResponseEntity<?> response = feedbackController.submitFeedback(feedbackCreateDTO, bindingResult, null);
 
         // Assert
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
@@ -79,7 +88,7 @@ class FeedbackControllerTest {
         RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
 
         // Act
-        ResponseEntity<?> response = feedbackController.submitFeedback(feedbackCreateDTO, bindingResult);
+        ResponseEntity<?> response = feedbackController.submitFeedback(feedbackCreateDTO, bindingResult, null);
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -11,6 +11,7 @@ import nl.novi.event_management_system.repositories.UserPhotoRepository;
 import nl.novi.event_management_system.repositories.UserRepository;
 import nl.novi.event_management_system.services.UserPhotoService;
 import nl.novi.event_management_system.services.UserService;
+import nl.novi.event_management_system.utils.FieldSelection;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -101,10 +102,10 @@ class UserControllerTest {
     void testGetAllUsers_Success() {
         // Arrange
         List<UserResponseDTO> userList = Collections.singletonList(new UserResponseDTO());
-        when(userService.getAllUsers()).thenReturn(userList);
+        when(userService.getAllUsers(FieldSelection.all())).thenReturn(userList);
 
         // Act
-        ResponseEntity<List<UserResponseDTO>> response = userController.getAllUsers();
+        ResponseEntity<List<UserResponseDTO>> response = userController.getAllUsers(null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -118,10 +119,10 @@ class UserControllerTest {
         UserResponseDTO userResponseDTO = new UserResponseDTO();
         userResponseDTO.setUsername(username);
 
-        when(userService.getUserByUsername(username)).thenReturn(userResponseDTO);
+        when(userService.getUserByUsername(username, FieldSelection.all())).thenReturn(userResponseDTO);
 
         // Act
-        ResponseEntity<UserResponseDTO> response = userController.getUserByUsername(username);
+        ResponseEntity<UserResponseDTO> response = userController.getUserByUsername(username, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -225,6 +226,7 @@ class UserControllerTest {
 
         // Mock `userService.assignPhotoToUser()`
         when(userService.assignPhotoToUser(anyString(), eq(username))).thenReturn(user);
+        when(userService.getUserByUsername(username)).thenReturn(UserMapper.toUserResponseDTO(user));
 
         // Mock HTTP request context
         MockHttpServletRequest request = new MockHttpServletRequest();
@@ -0,0 +1,596 @@
+package nl.novi.event_management_system.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import nl.novi.event_management_system.enums.TicketType;
+import nl.novi.event_management_system.models.Event;
+import nl.novi.event_management_system.models.Feedback;
+import nl.novi.event_management_system.models.Ticket;
+import nl.novi.event_management_system.models.User;
+import nl.novi.event_management_system.repositories.EventRepository;
+import nl.novi.event_management_system.repositories.FeedbackRepository;
+import nl.novi.event_management_system.repositories.TicketRepository;
+import nl.novi.event_management_system.repositories.UserRepository;
+import nl.novi.event_management_system.services.EventRatingsRebuild;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "admin", roles = {"ADMIN"})
+public class EventControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+
+    @Autowired
+    private EventRatingsRebuild eventRatingsRebuild;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Event> events = new ArrayList<>();
+    private final List<Ticket> tickets = new ArrayList<>();
+    private final List<Feedback> feedbacks = new ArrayList<>();
+    private final List<User> users = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Unlink the join tables first, tickets and feedback point back at their event.
+        // Events are reloaded because a test may have updated them, which increments their version.
+        List<Event> storedEvents = eventRepository.findAllById(events.stream().map(Event::getId).toList());
+        storedEvents.forEach(event -> {
+            event.setTickets(new HashSet<>());
+            event.setFeedbacks(new HashSet<>());
+            event.setParticipants(new HashSet<>());
+        });
+        eventRepository.saveAll(storedEvents);
+        ticketRepository.deleteAll(tickets);
+        feedbackRepository.deleteAll(feedbacks);
+        eventRepository.deleteAllById(storedEvents.stream().map(Event::getId).toList());
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void listingEventsRunsTheSameNumberOfQueriesRegardlessOfPageSize() throws Exception {
+        createEvents(3);
+        long queriesForSmallPage = countQueries(() -> mockMvc.perform(get("/api/v1/events?limit=100")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        createEvents(12);
+        long queriesForLargePage = countQueries(() -> mockMvc.perform(get("/api/v1/events?limit=100")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk()));
+
+        assertEquals(queriesForSmallPage, queriesForLargePage);
+    }
+
+    @Test
+    void eventDetailIsRenderedWithoutOpenSessionInView() throws Exception {
+        createEvents(1);
+        Event event = events.getFirst();
+
+        mockMvc.perform(get("/api/v1/events/" + event.getId())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.organizer.username").value(event.getOrganizer().getUsername()))
+                .andExpect(jsonPath("$.participants.length()").value(2))
+                .andExpect(jsonPath("$.ticketList.length()").value(2))
+                .andExpect(jsonPath("$.feedbackList.length()").value(1));
+    }
+
+    @Test
+    void sparseFieldsetOnlyLoadsAndReturnsTheRequestedFields() throws Exception {
+        createEvents(1);
+        Event event = events.getFirst();
+
+        long queries = countQueries(() -> mockMvc.perform(get("/api/v1/events/" + event.getId() + "?fields=id,name,organizerUsername")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$.name").value(event.getName()))
+                .andExpect(jsonPath("$.organizerUsername").value(event.getOrganizer().getUsername())));
+
+        // Only the event row itself, no organizer, participant, ticket or feedback query
+        assertEquals(1, queries);
+    }
+
+    @Test
+    void sparseFieldsetPrunesEveryItemOfAPage() throws Exception {
+        createEvents(2);
+
+        mockMvc.perform(get("/api/v1/events?limit=100&fields=id,startDate")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].length()").value(2))
+                .andExpect(jsonPath("$.items[0].participants").doesNotExist());
+    }
+
+    @Test
+    void anEmptyFieldSelectionReturnsEveryField() throws Exception {
+        createEvents(1);
+        Event event = events.getFirst();
+
+        for (String fields : List.of(",", " , ")) {
+            mockMvc.perform(get("/api/v1/events").param("limit", "100").param("fields", fields)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].id").exists())
+                    .andExpect(jsonPath("$.items[0].name").exists());
+            mockMvc.perform(get("/api/v1/events/" + event.getId()).param("fields", fields)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value(event.getName()))
+                    .andExpect(jsonPath("$.organizerUsername").value(event.getOrganizer().getUsername()));
+        }
+    }
+
+    @Test
+    void sparseFieldsetRejectsUnknownFields() throws Exception {
+        mockMvc.perform(get("/api/v1/events?fields=id,secret")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportStreamsOneJsonSummaryPerLine() throws Exception {
+        createEvents(3);
+
+        MvcResult asyncResult = mockMvc.perform(get("/api/v1/events/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(eventRepository.count(), lines.size());
+        assertTrue(body.endsWith("\n"));
+        for (Event event : events) {
+            String line = lines.stream().filter(candidate -> candidate.contains(event.getId().toString())).findFirst().orElseThrow();
+            assertEquals(event.getOrganizer().getUsername(), JsonPath.read(line, "$.organizerUsername"));
+            assertEquals(event.getName(), JsonPath.read(line, "$.name"));
+        }
+    }
+
+    @Test
+    void searchFiltersEventsInTheDatabase() throws Exception {
+        createEvents(3);
+        relocate(events.get(0), 5, 2);
+        relocate(events.get(1), 20, 100);
+        relocate(events.get(2), 50, 100);
+
+        // The first event is sold out (2 tickets for 2 seats), the third one is too expensive
+        mockMvc.perform(get("/api/v1/events/search?location=Searchtown&maxPrice=30&hasSeats=true")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(events.get(1).getId().toString()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        // hasSeats=false finds only the sold out event
+        mockMvc.perform(get("/api/v1/events/search?location=Searchtown&hasSeats=false")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(events.get(0).getId().toString()));
+    }
+
+    @Test
+    void searchIsPaginatedWithACursor() throws Exception {
+        createEvents(3);
+        events.forEach(event -> relocate(event, 10, 100));
+
+        String body = mockMvc.perform(get("/api/v1/events/search?location=Searchtown&limit=2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(body, "$.nextCursor");
+
+        mockMvc.perform(get("/api/v1/events/search?location=Searchtown&limit=2&cursor=" + cursor)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(events.get(2).getId().toString()));
+    }
+
+    @Test
+    void searchRejectsAnInvertedPriceRange() throws Exception {
+        mockMvc.perform(get("/api/v1/events/search?minPrice=50&maxPrice=10")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createdEventsAreFoundByFullTextSearch() throws Exception {
+        String body = mockMvc.perform(post("/api/v1/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Zeeuwse Oesterfeesten", "location": "Yerseke", "startDate": "%s",
+                                 "endDate": "%s", "capacity": 50, "price": 12.5}
+                                """.formatted(LocalDate.now().plusDays(3), LocalDate.now().plusDays(4))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        events.add(eventRepository.findById(UUID.fromString(JsonPath.read(body, "$.id"))).orElseThrow());
+
+        mockMvc.perform(get("/api/v1/events/text-search?q=oester yerse")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Zeeuwse Oesterfeesten"));
+    }
+
+    @Test
+    void anUnchangedEventIsNotSentAgain() throws Exception {
+        createEvents(1);
+        UUID id = events.getFirst().getId();
+
+        String etag = mockMvc.perform(get("/api/v1/events/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Answering a revalidation only reads the version column
+        long queries = countQueries(() -> mockMvc.perform(get("/api/v1/events/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string("")));
+        assertEquals(1, queries);
+    }
+
+    @Test
+    void aFieldSelectionIsNotRevalidatedWithTheTagOfAnother() throws Exception {
+        createEvents(1);
+        UUID id = events.getFirst().getId();
+        String fullTag = mockMvc.perform(get("/api/v1/events/" + id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String nameTag = mockMvc.perform(get("/api/v1/events/" + id).param("fields", "name"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(fullTag, nameTag);
+
+        mockMvc.perform(get("/api/v1/events/" + id).header(HttpHeaders.IF_NONE_MATCH, nameTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.participants").exists());
+        mockMvc.perform(get("/api/v1/events/" + id).param("fields", "name").header(HttpHeaders.IF_NONE_MATCH, fullTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").exists());
+        mockMvc.perform(get("/api/v1/events/" + id).param("fields", "name").header(HttpHeaders.IF_NONE_MATCH, nameTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void anUpdateWithAStaleETagIsRejected() throws Exception {
+        createEvents(1);
+        UUID id = events.getFirst().getId();
+        String update = """
+                {"name": "Renamed event", "location": "Utrecht", "startDate": "%s",
+                 "endDate": "%s", "capacity": 100, "price": 10}
+                """.formatted(LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+
+        String etag = mockMvc.perform(get("/api/v1/events/" + id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String newEtag = mockMvc.perform(put("/api/v1/events/" + id).header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON).content(update))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.participants.length()").value(2))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+
+        mockMvc.perform(put("/api/v1/events/" + id).header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON).content(update))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/v1/events/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, newEtag));
+    }
+
+    @Test
+    void organizerDashboardIsAggregatedInOneQuery() throws Exception {
+        createEvents(2);
+        Event event = events.getFirst();
+        tickets.add(ticketRepository.save(new Ticket(users.get(1), event, new BigDecimal("25.50"), TicketType.VIP)));
+
+        long queries = countQueries(() -> mockMvc.perform(get("/api/v1/events/organizer/" + event.getOrganizer().getUsername() + "/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].eventId").value(event.getId().toString()))
+                .andExpect(jsonPath("$[0].ticketsSold").value(3))
+                .andExpect(jsonPath("$[0].revenue").value(45.5))
+                .andExpect(jsonPath("$[0].ticketsByType.VIP").value(2))
+                .andExpect(jsonPath("$[0].ticketsByType.STANDARD").value(1))
+                .andExpect(jsonPath("$[0].revenueByType.VIP").value(35.5))
+                .andExpect(jsonPath("$[0].participantCount").value(2))
+                .andExpect(jsonPath("$[0].feedbackCount").value(1))
+                .andExpect(jsonPath("$[0].averageRating").value(4.0)));
+        assertEquals(1, queries);
+    }
+
+    @Test
+    void ratingsFollowEveryFeedbackWriteAndAreReadInOneQuery() throws Exception {
+        createEvents(1);
+        Event event = events.getFirst();
+        String created = mockMvc.perform(post("/api/v1/feedback")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(feedback(event, users.get(2), 2)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String feedbackId = JsonPath.read(created, "$.id");
+        mockMvc.perform(put("/api/v1/feedback/" + feedbackId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(feedback(event, users.get(2), 5)))
+                .andExpect(status().isOk());
+
+        long queries = countQueries(() -> mockMvc.perform(get("/api/v1/events/" + event.getId() + "/ratings"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ratingCount").value(2))
+                .andExpect(jsonPath("$.averageRating").value(4.5))
+                .andExpect(jsonPath("$.histogram.2").value(0))
+                .andExpect(jsonPath("$.histogram.4").value(1))
+                .andExpect(jsonPath("$.histogram.5").value(1)));
+        assertEquals(1, queries);
+        mockMvc.perform(get("/api/v1/events/" + event.getId()))
+                .andExpect(jsonPath("$.ratings.ratingCount").value(2));
+
+        mockMvc.perform(delete("/api/v1/feedback/" + feedbackId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/v1/events/" + event.getId() + "/ratings"))
+                .andExpect(jsonPath("$.ratingCount").value(1))
+                .andExpect(jsonPath("$.averageRating").value(4.0));
+        mockMvc.perform(post("/api/v1/feedback")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(feedback(event, users.get(2), 6)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void theRebuildRepairsRatingsOfFeedbackWrittenBehindTheServicesBack() throws Exception {
+        createEvents(1);
+        Event event = events.getFirst();
+        Feedback unnoticed = new Feedback();
+        unnoticed.setUser(users.get(2));
+        unnoticed.setEvent(event);
+        unnoticed.setRating(1);
+        unnoticed.setComment("Too loud");
+        feedbacks.add(feedbackRepository.save(unnoticed));
+        long version = eventRepository.findVersionById(event.getId()).orElseThrow();
+
+        assertTrue(eventRatingsRebuild.rebuild() >= 1);
+
+        mockMvc.perform(get("/api/v1/events/" + event.getId() + "/ratings"))
+                .andExpect(jsonPath("$.ratingCount").value(2))
+                .andExpect(jsonPath("$.averageRating").value(2.5))
+                .andExpect(jsonPath("$.histogram.1").value(1));
+        assertNotEquals(version, eventRepository.findVersionById(event.getId()).orElseThrow());
+        assertEquals(0, eventRatingsRebuild.rebuild());
+    }
+
+    @Test
+    void dashboardOfAnUnknownOrganizerIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/events/organizer/nobody_here/dashboard"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void bulkAssignmentReportsAnOutcomePerUsername() throws Exception {
+        createEvents(1);
+        UUID id = events.getFirst().getId();
+        mockMvc.perform(get("/api/v1/events/" + id)).andExpect(jsonPath("$.participants.length()").value(2));
+
+        mockMvc.perform(post("/api/v1/events/" + id + "/participants")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"participants": [{"username": "fetchplan_p1_0"}, {"username": "fetchplan_org_0"},
+                                                  {"username": "no_such_user"}, {"username": "fetchplan_org_0"}]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(3))
+                .andExpect(jsonPath("$.added[0]").value("fetchplan_org_0"))
+                .andExpect(jsonPath("$.alreadyRegistered[0]").value("fetchplan_p1_0"))
+                .andExpect(jsonPath("$.unknownUsernames[0]").value("no_such_user"));
+
+        mockMvc.perform(get("/api/v1/events/" + id))
+                .andExpect(jsonPath("$.participants.length()").value(3));
+    }
+
+    @Test
+    void bulkRemovalDeletesOnlyLinkedMembers() throws Exception {
+        createEvents(1);
+        Event event = events.getFirst();
+        UUID linkedTicket = tickets.getFirst().getId();
+        UUID unknownTicket = UUID.randomUUID();
+
+        long queries = countQueries(() -> mockMvc.perform(delete("/api/v1/events/" + event.getId() + "/tickets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"ticketIds": [{"ticketId": "%s"}, {"ticketId": "%s"}]}
+                                """.formatted(linkedTicket, unknownTicket)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.removed[0]").value(linkedTicket.toString()))
+                .andExpect(jsonPath("$.notRemoved[0]").value(unknownTicket.toString())));
+        // Nothing is loaded through Hibernate, it only runs the version bump; the lookup and DELETE are plain JDBC
+        assertEquals(1, queries);
+
+        mockMvc.perform(delete("/api/v1/events/" + event.getId() + "/participants")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"participants": [{"username": "fetchplan_p1_0"}, {"username": "fetchplan_p2_0"}]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.removed.length()").value(2));
+
+        mockMvc.perform(get("/api/v1/events/" + event.getId()))
+                .andExpect(jsonPath("$.ticketList.length()").value(1))
+                .andExpect(jsonPath("$.participants.length()").value(0));
+    }
+
+    @Test
+    void bulkAssignmentDoesNotWalkTheEntityGraph() throws Exception {
+        createEvents(1);
+        UUID id = events.getFirst().getId();
+        String participants = IntStream.range(0, 25)
+                .mapToObj(i -> "{\"username\": \"%s\"}".formatted(saveUser("graphwalk_" + i).getUsername()))
+                .collect(Collectors.joining(", "));
+
+        long queries = countQueries(() -> mockMvc.perform(post("/api/v1/events/" + id + "/participants")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"participants\": [" + participants + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.added.length()").value(25)));
+        // Only the version bump goes through Hibernate, no user, ticket or feedback is loaded to compare participants
+        assertEquals(1, queries);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+    }
+
+    @Test
+    void hashingAndPrintingEntitiesDoesNotLoadTheirAssociations() {
+        createEvents(1);
+        UUID id = events.getFirst().getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Event event = eventRepository.findById(id).orElseThrow();
+            statistics.clear();
+
+            Set<User> participants = new HashSet<>(event.getParticipants());
+            Set<Event> stored = new HashSet<>(List.of(event));
+            String printed = event + " " + participants;
+
+            assertEquals(2, participants.size());
+            assertTrue(stored.contains(event));
+            assertTrue(printed.contains(event.getName()));
+            // Only the participants collection itself is fetched, never the users' tickets, feedback or events
+            assertEquals(1, statistics.getCollectionFetchCount());
+            assertEquals(1, statistics.getPrepareStatementCount());
+        });
+    }
+
+    private void relocate(Event event, double price, int capacity) {
+        event.setLocation("Searchtown");
+        event.setPrice(price);
+        event.setCapacity(capacity);
+        events.set(events.indexOf(event), eventRepository.save(event));
+    }
+
+    private long countQueries(ThrowingRunnable request) throws Exception {
+        statistics.clear();
+        request.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createEvents(int count) {
+        for (int i = 0; i < count; i++) {
+            int index = events.size();
+            User organizer = saveUser("fetchplan_org_" + index);
+            User firstParticipant = saveUser("fetchplan_p1_" + index);
+            User secondParticipant = saveUser("fetchplan_p2_" + index);
+
+            Event event = new Event();
+            event.setName("Fetch plan event " + index);
+            event.setLocation("Utrecht");
+            event.setStartDate(LocalDate.now().plusDays(index + 1));
+            event.setEndDate(LocalDate.now().plusDays(index + 2));
+            event.setCapacity(100);
+            event.setPrice(10);
+            event.setOrganizer(organizer);
+            event = eventRepository.save(event);
+
+            List<Ticket> eventTickets = ticketRepository.saveAll(List.of(
+                    new Ticket(firstParticipant, event, BigDecimal.TEN, TicketType.STANDARD),
+                    new Ticket(secondParticipant, event, BigDecimal.TEN, TicketType.VIP)));
+            Feedback feedback = new Feedback();
+            feedback.setUser(firstParticipant);
+            feedback.setEvent(event);
+            feedback.setRating(4);
+            feedback.setComment("Nice");
+            feedback = feedbackRepository.save(feedback);
+
+            event.setParticipants(new HashSet<>(List.of(firstParticipant, secondParticipant)));
+            event.setTickets(new HashSet<>(eventTickets));
+            event.setFeedbacks(new HashSet<>(List.of(feedback)));
+            event.setSoldCount(eventTickets.size());
+            event.getRatingStats().add(feedback.getRating());
+            events.add(eventRepository.save(event));
+            tickets.addAll(eventTickets);
+            feedbacks.add(feedback);
+        }
+    }
+
+    private String feedback(Event event, User user, int rating) {
+        return "{\"comment\": \"Rated " + rating + "\", \"rating\": " + rating +
+                ", \"username\": \"" + user.getUsername() + "\", \"eventId\": \"" + event.getId() + "\"}";
+    }
+
+    private User saveUser(String username) {
+        User user = new User(username, username + "@example.com", "securepassword");
+        users.add(userRepository.save(user));
+        return users.getLast();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
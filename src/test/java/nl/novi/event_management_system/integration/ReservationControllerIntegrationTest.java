@@ -0,0 +1,209 @@
+package nl.novi.event_management_system.integration;
+
+import com.jayway.jsonpath.JsonPath;
+import nl.novi.event_management_system.enums.TicketType;
+import nl.novi.event_management_system.models.Event;
+import nl.novi.event_management_system.models.Reservation;
+import nl.novi.event_management_system.models.User;
+import nl.novi.event_management_system.repositories.EventRepository;
+import nl.novi.event_management_system.repositories.ReservationRepository;
+import nl.novi.event_management_system.repositories.TicketRepository;
+import nl.novi.event_management_system.repositories.UserRepository;
+import nl.novi.event_management_system.services.ReservationExpiry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "admin", roles = {"ADMIN"})
+public class ReservationControllerIntegrationTest {
+    // The expiry timer is shared by every test of the context and only moves forward, so each test looks further ahead
+    private static final AtomicLong HOURS_AHEAD = new AtomicLong();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReservationExpiry reservationExpiry;
+
+    private User user;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("reservation_buyer", "reservation_buyer@example.com", "securepassword"));
+
+        event = new Event();
+        event.setName("Reservation event");
+        event.setLocation("Utrecht");
+        event.setStartDate(LocalDate.now().plusDays(1));
+        event.setEndDate(LocalDate.now().plusDays(2));
+        event.setCapacity(1);
+        event.setPrice(40);
+        event = eventRepository.save(event);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll(reservationRepository.findAll().stream()
+                .filter(reservation -> reservation.getEvent().getId().equals(event.getId())).toList());
+        ticketRepository.deleteAll(ticketRepository.findAll().stream()
+                .filter(ticket -> ticket.getEvent().getId().equals(event.getId())).toList());
+        eventRepository.deleteById(event.getId());
+        userRepository.deleteById(user.getUsername());
+    }
+
+    @Test
+    void aHoldTakesASeatUntilItIsReleased() throws Exception {
+        String id = hold().andExpect(status().isCreated())
+                .andExpect(jsonPath("$.expiresAt").exists())
+                .andReturn().getResponse().getContentAsString();
+        String reservationId = JsonPath.read(id, "$.id");
+        assertEquals(1, soldCount());
+
+        hold().andExpect(status().isConflict());
+
+        mockMvc.perform(delete("/api/v1/reservations/" + reservationId)).andExpect(status().isNoContent());
+        assertEquals(0, soldCount());
+        mockMvc.perform(delete("/api/v1/reservations/" + reservationId)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void aConfirmedHoldBecomesATicketWithoutTakingAnotherSeat() throws Exception {
+        String body = hold().andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+        String reservationId = JsonPath.read(body, "$.id");
+
+        mockMvc.perform(post("/api/v1/reservations/" + reservationId + "/confirm"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.ticketType").value("VIP"))
+                .andExpect(jsonPath("$.price").value(40.0))
+                .andExpect(jsonPath("$.ticketCode").exists());
+
+        assertEquals(1, soldCount());
+        assertFalse(reservationRepository.existsById(UUID.fromString(reservationId)));
+        mockMvc.perform(post("/api/v1/reservations/" + reservationId + "/confirm")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void aParticipantOnlyHoldsSeatsForThemselvesAtTheEventPrice() throws Exception {
+        mockMvc.perform(post("/api/v1/reservations")
+                        .with(user("someone_else").roles("PARTICIPANT"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"eventId": "%s", "username": "%s", "ticketType": "VIP"}
+                                """.formatted(event.getId(), user.getUsername())))
+                .andExpect(status().isForbidden());
+        assertEquals(0, soldCount());
+
+        // A price sent by the client is ignored
+        mockMvc.perform(post("/api/v1/reservations")
+                        .with(user(user.getUsername()).roles("PARTICIPANT"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"eventId": "%s", "price": 0.01, "ticketType": "VIP"}
+                                """.formatted(event.getId())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.username").value(user.getUsername()))
+                .andExpect(jsonPath("$.price").value(40.0));
+    }
+
+    @Test
+    void aParticipantCannotConfirmOrReleaseTheHoldOfSomeoneElse() throws Exception {
+        String body = hold().andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+        String reservationId = JsonPath.read(body, "$.id");
+
+        mockMvc.perform(post("/api/v1/reservations/" + reservationId + "/confirm")
+                        .with(user("someone_else").roles("PARTICIPANT")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/v1/reservations/" + reservationId)
+                        .with(user("someone_else").roles("PARTICIPANT")))
+                .andExpect(status().isForbidden());
+
+        assertEquals(1, soldCount());
+        mockMvc.perform(post("/api/v1/reservations/" + reservationId + "/confirm")
+                        .with(user(user.getUsername()).roles("PARTICIPANT")))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void anExpiredHoldGivesItsSeatBackAndCannotBeConfirmed() throws Exception {
+        String body = hold().andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+        String reservationId = JsonPath.read(body, "$.id");
+
+        assertEquals(1, reservationExpiry.expireDue(later()));
+
+        assertEquals(0, soldCount());
+        mockMvc.perform(post("/api/v1/reservations/" + reservationId + "/confirm")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void holdsOfAPreviousRunAreReloadedAndExpired() {
+        // A hold stored before a restart, the timer has never seen it
+        Reservation reservation = new Reservation();
+        reservation.setUser(user);
+        reservation.setEvent(event);
+        reservation.setPrice(BigDecimal.TEN);
+        reservation.setTicketType(TicketType.STANDARD);
+        reservation.setExpiresAt(Instant.now().minusSeconds(60));
+        reservation = reservationRepository.save(reservation);
+        event.setSoldCount(1);
+        event = eventRepository.save(event);
+
+        reservationExpiry.reload();
+        reservationExpiry.expireDue(later());
+
+        assertEquals(0, soldCount());
+        assertFalse(reservationRepository.existsById(reservation.getId()));
+    }
+
+    private ResultActions hold() throws Exception {
+        return mockMvc.perform(post("/api/v1/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"eventId": "%s", "username": "%s", "ticketType": "VIP"}
+                        """.formatted(event.getId(), user.getUsername())));
+    }
+
+    private int soldCount() {
+        return eventRepository.findById(event.getId()).orElseThrow().getSoldCount();
+    }
+
+    private static Instant later() {
+        return Instant.now().plus(Duration.ofHours(HOURS_AHEAD.incrementAndGet()));
+    }
+}
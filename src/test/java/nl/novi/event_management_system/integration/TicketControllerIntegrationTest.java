@@ -1,12 +1,28 @@
 package nl.novi.event_management_system.integration;
 
+import nl.novi.event_management_system.dtos.ticketDtos.CheckInRequestDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.IssuedTicketDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketBulkCreateDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketCreateDTO;
 import nl.novi.event_management_system.enums.TicketType;
+import nl.novi.event_management_system.exceptions.EventSoldOutException;
+import nl.novi.event_management_system.exceptions.TicketAlreadyCheckedInException;
 import nl.novi.event_management_system.models.Event;
 import nl.novi.event_management_system.models.Ticket;
 import nl.novi.event_management_system.models.User;
 import nl.novi.event_management_system.repositories.EventRepository;
 import nl.novi.event_management_system.repositories.TicketRepository;
 import nl.novi.event_management_system.repositories.UserRepository;
+import nl.novi.event_management_system.services.TicketCheckInService;
+import nl.novi.event_management_system.services.TicketIssuanceService;
+import nl.novi.event_management_system.services.TicketLedgerBackfill;
+import nl.novi.event_management_system.services.TicketService;
+import nl.novi.event_management_system.services.UserService;
+import nl.novi.event_management_system.utils.TicketCodes;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,15 +31,46 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -44,6 +91,27 @@ public class TicketControllerIntegrationTest {
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketIssuanceService ticketIssuanceService;
+
+    @Autowired
+    private TicketCheckInService ticketCheckInService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TicketLedgerBackfill ticketLedgerBackfill;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserService userService;
+
     private final BigDecimal price = new BigDecimal("100.11");
     private final TicketType ticketType = TicketType.STANDARD;
     private final LocalDate purchaseDate = LocalDate.now();
@@ -72,6 +140,7 @@ public class TicketControllerIntegrationTest {
         event.setStartDate(LocalDate.now());
         event.setEndDate(LocalDate.now().plusDays(1));
         event.setLocation("Test Location");
+        event.setCapacity(100);
         event = eventRepository.save(event); // Persist event
 
         // Create and save Tickets after persisting User and Event
@@ -97,6 +166,392 @@ public class TicketControllerIntegrationTest {
                 .andExpect(jsonPath("$.ticketType").value("STANDARD"));
     }
 
+    @Test
+    void testCreateTicketForASoldOutEventReturnsConflict() throws Exception {
+        Event soldOut = saveEvent("Sold out event", 0);
+
+        mockMvc.perform(post("/api/v1/tickets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(purchase(soldOut.getId())))
+                .andExpect(status().isConflict());
+        assertEquals(0, eventRepository.findById(soldOut.getId()).orElseThrow().getSoldCount());
+    }
+
+    @Test
+    void aRetriedPurchaseWithTheSameIdempotencyKeyBuysOneTicket() throws Exception {
+        Event popular = saveEvent("Popular event", 10);
+        String first = mockMvc.perform(post("/api/v1/tickets")
+                        .header("Idempotency-Key", "purchase-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(purchase(popular.getId())))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/api/v1/tickets")
+                        .header("Idempotency-Key", "purchase-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(purchase(popular.getId())))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(JsonPath.<String>read(first, "$.id")));
+        mockMvc.perform(post("/api/v1/tickets")
+                        .header("Idempotency-Key", "purchase-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(purchase(event.getId())))
+                .andExpect(status().isUnprocessableEntity());
+
+        assertEquals(1, eventRepository.findById(popular.getId()).orElseThrow().getSoldCount());
+    }
+
+    @Test
+    void aFailedPurchaseLeavesNoIdempotencyRecordBehind() throws Exception {
+        Event soldOut = saveEvent("Sold out event", 0);
+        mockMvc.perform(post("/api/v1/tickets")
+                        .header("Idempotency-Key", "purchase-3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(purchase(soldOut.getId())))
+                .andExpect(status().isConflict());
+
+        // The record rolled back with the purchase, so the key is free for the next attempt
+        mockMvc.perform(post("/api/v1/tickets")
+                        .header("Idempotency-Key", "purchase-3")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(purchase(event.getId())))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+    }
+
+    @Test
+    void concurrentRetriesWithOneIdempotencyKeyBuyOneTicket() throws Exception {
+        Event popular = saveEvent("Popular event", 10);
+        long ticketsBefore = ticketRepository.count();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<MvcResult>> retries = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                retries.add(pool.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/api/v1/tickets")
+                                    .with(user("admin").roles("ADMIN"))
+                                    .header("Idempotency-Key", "purchase-2")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(purchase(popular.getId())))
+                            .andReturn();
+                }));
+            }
+            start.countDown();
+            Set<String> ticketIds = new HashSet<>();
+            for (Future<MvcResult> retry : retries) {
+                MockHttpServletResponse response = retry.get(30, TimeUnit.SECONDS).getResponse();
+                assertEquals(201, response.getStatus());
+                ticketIds.add(JsonPath.read(response.getContentAsString(), "$.id"));
+            }
+            assertEquals(1, ticketIds.size());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(ticketsBefore + 1, ticketRepository.count());
+        assertEquals(1, eventRepository.findById(popular.getId()).orElseThrow().getSoldCount());
+    }
+
+    @Test
+    void concurrentPurchasesNeverSellMoreSeatsThanTheEventHas() throws Exception {
+        int capacity = 100;
+        int buyers = 2000;
+        Event hotEvent = saveEvent("Hot event", capacity);
+        long ticketsBefore = ticketRepository.count();
+
+        Map<String, Integer> outcomes = purchaseConcurrently(buyers, i -> hotEvent.getId());
+
+        assertEquals(Map.of("sold", capacity, "soldOut", buyers - capacity), outcomes);
+        assertEquals(capacity, eventRepository.findById(hotEvent.getId()).orElseThrow().getSoldCount());
+        assertEquals(ticketsBefore + capacity, ticketRepository.count());
+    }
+
+    @Test
+    void concurrentPurchasesForManyEventsSellOutEachEventExactly() throws Exception {
+        int capacity = 50;
+        List<Event> onSale = IntStream.range(0, 20).mapToObj(i -> saveEvent("On sale " + i, capacity)).toList();
+
+        // Every event gets twice as many buyers as it has seats
+        Map<String, Integer> outcomes = purchaseConcurrently(onSale.size() * capacity * 2, i -> onSale.get(i % onSale.size()).getId());
+
+        assertEquals(Map.of("sold", onSale.size() * capacity, "soldOut", onSale.size() * capacity), outcomes);
+        onSale.forEach(sale -> assertEquals(capacity, eventRepository.findById(sale.getId()).orElseThrow().getSoldCount()));
+    }
+
+    @Test
+    void bulkIssuanceStreamsOneLinePerTicket() throws Exception {
+        User colleague = userRepository.save(new User("testcolleague", "colleague@example.com", "securepassword"));
+        Event groupEvent = saveEvent("Group event", 10);
+
+        MvcResult asyncResult = mockMvc.perform(post("/api/v1/tickets/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulkIssue(groupEvent.getId(), List.of(user.getUsername(), colleague.getUsername(), user.getUsername()))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(3, lines.size());
+        assertEquals(colleague.getUsername(), JsonPath.read(lines.get(1), "$.username"));
+        UUID lastId = UUID.fromString(JsonPath.read(lines.getLast(), "$.id"));
+        assertEquals(groupEvent.getId(), ticketRepository.findById(lastId).orElseThrow().getEvent().getId());
+        assertEquals(3, eventRepository.findById(groupEvent.getId()).orElseThrow().getSoldCount());
+    }
+
+    @Test
+    void bulkIssuanceInsertsTheTicketsInBatches() {
+        int count = 10_000;
+        User colleague = userRepository.save(new User("testcolleague", "colleague@example.com", "securepassword"));
+        Event groupEvent = saveEvent("Group event", count);
+        TicketBulkCreateDTO ticketBulkCreateDTO = new TicketBulkCreateDTO();
+        ticketBulkCreateDTO.setEventId(groupEvent.getId());
+        ticketBulkCreateDTO.setPrice(price);
+        ticketBulkCreateDTO.setTicketType(ticketType);
+        ticketBulkCreateDTO.setUsernames(IntStream.range(0, count)
+                .mapToObj(i -> i % 2 == 0 ? user.getUsername() : colleague.getUsername()).toList());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<IssuedTicketDTO> issued = ticketIssuanceService.issueTickets(ticketBulkCreateDTO);
+
+        // 10 000 rows, but only a statement per batch of 100 and a few for the checks
+        long statements = statistics.getPrepareStatementCount();
+        // Every ticket comes with its sales ledger entry, which is inserted in batches as well
+        assertEquals(2L * count, statistics.getEntityInsertCount());
+        assertTrue(statements < 240, "Expected batched inserts, but " + statements + " statements were prepared");
+        assertEquals(count, issued.size());
+        assertEquals(colleague.getUsername(), issued.get(1).getUsername());
+        // Codes come from sequence blocks, every one is unique and carries a valid check digit
+        assertEquals(count, issued.stream().map(IssuedTicketDTO::getTicketCode).distinct().count());
+        assertTrue(issued.stream().map(IssuedTicketDTO::getTicketCode).allMatch(TicketCodes::isValid));
+        assertEquals(count, eventRepository.findById(groupEvent.getId()).orElseThrow().getSoldCount());
+
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        ticketIssuanceService.writeTickets(issued, streamed);
+        assertEquals(count, streamed.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    @Test
+    void bulkIssuanceIssuesNothingWhenAUserIsUnknown() throws Exception {
+        Event groupEvent = saveEvent("Group event", 10);
+        long ticketsBefore = ticketRepository.count();
+
+        mockMvc.perform(post("/api/v1/tickets/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulkIssue(groupEvent.getId(), List.of(user.getUsername(), "nobody"))))
+                .andExpect(status().isNotFound());
+
+        assertEquals(ticketsBefore, ticketRepository.count());
+        assertEquals(0, eventRepository.findById(groupEvent.getId()).orElseThrow().getSoldCount());
+    }
+
+    @Test
+    void bulkIssuanceIssuesNothingWhenTheEventHasTooFewSeats() throws Exception {
+        Event groupEvent = saveEvent("Group event", 2);
+        long ticketsBefore = ticketRepository.count();
+
+        mockMvc.perform(post("/api/v1/tickets/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulkIssue(groupEvent.getId(), List.of(user.getUsername(), user.getUsername(), user.getUsername()))))
+                .andExpect(status().isConflict());
+
+        assertEquals(ticketsBefore, ticketRepository.count());
+        assertEquals(0, eventRepository.findById(groupEvent.getId()).orElseThrow().getSoldCount());
+    }
+
+    @Test
+    void bulkIssuanceRejectsAnEmptyList() throws Exception {
+        mockMvc.perform(post("/api/v1/tickets/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(bulkIssue(event.getId(), List.of())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void checkInAdmitsATicketOnlyOnce() throws Exception {
+        Ticket ticket = ticketRepository.findAll().getFirst();
+
+        mockMvc.perform(post("/api/v1/tickets/check-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scan(event.getId(), ticket.getTicketCode().toLowerCase())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ticketCode").value(ticket.getTicketCode()))
+                .andExpect(jsonPath("$.checkedInAt").exists());
+
+        mockMvc.perform(post("/api/v1/tickets/check-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scan(event.getId(), ticket.getTicketCode())))
+                .andExpect(status().isConflict());
+        assertTrue(ticketRepository.findById(ticket.getId()).orElseThrow().getCheckedInAt() != null);
+    }
+
+    @Test
+    void checkInRejectsTicketsOfAnotherEventAndForgedCodes() throws Exception {
+        Ticket ticket = ticketRepository.findAll().getFirst();
+        Event otherEvent = saveEvent("Other event", 10);
+
+        mockMvc.perform(post("/api/v1/tickets/check-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scan(otherEvent.getId(), ticket.getTicketCode())))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/v1/tickets/check-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scan(event.getId(), "not a code")))
+                .andExpect(status().isNotFound());
+        assertEquals(null, ticketRepository.findById(ticket.getId()).orElseThrow().getCheckedInAt());
+    }
+
+    @Test
+    void checkInTurnsAwayUnknownCodesWithoutQueryingTheDatabase() throws Exception {
+        List<Ticket> tickets = ticketRepository.findAll();
+        // The first scan of the event loads its filter
+        mockMvc.perform(post("/api/v1/tickets/check-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scan(event.getId(), tickets.getFirst().getTicketCode())))
+                .andExpect(status().isOk());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        long rejectedBefore = ticketCheckInService.getStats().getRejectedByFilter();
+
+        for (int i = 0; i < 100; i++) {
+            mockMvc.perform(post("/api/v1/tickets/check-in")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(scan(event.getId(), TicketCodes.format(1_000_000 + i))))
+                    .andExpect(status().isNotFound());
+        }
+
+        // The filter is sized for a 0.1% false positive rate, so the odd forged code may still reach the database
+        assertTrue(statistics.getPrepareStatementCount() <= 2, statistics.getPrepareStatementCount() + " statements");
+        assertTrue(ticketCheckInService.getStats().getRejectedByFilter() - rejectedBefore >= 98);
+    }
+
+    @Test
+    void checkInLooksUpAnUnknownEventOnlyOnce() throws Exception {
+        UUID unknownEvent = UUID.randomUUID();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        for (int i = 0; i < 20; i++) {
+            mockMvc.perform(post("/api/v1/tickets/check-in")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(scan(unknownEvent, TicketCodes.format(1_000_000 + i))))
+                    .andExpect(status().isNotFound());
+        }
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void ticketsSoldAfterTheFilterWasLoadedAreAdmitted() throws Exception {
+        List<Ticket> tickets = ticketRepository.findAll();
+        mockMvc.perform(post("/api/v1/tickets/check-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scan(event.getId(), tickets.getFirst().getTicketCode())))
+                .andExpect(status().isOk());
+
+        String body = mockMvc.perform(post("/api/v1/tickets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(purchase(event.getId())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/api/v1/tickets/check-in")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(scan(event.getId(), JsonPath.read(body, "$.ticketCode"))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void concurrentScansOfOneTicketAdmitItOnce() throws Exception {
+        Ticket ticket = ticketRepository.findAll().getFirst();
+        CheckInRequestDTO checkIn = new CheckInRequestDTO();
+        checkIn.setEventId(event.getId());
+        checkIn.setTicketCode(ticket.getTicketCode());
+        Map<String, Integer> outcomes = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> scans = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                scans.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        ticketCheckInService.checkIn(checkIn);
+                        outcomes.merge("admitted", 1, Integer::sum);
+                    } catch (TicketAlreadyCheckedInException e) {
+                        outcomes.merge("alreadyCheckedIn", 1, Integer::sum);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> scan : scans) {
+                scan.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(Map.of("admitted", 1, "alreadyCheckedIn", 199), outcomes);
+    }
+
+    @Test
+    void checkInStatsReportScanLatency() throws Exception {
+        Ticket ticket = ticketRepository.findAll().getFirst();
+        mockMvc.perform(post("/api/v1/tickets/check-in")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(scan(event.getId(), ticket.getTicketCode())));
+
+        mockMvc.perform(get("/api/v1/tickets/check-in/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scans").isNumber())
+                .andExpect(jsonPath("$.admitted").isNumber())
+                .andExpect(jsonPath("$.p99Micros").isNumber())
+                .andExpect(jsonPath("$.filteredEvents").isNumber());
+        assertTrue(ticketCheckInService.getStats().getScans() > 0);
+        assertTrue(ticketCheckInService.getStats().getMaxMicros() > 0);
+    }
+
+    @Test
+    void aTicketTokenIsVerifiedWithoutTheDatabase() throws Exception {
+        Ticket ticket = ticketRepository.findAll().getFirst();
+        String body = mockMvc.perform(get("/api/v1/tickets/" + ticket.getId() + "/token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ticketId").value(ticket.getId().toString()))
+                .andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(body, "$.token");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        mockMvc.perform(post("/api/v1/tickets/verify")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"token\": \"" + token + "\", \"eventId\": \"" + event.getId() + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.ticketId").value(ticket.getId().toString()))
+                .andExpect(jsonPath("$.ticketType").value(ticket.getTicketType().name()));
+        mockMvc.perform(post("/api/v1/tickets/verify")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"token\": \"" + token + "\", \"eventId\": \"" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(false))
+                .andExpect(jsonPath("$.reason").value("Ticket token is for another event"));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
     @Test
     void testCreateTicketReturnsBadRequest() throws Exception {
         mockMvc.perform(post("/api/v1/tickets")
@@ -113,9 +568,87 @@ public class TicketControllerIntegrationTest {
         mockMvc.perform(get("/api/v1/tickets")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].ticketType").value("STANDARD"))
-                .andExpect(jsonPath("$[1].ticketType").value("VIP"));
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[*].ticketType", containsInAnyOrder("STANDARD", "VIP")))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    void ticketsAreFilteredAndPagedByCursor() throws Exception {
+        User otherUser = new User();
+        otherUser.setUsername("otheruser");
+        otherUser.setEmail("other@example.com");
+        otherUser.setPassword("securepassword");
+        otherUser = userRepository.save(otherUser);
+        List<Ticket> moreTickets = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            moreTickets.add(new Ticket(otherUser, event, price, TicketType.VIP));
+        }
+        ticketRepository.saveAll(moreTickets);
+
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String page = mockMvc.perform(get("/api/v1/tickets")
+                            .param("eventId", event.getId().toString())
+                            .param("ticketType", "VIP")
+                            .param("limit", "2")
+                            .param("cursor", cursor))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[*].ticketType", everyItem(is("VIP"))))
+                    .andReturn().getResponse().getContentAsString();
+            List<String> ids = JsonPath.read(page, "$.items[*].id");
+            ids.forEach(id -> assertTrue(seen.add(id), "ticket " + id + " listed twice"));
+            cursor = JsonPath.read(page, "$.nextCursor");
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(6, seen.size());
+        assertEquals(3, pages);
+        mockMvc.perform(get("/api/v1/tickets").param("username", "otheruser").param("fields", "id,ticketType"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(5)))
+                .andExpect(jsonPath("$.items[0].user").doesNotExist());
+        mockMvc.perform(get("/api/v1/tickets")
+                        .param("purchasedFrom", LocalDate.now().plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)));
+        mockMvc.perform(get("/api/v1/tickets")
+                        .param("purchasedFrom", LocalDate.now().toString())
+                        .param("purchasedTo", LocalDate.now().minusDays(1).toString()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/tickets").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void ticketPayloadsGrowLinearlyWithTheNumberOfTickets() throws Exception {
+        int smallLength = mockMvc.perform(get("/api/v1/tickets")).andReturn().getResponse().getContentAsString().length();
+        // One page holds at most 100 tickets, the response of a user holds all of them
+        List<Ticket> moreTickets = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            moreTickets.add(new Ticket(user, event, price, ticketType));
+        }
+        ticketRepository.saveAll(moreTickets);
+
+        String tickets = mockMvc.perform(get("/api/v1/tickets").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(100)))
+                .andExpect(jsonPath("$.items[0].eventId").value(event.getId().toString()))
+                .andExpect(jsonPath("$.items[0].event.name").value(event.getName()))
+                .andExpect(jsonPath("$.items[0].event.ticketList").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        String owner = mockMvc.perform(get("/api/v1/users/" + user.getUsername()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tickets", hasSize(202)))
+                .andExpect(jsonPath("$.tickets[0].eventId").value(event.getId().toString()))
+                .andExpect(jsonPath("$.tickets[0].user").value(nullValue()))
+                .andReturn().getResponse().getContentAsString();
+
+        // Nesting the whole event would add the IDs of all 202 tickets to every ticket
+        assertTrue(tickets.length() / 100 <= smallLength / 2 + 16, tickets.length() + " bytes for 100 tickets");
+        assertTrue(owner.length() / 202 <= smallLength / 2, owner.length() + " bytes for 202 tickets");
     }
 
     @Test
@@ -180,4 +713,203 @@ public class TicketControllerIntegrationTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    void revenueIsReplayedFromTheLedgerAsOfAnyMoment() throws Exception {
+        Instant beforeSale = momentBetweenChanges();
+        String body = mockMvc.perform(post("/api/v1/tickets")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(purchase(event.getId())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String ticketId = JsonPath.read(body, "$.id");
+        Instant afterSale = momentBetweenChanges();
+        mockMvc.perform(put("/api/v1/tickets/" + ticketId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\n" +
+                                "    \"price\": 200.11,\n" +
+                                "    \"ticketType\": \"VIP\",\n" +
+                                "    \"purchaseDate\": \"" + purchaseDate + "\",\n" +
+                                "    \"username\": \"" + user.getUsername() + "\",\n" +
+                                "    \"eventId\": \"" + event.getId() + "\"\n" +
+                                "}"))
+                .andExpect(status().isOk());
+        Instant afterChange = momentBetweenChanges();
+        mockMvc.perform(delete("/api/v1/tickets/" + ticketId))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(revenueOf(beforeSale))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(revenueOf(afterSale))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].ticketType").value("STANDARD"))
+                .andExpect(jsonPath("$[0].tickets").value(1))
+                .andExpect(jsonPath("$[0].revenue").value(100.11));
+        // The change moved the ticket from STANDARD to VIP, the sale itself stays on record
+        mockMvc.perform(revenueOf(afterChange))
+                .andExpect(jsonPath("$[?(@.ticketType == 'STANDARD')].tickets").value(0))
+                .andExpect(jsonPath("$[?(@.ticketType == 'VIP')].tickets").value(1))
+                .andExpect(jsonPath("$[?(@.ticketType == 'VIP')].revenue").value(200.11));
+        mockMvc.perform(get("/api/v1/tickets/revenue").param("eventId", event.getId().toString()))
+                .andExpect(jsonPath("$[*].tickets", everyItem(is(0))))
+                .andExpect(jsonPath("$[*].revenue", everyItem(is(0.0))));
+    }
+
+    @Test
+    void refundingATicketFromBeforeTheLedgerLeavesNoNegativeRevenue() throws Exception {
+        // Stored like a seeded ticket or one already in the database at deploy, without a ledger entry
+        Event earlierEvent = saveEvent("Earlier event", 10);
+        Ticket existing = new Ticket(user, earlierEvent, new BigDecimal("40.00"), TicketType.VIP);
+        existing.setPurchaseDate(LocalDate.of(2025, 6, 15));
+        existing = ticketRepository.save(existing);
+
+        assertTrue(ticketLedgerBackfill.run() >= 1);
+        assertEquals(0, ticketLedgerBackfill.run());
+        mockMvc.perform(get("/api/v1/tickets/revenue").param("eventId", earlierEvent.getId().toString()))
+                .andExpect(jsonPath("$[?(@.ticketType == 'VIP')].tickets").value(1))
+                .andExpect(jsonPath("$[?(@.ticketType == 'VIP')].revenue").value(40.0));
+
+        mockMvc.perform(delete("/api/v1/tickets/" + existing.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/tickets/revenue").param("eventId", earlierEvent.getId().toString()))
+                .andExpect(jsonPath("$[?(@.ticketType == 'VIP')].tickets").value(0))
+                .andExpect(jsonPath("$[?(@.ticketType == 'VIP')].revenue").value(0.0));
+    }
+
+    @Test
+    void anEventLoadedBeforeASeatIsTakenFollowsTheBulkUpdate() {
+        Event lively = saveEvent("Lively event", 10);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Event loaded = eventRepository.findById(lively.getId()).orElseThrow();
+            long loadedVersion = loaded.getVersion();
+
+            ticketService.createTicket(purchaseDTO(lively.getId()));
+
+            assertEquals(1, loaded.getSoldCount());
+            assertEquals(loadedVersion + 1, loaded.getVersion());
+            // Written back with the version the bulk update left, so no optimistic lock failure
+            loaded.setName("Livelier event");
+            eventRepository.flush();
+        });
+
+        Event stored = eventRepository.findById(lively.getId()).orElseThrow();
+        assertEquals("Livelier event", stored.getName());
+        assertEquals(1, stored.getSoldCount());
+    }
+
+    @Test
+    void deletingATicketHolderGivesBackTheirSeatsAndRefundsTheirTickets() throws Exception {
+        Event concert = saveEvent("Farewell concert", 10);
+        User holder = new User();
+        holder.setUsername("leaving");
+        holder.setEmail("leaving@example.com");
+        holder.setPassword("securepassword");
+        userRepository.save(holder);
+        for (int i = 0; i < 3; i++) {
+            TicketCreateDTO purchase = purchaseDTO(concert.getId());
+            purchase.setUsername(holder.getUsername());
+            ticketService.createTicket(purchase);
+        }
+        assertEquals(3, eventRepository.findById(concert.getId()).orElseThrow().getSoldCount());
+
+        userService.deleteUser(holder.getUsername());
+
+        assertEquals(0, eventRepository.findById(concert.getId()).orElseThrow().getSoldCount());
+        assertTrue(ticketRepository.findByUsername(holder.getUsername()).isEmpty());
+        mockMvc.perform(get("/api/v1/tickets/revenue").param("eventId", concert.getId().toString()))
+                .andExpect(jsonPath("$[*].tickets", everyItem(is(0))))
+                .andExpect(jsonPath("$[*].revenue", everyItem(is(0.0))));
+    }
+
+    private Instant momentBetweenChanges() throws InterruptedException {
+        Thread.sleep(5);
+        Instant moment = Instant.now();
+        Thread.sleep(5);
+        return moment;
+    }
+
+    private MockHttpServletRequestBuilder revenueOf(Instant asOf) {
+        return get("/api/v1/tickets/revenue")
+                .param("eventId", event.getId().toString())
+                .param("asOf", asOf.toString());
+    }
+
+    private Map<String, Integer> purchaseConcurrently(int buyers, IntFunction<UUID> eventOfBuyer) throws Exception {
+        Map<String, Integer> outcomes = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<?>> purchases = new ArrayList<>();
+            for (int i = 0; i < buyers; i++) {
+                UUID eventId = eventOfBuyer.apply(i);
+                purchases.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        ticketService.createTicket(purchaseDTO(eventId));
+                        outcomes.merge("sold", 1, Integer::sum);
+                    } catch (EventSoldOutException e) {
+                        outcomes.merge("soldOut", 1, Integer::sum);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> purchase : purchases) {
+                purchase.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return outcomes;
+    }
+
+    private Event saveEvent(String name, int capacity) {
+        Event saved = new Event();
+        saved.setName(name);
+        saved.setStartDate(LocalDate.now());
+        saved.setEndDate(LocalDate.now().plusDays(1));
+        saved.setLocation("Test Location");
+        saved.setCapacity(capacity);
+        return eventRepository.save(saved);
+    }
+
+    private TicketCreateDTO purchaseDTO(UUID eventId) {
+        TicketCreateDTO ticketCreateDTO = new TicketCreateDTO();
+        ticketCreateDTO.setPrice(price);
+        ticketCreateDTO.setTicketType(ticketType);
+        ticketCreateDTO.setPurchaseDate(purchaseDate);
+        ticketCreateDTO.setUsername(user.getUsername());
+        ticketCreateDTO.setEventId(eventId);
+        return ticketCreateDTO;
+    }
+
+    private String scan(UUID eventId, String ticketCode) {
+        return "{\n" +
+                "    \"eventId\": \"" + eventId + "\",\n" +
+                "    \"ticketCode\": \"" + ticketCode + "\"\n" +
+                "}";
+    }
+
+    private String bulkIssue(UUID eventId, List<String> usernames) {
+        String list = usernames.stream().map(username -> "\"" + username + "\"").collect(Collectors.joining(","));
+        return "{\n" +
+                "    \"price\": 10.00,\n" +
+                "    \"ticketType\": \"STANDARD\",\n" +
+                "    \"eventId\": \"" + eventId + "\",\n" +
+                "    \"usernames\": [" + list + "]\n" +
+                "}";
+    }
+
+    private String purchase(UUID eventId) {
+        return "{\n" +
+                "    \"price\": 100.11,\n" +
+                "    \"ticketType\": \"STANDARD\",\n" +
+                "    \"purchaseDate\": \"2024-06-15\",\n" +
+                "    \"username\": \"" + user.getUsername() + "\",\n" +
+                "    \"eventId\": \"" + eventId + "\"\n" +
+                "}";
+    }
 }
@@ -1,21 +1,29 @@
 package nl.novi.event_management_system.services;
 
 import jakarta.transaction.Transactional;
+import nl.novi.event_management_system.dtos.PageResponseDTO;
 import nl.novi.event_management_system.dtos.eventDtos.*;
+import nl.novi.event_management_system.exceptions.BadRequestException;
 import nl.novi.event_management_system.exceptions.EventNotFoundException;
+import nl.novi.event_management_system.exceptions.PreconditionFailedException;
 import nl.novi.event_management_system.exceptions.RecordNotFoundException;
 import nl.novi.event_management_system.exceptions.UsernameNotFoundException;
+import nl.novi.event_management_system.mappers.EventMapper;
 import nl.novi.event_management_system.models.*;
+import nl.novi.event_management_system.repositories.EventMembership;
 import nl.novi.event_management_system.repositories.EventRepository;
 import nl.novi.event_management_system.repositories.FeedbackRepository;
 import nl.novi.event_management_system.repositories.TicketRepository;
 import nl.novi.event_management_system.repositories.UserRepository;
+import nl.novi.event_management_system.utils.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -35,6 +43,10 @@ class EventServiceTest {
     private FeedbackRepository feedbackRepository;
     @Mock
     private TicketRepository ticketRepository;
+    @Spy
+    private EventResponseCache eventResponseCache = new EventResponseCache(100, 60);
+    @Mock
+    private EventTextIndex eventTextIndex;
 
     @InjectMocks
     private EventService eventService;
@@ -94,7 +106,7 @@ class EventServiceTest {
 
         event = new Event();
         event.setId(eventId);
-        event.setParticipants(new ArrayList<>());
+        event.setParticipants(new HashSet<>());
 
         participant1 = new User();
         participant1.setUsername("user1");
@@ -128,7 +140,7 @@ class EventServiceTest {
     void findEventByIdDoesReturnTheCorrectEvent() {
         UUID eventId = UUID.randomUUID();
         // Arrange
-        when(eventRepository.findById(eventId)).thenReturn(Optional.of(storedEvent));
+        when(eventRepository.findDetailedById(eventId)).thenReturn(Optional.of(storedEvent));
 
         // Act
         EventResponseDTO eventResponseDTO = eventService.findEventById(eventId);
@@ -143,6 +155,72 @@ class EventServiceTest {
         assertEquals(originalEventPrice, eventResponseDTO.getPrice());
     }
 
+    @Test
+    void findEventByIdServesRepeatedReadsFromTheCache() {
+        when(eventRepository.findDetailedById(eventId)).thenReturn(Optional.of(storedEvent));
+
+        EventResponseDTO first = eventService.findEventById(eventId);
+        EventResponseDTO second = eventService.findEventById(eventId);
+
+        assertEquals(first, second);
+        verify(eventRepository, times(1)).findDetailedById(eventId);
+        assertEquals(1, eventService.getEventCacheStats().getHits());
+        assertEquals(1, eventService.getEventCacheStats().getMisses());
+    }
+
+    @Test
+    void changingAnEventReadFromTheCacheLeavesTheCachedEventAlone() {
+        when(eventRepository.findDetailedById(eventId)).thenReturn(Optional.of(storedEvent));
+        EventResponseDTO first = eventService.findEventById(eventId);
+        String name = first.getName();
+
+        first.setName("Changed by a caller");
+        first.getRatings().getHistogram().clear();
+        first.getTicketList().clear();
+
+        EventResponseDTO second = eventService.findEventById(eventId);
+        assertNotSame(first, second);
+        assertEquals(name, second.getName());
+        assertEquals(EventMapper.toResponseDTO(storedEvent), second);
+    }
+
+    @Test
+    void updateEventEvictsTheCachedEvent() {
+        when(eventRepository.findDetailedById(eventId)).thenReturn(Optional.of(storedEvent));
+        when(eventRepository.existsById(eventId)).thenReturn(true);
+        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(storedEvent));
+        when(eventRepository.saveAndFlush(any(Event.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        eventService.findEventById(eventId);
+        eventService.updateEvent(eventId, eventCreateDTO);
+        eventService.findEventById(eventId);
+
+        verify(eventRepository, times(2)).findDetailedById(eventId);
+        verify(eventResponseCache).evict(eventId);
+    }
+
+    @Test
+    void getEventRatingsReadsTheCountersOfTheEvent() {
+        RatingStats stats = new RatingStats();
+        stats.add(5, 3);
+        stats.add(2);
+        when(eventRepository.findRatingStatsById(eventId)).thenReturn(Optional.of(stats));
+
+        EventRatingsDTO ratings = eventService.getEventRatings(eventId);
+
+        assertEquals(4, ratings.getRatingCount());
+        assertEquals(4.25, ratings.getAverageRating());
+        assertEquals(List.of(0L, 1L, 0L, 0L, 3L), List.copyOf(ratings.getHistogram().values()));
+        verifyNoInteractions(feedbackRepository);
+    }
+
+    @Test
+    void getEventRatingsOfAnUnknownEventThrows() {
+        when(eventRepository.findRatingStatsById(eventId)).thenReturn(Optional.empty());
+
+        assertThrows(EventNotFoundException.class, () -> eventService.getEventRatings(eventId));
+    }
+
     @Test
     void getEventsByOrganizerDoesReturnTheCorrectEvents() {
         //Add organizer to the storedEvent
@@ -160,16 +238,70 @@ class EventServiceTest {
     }
 
     @Test
-    void getAllEventsDoesReturnAllEvents() {
+    void getEventsDoesReturnFirstPageWithoutCursorWhenAllEventsFit() {
         // Arrange
-        when(eventRepository.findAll()).thenReturn(listOfEvents);
+        when(eventRepository.findAllByOrderByStartDateAscIdAsc(Limit.of(3))).thenReturn(listOfEvents);
 
         // Act
-        List<EventResponseDTO> eventResponseDTOs = eventService.getAllEvents();
+        PageResponseDTO<EventResponseDTO> page = eventService.getEvents(null, 2);
 
         // Assert
-        assertNotNull(eventResponseDTOs);
-        assertEquals(2, eventResponseDTOs.size());
+        assertNotNull(page);
+        assertEquals(2, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getEventsDoesReturnCursorPointingAtLastEventOfPage() {
+        // Arrange
+        when(eventRepository.findAllByOrderByStartDateAscIdAsc(Limit.of(2))).thenReturn(listOfEvents);
+
+        // Act
+        PageResponseDTO<EventResponseDTO> page = eventService.getEvents(null, 1);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(originalStartDate, cursor.getDate());
+        assertEquals(eventId, cursor.getId());
+    }
+
+    @Test
+    void getEventsDoesContinueAfterCursor() {
+        // Arrange
+        String cursor = new KeysetCursor(originalStartDate, eventId).encode();
+        when(eventRepository.findPageAfter(originalStartDate, eventId, Limit.of(EventService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(List.of(storedEvent));
+
+        // Act
+        PageResponseDTO<EventResponseDTO> page = eventService.getEvents(cursor, 5000);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        verify(eventRepository, never()).findAll();
+    }
+
+    @Test
+    void getEventSummariesDoesUseProjectionAndReturnCursor() {
+        // Arrange
+        EventSummaryDTO first = EventSummaryDTO.builder().id(UUID.randomUUID()).startDate(originalStartDate).build();
+        EventSummaryDTO second = EventSummaryDTO.builder().id(UUID.randomUUID()).startDate(updatedStartDate).build();
+        when(eventRepository.findSummaries(Limit.of(2))).thenReturn(List.of(first, second));
+
+        // Act
+        PageResponseDTO<EventSummaryDTO> page = eventService.getEventSummaries(null, 1);
+
+        // Assert
+        assertEquals(List.of(first), page.getItems());
+        assertEquals(first.getId(), KeysetCursor.decode(page.getNextCursor()).getId());
+        verify(eventRepository, never()).findAllByOrderByStartDateAscIdAsc(any());
+    }
+
+    @Test
+    void getEventsThrowsBadRequestExceptionForInvalidCursorOrLimit() {
+        assertThrows(BadRequestException.class, () -> eventService.getEvents("not-a-cursor", 10));
+        assertThrows(BadRequestException.class, () -> eventService.getEvents(null, 0));
     }
 
     @Test
@@ -177,7 +309,7 @@ class EventServiceTest {
         // Arrange
         when(eventRepository.existsById(eventId)).thenReturn(true);
         when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(storedEvent));
-        when(eventRepository.save(any(Event.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(eventRepository.saveAndFlush(any(Event.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         EventResponseDTO responseDTO = eventService.updateEvent(eventId, eventCreateDTO);
@@ -193,7 +325,20 @@ class EventServiceTest {
 
         verify(eventRepository, times(1)).existsById(eventId);
         verify(eventRepository, times(1)).findEventById(eventId);
-        verify(eventRepository, times(1)).save(any(Event.class));
+        verify(eventRepository, times(1)).saveAndFlush(storedEvent);
+    }
+
+    @Test
+    public void testUpdateEvent_StaleVersion() {
+        // Arrange
+        storedEvent.setVersion(5);
+        when(eventRepository.existsById(eventId)).thenReturn(true);
+        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(storedEvent));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> eventService.updateEvent(eventId, eventCreateDTO, 4L));
+        verify(eventRepository, never()).saveAndFlush(any());
+        verify(eventResponseCache, never()).evict(eventId);
     }
 
     @Test
@@ -367,173 +512,190 @@ class EventServiceTest {
     @Test
     public void testAssignParticipantToEvent_ParticipantNotFound() {
         // Arrange
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
-        when(userRepository.findByUsername("user1")).thenReturn(Optional.of(participant1));
-        when(userRepository.findByUsername("user2")).thenReturn(Optional.empty());
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(eventRepository.findExistingUsernames(Set.of("user1", "user2"))).thenReturn(Set.of("user1"));
+        when(eventRepository.findParticipantUsernames(eventId, Set.of("user1"))).thenReturn(Set.of());
 
-        // Act & Assert
-        assertThrows(UsernameNotFoundException.class, () -> eventService.assignParticipantToEvent(eventId, participantUsernameDTOList));
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(userRepository, times(1)).findByUsername("user1");
-        verify(userRepository, times(1)).findByUsername("user2");
-        verify(eventRepository, never()).save(any());
+        // Act
+        ParticipantAssignmentResultDTO result = eventService.assignParticipantToEvent(eventId, participantUsernameDTOList);
+
+        // Assert
+        assertEquals(List.of("user1"), result.getAdded());
+        assertEquals(List.of("user2"), result.getUnknownUsernames());
+        verify(eventRepository, times(1)).insertMembers(eventId, EventMembership.PARTICIPANTS, List.of("user1"));
+        verify(userRepository, never()).findByUsername(any());
     }
 
     @Test
     public void testAssignParticipantToEventThrowsEventNotFoundException() {
         // Arrange
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.empty());
+        when(eventRepository.incrementVersion(eventId)).thenReturn(0);
 
         // Act & Assert
         assertThrows(EventNotFoundException.class, () -> eventService.assignParticipantToEvent(eventId, participantUsernameDTOList));
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(userRepository, never()).findByUsername(any());
-        verify(eventRepository, never()).save(any());
+        verify(eventRepository, never()).findExistingUsernames(any());
+        verify(eventRepository, never()).insertMembers(any(), any(), any());
     }
 
     @Test
-    @Transactional
     public void testAssignParticipantToEvent_Success() {
         // Arrange
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
-        when(userRepository.findByUsername("user1")).thenReturn(Optional.of(participant1));
-        when(userRepository.findByUsername("user2")).thenReturn(Optional.of(participant2));
-        when(eventRepository.save(event)).thenReturn(event);
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(eventRepository.findExistingUsernames(Set.of("user1", "user2"))).thenReturn(Set.of("user1", "user2"));
+        when(eventRepository.findParticipantUsernames(eventId, Set.of("user1", "user2"))).thenReturn(Set.of());
 
         // Act
-        eventService.assignParticipantToEvent(eventId, participantUsernameDTOList);
+        ParticipantAssignmentResultDTO result = eventService.assignParticipantToEvent(eventId, participantUsernameDTOList);
 
         // Assert
-        assertEquals(2, event.getParticipants().size());
-        assertTrue(event.getParticipants().contains(participant1));
-        assertTrue(event.getParticipants().contains(participant2));
-
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(userRepository, times(1)).findByUsername("user1");
-        verify(userRepository, times(1)).findByUsername("user2");
-        verify(eventRepository, times(1)).save(event);
+        assertEquals(2, result.getRequested());
+        assertEquals(List.of("user1", "user2"), result.getAdded());
+        verify(eventRepository, times(1)).insertMembers(eventId, EventMembership.PARTICIPANTS, List.of("user1", "user2"));
+        verify(eventRepository, never()).findEventById(any());
+        verify(eventResponseCache).evict(eventId);
     }
 
     @Test
-    @Transactional
     public void testAssignParticipantToEvent_AvoidDuplicates() {
         // Arrange
-        event.getParticipants().add(participant1); // Add participant1 to simulate an existing participant
+        participantUsernameDTOList.add(new EventParticipantUsernameDTO("user2"));
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(eventRepository.findExistingUsernames(Set.of("user1", "user2"))).thenReturn(Set.of("user1", "user2"));
+        when(eventRepository.findParticipantUsernames(eventId, Set.of("user1", "user2"))).thenReturn(Set.of("user1"));
 
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
-        when(userRepository.findByUsername("user1")).thenReturn(Optional.of(participant1));
-        when(userRepository.findByUsername("user2")).thenReturn(Optional.of(participant2));
-        when(eventRepository.save(event)).thenReturn(event);
+        // Act
+        ParticipantAssignmentResultDTO result = eventService.assignParticipantToEvent(eventId, participantUsernameDTOList);
+
+        // Assert
+        assertEquals(2, result.getRequested());
+        assertEquals(List.of("user2"), result.getAdded());
+        assertEquals(List.of("user1"), result.getAlreadyRegistered());
+        verify(eventRepository, times(1)).insertMembers(eventId, EventMembership.PARTICIPANTS, List.of("user2"));
+    }
+
+    @Test
+    public void testRemoveParticipantsFromEvent_ReportsWhoWasNotAParticipant() {
+        // Arrange
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(eventRepository.findMembers(eventId, EventMembership.PARTICIPANTS, Set.of("user1", "user2"), String.class))
+                .thenReturn(Set.of("user2"));
 
         // Act
-        eventService.assignParticipantToEvent(eventId, participantUsernameDTOList);
+        RemovalResultDTO result = eventService.removeParticipantsFromEvent(eventId, participantUsernameDTOList);
 
         // Assert
-        assertEquals(2, event.getParticipants().size()); // Ensure no duplicates
-        assertTrue(event.getParticipants().contains(participant1));
-        assertTrue(event.getParticipants().contains(participant2));
+        assertEquals(List.of("user2"), result.getRemoved());
+        assertEquals(List.of("user1"), result.getNotRemoved());
+        verify(eventRepository, times(1)).deleteMembers(eventId, EventMembership.PARTICIPANTS, Set.of("user2"));
+        verify(eventRepository, never()).findEventById(any());
+        verify(eventResponseCache).evict(eventId);
+    }
 
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(userRepository, times(1)).findByUsername("user1");
-        verify(userRepository, times(1)).findByUsername("user2");
-        verify(eventRepository, times(1)).save(event);
+    @Test
+    public void testRemoveTicketsFromEvent_EventNotFound() {
+        // Arrange
+        when(eventRepository.incrementVersion(eventId)).thenReturn(0);
+        List<EventTicketIdDTO> ticketIds = List.of(new EventTicketIdDTO(UUID.randomUUID()));
+
+        // Act & Assert
+        assertThrows(EventNotFoundException.class, () -> eventService.removeTicketsFromEvent(eventId, ticketIds));
+        verify(eventRepository, never()).deleteMembers(any(), any(), any());
     }
 
     @Test
-    @Transactional
     public void testRemoveParticipantFromEvent_Success() {
         // Arrange
-        event.getParticipants().add(participant1);
-        event.getParticipants().add(participant2);
-
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
-        when(userRepository.findById("user1")).thenReturn(Optional.of(participant1));
-        when(eventRepository.save(event)).thenReturn(event);
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(userRepository.existsById("user1")).thenReturn(true);
+        when(eventRepository.existsMember(eventId, EventMembership.PARTICIPANTS, "user1")).thenReturn(true);
 
         // Act
         eventService.removeParticipantFromEvent(eventId, new EventParticipantUsernameDTO("user1"));
 
         // Assert
-        assertEquals(1, event.getParticipants().size());
-        assertFalse(event.getParticipants().contains(participant1));
-        assertTrue(event.getParticipants().contains(participant2));
-
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(userRepository, times(1)).findById("user1");
-        verify(userRepository, never()).findById("user2");
-        verify(eventRepository, times(1)).save(event);
+        verify(eventRepository, times(1)).deleteMembers(eventId, EventMembership.PARTICIPANTS, List.of("user1"));
+        verify(eventRepository, never()).findEventById(any());
+        verify(eventRepository, never()).save(any());
+        verify(eventResponseCache).evict(eventId);
     }
 
     @Test
     public void testRemoveParticipantFromEventThrowsIllegalStateException() {
         // Arrange
-        when(userRepository.findById("user1")).thenReturn(Optional.of(participant1));
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(userRepository.existsById("user1")).thenReturn(true);
+        when(eventRepository.existsMember(eventId, EventMembership.PARTICIPANTS, "user1")).thenReturn(false);
 
         // Act & Assert
         assertThrows(IllegalStateException.class, () -> eventService.removeParticipantFromEvent(eventId, new EventParticipantUsernameDTO("user1")));
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(eventRepository, never()).save(any());
+        verify(eventRepository, never()).deleteMembers(any(), any(), any());
+    }
+
+    @Test
+    public void testRemoveParticipantFromEventThrowsRecordNotFoundException() {
+        // Arrange
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(userRepository.existsById("user1")).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(RecordNotFoundException.class, () -> eventService.removeParticipantFromEvent(eventId, new EventParticipantUsernameDTO("user1")));
+        verify(eventRepository, never()).existsMember(any(), any(), any());
+        verify(eventRepository, never()).deleteMembers(any(), any(), any());
     }
 
     @Test
-    @Transactional
     public void testAddTicketsToEventAddTicketsSuccessfully() {
         UUID ticketId_1 = UUID.randomUUID();
         UUID ticketId_2 = UUID.randomUUID();
 
-        Ticket ticket1 = new Ticket();
-        ticket1.setId(ticketId_1);
-
-        Ticket ticket2 = new Ticket();
-        ticket2.setId(ticketId_2);
-
         // Arrange
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
-        when(ticketRepository.findById(ticketId_1)).thenReturn(Optional.of(ticket1));
-        when(ticketRepository.findById(ticketId_2)).thenReturn(Optional.of(ticket2));
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(ticketRepository.findExistingIds(Set.of(ticketId_1, ticketId_2))).thenReturn(Set.of(ticketId_1, ticketId_2));
+        when(eventRepository.findMembers(eventId, EventMembership.TICKETS, Set.of(ticketId_1, ticketId_2), UUID.class))
+                .thenReturn(Set.of(ticketId_1));
 
         List<EventTicketIdDTO> ticketIdList = new ArrayList<>();
 
         ticketIdList.add(new EventTicketIdDTO(ticketId_1));
         ticketIdList.add(new EventTicketIdDTO(ticketId_2));
+        ticketIdList.add(new EventTicketIdDTO(ticketId_2));
 
         // Act
         eventService.addTicketsToEvent(eventId, ticketIdList);
 
         // Assert
-        assertEquals(2, event.getTickets().size());
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(eventRepository, times(1)).save(any());
+        verify(eventRepository, times(1)).insertMembers(eventId, EventMembership.TICKETS, Set.of(ticketId_2));
+        verify(eventRepository, never()).findEventById(any());
+        verify(eventRepository, never()).save(any());
+        verify(eventResponseCache).evict(eventId);
     }
 
     @Test
     public void testAddTicketsToEventThrowsEventNotFoundException() {
         // Arrange
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.empty());
+        when(eventRepository.incrementVersion(eventId)).thenReturn(0);
 
         List<EventTicketIdDTO> ticketIdList = new ArrayList<>();
         ticketIdList.add(new EventTicketIdDTO(UUID.randomUUID()));
 
         // Act & Assert
         assertThrows(EventNotFoundException.class, () -> eventService.addTicketsToEvent(eventId, ticketIdList));
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(eventRepository, never()).save(any());
+        verify(ticketRepository, never()).findExistingIds(any());
+        verify(eventRepository, never()).insertMembers(any(), any(), any());
     }
 
     @Test
     public void testAddTicketsToEventThrowsRecordNotFoundException() {
         // Arrange
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
-        when(ticketRepository.findById(any())).thenReturn(Optional.empty());
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(ticketRepository.findExistingIds(any())).thenReturn(Set.of());
 
         List<EventTicketIdDTO> ticketIdList = new ArrayList<>();
         ticketIdList.add(new EventTicketIdDTO(UUID.randomUUID()));
 
         // Act & Assert
         assertThrows(RecordNotFoundException.class, () -> eventService.addTicketsToEvent(eventId, ticketIdList));
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(eventRepository, never()).save(any());
+        verify(eventRepository, never()).insertMembers(any(), any(), any());
     }
 
     @Test
@@ -542,68 +704,61 @@ class EventServiceTest {
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> eventService.addTicketsToEvent(eventId, ticketIdList));
-        verify(eventRepository, never()).save(any());
+        verify(eventRepository, never()).insertMembers(any(), any(), any());
     }
 
     @Test
-    @Transactional
     public void testRemoveTicketsFromEventRemoveTicketsSuccessfully() {
         // Arrange
         UUID ticketId = UUID.randomUUID();
-        Ticket ticket = new Ticket();
-        ticket.setId(ticketId);
-
-        List<Ticket> ticketList = new ArrayList<>();
-        ticketList.add(ticket);
-        event.setTickets(ticketList);
-
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
-        when(ticketRepository.findById(ticketId)).thenReturn(Optional.of(ticket));
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(ticketRepository.existsById(ticketId)).thenReturn(true);
+        when(eventRepository.existsMember(eventId, EventMembership.TICKETS, ticketId)).thenReturn(true);
 
         // Act
         eventService.removeTicketFromEvent(eventId, new EventTicketIdDTO(ticketId));
 
         // Assert
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(eventRepository, times(1)).save(any());
+        verify(eventRepository, times(1)).deleteMembers(eventId, EventMembership.TICKETS, List.of(ticketId));
+        verify(eventRepository, never()).save(any());
     }
 
     @Test
     public void testRemoveTicketsThrowsEventNotFoundException() {
         // Arrange
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.empty());
+        when(eventRepository.incrementVersion(eventId)).thenReturn(0);
 
         // Act & Assert
         assertThrows(EventNotFoundException.class, () -> eventService.removeTicketFromEvent(eventId, new EventTicketIdDTO(UUID.randomUUID())));
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(eventRepository, never()).save(any());
+        verify(ticketRepository, never()).existsById(any());
+        verify(eventRepository, never()).deleteMembers(any(), any(), any());
     }
 
     @Test
     public void testRemoveTicketsThrowsRecordNotFoundException() {
         // Arrange
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
-        when(ticketRepository.findById(any())).thenReturn(Optional.empty());
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(ticketRepository.existsById(any())).thenReturn(false);
 
         // Act & Assert
         assertThrows(RecordNotFoundException.class, () -> eventService.removeTicketFromEvent(eventId, new EventTicketIdDTO(UUID.randomUUID())));
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(eventRepository, never()).save(any());
+        verify(eventRepository, never()).deleteMembers(any(), any(), any());
     }
 
     @Test
     public void testRemoveTicketsThrowsIllegalStateException() {
         // Arrange
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
-        when(ticketRepository.findById(any())).thenReturn(Optional.of(new Ticket()));
+        UUID ticketId = UUID.randomUUID();
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(ticketRepository.existsById(ticketId)).thenReturn(true);
+        when(eventRepository.existsMember(eventId, EventMembership.TICKETS, ticketId)).thenReturn(false);
 
         // Act & Assert
-        assertThrows(IllegalStateException.class, () -> eventService.removeTicketFromEvent(eventId, new EventTicketIdDTO(null)));
-        verify(eventRepository, never()).save(any());
+        assertThrows(IllegalStateException.class, () -> eventService.removeTicketFromEvent(eventId, new EventTicketIdDTO(ticketId)));
+        verify(eventRepository, never()).deleteMembers(any(), any(), any());
     }
 
     @Test
-    @Transactional
     public void testAddFeedbacksToEventSuccessfully() {
         // Arrange
         UUID feedbackId_1 = UUID.randomUUID();
@@ -611,16 +766,32 @@ class EventServiceTest {
         List<EventFeedbackIdDTO> feedbackIdList = new ArrayList<>();
         feedbackIdList.add(new EventFeedbackIdDTO(feedbackId_1));
         feedbackIdList.add(new EventFeedbackIdDTO(feedbackId_2));
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
-        when(feedbackRepository.findById(feedbackId_1)).thenReturn(Optional.of(new Feedback()));
-        when(feedbackRepository.findById(feedbackId_2)).thenReturn(Optional.of(new Feedback()));
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(feedbackRepository.findExistingIds(Set.of(feedbackId_1, feedbackId_2))).thenReturn(Set.of(feedbackId_1, feedbackId_2));
+        when(eventRepository.findMembers(eventId, EventMembership.FEEDBACK, Set.of(feedbackId_1, feedbackId_2), UUID.class))
+                .thenReturn(Set.of());
 
         // Act
         eventService.AddFeedbacksToEvent(eventId, feedbackIdList);
 
         // Assert
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(eventRepository, times(1)).save(any());
+        verify(eventRepository, times(1)).insertMembers(eventId, EventMembership.FEEDBACK, Set.of(feedbackId_1, feedbackId_2));
+        verify(eventRepository, never()).save(any());
+    }
+
+    @Test
+    public void testAddFeedbacksToEventSkipsLinkedFeedback() {
+        // Arrange
+        UUID feedbackId = UUID.randomUUID();
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(feedbackRepository.findExistingIds(Set.of(feedbackId))).thenReturn(Set.of(feedbackId));
+        when(eventRepository.findMembers(eventId, EventMembership.FEEDBACK, Set.of(feedbackId), UUID.class)).thenReturn(Set.of(feedbackId));
+
+        // Act
+        eventService.AddFeedbacksToEvent(eventId, List.of(new EventFeedbackIdDTO(feedbackId)));
+
+        // Assert
+        verify(eventRepository, never()).insertMembers(any(), any(), any());
     }
 
     @Test
@@ -630,92 +801,84 @@ class EventServiceTest {
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> eventService.AddFeedbacksToEvent(eventId, feedbackIdList));
-        verify(eventRepository, never()).save(any());
+        verify(eventRepository, never()).insertMembers(any(), any(), any());
     }
 
     @Test
     public void testAddFeedbacksToEventThrowsEventNotFoundException() {
         // Arrange
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.empty());
+        when(eventRepository.incrementVersion(eventId)).thenReturn(0);
         List<EventFeedbackIdDTO> feedbackIdList = new ArrayList<>();
         feedbackIdList.add(new EventFeedbackIdDTO(UUID.randomUUID()));
 
         // Act & Assert
         assertThrows(EventNotFoundException.class, () -> eventService.AddFeedbacksToEvent(eventId, feedbackIdList));
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(eventRepository, never()).save(any());
+        verify(feedbackRepository, never()).findExistingIds(any());
+        verify(eventRepository, never()).insertMembers(any(), any(), any());
     }
 
     @Test
     public void testAddFeedbackToEventThrowsRecordNotFoundException() {
         // Arrange
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
-        when(feedbackRepository.findById(any())).thenReturn(Optional.empty());
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(feedbackRepository.findExistingIds(any())).thenReturn(Set.of());
 
         List<EventFeedbackIdDTO> feedbackIdList = new ArrayList<>();
         feedbackIdList.add(new EventFeedbackIdDTO(UUID.randomUUID()));
 
         // Act & Assert
         assertThrows(RecordNotFoundException.class, () -> eventService.AddFeedbacksToEvent(eventId, feedbackIdList));
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(eventRepository, never()).save(any());
+        verify(eventRepository, never()).insertMembers(any(), any(), any());
     }
 
     @Test
-    @Transactional
     public void testRemoveFeedbackFromEventRemoveEventSuccessfully() {
         // Arrange
         UUID feedbackId = UUID.randomUUID();
-        Feedback feedback = new Feedback();
-        feedback.setId(feedbackId);
-
-        List<Feedback> feedbackList = new ArrayList<>();
-        feedbackList.add(feedback);
-        event.setFeedbacks(feedbackList);
-
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
-        when(feedbackRepository.findById(feedbackId)).thenReturn(Optional.of(feedback));
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(feedbackRepository.existsById(feedbackId)).thenReturn(true);
+        when(eventRepository.existsMember(eventId, EventMembership.FEEDBACK, feedbackId)).thenReturn(true);
 
         // Act
         eventService.removeFeedbackFromEvent(eventId, new EventFeedbackIdDTO(feedbackId));
 
         // Assert
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(eventRepository, times(1)).save(any());
+        verify(eventRepository, times(1)).deleteMembers(eventId, EventMembership.FEEDBACK, List.of(feedbackId));
+        verify(eventRepository, never()).save(any());
     }
 
     @Test
     public void testRemoveFeedbackThrowsEventNotFoundException() {
         // Arrange
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.empty());
+        when(eventRepository.incrementVersion(eventId)).thenReturn(0);
 
         // Act & Assert
         assertThrows(EventNotFoundException.class, () -> eventService.removeFeedbackFromEvent(eventId, new EventFeedbackIdDTO(UUID.randomUUID())));
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(eventRepository, never()).save(any());
+        verify(feedbackRepository, never()).existsById(any());
+        verify(eventRepository, never()).deleteMembers(any(), any(), any());
     }
 
     @Test
     public void testRemoveFeedbackThrowsRecordNotFoundException() {
         // Arrange
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
-        when(feedbackRepository.findById(any())).thenReturn(Optional.empty());
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(feedbackRepository.existsById(any())).thenReturn(false);
 
         // Act & Assert
         assertThrows(RecordNotFoundException.class, () -> eventService.removeFeedbackFromEvent(eventId, new EventFeedbackIdDTO(UUID.randomUUID())));
-        verify(eventRepository, times(1)).findEventById(eventId);
-        verify(eventRepository, never()).save(any());
+        verify(eventRepository, never()).deleteMembers(any(), any(), any());
     }
 
     @Test
-    public void testRemoveFeedbackThrowsIllegalArgumentException() {
+    public void testRemoveFeedbackThrowsIllegalStateException() {
         // Arrange
-        EventFeedbackIdDTO feedbackId = new EventFeedbackIdDTO(null);
-        when(eventRepository.findEventById(eventId)).thenReturn(Optional.of(event));
-        when(feedbackRepository.findById(feedbackId.getFeedbackId())).thenReturn(Optional.of(new Feedback()));
+        UUID feedbackId = UUID.randomUUID();
+        when(eventRepository.incrementVersion(eventId)).thenReturn(1);
+        when(feedbackRepository.existsById(feedbackId)).thenReturn(true);
+        when(eventRepository.existsMember(eventId, EventMembership.FEEDBACK, feedbackId)).thenReturn(false);
 
         // Act & Assert
-        assertThrows(IllegalStateException.class, () -> eventService.removeFeedbackFromEvent(eventId, feedbackId));
-        verify(eventRepository, never()).save(any());
+        assertThrows(IllegalStateException.class, () -> eventService.removeFeedbackFromEvent(eventId, new EventFeedbackIdDTO(feedbackId)));
+        verify(eventRepository, never()).deleteMembers(any(), any(), any());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package nl.novi.event_management_system.services;
+
+import nl.novi.event_management_system.dtos.TextIndexStatsDTO;
+import nl.novi.event_management_system.dtos.eventDtos.EventSummaryDTO;
+import nl.novi.event_management_system.repositories.EventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EventTextIndexTest {
+    @Mock
+    private EventRepository eventRepository;
+
+    @InjectMocks
+    private EventTextIndex eventTextIndex;
+
+    private EventSummaryDTO jazzFestival;
+    private EventSummaryDTO rockConcert;
+    private EventSummaryDTO jazzCafe;
+
+    @BeforeEach
+    void setUp() {
+        jazzFestival = summary("North Sea Jazz Festival", "Rotterdam", 10);
+        rockConcert = summary("Rock Concert", "Amsterdam Jazzclub", 5);
+        jazzCafe = summary("Café Jazz-Avond", "Utrecht", 20);
+        eventTextIndex.index(jazzFestival);
+        eventTextIndex.index(rockConcert);
+        eventTextIndex.index(jazzCafe);
+    }
+
+    @Test
+    void tokenizeNormalizesCaseDiacriticsAndPunctuation() {
+        assertEquals(List.of("cafe", "jazz", "avond"), EventTextIndex.tokenize("  Café Jazz-Avond! "));
+        assertTrue(EventTextIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void searchMatchesWordPrefixesAndRanksNameMatchesFirst() {
+        List<EventSummaryDTO> results = eventTextIndex.search("jaz", 10);
+
+        // Both name matches come first, ordered by start date, then the location match
+        assertEquals(List.of(jazzFestival, jazzCafe, rockConcert), results);
+    }
+
+    @Test
+    void searchRequiresEveryToken() {
+        assertEquals(List.of(jazzFestival), eventTextIndex.search("jazz rotterdam", 10));
+        assertEquals(List.of(jazzCafe), eventTextIndex.search("cafe", 10));
+        assertTrue(eventTextIndex.search("jazz berlin", 10).isEmpty());
+    }
+
+    @Test
+    void indexReplacesTheTermsOfAnUpdatedEvent() {
+        rockConcert.setName("Pop Concert");
+        eventTextIndex.index(rockConcert);
+
+        assertTrue(eventTextIndex.search("rock", 10).isEmpty());
+        assertEquals(List.of(rockConcert), eventTextIndex.search("pop", 10));
+    }
+
+    @Test
+    void changingAnIndexedOrFoundSummaryLeavesTheIndexAlone() {
+        jazzFestival.setName("Changed after indexing");
+        eventTextIndex.search("rotterdam", 10).getFirst().setLocation("Changed after searching");
+
+        EventSummaryDTO found = eventTextIndex.search("rotterdam", 10).getFirst();
+        assertEquals("North Sea Jazz Festival", found.getName());
+        assertEquals("Rotterdam", found.getLocation());
+    }
+
+    @Test
+    void removeDropsTheEventAndItsTerms() {
+        int termsBefore = eventTextIndex.getStats().getTerms();
+
+        eventTextIndex.remove(rockConcert.getId());
+
+        assertTrue(eventTextIndex.search("rock", 10).isEmpty());
+        assertTrue(eventTextIndex.getStats().getTerms() < termsBefore);
+    }
+
+    @Test
+    void rebuildLoadsAllEventsFromTheRepository() {
+        EventSummaryDTO stored = summary("Stored Event", "Den Haag", 1);
+        when(eventRepository.findSummaries(any(Limit.class))).thenReturn(List.of(stored));
+
+        eventTextIndex.rebuild();
+
+        TextIndexStatsDTO stats = eventTextIndex.getStats();
+        assertEquals(1, stats.getDocuments());
+        assertEquals(List.of(stored), eventTextIndex.search("den haag", 10));
+        assertTrue(eventTextIndex.search("jazz", 10).isEmpty());
+        assertTrue(stats.getEstimatedBytes() > 0);
+    }
+
+    private EventSummaryDTO summary(String name, String location, int daysAhead) {
+        return EventSummaryDTO.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .location(location)
+                .startDate(LocalDate.now().plusDays(daysAhead))
+                .endDate(LocalDate.now().plusDays(daysAhead + 1))
+                .capacity(100)
+                .price(10)
+                .build();
+    }
+}
@@ -5,6 +5,7 @@ import nl.novi.event_management_system.dtos.feedbackDtos.FeedbackResponseDTO;
 import nl.novi.event_management_system.exceptions.RecordNotFoundException;
 import nl.novi.event_management_system.models.Event;
 import nl.novi.event_management_system.models.Feedback;
+import nl.novi.event_management_system.models.RatingStats;
 import nl.novi.event_management_system.models.User;
 import nl.novi.event_management_system.repositories.EventRepository;
 import nl.novi.event_management_system.repositories.FeedbackRepository;
@@ -33,6 +34,8 @@ class FeedbackServiceTest {
     private UserRepository userRepository;
     @Mock
     private EventRepository eventRepository;
+    @Mock
+    private EventResponseCache eventResponseCache;
 
     @InjectMocks
     private FeedbackService feedbackService;
@@ -88,6 +91,8 @@ class FeedbackServiceTest {
         assertEquals(feedbackCreateDTO.getRating(), capturedFeedback.getRating());
 
         verify(feedbackRepository, times(1)).save(any(Feedback.class));
+        verify(eventRepository).moveRating(event.getId(), 0, 5);
+        verify(eventResponseCache).evict(event.getId());
     }
 
     @Test
@@ -153,7 +158,7 @@ class FeedbackServiceTest {
         // Arrange
         UUID id = UUID.randomUUID();
         feedback.setUser(new User());
-        when(feedbackRepository.findById(id)).thenReturn(Optional.of(feedback));
+        when(feedbackRepository.findAndLockById(id)).thenReturn(Optional.of(feedback));
         when(feedbackRepository.save(any(Feedback.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         FeedbackCreateDTO updatedFeedback = new FeedbackCreateDTO();
@@ -176,15 +181,37 @@ class FeedbackServiceTest {
         assertEquals(updatedFeedback.getComment(), capturedFeedback.getComment());
         assertEquals(updatedFeedback.getRating(), capturedFeedback.getRating());
 
-        verify(feedbackRepository, times(1)).findById(id);
+        verify(feedbackRepository, times(1)).findAndLockById(id);
         verify(feedbackRepository, times(1)).save(any(Feedback.class));
     }
 
+    @Test
+    void updateFeedback_ShouldMoveTheRatingOfTheEvent() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        Event event = new Event();
+        event.setId(UUID.randomUUID());
+        feedback.setEvent(event);
+        when(feedbackRepository.findAndLockById(id)).thenReturn(Optional.of(feedback));
+        when(feedbackRepository.save(any(Feedback.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        FeedbackCreateDTO updatedFeedback = new FeedbackCreateDTO();
+        updatedFeedback.setComment("Good, not great");
+        updatedFeedback.setRating(4);
+
+        // Act
+        feedbackService.updateFeedback(id, updatedFeedback);
+
+        // Assert
+        verify(eventRepository).moveRating(event.getId(), 5, 4);
+        verify(eventResponseCache).evict(event.getId());
+    }
+
     @Test
     void updateFeedback_ShouldThrowRecordNotFoundException() {
         // Arrange
         UUID id = UUID.randomUUID();
-        when(feedbackRepository.findById(id)).thenReturn(Optional.empty());
+        when(feedbackRepository.findAndLockById(id)).thenReturn(Optional.empty());
 
         FeedbackCreateDTO updatedFeedback = new FeedbackCreateDTO();
         updatedFeedback.setComment("Updated comment");
@@ -193,7 +220,7 @@ class FeedbackServiceTest {
         // Act and Assert
         assertThrows(RecordNotFoundException.class, () -> feedbackService.updateFeedback(id, updatedFeedback));
 
-        verify(feedbackRepository, times(1)).findById(id);
+        verify(feedbackRepository, times(1)).findAndLockById(id);
         verify(feedbackRepository, never()).save(any(Feedback.class));
     }
 
@@ -201,7 +228,7 @@ class FeedbackServiceTest {
     void updateFeedback_ShouldThrowRecordNotFoundExceptionForUser() {
         // Arrange
         UUID id = UUID.randomUUID();
-        when(feedbackRepository.findById(id)).thenReturn(Optional.empty());
+        when(feedbackRepository.findAndLockById(id)).thenReturn(Optional.empty());
 
         FeedbackCreateDTO updatedFeedback = new FeedbackCreateDTO();
         updatedFeedback.setComment("Updated comment");
@@ -210,7 +237,7 @@ class FeedbackServiceTest {
         // Act and Assert
         assertThrows(RecordNotFoundException.class, () -> feedbackService.updateFeedback(id, updatedFeedback));
 
-        verify(feedbackRepository, times(1)).findById(id);
+        verify(feedbackRepository, times(1)).findAndLockById(id);
         verify(feedbackRepository, never()).save(any(Feedback.class));
     }
 
@@ -218,7 +245,7 @@ class FeedbackServiceTest {
     void deleteFeedback_ShouldDeleteFeedback() {
         // Arrange
         UUID id = UUID.randomUUID();
-        when(feedbackRepository.findById(id)).thenReturn(Optional.of(feedback));
+        when(feedbackRepository.findAndLockById(id)).thenReturn(Optional.of(feedback));
 
         // Act
         feedbackService.deleteFeedback(id);
@@ -227,11 +254,28 @@ class FeedbackServiceTest {
         verify(feedbackRepository, times(1)).delete(feedback);
     }
 
+    @Test
+    void deleteFeedback_ShouldRemoveTheRatingFromTheEvent() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        Event event = new Event();
+        event.setId(UUID.randomUUID());
+        feedback.setEvent(event);
+        when(feedbackRepository.findAndLockById(id)).thenReturn(Optional.of(feedback));
+
+        // Act
+        feedbackService.deleteFeedback(id);
+
+        // Assert
+        verify(eventRepository).moveRating(event.getId(), 5, 0);
+        verify(eventResponseCache).evict(event.getId());
+    }
+
     @Test
     void deleteFeedback_ShouldThrowRecordNotFoundException() {
         // Arrange
         UUID id = UUID.randomUUID();
-        when(feedbackRepository.findById(id)).thenReturn(Optional.empty());
+        when(feedbackRepository.findAndLockById(id)).thenReturn(Optional.empty());
 
         // Act and Assert
         assertThrows(RecordNotFoundException.class, () -> feedbackService.deleteFeedback(id));
@@ -239,6 +283,39 @@ class FeedbackServiceTest {
         verify(feedbackRepository, never()).delete(any(Feedback.class));
     }
 
+    @Test
+    void repairRatings_ShouldOnlyRewriteDriftedCounters() {
+        // Arrange
+        Event accurate = new Event();
+        accurate.setId(UUID.randomUUID());
+        accurate.getRatingStats().add(4);
+        Event drifted = new Event();
+        drifted.setId(UUID.randomUUID());
+        drifted.getRatingStats().add(1, 3);
+        List<UUID> ids = List.of(accurate.getId(), drifted.getId());
+        when(eventRepository.findAndLockByIdIn(ids)).thenReturn(List.of(accurate, drifted));
+        when(feedbackRepository.countRatingsByEvent(ids)).thenReturn(List.of(
+                ratingCount(accurate.getId(), 4, 1),
+                ratingCount(drifted.getId(), 5, 2),
+                ratingCount(drifted.getId(), 3, 1)));
+
+        // Act
+        int repaired = feedbackService.repairRatings(ids);
+
+        // Assert
+        assertEquals(1, repaired);
+        assertEquals(1, accurate.getRatingStats().getRatingCount());
+        RatingStats stats = drifted.getRatingStats();
+        assertEquals(3, stats.getRatingCount());
+        assertEquals(13, stats.getRatingSum());
+        assertEquals(0, stats.getOneStarCount());
+        assertEquals(1, stats.getThreeStarCount());
+        assertEquals(2, stats.getFiveStarCount());
+        assertEquals(13 / 3.0, stats.average());
+        verify(eventResponseCache).evict(drifted.getId());
+        verify(eventResponseCache, never()).evict(accurate.getId());
+    }
+
     @Test
     void getEventFeedback_ShouldReturnListOfFeedbackResponseDTO() {
         // Arrange
@@ -272,4 +349,23 @@ class FeedbackServiceTest {
 
         verify(feedbackRepository, times(1)).findByUserUsername(username);
     }
+
+    private FeedbackRepository.RatingCount ratingCount(UUID eventId, int rating, long count) {
+        return new FeedbackRepository.RatingCount() {
+            @Override
+            public UUID getEventId() {
+                return eventId;
+            }
+
+            @Override
+            public Integer getRating() {
+                return rating;
+            }
+
+            @Override
+            public Long getFeedbackCount() {
+                return count;
+            }
+        };
+    }
 }
@@ -0,0 +1,289 @@
+package nl.novi.event_management_system.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.novi.event_management_system.dtos.feedbackDtos.FeedbackCreateDTO;
+import nl.novi.event_management_system.dtos.feedbackDtos.FeedbackResponseDTO;
+import nl.novi.event_management_system.exceptions.EventSoldOutException;
+import nl.novi.event_management_system.exceptions.IdempotencyConflictException;
+import nl.novi.event_management_system.exceptions.IdempotencyKeyReuseException;
+import nl.novi.event_management_system.models.IdempotencyRecord;
+import nl.novi.event_management_system.repositories.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String SCOPED_KEY = sha256("anonymous POST /api/v1/feedback key-1");
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyService idempotencyService;
+    private FeedbackCreateDTO request;
+    private FeedbackResponseDTO created;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, new ObjectMapper().findAndRegisterModules(), transactionManager, 24, 1000, 60_000);
+        request = new FeedbackCreateDTO();
+        request.setComment("Great show");
+        request.setRating(5);
+        created = FeedbackResponseDTO.builder().id(UUID.randomUUID()).comment("Great show").rating(5).build();
+    }
+
+    @Test
+    void aRequestWithoutAKeySimplyRuns() {
+        ResponseEntity<?> response = idempotencyService.execute("POST /api/v1/feedback", null, request, this::create);
+
+        assertSame(created, response.getBody());
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void theFirstResponseIsStoredAndReplayed() {
+        // Arrange
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        ResponseEntity<?> first = idempotencyService.execute("POST /api/v1/feedback", "key-1", request, () -> {
+            runs.incrementAndGet();
+            return create();
+        });
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        assertSame(created, first.getBody());
+        verify(idempotencyRecordRepository).insertPending(eq(SCOPED_KEY), anyString(), any());
+        verify(idempotencyRecordRepository).complete(eq(SCOPED_KEY), eq(201),
+                contains(created.getId().toString()), isNull());
+        // The response is stored before the purchase commits, never after
+        InOrder inOrder = inOrder(idempotencyRecordRepository, transactionManager);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(idempotencyRecordRepository).insertPending(anyString(), anyString(), any());
+        inOrder.verify(idempotencyRecordRepository).complete(anyString(), anyInt(), any(), any());
+        inOrder.verify(transactionManager).commit(any());
+
+        // Arrange a repeat that finds the stored record
+        IdempotencyRecord stored = storedRecord(first);
+        when(idempotencyRecordRepository.findById(SCOPED_KEY)).thenReturn(Optional.of(stored));
+
+        // Act
+        ResponseEntity<?> repeat = idempotencyService.execute("POST /api/v1/feedback", "key-1", request, () -> {
+            runs.incrementAndGet();
+            return create();
+        });
+
+        // Assert
+        assertEquals(1, runs.get());
+        assertEquals(HttpStatus.CREATED, repeat.getStatusCode());
+        assertEquals("true", repeat.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(stored.getBody(), repeat.getBody());
+    }
+
+    @Test
+    void theStoredKeyHasAFixedLengthHoweverLongTheScopeIs() {
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        idempotencyService.execute("POST /api/v1/feedback", "k".repeat(IdempotencyService.MAX_KEY_LENGTH), request, this::create);
+
+        verify(idempotencyRecordRepository).insertPending(argThat(key -> key.length() == 64), anyString(), any());
+    }
+
+    @Test
+    void aKeyReusedForAnotherRequestIsRejected() {
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        IdempotencyRecord stored = storedRecord(idempotencyService.execute("POST /api/v1/feedback", "key-1", request, this::create));
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.of(stored));
+        request.setRating(1);
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> idempotencyService.execute("POST /api/v1/feedback", "key-1", request, this::create));
+    }
+
+    @Test
+    void aFailedRequestStoresNothingSoItCanBeRetried() {
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(EventSoldOutException.class, () -> idempotencyService.execute("POST /api/v1/feedback", "key-1", request, () -> {
+            throw new EventSoldOutException(UUID.randomUUID());
+        }));
+
+        // The pending record rolls back with the request
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(idempotencyRecordRepository, never()).complete(anyString(), anyInt(), any(), any());
+    }
+
+    @Test
+    void aRecordWithoutAResponseIsNeverRunAgain() {
+        // Arrange, however old, a pending record may belong to a request that took effect
+        IdempotencyRecord pending = new IdempotencyRecord();
+        pending.setKey(SCOPED_KEY);
+        pending.setCreatedAt(Instant.now().minus(1, ChronoUnit.HOURS));
+        storeHashOf(pending);
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.of(pending));
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.execute("POST /api/v1/feedback", "key-1", request, () -> {
+            runs.incrementAndGet();
+            return create();
+        }));
+        assertEquals(0, runs.get());
+        verify(idempotencyRecordRepository, never()).deleteById(anyString());
+    }
+
+    @Test
+    void aKeyFirstInsertedByAnotherInstanceIsAConflict() {
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.insertPending(anyString(), anyString(), any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThrows(IdempotencyConflictException.class,
+                () -> idempotencyService.execute("POST /api/v1/feedback", "key-1", request, this::create));
+    }
+
+    @Test
+    void concurrentRepeatsWaitForTheFirstRequest() throws Exception {
+        // Arrange, repeats that arrive after the first request has finished find its record
+        AtomicReference<IdempotencyRecord> table = new AtomicReference<>();
+        when(idempotencyRecordRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(table.get()));
+        when(idempotencyRecordRepository.insertPending(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            IdempotencyRecord pending = new IdempotencyRecord();
+            pending.setKey(invocation.getArgument(0));
+            pending.setRequestHash(invocation.getArgument(1));
+            pending.setCreatedAt(invocation.getArgument(2));
+            table.set(pending);
+            return 1;
+        });
+        when(idempotencyRecordRepository.complete(anyString(), anyInt(), any(), any())).thenAnswer(invocation -> {
+            table.get().setStatus(invocation.getArgument(1));
+            table.get().setBody(invocation.getArgument(2));
+            return 1;
+        });
+        int repeats = 8;
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(repeats);
+
+        try {
+            // Act
+            List<Future<ResponseEntity<?>>> responses = new ArrayList<>();
+            responses.add(pool.submit(() -> idempotencyService.execute("POST /api/v1/feedback", "key-1", request, () -> {
+                runs.incrementAndGet();
+                started.countDown();
+                awaitQuietly(release);
+                return create();
+            })));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < repeats; i++) {
+                responses.add(pool.submit(() -> idempotencyService.execute("POST /api/v1/feedback", "key-1", request, () -> {
+                    runs.incrementAndGet();
+                    return create();
+                })));
+            }
+            release.countDown();
+
+            // Assert
+            for (Future<ResponseEntity<?>> response : responses) {
+                assertEquals(HttpStatus.CREATED, response.get(10, TimeUnit.SECONDS).getStatusCode());
+            }
+            assertEquals(1, runs.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void purgeRemovesOldRecordsThenTheOldestBeyondTheLimit() {
+        // Arrange
+        Instant now = Instant.parse("2026-01-01T12:00:00Z");
+        Instant overflow = now.minus(1, ChronoUnit.HOURS);
+        when(idempotencyRecordRepository.deleteCreatedBefore(now.minus(24, ChronoUnit.HOURS))).thenReturn(3);
+        when(idempotencyRecordRepository.findCreatedAtNewestFirst(PageRequest.of(1000, 1))).thenReturn(List.of(overflow));
+        when(idempotencyRecordRepository.deleteCreatedBefore(overflow.plusNanos(1))).thenReturn(2);
+
+        // Act
+        int purged = idempotencyService.purge(now);
+
+        // Assert
+        assertEquals(5, purged);
+    }
+
+    private ResponseEntity<?> create() {
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+    }
+
+    private IdempotencyRecord storedRecord(ResponseEntity<?> first) {
+        IdempotencyRecord stored = new IdempotencyRecord();
+        stored.setKey(SCOPED_KEY);
+        stored.setCreatedAt(Instant.now());
+        stored.setStatus(first.getStatusCode().value());
+        verify(idempotencyRecordRepository).insertPending(anyString(), argThat(hash -> {
+            stored.setRequestHash(hash);
+            return true;
+        }), any());
+        verify(idempotencyRecordRepository).complete(anyString(), anyInt(), argThat(body -> {
+            stored.setBody(body);
+            return true;
+        }), any());
+        return stored;
+    }
+
+    // Finds the hash of the request by running it once under another key
+    private void storeHashOf(IdempotencyRecord record) {
+        idempotencyService.execute("POST /api/v1/feedback", "hash-probe", request, this::create);
+        verify(idempotencyRecordRepository).insertPending(anyString(), argThat(hash -> {
+            record.setRequestHash(hash);
+            return true;
+        }), any());
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package nl.novi.event_management_system.services;
+
+import nl.novi.event_management_system.dtos.reservationDtos.ReservationCreateDTO;
+import nl.novi.event_management_system.dtos.reservationDtos.ReservationResponseDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketResponseDTO;
+import nl.novi.event_management_system.enums.TicketType;
+import nl.novi.event_management_system.exceptions.EventSoldOutException;
+import nl.novi.event_management_system.exceptions.ForbiddenException;
+import nl.novi.event_management_system.exceptions.RecordNotFoundException;
+import nl.novi.event_management_system.models.Event;
+import nl.novi.event_management_system.models.Reservation;
+import nl.novi.event_management_system.models.Ticket;
+import nl.novi.event_management_system.models.User;
+import nl.novi.event_management_system.repositories.EventRepository;
+import nl.novi.event_management_system.repositories.ReservationRepository;
+import nl.novi.event_management_system.repositories.TicketRepository;
+import nl.novi.event_management_system.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceTest {
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private TicketRepository ticketRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private TicketService ticketService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private TicketLedger ticketLedger;
+
+    private ReservationService reservationService;
+
+    private final ReservationService.Requester buyer = new ReservationService.Requester("buyer", false);
+    private final ReservationService.Requester otherParticipant = new ReservationService.Requester("someone_else", false);
+    private final ReservationService.Requester organizer = new ReservationService.Requester("organizer", true);
+
+    private User user;
+    private Event event;
+    private Reservation reservation;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService(reservationRepository, ticketRepository, userRepository,
+                eventRepository, ticketService, eventPublisher, ticketLedger, 600);
+
+        user = new User();
+        user.setUsername("buyer");
+
+        event = new Event();
+        event.setId(UUID.randomUUID());
+
+        reservation = new Reservation();
+        reservation.setId(UUID.randomUUID());
+        reservation.setUser(user);
+        reservation.setEvent(event);
+        reservation.setPrice(BigDecimal.TEN);
+        reservation.setTicketType(TicketType.STANDARD);
+        reservation.setExpiresAt(Instant.now().plusSeconds(600));
+    }
+
+    @Test
+    void holdSeatTakesASeatAndAnnouncesTheHold() {
+        // Arrange
+        when(userRepository.findByUsername("buyer")).thenReturn(Optional.of(user));
+        when(eventRepository.findPriceById(event.getId())).thenReturn(Optional.of(40.0));
+        when(eventRepository.getReferenceById(event.getId())).thenReturn(event);
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
+            Reservation saved = invocation.getArgument(0);
+            saved.setId(reservation.getId());
+            return saved;
+        });
+
+        // Act
+        ReservationResponseDTO result = reservationService.holdSeat(createDTO(), buyer);
+
+        // Assert
+        verify(ticketService).reserveSeat(event.getId());
+        assertEquals(0, new BigDecimal("40").compareTo(result.getPrice()));
+        verify(eventPublisher).publishEvent(new ReservationService.Held(reservation.getId(), result.getExpiresAt()));
+        assertEquals(event.getId(), result.getEventId());
+        assertTrue(result.getExpiresAt().isAfter(Instant.now().plusSeconds(590)));
+    }
+
+    @Test
+    void holdSeatOfASoldOutEventStoresNothing() {
+        // Arrange
+        when(userRepository.findByUsername("buyer")).thenReturn(Optional.of(user));
+        when(eventRepository.findPriceById(event.getId())).thenReturn(Optional.of(40.0));
+        doThrow(new EventSoldOutException(event.getId())).when(ticketService).reserveSeat(event.getId());
+
+        // Act & Assert
+        assertThrows(EventSoldOutException.class, () -> reservationService.holdSeat(createDTO(), buyer));
+        verify(reservationRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void holdSeatForSomeoneElseIsOnlyAllowedForStaff() {
+        // Arrange
+        when(userRepository.findByUsername("buyer")).thenReturn(Optional.of(user));
+        when(eventRepository.findPriceById(event.getId())).thenReturn(Optional.of(40.0));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(eventRepository.getReferenceById(event.getId())).thenReturn(event);
+
+        // Act & Assert
+        assertThrows(ForbiddenException.class, () -> reservationService.holdSeat(createDTO(), otherParticipant));
+        verify(ticketService, never()).reserveSeat(any());
+        assertEquals("buyer", reservationService.holdSeat(createDTO(), organizer).getUsername());
+    }
+
+    @Test
+    void holdSeatWithoutAUsernameHoldsForTheRequester() {
+        // Arrange
+        ReservationCreateDTO reservationCreateDTO = createDTO();
+        reservationCreateDTO.setUsername(null);
+        when(userRepository.findByUsername("buyer")).thenReturn(Optional.of(user));
+        when(eventRepository.findPriceById(event.getId())).thenReturn(Optional.of(40.0));
+        when(eventRepository.getReferenceById(event.getId())).thenReturn(event);
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act & Assert
+        assertEquals("buyer", reservationService.holdSeat(reservationCreateDTO, buyer).getUsername());
+    }
+
+    @Test
+    void confirmTurnsTheHoldIntoATicket() {
+        // Arrange
+        when(reservationRepository.findById(reservation.getId())).thenReturn(Optional.of(reservation));
+        when(reservationRepository.deleteActive(eq(reservation.getId()), any())).thenReturn(1);
+        when(ticketRepository.save(any(Ticket.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        TicketResponseDTO result = reservationService.confirm(reservation.getId(), buyer);
+
+        // Assert
+        assertEquals(TicketType.STANDARD, result.getTicketType());
+        verify(ticketService).touchEvent(event.getId());
+        verify(ticketService, never()).reserveSeat(any());
+        verify(ticketLedger).recordSale(any(Ticket.class));
+    }
+
+    @Test
+    void confirmRejectsAnExpiredHold() {
+        // Arrange
+        when(reservationRepository.findById(reservation.getId())).thenReturn(Optional.of(reservation));
+        when(reservationRepository.deleteActive(eq(reservation.getId()), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(RecordNotFoundException.class, () -> reservationService.confirm(reservation.getId(), buyer));
+        verify(ticketRepository, never()).save(any());
+    }
+
+    @Test
+    void confirmOfAnotherBuyersHoldIsForbidden() {
+        // Arrange
+        when(reservationRepository.findById(reservation.getId())).thenReturn(Optional.of(reservation));
+
+        // Act & Assert
+        assertThrows(ForbiddenException.class, () -> reservationService.confirm(reservation.getId(), otherParticipant));
+        verify(reservationRepository, never()).deleteActive(any(), any());
+        verify(ticketRepository, never()).save(any());
+    }
+
+    @Test
+    void releaseGivesTheSeatBack() {
+        // Arrange
+        when(reservationRepository.findById(reservation.getId())).thenReturn(Optional.of(reservation));
+        when(reservationRepository.deleteHold(reservation.getId())).thenReturn(1);
+
+        // Act
+        reservationService.release(reservation.getId(), buyer);
+
+        // Assert
+        verify(ticketService).releaseSeat(event.getId());
+    }
+
+    @Test
+    void releaseOfAnotherBuyersHoldIsForbidden() {
+        // Arrange
+        when(reservationRepository.findById(reservation.getId())).thenReturn(Optional.of(reservation));
+
+        // Act & Assert
+        assertThrows(ForbiddenException.class, () -> reservationService.release(reservation.getId(), otherParticipant));
+        verify(reservationRepository, never()).deleteHold(any());
+        verify(ticketService, never()).releaseSeat(any());
+    }
+
+    @Test
+    void releaseOfAnUnknownReservationThrows() {
+        // Arrange
+        when(reservationRepository.findById(reservation.getId())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(RecordNotFoundException.class, () -> reservationService.release(reservation.getId(), buyer));
+        verify(ticketService, never()).releaseSeat(any());
+    }
+
+    @Test
+    void expireLeavesAConfirmedHoldAlone() {
+        // Arrange
+        Instant now = Instant.now();
+        when(reservationRepository.findEventIdById(reservation.getId())).thenReturn(Optional.of(event.getId()));
+        when(reservationRepository.deleteExpired(reservation.getId(), now)).thenReturn(0);
+
+        // Act & Assert
+        assertFalse(reservationService.expire(reservation.getId(), now));
+        verify(ticketService, never()).releaseSeat(any());
+    }
+
+    private ReservationCreateDTO createDTO() {
+        ReservationCreateDTO reservationCreateDTO = new ReservationCreateDTO();
+        reservationCreateDTO.setEventId(event.getId());
+        reservationCreateDTO.setUsername("buyer");
+        reservationCreateDTO.setTicketType(TicketType.STANDARD);
+        return reservationCreateDTO;
+    }
+}
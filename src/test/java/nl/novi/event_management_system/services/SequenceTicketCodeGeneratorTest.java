@@ -0,0 +1,90 @@
+package nl.novi.event_management_system.services;
+
+import nl.novi.event_management_system.utils.TicketCodes;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceTicketCodeGeneratorTest {
+
+    @Test
+    void codesAreWellFormedAndDoNotFollowEachOther() {
+        SequenceTicketCodeGenerator generator = new SequenceTicketCodeGenerator(new AtomicLong(1)::getAndIncrement);
+
+        String first = generator.nextCode();
+        String second = generator.nextCode();
+
+        assertTrue(TicketCodes.isValid(first), first);
+        assertTrue(TicketCodes.isValid(second), second);
+        assertNotEquals(first.substring(0, 13), second.substring(0, 13));
+    }
+
+    @Test
+    void aBlockIsOnlyTakenOnceItsCodesAreUsedUp() {
+        AtomicLong sequence = new AtomicLong(1);
+        SequenceTicketCodeGenerator generator = new SequenceTicketCodeGenerator(sequence::getAndIncrement);
+
+        for (int i = 0; i < SequenceTicketCodeGenerator.BLOCK_SIZE; i++) {
+            generator.nextCode();
+        }
+        assertEquals(2, sequence.get());
+
+        generator.nextCode();
+        assertEquals(3, sequence.get());
+    }
+
+    @Test
+    void scrambleNeverMapsTwoNumbersToTheSameCode() {
+        Set<Long> scrambled = new HashSet<>();
+        for (long value = 0; value < 200_000; value++) {
+            assertTrue(scrambled.add(SequenceTicketCodeGenerator.scramble(value)));
+        }
+        assertEquals(0, SequenceTicketCodeGenerator.scramble(0));
+        assertTrue(SequenceTicketCodeGenerator.scramble(TicketCodes.MAX_VALUE) <= TicketCodes.MAX_VALUE);
+    }
+
+    @Test
+    void nodesSharingTheSequenceNeverHandOutTheSameCode() throws Exception {
+        AtomicLong sequence = new AtomicLong(1);
+        List<SequenceTicketCodeGenerator> nodes = List.of(
+                new SequenceTicketCodeGenerator(sequence::getAndIncrement),
+                new SequenceTicketCodeGenerator(sequence::getAndIncrement));
+        int threads = 8;
+        int codesPerThread = 20_000;
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                SequenceTicketCodeGenerator node = nodes.get(t % nodes.size());
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < codesPerThread; i++) {
+                        codes.add(node.nextCode());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(threads * codesPerThread, codes.size());
+    }
+
+    @Test
+    void anExhaustedSequenceIsReported() {
+        SequenceTicketCodeGenerator generator = new SequenceTicketCodeGenerator(() -> TicketCodes.MAX_VALUE);
+
+        assertThrows(IllegalStateException.class, generator::nextCode);
+    }
+}
@@ -0,0 +1,122 @@
+package nl.novi.event_management_system.services;
+
+import nl.novi.event_management_system.enums.LedgerEntryType;
+import nl.novi.event_management_system.enums.TicketType;
+import nl.novi.event_management_system.models.Event;
+import nl.novi.event_management_system.models.Ticket;
+import nl.novi.event_management_system.models.TicketLedgerEntry;
+import nl.novi.event_management_system.repositories.TicketLedgerRepository;
+import nl.novi.event_management_system.repositories.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TicketLedgerTest {
+
+    @Mock
+    private TicketLedgerRepository ticketLedgerRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private TicketLedger ticketLedger;
+    private Ticket ticket;
+
+    @BeforeEach
+    void setUp() {
+        ticketLedger = new TicketLedger(ticketLedgerRepository, ticketRepository);
+        Event event = new Event();
+        event.setId(UUID.randomUUID());
+        ticket = new Ticket(null, event, new BigDecimal("50.00"), TicketType.STANDARD);
+        ticket.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void aSaleAddsOneTicketAndItsPrice() {
+        ticketLedger.recordSale(ticket);
+
+        TicketLedgerEntry entry = appended(1).getFirst();
+        assertEquals(LedgerEntryType.SALE, entry.getEntryType());
+        assertEquals(ticket.getId(), entry.getTicketId());
+        assertEquals(ticket.getEvent().getId(), entry.getEventId());
+        assertEquals(1, entry.getQuantity());
+        assertEquals(new BigDecimal("50.00"), entry.getAmount());
+    }
+
+    @Test
+    void aTicketWithoutEntriesGetsAnOpeningSaleAtItsPurchaseDate() {
+        ticket.setPurchaseDate(LocalDate.of(2025, 6, 15));
+        when(ticketRepository.findWithoutLedgerEntries(Limit.of(1000))).thenReturn(List.of(ticket));
+
+        assertEquals(1, ticketLedger.recordOpeningBalances(1000));
+
+        TicketLedgerEntry entry = appended(1).getFirst();
+        assertEquals(LedgerEntryType.SALE, entry.getEntryType());
+        assertEquals(ticket.getId(), entry.getTicketId());
+        assertEquals(1, entry.getQuantity());
+        assertEquals(new BigDecimal("50.00"), entry.getAmount());
+        assertEquals(Instant.parse("2025-06-15T00:00:00Z"), entry.getRecordedAt());
+    }
+
+    @Test
+    void aChangeMovesTheTicketFromItsOldTypeAndPriceToTheNewOnes() {
+        // Arrange
+        TicketLedger.Position before = TicketLedger.Position.of(ticket);
+        ticket.setTicketType(TicketType.VIP);
+        ticket.setPrice(new BigDecimal("120.00"));
+
+        // Act
+        ticketLedger.recordChange(before, ticket);
+
+        // Assert
+        List<TicketLedgerEntry> entries = appended(2);
+        assertEquals(TicketType.STANDARD, entries.get(0).getTicketType());
+        assertEquals(-1, entries.get(0).getQuantity());
+        assertEquals(new BigDecimal("-50.00"), entries.get(0).getAmount());
+        assertEquals(TicketType.VIP, entries.get(1).getTicketType());
+        assertEquals(1, entries.get(1).getQuantity());
+        assertEquals(new BigDecimal("120.00"), entries.get(1).getAmount());
+        entries.forEach(entry -> assertEquals(LedgerEntryType.CHANGE, entry.getEntryType()));
+    }
+
+    @Test
+    void aChangeOfOtherFieldsIsNotRecorded() {
+        TicketLedger.Position before = TicketLedger.Position.of(ticket);
+        ticket.setPrice(new BigDecimal("50.0"));
+
+        ticketLedger.recordChange(before, ticket);
+
+        verify(ticketLedgerRepository, never()).save(any());
+    }
+
+    @Test
+    void aRefundTakesTheTicketAndItsPriceBackOut() {
+        ticketLedger.recordRefund(ticket);
+
+        TicketLedgerEntry entry = appended(1).getFirst();
+        assertEquals(LedgerEntryType.REFUND, entry.getEntryType());
+        assertEquals(-1, entry.getQuantity());
+        assertEquals(new BigDecimal("-50.00"), entry.getAmount());
+    }
+
+    private List<TicketLedgerEntry> appended(int count) {
+        ArgumentCaptor<TicketLedgerEntry> entries = ArgumentCaptor.forClass(TicketLedgerEntry.class);
+        verify(ticketLedgerRepository, times(count)).save(entries.capture());
+        return entries.getAllValues();
+    }
+}
@@ -1,9 +1,18 @@
 package nl.novi.event_management_system.services;
 
 import nl.novi.event_management_system.dtos.ticketDtos.TicketCreateDTO;
+import nl.novi.event_management_system.dtos.PageResponseDTO;
 import nl.novi.event_management_system.dtos.ticketDtos.TicketResponseDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketSearchCriteriaDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketTokenDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketTokenVerificationDTO;
+import nl.novi.event_management_system.dtos.ticketDtos.TicketTokenVerifyDTO;
 import nl.novi.event_management_system.dtos.userDtos.UserProfileDTO;
 import nl.novi.event_management_system.enums.TicketType;
+import nl.novi.event_management_system.exceptions.BadRequestException;
+import nl.novi.event_management_system.exceptions.EventNotFoundException;
+import nl.novi.event_management_system.exceptions.EventSoldOutException;
+import nl.novi.event_management_system.exceptions.PreconditionFailedException;
 import nl.novi.event_management_system.exceptions.RecordNotFoundException;
 import nl.novi.event_management_system.mappers.TicketMapper;
 import nl.novi.event_management_system.models.Event;
@@ -12,22 +21,31 @@ import nl.novi.event_management_system.models.User;
 import nl.novi.event_management_system.repositories.EventRepository;
 import nl.novi.event_management_system.repositories.TicketRepository;
 import nl.novi.event_management_system.repositories.UserRepository;
+import nl.novi.event_management_system.utils.KeysetCursor;
+import nl.novi.event_management_system.utils.TicketTokenSigner;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,10 +57,19 @@ class TicketServiceTest {
     private UserRepository userRepository;
     @Mock
     private EventRepository eventRepository;
+    @Mock
+    private EventResponseCache eventResponseCache;
+    @Mock
+    private TicketLedger ticketLedger;
+    @Spy
+    private TicketTokenSigner ticketTokenSigner = new TicketTokenSigner("eengeheimesleuteldieniemandmagwetenenhijmoetheelerglangencomplexzijnomtevoldoenaanallenormenenwaardeninjavaland");
 
     @InjectMocks
     private TicketService ticketService;
 
+    // Stands in for TicketCodeListener, which only runs when a ticket is really persisted
+    private final TicketCodeGenerator ticketCodeGenerator = new SequenceTicketCodeGenerator(new AtomicLong(1)::getAndIncrement);
+
     private User user;
     private Event event;
 
@@ -70,18 +97,21 @@ class TicketServiceTest {
                 new Ticket(user, event, price, ticketType),
                 new Ticket(user, event, price, TicketType.VIP)
         );
+        mockTickets.forEach(ticket -> ticket.setTicketCode(ticketCodeGenerator.nextCode()));
 
     }
 
     @Test
     void createTicketDoesCreateTicketWithCorrectData() {
         when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
-        when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(eventRepository.reserveSeat(event.getId())).thenReturn(1);
+        when(eventRepository.getReferenceById(event.getId())).thenReturn(event);
 
         // Arrange
         when(ticketRepository.save(any(Ticket.class))).thenAnswer(invocation -> {
             Ticket savedTicket = invocation.getArgument(0);
             savedTicket.setId(UUID.randomUUID());
+            savedTicket.setTicketCode(ticketCodeGenerator.nextCode());
             return savedTicket;
         });
 
@@ -98,24 +128,68 @@ class TicketServiceTest {
         // Assert
         assertNotNull(result);
         assertTrue(result.getTicketCode().startsWith("TICKET-"));
+        verify(eventRepository, never()).findById(any());
+        verify(eventResponseCache).evict(event.getId());
+        verify(ticketLedger).recordSale(any(Ticket.class));
+    }
+
+    @Test
+    void createTicketShouldRejectASoldOutEvent() {
+        // Arrange
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        when(eventRepository.reserveSeat(event.getId())).thenReturn(0);
+        when(eventRepository.existsById(event.getId())).thenReturn(true);
+        TicketCreateDTO ticketCreateDTO = new TicketCreateDTO();
+        ticketCreateDTO.setUsername(user.getUsername());
+        ticketCreateDTO.setEventId(event.getId());
+
+        // Act & Assert
+        assertThrows(EventSoldOutException.class, () -> ticketService.createTicket(ticketCreateDTO));
+        verify(ticketRepository, never()).save(any());
+    }
+
+    @Test
+    void createTicketShouldThrowExceptionWhenEventNotFound() {
+        // Arrange
+        when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        when(eventRepository.reserveSeat(event.getId())).thenReturn(0);
+        when(eventRepository.existsById(event.getId())).thenReturn(false);
+        TicketCreateDTO ticketCreateDTO = new TicketCreateDTO();
+        ticketCreateDTO.setUsername(user.getUsername());
+        ticketCreateDTO.setEventId(event.getId());
 
+        // Act & Assert
+        assertThrows(EventNotFoundException.class, () -> ticketService.createTicket(ticketCreateDTO));
+        verify(ticketRepository, never()).save(any());
     }
 
     @Test
     void getTickets() {
         //arrange
-        when(ticketRepository.findAll()).thenReturn(mockTickets);
-
-        List<TicketResponseDTO> ticketResponseDTOList = TicketMapper.toResponseDTOList(mockTickets);
+        mockTickets.forEach(ticket -> ticket.setId(UUID.randomUUID()));
+        TicketSearchCriteriaDTO criteria = TicketSearchCriteriaDTO.builder().eventId(event.getId()).build();
+        when(ticketRepository.searchTickets(criteria, null, 2)).thenReturn(mockTickets);
 
         //act
-        List<TicketResponseDTO> result = ticketService.getTickets();
+        PageResponseDTO<TicketResponseDTO> result = ticketService.getTickets(criteria, null, 1);
 
         //assert
-        assertEquals(ticketResponseDTOList.size(), result.size());
-        assertEquals(ticketResponseDTOList.getFirst().getId(), result.getFirst().getId());
-        assertEquals(ticketResponseDTOList.getFirst().getTicketCode(), result.getFirst().getTicketCode());
+        assertEquals(1, result.getItems().size());
+        assertEquals(mockTickets.getFirst().getId(), result.getItems().getFirst().getId());
+        assertEquals(mockTickets.getFirst().getTicketCode(), result.getItems().getFirst().getTicketCode());
+        KeysetCursor next = KeysetCursor.decode(result.getNextCursor());
+        assertEquals(mockTickets.getFirst().getPurchaseDate(), next.getDate());
+        assertEquals(mockTickets.getFirst().getId(), next.getId());
+    }
+
+    @Test
+    void getTicketsRejectsAnInvertedDateRange() {
+        TicketSearchCriteriaDTO criteria = TicketSearchCriteriaDTO.builder()
+                .purchasedFrom(LocalDate.now())
+                .purchasedTo(LocalDate.now().minusDays(1))
+                .build();
 
+        assertThrows(BadRequestException.class, () -> ticketService.getTickets(criteria, null, 10));
     }
 
     @Test
@@ -152,7 +226,7 @@ class TicketServiceTest {
         when(ticketRepository.findById(ticket.getId())).thenReturn(Optional.of(ticket));
         when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
         when(eventRepository.findById(event.getId())).thenReturn(Optional.of(event));
-        when(ticketRepository.save(any(Ticket.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(ticketRepository.saveAndFlush(any(Ticket.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         //act
         TicketResponseDTO result = ticketService.updateTicket(ticket.getId(), ticketCreateDTO);
@@ -166,6 +240,47 @@ class TicketServiceTest {
         assertEquals(ticket.getPurchaseDate(), result.getPurchaseDate());
     }
 
+    @Test
+    void updateTicketMovingToAnotherEventTakesASeatThereAndFreesTheOldOne() {
+        // Arrange
+        Ticket ticket = mockTickets.getFirst();
+        Event otherEvent = new Event();
+        otherEvent.setId(UUID.randomUUID());
+        TicketCreateDTO ticketCreateDTO = new TicketCreateDTO();
+        ticketCreateDTO.setPrice(price);
+        ticketCreateDTO.setTicketType(ticketType);
+        ticketCreateDTO.setEventId(otherEvent.getId());
+
+        when(ticketRepository.findById(ticket.getId())).thenReturn(Optional.of(ticket));
+        when(eventRepository.findById(otherEvent.getId())).thenReturn(Optional.of(otherEvent));
+        when(eventRepository.reserveSeat(otherEvent.getId())).thenReturn(1);
+        when(ticketRepository.saveAndFlush(any(Ticket.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TicketLedger.Position before = TicketLedger.Position.of(ticket);
+
+        // Act
+        ticketService.updateTicket(ticket.getId(), ticketCreateDTO);
+
+        // Assert
+        verify(eventRepository).releaseSeat(event.getId());
+        verify(eventRepository, never()).incrementVersion(any());
+        assertEquals(otherEvent, ticket.getEvent());
+        verify(ticketLedger).recordChange(before, ticket);
+    }
+
+    @Test
+    void updateTicketShouldRejectAStaleVersion() {
+        // Arrange
+        Ticket ticket = mockTickets.getFirst();
+        ticket.setVersion(2);
+        TicketCreateDTO ticketCreateDTO = new TicketCreateDTO();
+        ticketCreateDTO.setEventId(event.getId());
+        when(ticketRepository.findById(ticket.getId())).thenReturn(Optional.of(ticket));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> ticketService.updateTicket(ticket.getId(), ticketCreateDTO, 1L));
+        verify(ticketRepository, never()).saveAndFlush(any());
+    }
+
     @Test
     void updateTicketShouldThrowExceptionWhenTicketNotFound() {
         // Arrange
@@ -193,6 +308,8 @@ class TicketServiceTest {
 
         //assert
         assertTrue(result);
+        verify(eventRepository).releaseSeat(event.getId());
+        verify(eventResponseCache).evict(event.getId());
     }
 
     @Test
@@ -221,4 +338,58 @@ class TicketServiceTest {
         // Assert
         assertFalse(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void issueTokenCoversTheDaysOfTheEvent() {
+        // Arrange
+        Ticket ticket = mockTickets.getFirst();
+        ticket.setId(UUID.randomUUID());
+        when(ticketRepository.findById(ticket.getId())).thenReturn(Optional.of(ticket));
+
+        // Act
+        TicketTokenDTO result = ticketService.issueToken(ticket.getId());
+
+        // Assert
+        assertEquals(event.getStartDate().atStartOfDay(ZoneId.systemDefault()).toInstant(), result.getValidFrom());
+        assertEquals(event.getEndDate().plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant(), result.getValidUntil());
+        TicketTokenSigner.TicketTokenClaims claims = ticketTokenSigner.verify(result.getToken());
+        assertEquals(ticket.getId(), claims.ticketId());
+        assertEquals(event.getId(), claims.eventId());
+        assertEquals(ticketType, claims.ticketType());
+    }
+
+    @Test
+    void verifyTokenNeverReadsTheDatabase() {
+        // Arrange
+        UUID ticketId = UUID.randomUUID();
+        Instant now = Instant.now();
+        TicketTokenVerifyDTO valid = verifyDTO(ticketTokenSigner.sign(new TicketTokenSigner.TicketTokenClaims(
+                ticketId, event.getId(), ticketType, now.minusSeconds(60), now.plusSeconds(60))));
+        TicketTokenVerifyDTO expired = verifyDTO(ticketTokenSigner.sign(new TicketTokenSigner.TicketTokenClaims(
+                ticketId, event.getId(), ticketType, now.minusSeconds(120), now.minusSeconds(60))));
+        TicketTokenVerifyDTO wrongEvent = verifyDTO(valid.getToken());
+        wrongEvent.setEventId(UUID.randomUUID());
+
+        // Act
+        TicketTokenVerificationDTO validResult = ticketService.verifyToken(valid);
+        TicketTokenVerificationDTO expiredResult = ticketService.verifyToken(expired);
+        TicketTokenVerificationDTO wrongEventResult = ticketService.verifyToken(wrongEvent);
+        TicketTokenVerificationDTO forgedResult = ticketService.verifyToken(verifyDTO(valid.getToken().substring(1) + "A"));
+
+        // Assert
+        assertTrue(validResult.isValid());
+        assertEquals(ticketId, validResult.getTicketId());
+        assertFalse(expiredResult.isValid());
+        assertEquals("Ticket token has expired", expiredResult.getReason());
+        assertFalse(wrongEventResult.isValid());
+        assertFalse(forgedResult.isValid());
+        assertNull(forgedResult.getTicketId());
+        verifyNoInteractions(ticketRepository, eventRepository, userRepository);
+    }
+
+    private TicketTokenVerifyDTO verifyDTO(String token) {
+        TicketTokenVerifyDTO ticketTokenVerifyDTO = new TicketTokenVerifyDTO();
+        ticketTokenVerifyDTO.setToken(token);
+        return ticketTokenVerifyDTO;
+    }
+}
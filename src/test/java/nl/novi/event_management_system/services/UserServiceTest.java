@@ -1,13 +1,16 @@
 package nl.novi.event_management_system.services;
 
+import nl.novi.event_management_system.dtos.eventDtos.EventSummaryDTO;
 import nl.novi.event_management_system.dtos.userDtos.UserCreateDTO;
 import nl.novi.event_management_system.dtos.userDtos.UserResponseDTO;
 import nl.novi.event_management_system.enums.RoleEnum;
+import nl.novi.event_management_system.enums.TicketType;
 import nl.novi.event_management_system.exceptions.EmailAlreadyExistsException;
 import nl.novi.event_management_system.exceptions.RecordNotFoundException;
 import nl.novi.event_management_system.exceptions.UsernameNotFoundException;
 import nl.novi.event_management_system.mappers.UserMapper;
 import nl.novi.event_management_system.models.*;
+import nl.novi.event_management_system.repositories.EventRepository;
 import nl.novi.event_management_system.repositories.FeedbackRepository;
 import nl.novi.event_management_system.repositories.TicketRepository;
 import nl.novi.event_management_system.repositories.UserRepository;
@@ -22,6 +25,7 @@ import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.Resource;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -44,6 +48,12 @@ class UserServiceTest {
     private TicketRepository ticketRepository;
     @Mock
     private FeedbackRepository feedbackRepository;
+    @Mock
+    private EventRepository eventRepository;
+    @Mock
+    private EventResponseCache eventResponseCache;
+    @Mock
+    private TicketLedger ticketLedger;
 
     @InjectMocks
     private UserService userService;
@@ -134,6 +144,22 @@ class UserServiceTest {
         assertEquals(user.getRoles(), userResponseDTO.getRoles());
     }
 
+    @Test
+    void getUserByUsernameUsesProjectedEventSummaries() {
+        // Arrange
+        User user = new User(username, email, password);
+        EventSummaryDTO summary = EventSummaryDTO.builder().id(UUID.randomUUID()).name("Summary").organizerUsername(username).build();
+
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
+        when(eventRepository.findSummariesByOrganizerUsername(username)).thenReturn(List.of(summary));
+
+        // Act
+        UserResponseDTO userResponseDTO = userService.getUserByUsername(username);
+
+        // Assert
+        assertEquals(List.of(summary), userResponseDTO.getEventsOrganized());
+    }
+
     @Test
     void getUserByUsernameThrowsExceptionWhenUserNotFound() {
         // Arrange
@@ -185,6 +211,33 @@ class UserServiceTest {
         verify(userRepository).deleteByUsername(username);
     }
 
+    @Test
+    void deleteUserGivesBackTheSeatsOfTheirTicketsPerEvent() {
+        // Arrange
+        User user = mockUsers.get(0);
+        Event concert = new Event();
+        concert.setId(UUID.randomUUID());
+        Event festival = new Event();
+        festival.setId(UUID.randomUUID());
+        List<Ticket> tickets = List.of(
+                new Ticket(user, concert, new BigDecimal("25.00"), TicketType.STANDARD),
+                new Ticket(user, concert, new BigDecimal("50.00"), TicketType.VIP),
+                new Ticket(user, festival, new BigDecimal("40.00"), TicketType.STANDARD));
+        when(userRepository.existsByUsername(username)).thenReturn(true);
+        when(ticketRepository.findByUsername(username)).thenReturn(tickets);
+
+        // Act
+        userService.deleteUser(username);
+
+        // Assert
+        verify(eventRepository).releaseSeats(concert.getId(), 2);
+        verify(eventRepository).releaseSeats(festival.getId(), 1);
+        verify(eventResponseCache).evict(concert.getId());
+        verify(eventResponseCache).evict(festival.getId());
+        tickets.forEach(ticket -> verify(ticketLedger).recordRefund(ticket));
+        verify(userRepository).deleteByUsername(username);
+    }
+
     @Test
     void deleteUserThrowsExceptionWhenUserNotFound() {
         // Arrange
@@ -0,0 +1,123 @@
+package nl.novi.event_management_system.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void getReturnsCachedValueAndCountsHitsAndMisses() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+
+        assertNull(cache.get("a"));
+        cache.put("a", "value");
+
+        assertEquals("value", cache.get("a"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void putEvictsTheLeastRecentlyUsedEntryWhenFull() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+
+        cache.put("c", "3");
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void getDropsExpiredEntries() {
+        MutableClock clock = new MutableClock();
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofSeconds(30), clock);
+        cache.put("a", "1");
+
+        clock.advance(Duration.ofSeconds(31));
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void getOrLoadDoesNotCacheAValueLoadedWhileTheKeyWasInvalidated() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+
+        String loaded = cache.getOrLoad("a", key -> {
+            // A concurrent write evicts the key while the old state is being loaded
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertNull(cache.get("a"));
+        assertEquals("fresh", cache.getOrLoad("a", key -> "fresh"));
+        assertEquals("fresh", cache.get("a"));
+    }
+
+    @Test
+    void getOrLoadCachesAValueLoadedWhileAnotherKeyWasInvalidated() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+
+        cache.getOrLoad("a", key -> {
+            cache.invalidate("b");
+            return "value";
+        });
+
+        assertEquals("value", cache.get("a"));
+    }
+
+    @Test
+    void getOrLoadDoesNotCacheAValueLoadedWhileTheCacheWasCleared() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+
+        cache.getOrLoad("a", key -> {
+            cache.invalidateAll();
+            return "stale";
+        });
+
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void constructorRejectsInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedTtlCache<>(0, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedTtlCache<>(10, Duration.ZERO));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
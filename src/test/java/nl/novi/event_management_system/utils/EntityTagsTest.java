@@ -0,0 +1,51 @@
+package nl.novi.event_management_system.utils;
+
+import nl.novi.event_management_system.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityTagsTest {
+
+    @Test
+    void ifNoneMatchMatchesTheCurrentVersion() {
+        assertEquals("\"7\"", EntityTags.of(7));
+        assertTrue(EntityTags.matches("\"7\"", 7));
+        assertTrue(EntityTags.matches("\"6\", W/\"7\"", 7));
+        assertTrue(EntityTags.matches("*", 7));
+        assertFalse(EntityTags.matches("\"6\"", 7));
+        assertFalse(EntityTags.matches(null, 7));
+    }
+
+    @Test
+    void everyFieldSelectionHasItsOwnTag() {
+        FieldSelection name = FieldSelection.parse("name", Sample.class);
+        FieldSelection nameAndPrice = FieldSelection.parse("name,price", Sample.class);
+
+        assertEquals(EntityTags.of(7), EntityTags.of(7, FieldSelection.all()));
+        assertNotEquals(EntityTags.of(7), EntityTags.of(7, name));
+        assertNotEquals(EntityTags.of(7, name), EntityTags.of(7, nameAndPrice));
+        assertEquals(EntityTags.of(7, nameAndPrice), EntityTags.of(7, FieldSelection.parse("price,name", Sample.class)));
+        assertTrue(EntityTags.matches(EntityTags.of(7, name), 7, name));
+        assertFalse(EntityTags.matches(EntityTags.of(7, name), 7, FieldSelection.all()));
+        assertFalse(EntityTags.matches(EntityTags.of(7), 7, name));
+    }
+
+    @Test
+    void ifMatchYieldsTheExpectedVersion() {
+        assertEquals(3L, EntityTags.expectedVersion("\"3\""));
+        assertNull(EntityTags.expectedVersion(null));
+        assertNull(EntityTags.expectedVersion("*"));
+    }
+
+    @Test
+    void ifMatchRejectsForeignTags() {
+        assertThrows(BadRequestException.class, () -> EntityTags.expectedVersion("3"));
+        assertThrows(BadRequestException.class, () -> EntityTags.expectedVersion("\"abc\""));
+    }
+
+    private static class Sample {
+        private String name;
+        private int price;
+    }
+}
@@ -0,0 +1,35 @@
+package nl.novi.event_management_system.utils;
+
+import nl.novi.event_management_system.dtos.eventDtos.EventResponseDTO;
+import nl.novi.event_management_system.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldSelectionTest {
+
+    @Test
+    void parseSelectsTheListedFields() {
+        FieldSelection fields = FieldSelection.parse(" id, name ,,participants", EventResponseDTO.class);
+
+        assertFalse(fields.isAll());
+        assertEquals(Set.of("id", "name", "participants"), fields.getFields());
+        assertTrue(fields.includes("participants"));
+        assertFalse(fields.includes("organizer"));
+    }
+
+    @Test
+    void parseSelectsEveryFieldWhenAbsent() {
+        assertTrue(FieldSelection.parse(null, EventResponseDTO.class).isAll());
+        assertTrue(FieldSelection.parse(" ", EventResponseDTO.class).includes("organizer"));
+    }
+
+    @Test
+    void parseRejectsUnknownFields() {
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> FieldSelection.parse("id,password", EventResponseDTO.class));
+        assertTrue(exception.getMessage().contains("password"));
+    }
+}
@@ -0,0 +1,45 @@
+package nl.novi.event_management_system.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentilesAreReadWithinTheBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000, histogram.getMaxMicros());
+        assertEquals(5_000, histogram.getPercentileMicros(50), 5_000 * 0.04);
+        assertEquals(9_900, histogram.getPercentileMicros(99), 9_900 * 0.04);
+        assertEquals(10_000, histogram.getPercentileMicros(100));
+    }
+
+    @Test
+    void shortDurationsAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(3_000);
+        histogram.record(7_000);
+
+        assertEquals(3, histogram.getPercentileMicros(50));
+        assertEquals(7, histogram.getPercentileMicros(99));
+    }
+
+    @Test
+    void anEmptyHistogramReportsZero() {
+        assertEquals(0, new LatencyHistogram().getPercentileMicros(99));
+    }
+
+    @Test
+    void bucketsCoverTheirValues() {
+        for (long micros : new long[]{0, 63, 64, 65, 1_000, 123_456, 1L << 39, Long.MAX_VALUE / 1000}) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            assertTrue(LatencyHistogram.upperBoundOf(bucket) >= Math.min(micros, (1L << 40) - 1), "bucket of " + micros);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package nl.novi.event_management_system.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketCodesTest {
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+    @Test
+    void formatWritesSevenCrockfordDigitsAndACheckDigit() {
+        assertEquals("TICKET-00000000", TicketCodes.format(0));
+        assertEquals("TICKET-0000001", TicketCodes.format(1).substring(0, 14));
+        assertEquals("TICKET-ZZZZZZZ", TicketCodes.format(TicketCodes.MAX_VALUE).substring(0, 14));
+        assertTrue(TicketCodes.format(123_456_789).matches("^TICKET-[A-Z0-9]{8}$"));
+    }
+
+    @Test
+    void formatRejectsValuesThatDoNotFit() {
+        assertThrows(IllegalArgumentException.class, () -> TicketCodes.format(-1));
+        assertThrows(IllegalArgumentException.class, () -> TicketCodes.format(TicketCodes.MAX_VALUE + 1));
+    }
+
+    @Test
+    void isValidAcceptsFormattedCodesAndCrockfordLookAlikes() {
+        String code = TicketCodes.format(987_654_321);
+
+        assertTrue(TicketCodes.isValid(code));
+        assertTrue(TicketCodes.isValid("TICKET-" + code.substring(7).toLowerCase()));
+        assertTrue(TicketCodes.isValid("TICKET-O00000I" + TicketCodes.format(1).charAt(14)));
+    }
+
+    @Test
+    void isValidRejectsMalformedCodes() {
+        assertFalse(TicketCodes.isValid(null));
+        assertFalse(TicketCodes.isValid("TICKET-0000000"));
+        assertFalse(TicketCodes.isValid("PASS-000000000"));
+        assertFalse(TicketCodes.isValid("TICKET-0000000U"));
+    }
+
+    @Test
+    void theCheckDigitCatchesEverySingleMistypedCharacter() {
+        String code = TicketCodes.format(31_415_926);
+        for (int position = 7; position < code.length(); position++) {
+            for (char typo : ALPHABET.toCharArray()) {
+                if (typo == code.charAt(position)) {
+                    continue;
+                }
+                String mistyped = code.substring(0, position) + typo + code.substring(position + 1);
+                assertFalse(TicketCodes.isValid(mistyped), mistyped);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package nl.novi.event_management_system.utils;
+
+import nl.novi.event_management_system.enums.TicketType;
+import nl.novi.event_management_system.utils.TicketTokenSigner.TicketTokenClaims;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketTokenSignerTest {
+    private static final String SECRET_KEY = "eengeheimesleuteldieniemandmagwetenenhijmoetheelerglangencomplexzijnomtevoldoenaanallenormenenwaardeninjavaland";
+
+    private final TicketTokenSigner signer = new TicketTokenSigner(SECRET_KEY);
+    private final TicketTokenClaims claims = new TicketTokenClaims(UUID.randomUUID(), UUID.randomUUID(), TicketType.VIP,
+            Instant.ofEpochSecond(1_750_000_000), Instant.ofEpochSecond(1_750_086_400));
+
+    @Test
+    void aSignedTokenVerifiesToItsClaims() {
+        String token = signer.sign(claims);
+
+        assertEquals(claims, signer.verify(token));
+        // Small enough for a low density QR code
+        assertTrue(token.length() <= 80, token);
+        assertTrue(token.matches("^[A-Za-z0-9_-]+$"), token);
+    }
+
+    @Test
+    void theTicketTypeIsSignedAsItsFixedCode() {
+        for (TicketType ticketType : TicketType.values()) {
+            TicketTokenClaims typed = new TicketTokenClaims(claims.ticketId(), claims.eventId(), ticketType,
+                    claims.validFrom(), claims.validUntil());
+            byte[] bytes = Base64.getUrlDecoder().decode(signer.sign(typed));
+
+            // After the version and the two IDs
+            assertEquals(ticketType.getCode(), bytes[33]);
+            assertEquals(ticketType, signer.verify(signer.sign(typed)).ticketType());
+        }
+    }
+
+    @Test
+    void ticketTypeCodesNeverChange() {
+        // Tokens already handed out carry these codes
+        assertEquals(0, TicketType.VIP.getCode());
+        assertEquals(1, TicketType.STANDARD.getCode());
+        assertEquals(2, TicketType.FREE.getCode());
+        assertEquals(3, TicketType.STUDENT.getCode());
+        assertEquals(4, TicketType.BACKSTAGE.getCode());
+        assertEquals(TicketType.values().length, Arrays.stream(TicketType.values()).map(TicketType::getCode).distinct().count());
+        assertTrue(TicketType.fromCode(TicketType.values().length).isEmpty());
+        assertTrue(TicketType.fromCode(-1).isEmpty());
+    }
+
+    @Test
+    void aChangedByteIsDetected() {
+        byte[] bytes = Base64.getUrlDecoder().decode(signer.sign(claims));
+        for (int i = 1; i < bytes.length; i++) {
+            byte[] tampered = bytes.clone();
+            tampered[i] ^= 1;
+            String token = Base64.getUrlEncoder().withoutPadding().encodeToString(tampered);
+            assertThrows(IllegalArgumentException.class, () -> signer.verify(token), "byte " + i);
+        }
+    }
+
+    @Test
+    void aTokenOfAnotherKeyIsRejected() {
+        TicketTokenSigner otherSigner = new TicketTokenSigner(SECRET_KEY.replace('e', 'a'));
+
+        assertThrows(IllegalArgumentException.class, () -> signer.verify(otherSigner.sign(claims)));
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> signer.verify("not a token!"));
+        assertThrows(IllegalArgumentException.class, () -> signer.verify("AAAA"));
+        assertThrows(IllegalArgumentException.class, () -> signer.verify(""));
+    }
+}
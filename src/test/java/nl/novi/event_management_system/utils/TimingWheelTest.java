@@ -0,0 +1,76 @@
+package nl.novi.event_management_system.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void keysAreHandedOutOnceTheirDeadlineHasPassed() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 400);
+
+        assertEquals(List.of(), wheel.advance(200));
+        assertEquals(List.of("a"), wheel.advance(300));
+        assertEquals(List.of("b"), wheel.advance(400));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlinesBeyondOneRevolutionWaitForTheirRound() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 4, 0);
+        // Tick 10 shares its bucket with ticks 2 and 6
+        wheel.schedule("late", 1000);
+
+        assertEquals(List.of(), wheel.advance(200));
+        assertEquals(List.of(), wheel.advance(600));
+        assertEquals(List.of(), wheel.advance(900));
+        assertEquals(List.of("late"), wheel.advance(1000));
+    }
+
+    @Test
+    void aLongPauseHandsOutEverythingThatBecameDue() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 16, 0);
+        IntStream.range(0, 100).forEach(i -> wheel.schedule(i, i * 10L + 10));
+
+        List<Integer> due = wheel.advance(5_000);
+
+        assertEquals(100, due.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void aDeadlineInThePastIsDueAtTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 1_000);
+        wheel.schedule("overdue", 0);
+
+        assertEquals(List.of("overdue"), wheel.advance(1_100));
+    }
+
+    @Test
+    void cancelledAndRescheduledKeysAreNotHandedOutAtTheOldDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+        wheel.schedule("cancelled", 100);
+        wheel.schedule("moved", 100);
+        wheel.schedule("moved", 500);
+
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("unknown"));
+        assertEquals(List.of(), wheel.advance(400));
+        assertEquals(Set.of("moved"), Set.copyOf(wheel.advance(500)));
+    }
+
+    @Test
+    void wheelSizeIsRoundedUpToAPowerOfTwo() {
+        assertEquals(8, new TimingWheel<>(100, 5, 0).getWheelSize());
+        assertEquals(8, new TimingWheel<>(100, 8, 0).getWheelSize());
+        assertEquals(1, new TimingWheel<>(100, 1, 0).getWheelSize());
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel<>(0, 8, 0));
+    }
+}